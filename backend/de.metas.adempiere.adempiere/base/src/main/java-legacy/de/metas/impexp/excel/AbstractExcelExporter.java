@@ -45,6 +45,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.compiere.Adempiere;
 import org.compiere.util.DisplayType;
 import org.compiere.util.Env;
@@ -548,7 +549,18 @@ public abstract class AbstractExcelExporter
 	public final void export(@NonNull final OutputStream out) throws IOException
 	{
 		Workbook workbook = exportToWorkbook();
-		workbook.write(out);
+		try
+		{
+			workbook.write(out);
+		}
+		finally
+		{
+			// a streaming workbook keeps the flushed rows in temporary files until it is disposed
+			if (workbook instanceof SXSSFWorkbook)
+			{
+				((SXSSFWorkbook)workbook).dispose();
+			}
+		}
 		out.close();
 	}
 
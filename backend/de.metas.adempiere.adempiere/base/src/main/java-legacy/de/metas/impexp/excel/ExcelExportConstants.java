@@ -34,7 +34,7 @@ import lombok.Value;
  */
 
 @Value
-@Builder
+@Builder(toBuilder = true)
 public class ExcelExportConstants
 {
 	public static ExcelExportConstants givenOrDefault(@Nullable final ExcelExportConstants constants)
@@ -61,8 +61,9 @@ public class ExcelExportConstants
 	@Default
 	private int maxRowsToAllowCellWidthAutoSize = DEFAULT_MaxRowsToAllowCellWidthAutoSize;
 
-	public static final boolean DEFAULT_UseStreamingWorkbookImplementation = false;
-	private boolean useStreamingWorkbookImplementation;
+	public static final boolean DEFAULT_UseStreamingWorkbookImplementation = true;
+	@Default
+	private boolean useStreamingWorkbookImplementation = DEFAULT_UseStreamingWorkbookImplementation;
 
 	public static final int DEFAULT_ALL_ROWS_PAGE_SIZE = 10000;
 	@Default
@@ -47,6 +47,7 @@ import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.exceptions.DBMoreThanOneRecordsFoundException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.text.TokenizedStringBuilder;
 import org.compiere.Adempiere;
 import org.compiere.model.IQuery;
@@ -63,6 +64,7 @@ import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 
 import de.metas.common.util.CoalesceUtil;
+import de.metas.connection.ReadReplicaRouting;
 import de.metas.dao.selection.pagination.PaginationService;
 import de.metas.dao.selection.pagination.QueryResultPage;
 import de.metas.logging.LogManager;
@@ -307,7 +309,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 
 			final boolean readOnly = isReadOnlyRecords();
@@ -399,6 +401,21 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		return first(null);
 	}
 
+	/**
+	 * Prepares a SELECT statement. If {@link #OPTION_ReadFromReplica} is set, the statement is routed to the read replica (unless we are running in a transaction).
+	 */
+	private PreparedStatement prepareSelectStatement(final String sql)
+	{
+		if (isReadFromReplica())
+		{
+			try (final IAutoCloseable ignored = ReadReplicaRouting.temporaryRouteToReadReplica())
+			{
+				return DB.prepareStatement(sql, trxName);
+			}
+		}
+		return DB.prepareStatement(sql, trxName);
+	}
+
 	@Override
 	public <ET extends T> ET first(final Class<ET> clazz) throws DBException
 	{
@@ -421,7 +438,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, trxName);
+			pstmt = prepareSelectStatement(sql);
 
 			// Optimization: if we don't have post-query filters, it's fine to set the Maximum Rows to fetch to one.
 			if (postQueryFilter == null)
@@ -482,7 +499,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 			model = retrieveNextModel(rs, clazz);
 
@@ -544,7 +561,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 			if (rs.next())
 			{
@@ -715,7 +732,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, this.trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 			while (rs.next())
 			{
@@ -806,7 +823,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, this.trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 			while (rs.next())
 			{
@@ -874,7 +891,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, this.trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 
 			//
@@ -994,7 +1011,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		POResultSet<ET> rsPO = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 			rsPO = new POResultSet<>(ctx, tableName, clazz, pstmt, rs, trxName);
 			rsPO.setCloseOnError(true);
@@ -1334,7 +1351,7 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql, trxName);
+			pstmt = prepareSelectStatement(sql);
 			rs = createResultSet(pstmt);
 			while (rs.next())
 			{
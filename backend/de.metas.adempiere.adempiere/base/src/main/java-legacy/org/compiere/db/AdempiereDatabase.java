@@ -205,6 +205,16 @@ public interface AdempiereDatabase
 	 */
 	public Connection getCachedConnection(CConnection connection, boolean autoCommit, int transactionIsolation) throws Exception;
 
+	/**
+	 * Get a read-only connection to the read replica database
+	 *
+	 * @param connection info of the primary database
+	 * @param autoCommit true if autocommit connection
+	 * @param transactionIsolation Connection transaction level
+	 * @return connection or null if there is no read replica or if it's currently not usable (e.g. too stale); the caller shall use the primary database in that case
+	 */
+	public Connection getCachedReadReplicaConnectionOrNull(CConnection connection, boolean autoCommit, int transactionIsolation);
+
 	/**
 	 * Get Driver Connection
 	 *
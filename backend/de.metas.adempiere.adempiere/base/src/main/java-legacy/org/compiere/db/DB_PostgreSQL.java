@@ -27,6 +27,7 @@ import java.sql.Statement;
 import java.sql.Types;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.sql.DataSource;
 
@@ -48,7 +49,9 @@ import com.google.common.collect.ImmutableList;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 import com.mchange.v2.resourcepool.BasicResourcePool_MetasfreshObserver;
 
+import de.metas.connection.impl.ConnectionPoolStatistics;
 import de.metas.connection.impl.DB_PostgreSQL_ConnectionCustomizer;
+import de.metas.connection.impl.ReadReplicaDataSource;
 import de.metas.logging.LogManager;
 import de.metas.util.Check;
 import de.metas.util.SystemUtils;
@@ -75,6 +78,10 @@ public class DB_PostgreSQL implements AdempiereDatabase
 	private static final String CONFIG_UnreturnedConnectionTimeoutMillis = "db.postgresql.unreturnedConnectionTimeoutMillis";
 	private static final Duration CONFIG_UnreturnedConnectionTimeoutMillis_DefaultValue = Duration.ofHours(2);
 
+	private static final String CONFIG_PrepareThreshold = "db.postgresql.prepareThreshold";
+	private static final String CONFIG_PreparedStatementCacheQueries = "db.postgresql.preparedStatementCacheQueries";
+	private static final String CONFIG_PreparedStatementCacheSizeMiB = "db.postgresql.preparedStatementCacheSizeMiB";
+
 	/**
 	 * Statement Converter for external use (i.e. returned by {@link #getConvert()}.
 	 */
@@ -112,6 +119,8 @@ public class DB_PostgreSQL implements AdempiereDatabase
 	private transient ComboPooledDataSource _dataSource = null;
 	private transient volatile boolean _dataSourceInitialized = false;
 	private final Object _dataSourceLock = new Object();
+	/** Read replica data source; null if no read replica is configured */
+	private transient ReadReplicaDataSource _readReplicaDataSource = null;
 
 	/** Cached Database Name */
 	private String m_dbName = null;
@@ -124,6 +133,8 @@ public class DB_PostgreSQL implements AdempiereDatabase
 	/** Logger */
 	private static final Logger log = LogManager.getLogger(DB_PostgreSQL.class);
 	private int m_maxBusyConnectionsThreshold = 0;
+	private static final long FINALIZATION_MIN_INTERVAL_MILLIS = 60 * 1000;
+	private final AtomicLong lastFinalizationRunMillis = new AtomicLong(0);
 
 	/**
 	 * PostgreSQL Database
@@ -263,9 +274,25 @@ public class DB_PostgreSQL implements AdempiereDatabase
 				.append(dbHost).append(":").append(dbPort)
 				.append("/").append(dbName)
 				.append("?encoding=UNICODE");
+
+		// The JDBC driver keeps a per-connection LRU cache of prepared statements, keyed by SQL text (preparedStatementCacheQueries, default 256).
+		// After prepareThreshold (default 5) executions of the same SQL on a connection, it switches to a server-side prepared statement, so PostgreSQL can reuse the plan.
+		appendDriverParameterIfSet(sb, "prepareThreshold", CONFIG_PrepareThreshold);
+		appendDriverParameterIfSet(sb, "preparedStatementCacheQueries", CONFIG_PreparedStatementCacheQueries);
+		appendDriverParameterIfSet(sb, "preparedStatementCacheSizeMiB", CONFIG_PreparedStatementCacheSizeMiB);
+
 		return sb.toString();
 	}	// getConnectionURL
 
+	private static void appendDriverParameterIfSet(final StringBuilder url, final String parameterName, final String systemPropertyName)
+	{
+		final String value = System.getProperty(systemPropertyName);
+		if (value != null && !value.trim().isEmpty())
+		{
+			url.append("&").append(parameterName).append("=").append(value.trim());
+		}
+	}
+
 	/**
 	 * Get JDBC Catalog
 	 *
@@ -335,6 +362,13 @@ public class DB_PostgreSQL implements AdempiereDatabase
 			sb.append(" , # Busy Connections: ").append(dataSource.getNumBusyConnections()).append("/").append(m_maxBusyConnectionsThreshold);
 			sb.append(" , # Idle Connections: ").append(dataSource.getNumIdleConnections());
 			sb.append(" , # Orphaned Connections: ").append(dataSource.getNumUnclosedOrphanedConnections());
+			sb.append("\n\t ").append(ConnectionPoolStatistics.instance);
+
+			final ReadReplicaDataSource readReplicaDataSource = this._readReplicaDataSource;
+			if (readReplicaDataSource != null)
+			{
+				sb.append("\n\t ").append(readReplicaDataSource.getStatus());
+			}
 
 			if (dataSource.isDebugUnreturnedConnectionStackTraces())
 			{
@@ -463,13 +497,16 @@ public class DB_PostgreSQL implements AdempiereDatabase
 				throw new DBNoConnectionException("Data source could not be retrieved for " + connection);
 			}
 
+			final long acquireStartNanos = System.nanoTime();
 			conn = m_ds.getConnection();
+			ConnectionPoolStatistics.instance.recordAcquireWait(System.nanoTime() - acquireStartNanos);
+
 			conn.setAutoCommit(autoCommit);
 			conn.setTransactionIsolation(transactionIsolation);
 
 			final int numConnections = m_ds.getNumBusyConnections();
 			final int maxBusyconnectionsThreshold = this.m_maxBusyConnectionsThreshold;
-			if (numConnections >= maxBusyconnectionsThreshold && maxBusyconnectionsThreshold > 0)
+			if (numConnections >= maxBusyconnectionsThreshold && maxBusyconnectionsThreshold > 0 && isFinalizationRunAllowed())
 			{
 				// metas-ts: i think running the finalizer won't be a big help, but anyways, exhausting the connection pool is usually an issue
 				// suggestions to consider:
@@ -511,6 +548,29 @@ public class DB_PostgreSQL implements AdempiereDatabase
 		}
 	}	// getCachedConnection
 
+	@Override
+	public Connection getCachedReadReplicaConnectionOrNull(final CConnection connection, final boolean autoCommit, final int transactionIsolation)
+	{
+		getDataSource(connection); // make sure the data sources are initialized
+
+		final ReadReplicaDataSource readReplicaDataSource = this._readReplicaDataSource;
+		return readReplicaDataSource != null
+				? readReplicaDataSource.getConnectionOrNull(autoCommit, transactionIsolation)
+				: null;
+	}
+
+	/**
+	 * When the pool is (almost) exhausted, every thread that acquires a connection would run the finalization and build the status.
+	 * That makes the situation even worse, so we do it at most once per {@link #FINALIZATION_MIN_INTERVAL_MILLIS}.
+	 */
+	private boolean isFinalizationRunAllowed()
+	{
+		final long now = System.currentTimeMillis();
+		final long lastRun = lastFinalizationRunMillis.get();
+		return now - lastRun >= FINALIZATION_MIN_INTERVAL_MILLIS
+				&& lastFinalizationRunMillis.compareAndSet(lastRun, now);
+	}
+
 	/**
 	 * Gets current {@link DataSource}.
 	 *
@@ -551,6 +611,11 @@ public class DB_PostgreSQL implements AdempiereDatabase
 					final int maxBusyConnectionsThreshold = this.m_maxBusyConnectionsThreshold = (int)(dataSource.getMaxPoolSize() * 0.80);
 					log.info("MaxBusyConnectionsThreshold={}", maxBusyConnectionsThreshold);
 
+					if (!Ini.isSwingClient())
+					{
+						this._readReplicaDataSource = ReadReplicaDataSource.createOrNull(this, connection, DRIVER);
+					}
+
 					_dataSourceInitialized = true;
 				}
 			}
@@ -657,6 +722,20 @@ public class DB_PostgreSQL implements AdempiereDatabase
 				_dataSource = null;
 				_dataSourceInitialized = false;
 			}
+
+			if (_readReplicaDataSource != null)
+			{
+				try
+				{
+					_readReplicaDataSource.close();
+				}
+				catch (Exception e)
+				{
+					// NOTE: don't use logger because it might involve database connection
+					e.printStackTrace();
+				}
+				_readReplicaDataSource = null;
+			}
 		}
 	}
 
@@ -21,11 +21,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Hashtable;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -66,6 +66,8 @@ import org.springframework.context.ApplicationContext;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimaps;
 
 import de.metas.impexp.processing.IImportInterceptor;
@@ -437,14 +439,22 @@ public class ModelValidationEngine implements IModelValidationEngine
 
 	/** Validators */
 	private ArrayList<ModelValidator> m_validators = new ArrayList<>();
-	/** Model Change Listeners */
-	private Hashtable<String, ArrayList<ModelValidator>> m_modelChangeListeners = new Hashtable<>();
-	/** Document Validation Listeners */
-	private Hashtable<String, ArrayList<ModelValidator>> m_docValidateListeners = new Hashtable<>();
+	/**
+	 * Model Change Listeners.
+	 * Note: the lists are immutable and replaced on (un)registration, so firing an event needs no locking and can't see a list that is being modified.
+	 */
+	private final Map<String, ImmutableList<ModelValidator>> m_modelChangeListeners = new ConcurrentHashMap<>();
+	/** Document Validation Listeners; see {@link #m_modelChangeListeners} */
+	private final Map<String, ImmutableList<ModelValidator>> m_docValidateListeners = new ConcurrentHashMap<>();
 	/** Data Import Validation Listeners */
 	private Hashtable<String, ArrayList<IImportInterceptor>> m_impValidateListeners = new Hashtable<>();
 
-	private ArrayList<ModelValidator> m_globalValidators = new ArrayList<>();
+	/**
+	 * Global validators, i.e. the ones which apply for all clients.
+	 * Note: the set is immutable and replaced on registration, so {@link #appliesFor(ModelValidator, int)} needs no locking on each event.
+	 * It's a hash set and not an identity set, because wrapper validators (e.g. {@link ModelInterceptor2ModelValidatorWrapper}) are compared by equals.
+	 */
+	private volatile ImmutableSet<ModelValidator> m_globalValidators = ImmutableSet.of();
 
 	/**
 	 * Contains model validators for subsequent processing. The boolean value tells if the subsequent processing takes place directly when fireModelChange() is invoked with this type (
@@ -619,26 +629,8 @@ public class ModelValidationEngine implements IModelValidationEngine
 		{
 			registerGlobal(listener);
 		}
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_modelChangeListeners.get(propertyName);
-		if (list == null)
-		{
-			list = new ArrayList<>();
-			list.add(listener);
-			m_modelChangeListeners.put(propertyName, list);
-		}
-		else
-		{
-			// metas: add listener only if is not already added
-			if (!list.contains(listener))
-			{
-				list.add(listener);
-			}
-			else
-			{
-				logger.debug("Listener " + listener + " already added for " + propertyName);
-			}
-		}
+		final String propertyName = getPropertyName(tableName, listener);
+		addListener(m_modelChangeListeners, propertyName, listener);
 	}	// addModelValidator
 
 	@Override
@@ -668,19 +660,43 @@ public class ModelValidationEngine implements IModelValidationEngine
 			return;
 		}
 
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_modelChangeListeners.get(propertyName);
-		if (list == null)
-		{
-			return;
-		}
-		list.remove(listener);
-		if (list.size() == 0)
-		{
-			m_modelChangeListeners.remove(propertyName);
-		}
+		final String propertyName = getPropertyName(tableName, listener);
+		removeListener(m_modelChangeListeners, propertyName, listener);
 	}	// removeModelValidator
 
+	private static void addListener(
+			@NonNull final Map<String, ImmutableList<ModelValidator>> listeners,
+			@NonNull final String propertyName,
+			@NonNull final ModelValidator listener)
+	{
+		listeners.compute(propertyName, (key, list) -> {
+			if (list == null)
+			{
+				return ImmutableList.of(listener);
+			}
+			// metas: add listener only if is not already added
+			if (list.contains(listener))
+			{
+				logger.debug("Listener {} already added for {}", listener, propertyName);
+				return list;
+			}
+			return ImmutableList.<ModelValidator> builder().addAll(list).add(listener).build();
+		});
+	}
+
+	private static void removeListener(
+			@NonNull final Map<String, ImmutableList<ModelValidator>> listeners,
+			@NonNull final String propertyName,
+			@NonNull final ModelValidator listener)
+	{
+		listeners.computeIfPresent(propertyName, (key, list) -> {
+			final ImmutableList<ModelValidator> newList = list.stream()
+					.filter(item -> !item.equals(listener))
+					.collect(ImmutableList.toImmutableList());
+			return newList.isEmpty() ? null : newList;
+		});
+	}
+
 	@Override
 	public void removeModelChange(String tableName, IModelInterceptor interceptor)
 	{
@@ -937,9 +953,33 @@ public class ModelValidationEngine implements IModelValidationEngine
 			@NonNull final ModelChangeType changeType,
 			@NonNull final List<ModelValidator> validators)
 	{
+		final PerformanceMonitoringService performanceMonitoringService = SpringContextHolder.instance.getBeanOr(PerformanceMonitoringService.class, NoopPerformanceMonitoringService.INSTANCE);
+		if (performanceMonitoringService instanceof NoopPerformanceMonitoringService)
+		{
+			for (final ModelValidator validator : validators)
+			{
+				invokeModelChangeMethod(po, changeType, validator);
+			}
+			return;
+		}
+
+		// monitoring is enabled => also record the cost of each individual interceptor, so it can be aggregated per table and interceptor
+		final String tableName = po.get_TableName();
+		final String changeTypeStr = changeType.toString();
 		for (final ModelValidator validator : validators)
 		{
-			invokeModelChangeMethod(po, changeType, validator);
+			final String interceptorName = validator.toString();
+			performanceMonitoringService.monitorSpan(
+					() -> invokeModelChangeMethod(po, changeType, validator),
+					SpanMetadata
+							.builder()
+							.name(changeTypeStr + " " + tableName + " " + interceptorName)
+							.type(Type.MODEL_INTERCEPTOR.getCode())
+							.subType(SubType.MODEL_CHANGE.getCode())
+							.action(changeTypeStr)
+							.label("tableName", tableName)
+							.label("interceptor", interceptorName)
+							.build());
 		}
 	}
 
@@ -995,18 +1035,8 @@ public class ModelValidationEngine implements IModelValidationEngine
 		{
 			registerGlobal(listener);
 		}
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_docValidateListeners.get(propertyName);
-		if (list == null)
-		{
-			list = new ArrayList<>();
-			list.add(listener);
-			m_docValidateListeners.put(propertyName, list);
-		}
-		else if (!list.contains(listener))
-		{
-			list.add(listener);
-		}
+		final String propertyName = getPropertyName(tableName, listener);
+		addListener(m_docValidateListeners, propertyName, listener);
 	}	// addDocValidate
 
 	@Override
@@ -1033,17 +1063,8 @@ public class ModelValidationEngine implements IModelValidationEngine
 		{
 			return;
 		}
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_docValidateListeners.get(propertyName);
-		if (list == null)
-		{
-			return;
-		}
-		list.remove(listener);
-		if (list.size() == 0)
-		{
-			m_docValidateListeners.remove(propertyName);
-		}
+		final String propertyName = getPropertyName(tableName, listener);
+		removeListener(m_docValidateListeners, propertyName, listener);
 	}	// removeDocValidate
 
 	/**
@@ -1188,9 +1209,33 @@ public class ModelValidationEngine implements IModelValidationEngine
 			final DocTimingType docTiming,
 			final List<ModelValidator> interceptors)
 	{
+		final PerformanceMonitoringService performanceMonitoringService = SpringContextHolder.instance.getBeanOr(PerformanceMonitoringService.class, NoopPerformanceMonitoringService.INSTANCE);
+		if (performanceMonitoringService instanceof NoopPerformanceMonitoringService)
+		{
+			for (final ModelValidator interceptor : interceptors)
+			{
+				invokeDocValidateMethod(po, docTiming, interceptor);
+			}
+			return;
+		}
+
+		// monitoring is enabled => also record the cost of each individual interceptor; see invokeModelChangeMethods
+		final String tableName = po.get_TableName();
+		final String docTimingStr = docTiming.toString();
 		for (final ModelValidator interceptor : interceptors)
 		{
-			invokeDocValidateMethod(po, docTiming, interceptor);
+			final String interceptorName = interceptor.toString();
+			performanceMonitoringService.monitorSpan(
+					() -> invokeDocValidateMethod(po, docTiming, interceptor),
+					SpanMetadata
+							.builder()
+							.name(docTimingStr + " " + tableName + " " + interceptorName)
+							.type(Type.MODEL_INTERCEPTOR.getCode())
+							.subType(SubType.DOC_VALIDATE.getCode())
+							.action(docTimingStr)
+							.label("tableName", tableName)
+							.label("interceptor", interceptorName)
+							.build());
 		}
 	}
 
@@ -1298,40 +1343,36 @@ public class ModelValidationEngine implements IModelValidationEngine
 			sb = new StringBuilder();
 		}
 		sb.append("=== ModelValidationEngine ===").append(Env.NL);
-		sb.append("Validators #").append(m_validators.size()).append(Env.NL);
-		for (ModelValidator mv : m_validators)
+		// NOTE: iterate snapshots, because listeners might be (un)registered meanwhile
+		final ImmutableList<ModelValidator> validators = ImmutableList.copyOf(m_validators);
+		sb.append("Validators #").append(validators.size()).append(Env.NL);
+		for (ModelValidator mv : validators)
 		{
 			sb.append(mv.toString()).append(Env.NL);
 		}
 		sb.append(Env.NL).append(Env.NL);
 		//
-		sb.append("ModelChange #").append(m_modelChangeListeners.size()).append(Env.NL);
-		Iterator<String> it = m_modelChangeListeners.keySet().iterator();
-		while (it.hasNext())
-		{
-			String key = it.next();
-			ArrayList<ModelValidator> list = m_modelChangeListeners.get(key);
-			for (ModelValidator mv : list)
-			{
-				sb.append(key).append(": ").append(mv.toString()).append(Env.NL);
-			}
-		}
-		sb.append(Env.NL).append(Env.NL);
+		appendListenersInfo(sb, "ModelChange", ImmutableMap.copyOf(m_modelChangeListeners));
+		//
+		appendListenersInfo(sb, "DocValidate", ImmutableMap.copyOf(m_docValidateListeners));
 		//
-		sb.append("DocValidate #").append(m_docValidateListeners.size()).append(Env.NL);
-		it = m_docValidateListeners.keySet().iterator();
-		while (it.hasNext())
+		return sb;
+	}
+
+	private static void appendListenersInfo(
+			@NonNull final StringBuilder sb,
+			@NonNull final String title,
+			@NonNull final ImmutableMap<String, ImmutableList<ModelValidator>> listeners)
+	{
+		sb.append(title).append(" #").append(listeners.size()).append(Env.NL);
+		for (final Map.Entry<String, ImmutableList<ModelValidator>> entry : listeners.entrySet())
 		{
-			String key = it.next();
-			ArrayList<ModelValidator> list = m_docValidateListeners.get(key);
-			for (ModelValidator mv : list)
+			for (final ModelValidator mv : entry.getValue())
 			{
-				sb.append(key).append(": ").append(mv.toString()).append(Env.NL);
+				sb.append(entry.getKey()).append(": ").append(mv.toString()).append(Env.NL);
 			}
 		}
 		sb.append(Env.NL).append(Env.NL);
-		//
-		return sb;
 	}
 
 	/**
@@ -1414,7 +1455,7 @@ public class ModelValidationEngine implements IModelValidationEngine
 	{
 		if (!m_globalValidators.contains(validator))
 		{
-			m_globalValidators.add(validator);
+			m_globalValidators = ImmutableSet.<ModelValidator> builder().addAll(m_globalValidators).add(validator).build();
 		}
 	}
 
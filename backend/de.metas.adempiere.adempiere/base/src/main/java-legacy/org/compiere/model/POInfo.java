@@ -30,6 +30,7 @@ import java.util.concurrent.Callable;
 import org.adempiere.ad.table.api.AdTableId;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.exceptions.DBException;
 import org.adempiere.model.POWrapper;
 import org.compiere.util.DB;
 import org.compiere.util.DisplayType;
@@ -183,6 +184,73 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 	private static final CCache<Integer, Optional<POInfo>> s_cache = new CCache<>(CACHE_PREFIX, 200);
 	private static final CCache<String, Optional<POInfo>> s_cacheByTableNameUC = new CCache<>(CACHE_PREFIX + "#ByTableName", 200);
 
+	/**
+	 * Loads the POInfos of all tables with one single query and adds them to cache.
+	 * Intended to be called on server startup, so that we don't run one query per table when the tables are accessed for the first time.
+	 *
+	 * @return number of loaded POInfos
+	 */
+	public static int loadAllIntoCache()
+	{
+		final String sql = SQL_SelectTableAndColumns
+				+ " WHERE c.IsActive='Y'"
+				+ " ORDER BY t.AD_Table_ID";
+
+		int countLoaded = 0;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
+			rs = pstmt.executeQuery();
+
+			POInfo poInfo = null;
+			List<POInfoColumn> columns = null;
+			while (rs.next())
+			{
+				final int adTableId = rs.getInt(I_AD_Table.COLUMNNAME_AD_Table_ID);
+				if (poInfo == null || poInfo.getAD_Table_ID() != adTableId)
+				{
+					if (poInfo != null)
+					{
+						addToCache(poInfo, columns);
+						countLoaded++;
+					}
+
+					poInfo = new POInfo();
+					poInfo.loadTableInfo(rs);
+					columns = new ArrayList<>(20);
+				}
+				columns.add(poInfo.loadColumn(rs));
+			}
+
+			if (poInfo != null)
+			{
+				addToCache(poInfo, columns);
+				countLoaded++;
+			}
+		}
+		catch (final SQLException e)
+		{
+			throw new DBException(e, sql);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+		}
+
+		return countLoaded;
+	}
+
+	private static void addToCache(@NonNull final POInfo poInfo, @NonNull final List<POInfoColumn> columns)
+	{
+		poInfo.setColumns(columns);
+
+		final Optional<POInfo> poInfoOptional = Optional.of(poInfo);
+		s_cache.put(poInfo.getAD_Table_ID(), poInfoOptional);
+		s_cacheByTableNameUC.put(poInfo.getTableNameUC(), poInfoOptional);
+	}
+
 	/** Table_ID */
 	private int m_AD_Table_ID = 0;
 	/** Table Name */
@@ -232,6 +300,38 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 		loadInfo(trxName);
 	}   // PInfo
 
+	/** Used by {@link #loadAllIntoCache()}; the instance is initialized by {@link #loadTableInfo(ResultSet)} and {@link #setColumns(List)} */
+	private POInfo()
+	{
+	}
+
+	private static final String SQL_SelectTableAndColumns = "SELECT t.TableName, c.ColumnName,c.AD_Reference_ID,"		// 1..3
+			+ "c.IsMandatory,c.IsUpdateable,c.DefaultValue, "				// 4..6
+			+ "e.Name, "													// 7
+			+ "e.Description, "												// 8
+			+ "c.AD_Column_ID, "											// 9
+			+ "c.IsKey,c.IsParent, "										// 10..11
+			+ "c.AD_Reference_Value_ID, "									// 12
+			+ "vr.Code, "													// 13
+			+ "c.FieldLength, c.ValueMin, c.ValueMax, c.IsTranslated"		// 14..17
+			+ ",t.AccessLevel"												// 18
+			+ ",c.ColumnSQL"												// 19
+			+ ",c.IsEncrypted "												// 20
+			+ ",c.IsAllowLogging"											// 21
+			+ ",t.IsChangeLog "												// 22
+			+ ",c.IsLazyLoading "											// 23
+			+ ",c.IsCalculated "											// 24 // metas
+			+ ",c.AD_Val_Rule_ID "											// 25 // metas
+			+ ",t.AD_Table_ID "												// 26 // metas
+			+ ",c." + I_AD_Column.COLUMNNAME_IsUseDocSequence				// 27 // metas: 05133
+			+ ",c." + I_AD_Column.COLUMNNAME_IsStaleable					// 28 // metas: 01537
+			+ ",c." + I_AD_Column.COLUMNNAME_IsSelectionColumn				// 29 // metas
+			+ ",t." + I_AD_Table.COLUMNNAME_IsView							// 30 // metas
+			+ " FROM AD_Table t "
+			+ " INNER JOIN AD_Column c ON (t.AD_Table_ID=c.AD_Table_ID) "
+			+ " LEFT OUTER JOIN AD_Val_Rule vr ON (c.AD_Val_Rule_ID=vr.AD_Val_Rule_ID) "
+			+ " INNER JOIN AD_Element e ON (c.AD_Element_ID=e.AD_Element_ID) ";
+
 	/**
 	 * Load Table/Column Info into this instance. If the select returns no result, nothing is loaded and no error is raised.
 	 *
@@ -240,47 +340,16 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 	private void loadInfo(final String trxName)
 	{
 		final List<POInfoColumn> list = new ArrayList<>(20);
-		final StringBuilder sql = new StringBuilder();
-		sql.append("SELECT t.TableName, c.ColumnName,c.AD_Reference_ID,"		// 1..3
-				+ "c.IsMandatory,c.IsUpdateable,c.DefaultValue, "				// 4..6
-				+ "e.Name, "													// 7
-				+ "e.Description, "												// 8
-				+ "c.AD_Column_ID, "											// 9
-				+ "c.IsKey,c.IsParent, "										// 10..11
-				+ "c.AD_Reference_Value_ID, "									// 12
-				+ "vr.Code, "													// 13
-				+ "c.FieldLength, c.ValueMin, c.ValueMax, c.IsTranslated"		// 14..17
-				+ ",t.AccessLevel"												// 18
-				+ ",c.ColumnSQL"												// 19
-				+ ",c.IsEncrypted "												// 20
-				+ ",c.IsAllowLogging"											// 21
-				+ ",t.IsChangeLog "												// 22
-				+ ",c.IsLazyLoading "											// 23
-				+ ",c.IsCalculated "											// 24 // metas
-				+ ",c.AD_Val_Rule_ID "											// 25 // metas
-				+ ",t.AD_Table_ID "												// 26 // metas
-				+ ",c." + I_AD_Column.COLUMNNAME_IsUseDocSequence				// 27 // metas: 05133
-				+ ",c." + I_AD_Column.COLUMNNAME_IsStaleable					// 28 // metas: 01537
-				+ ",c." + I_AD_Column.COLUMNNAME_IsSelectionColumn				// 29 // metas
-				+ ",t." + I_AD_Table.COLUMNNAME_IsView							// 30 // metas
-		);
-		sql.append(" FROM AD_Table t "
-				+ " INNER JOIN AD_Column c ON (t.AD_Table_ID=c.AD_Table_ID) "
-				+ " LEFT OUTER JOIN AD_Val_Rule vr ON (c.AD_Val_Rule_ID=vr.AD_Val_Rule_ID) "
-				+ " INNER JOIN AD_Element e ON (c.AD_Element_ID=e.AD_Element_ID) ");
-		sql.append(" WHERE "
+		final String sql = SQL_SelectTableAndColumns
+				+ " WHERE "
 				+ (m_AD_Table_ID <= 0 ? "UPPER(t.TableName)=UPPER(?)" : "t.AD_Table_ID=?")
-				+ " AND c.IsActive='Y'");
-		//
-		final List<String> keyColumnNames = new ArrayList<>();
-		final List<String> parentColumnNames = new ArrayList<>();
-		boolean tableInfoLoaded = false;
+				+ " AND c.IsActive='Y'";
 		//
 		PreparedStatement pstmt = null;
 		ResultSet rs = null;
 		try
 		{
-			pstmt = DB.prepareStatement(sql.toString(), trxName);
+			pstmt = DB.prepareStatement(sql, trxName);
 			if (m_AD_Table_ID <= 0)
 			{
 				pstmt.setString(1, m_TableName);
@@ -292,83 +361,16 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 			rs = pstmt.executeQuery();
 			while (rs.next())
 			{
-				if (!tableInfoLoaded)
-				{
-					m_TableName = rs.getString(I_AD_Table.COLUMNNAME_TableName);
-					m_AD_Table_ID = rs.getInt(I_AD_Table.COLUMNNAME_AD_Table_ID);
-					m_isView = "Y".equals(rs.getString(I_AD_Table.COLUMNNAME_IsView));
-					m_AccessLevel = TableAccessLevel.forAccessLevel(rs.getString(I_AD_Table.COLUMNNAME_AccessLevel));
-					m_IsChangeLog = "Y".equals(rs.getString(I_AD_Table.COLUMNNAME_IsChangeLog));
-					//
-					tableInfoLoaded = true;
-				}
-
-				String ColumnName = rs.getString(2);
-				int AD_Reference_ID = rs.getInt(3);
-				boolean IsMandatory = "Y".equals(rs.getString(4));
-				boolean IsUpdateable = "Y".equals(rs.getString(5));
-				String DefaultLogic = rs.getString(6);
-				String Name = rs.getString(7);
-				String Description = rs.getString(8);
-				int AD_Column_ID = rs.getInt(9);
-
-				final boolean IsKey = "Y".equals(rs.getString(10));
-				if (IsKey)
-				{
-					keyColumnNames.add(ColumnName);
-				}
-
-				final boolean IsParent = "Y".equals(rs.getString(11));
-				if (IsParent)
-				{
-					parentColumnNames.add(ColumnName);
-				}
-
-				int AD_Reference_Value_ID = rs.getInt(12);
-				// String ValidationCode = rs.getString(13);
-				int FieldLength = rs.getInt(14);
-				String ValueMin = rs.getString(15);
-				String ValueMax = rs.getString(16);
-				boolean IsTranslated = "Y".equals(rs.getString(17));
-				//
-				final String ColumnSQL = rs.getString(19);
-				boolean IsEncrypted = "Y".equals(rs.getString(20));
-				boolean IsAllowLogging = "Y".equals(rs.getString(21));
-				boolean IsLazyLoading = "Y".equals(rs.getString(23)); // metas
-				boolean IsCalculated = "Y".equals(rs.getString(24)); // metas
-				int AD_Val_Rule_ID = rs.getInt(25); // metas
-				final boolean isUseDocumentSequence = "Y".equals(rs.getString(I_AD_Column.COLUMNNAME_IsUseDocSequence)); // metas: 05133
-
-				final boolean isStaleable = "Y".equals(rs.getString(I_AD_Column.COLUMNNAME_IsStaleable)); // metas: 01537
-				if (isStaleable)
+				if (list.isEmpty())
 				{
-					m_HasStaleableColumns = true;
+					loadTableInfo(rs);
 				}
-
-				final boolean isSelectionColumn = "Y".equals(rs.getString(I_AD_Column.COLUMNNAME_IsSelectionColumn));
-
-				final POInfoColumn col = new POInfoColumn(
-						AD_Column_ID, m_TableName, ColumnName, ColumnSQL, AD_Reference_ID,
-						IsMandatory, IsUpdateable,
-						DefaultLogic,
-						Name, // ColumnLabel
-						Description, // ColumnDescription
-						IsKey, IsParent,
-						AD_Reference_Value_ID, AD_Val_Rule_ID,
-						FieldLength, ValueMin, ValueMax,
-						IsTranslated, IsEncrypted,
-						IsAllowLogging);
-				col.IsLazyLoading = IsLazyLoading; // metas
-				col.IsCalculated = IsCalculated; // metas
-				col.IsUseDocumentSequence = isUseDocumentSequence; // metas: _05133
-				col.IsStaleable = isStaleable; // metas: 01537
-				col.IsSelectionColumn = isSelectionColumn;
-				list.add(col);
+				list.add(loadColumn(rs));
 			}
 		}
 		catch (SQLException e)
 		{
-			logger.error(sql.toString(), e);
+			logger.error(sql, e);
 		}
 		finally
 		{
@@ -377,6 +379,74 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 			pstmt = null;
 		}
 
+		setColumns(list);
+	}   // loadInfo
+
+	private void loadTableInfo(final ResultSet rs) throws SQLException
+	{
+		m_TableName = rs.getString(I_AD_Table.COLUMNNAME_TableName);
+		m_AD_Table_ID = rs.getInt(I_AD_Table.COLUMNNAME_AD_Table_ID);
+		m_isView = "Y".equals(rs.getString(I_AD_Table.COLUMNNAME_IsView));
+		m_AccessLevel = TableAccessLevel.forAccessLevel(rs.getString(I_AD_Table.COLUMNNAME_AccessLevel));
+		m_IsChangeLog = "Y".equals(rs.getString(I_AD_Table.COLUMNNAME_IsChangeLog));
+	}
+
+	private POInfoColumn loadColumn(final ResultSet rs) throws SQLException
+	{
+		String ColumnName = rs.getString(2);
+		int AD_Reference_ID = rs.getInt(3);
+		boolean IsMandatory = "Y".equals(rs.getString(4));
+		boolean IsUpdateable = "Y".equals(rs.getString(5));
+		String DefaultLogic = rs.getString(6);
+		String Name = rs.getString(7);
+		String Description = rs.getString(8);
+		int AD_Column_ID = rs.getInt(9);
+		final boolean IsKey = "Y".equals(rs.getString(10));
+		final boolean IsParent = "Y".equals(rs.getString(11));
+		int AD_Reference_Value_ID = rs.getInt(12);
+		// String ValidationCode = rs.getString(13);
+		int FieldLength = rs.getInt(14);
+		String ValueMin = rs.getString(15);
+		String ValueMax = rs.getString(16);
+		boolean IsTranslated = "Y".equals(rs.getString(17));
+		//
+		final String ColumnSQL = rs.getString(19);
+		boolean IsEncrypted = "Y".equals(rs.getString(20));
+		boolean IsAllowLogging = "Y".equals(rs.getString(21));
+		boolean IsLazyLoading = "Y".equals(rs.getString(23)); // metas
+		boolean IsCalculated = "Y".equals(rs.getString(24)); // metas
+		int AD_Val_Rule_ID = rs.getInt(25); // metas
+		final boolean isUseDocumentSequence = "Y".equals(rs.getString(I_AD_Column.COLUMNNAME_IsUseDocSequence)); // metas: 05133
+
+		final boolean isStaleable = "Y".equals(rs.getString(I_AD_Column.COLUMNNAME_IsStaleable)); // metas: 01537
+		if (isStaleable)
+		{
+			m_HasStaleableColumns = true;
+		}
+
+		final boolean isSelectionColumn = "Y".equals(rs.getString(I_AD_Column.COLUMNNAME_IsSelectionColumn));
+
+		final POInfoColumn col = new POInfoColumn(
+				AD_Column_ID, m_TableName, ColumnName, ColumnSQL, AD_Reference_ID,
+				IsMandatory, IsUpdateable,
+				DefaultLogic,
+				Name, // ColumnLabel
+				Description, // ColumnDescription
+				IsKey, IsParent,
+				AD_Reference_Value_ID, AD_Val_Rule_ID,
+				FieldLength, ValueMin, ValueMax,
+				IsTranslated, IsEncrypted,
+				IsAllowLogging);
+		col.IsLazyLoading = IsLazyLoading; // metas
+		col.IsCalculated = IsCalculated; // metas
+		col.IsUseDocumentSequence = isUseDocumentSequence; // metas: _05133
+		col.IsStaleable = isStaleable; // metas: 01537
+		col.IsSelectionColumn = isSelectionColumn;
+		return col;
+	}
+
+	private void setColumns(final List<POInfoColumn> list)
+	{
 		// convert to array
 		m_columns = list.toArray(new POInfoColumn[list.size()]);
 
@@ -389,6 +459,8 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 		final ImmutableSortedMap.Builder<String, Integer> columnName2columnIndexBuilder = ImmutableSortedMap.orderedBy(String.CASE_INSENSITIVE_ORDER);
 		final ImmutableMap.Builder<Integer, Integer> adColumnId2columnIndexBuilder = ImmutableMap.<Integer, Integer> builder();
 		final List<String> translatedColumnNames = new ArrayList<>();
+		final List<String> keyColumnNames = new ArrayList<>();
+		final List<String> parentColumnNames = new ArrayList<>();
 		for (int columnIndex = 0; columnIndex < columnsCount; columnIndex++)
 		{
 			final POInfoColumn columnInfo = m_columns[columnIndex];
@@ -402,6 +474,14 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 			{
 				translatedColumnNames.add(columnName);
 			}
+			if (columnInfo.IsKey)
+			{
+				keyColumnNames.add(columnName);
+			}
+			if (columnInfo.IsParent)
+			{
+				parentColumnNames.add(columnName);
+			}
 		}
 		this.columnName2columnIndex = columnName2columnIndexBuilder.build();
 		this.adColumnId2columnIndex = adColumnId2columnIndexBuilder.build();
@@ -455,7 +535,7 @@ public final class POInfo implements Serializable, ColumnDisplayTypeProvider
 		sqlSelectByKeys = buildSqlSelectByKeys();
 
 		trlInfo = POTrlRepository.instance.createPOTrlInfo(m_TableName, m_keyColumnName, translatedColumnNames);
-	}   // loadInfo
+	}
 
 	/**
 	 * String representation
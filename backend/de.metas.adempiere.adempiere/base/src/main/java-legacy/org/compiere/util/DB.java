@@ -418,6 +418,20 @@ public class DB
 		return createConnection(true, true, Connection.TRANSACTION_READ_COMMITTED);     // see below
 	}    // getConnectionRO
 
+	/**
+	 * @return read-only connection to the read replica database or, if there is no (up-to-date) read replica, {@link #getConnectionRO()}
+	 * @see de.metas.connection.ReadReplicaRouting
+	 */
+	public Connection getConnectionReadReplicaOrRO()
+	{
+		final CConnection cc = getCConnection();
+		final AdempiereDatabase database = cc != null ? cc.getDatabase() : null;
+		final Connection conn = database != null
+				? database.getCachedReadReplicaConnectionOrNull(cc, true, Connection.TRANSACTION_READ_COMMITTED)
+				: null;
+		return conn != null ? conn : getConnectionRO();
+	}
+
 	/**
 	 * Create new Connection. The connection must be closed explicitly by the application
 	 *
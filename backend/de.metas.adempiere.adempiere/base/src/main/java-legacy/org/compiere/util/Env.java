@@ -891,7 +891,11 @@ public final class Env
 			@NonNull final String context,
 			final int defaultValueIfNotFoundOrError)
 	{
-		String valueStr = getContext(ctx, context);
+		String valueStr = getExplicitGlobalContextOrNull(ctx, context);
+		if (valueStr == null)
+		{
+			valueStr = getContext(ctx, context);
+		}
 		if (isPropertyValueNull(valueStr) || valueStr.isEmpty())
 		{
 			valueStr = getContext(ctx, WINDOW_MAIN, context, false);
@@ -912,6 +916,24 @@ public final class Env
 		}
 	}    // getContextAsInt
 
+	/**
+	 * Shortcut for {@link #getContext(Properties, String)} for the login context's explicit global names like {@link #CTXNAME_AD_Client_ID}.
+	 * Those are read on nearly every query and save, so we look them up directly instead of going through {@link CtxNames#parse(String)} and the scope fallbacks.
+	 *
+	 * @return the value or {@code null} if the given context is not a plain explicit global name or if there is no value
+	 */
+	@Nullable
+	private static String getExplicitGlobalContextOrNull(@NonNull final Properties ctx, @NonNull final String context)
+	{
+		if (!context.startsWith("#")
+				|| context.contains(CtxNames.SEPARATOR)
+				|| CTXNAME_Date.equals(context))
+		{
+			return null;
+		}
+		return ctx.getProperty(context);
+	}
+
 	/**
 	 * Get Context and convert it to an integer (0 if error)
 	 *
@@ -0,0 +1,64 @@
+package de.metas.connection;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+
+import org.adempiere.util.lang.IAutoCloseable;
+
+/**
+ * Decides if the current thread's out-of-transaction, read-only statements shall be executed on the read replica (if one is configured).
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * try (final IAutoCloseable ignored = ReadReplicaRouting.temporaryRouteToReadReplica())
+ * {
+ * 	// read-only queries which can live with slightly stale data
+ * }
+ * </pre>
+ *
+ * Statements which run within a transaction or which use an updatable result set are always executed on the primary database.
+ *
+ * @see de.metas.connection.impl.ReadReplicaDataSource
+ * @see org.compiere.model.IQuery#OPTION_ReadFromReplica
+ */
+public final class ReadReplicaRouting
+{
+	private static final ThreadLocal<Boolean> routeToReadReplica = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	private ReadReplicaRouting()
+	{
+	}
+
+	public static IAutoCloseable temporaryRouteToReadReplica()
+	{
+		final Boolean previousValue = routeToReadReplica.get();
+		routeToReadReplica.set(Boolean.TRUE);
+		return () -> routeToReadReplica.set(previousValue);
+	}
+
+	public static boolean isRouteToReadReplica()
+	{
+		return routeToReadReplica.get();
+	}
+}
@@ -0,0 +1,134 @@
+package de.metas.connection.impl;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import java.sql.Connection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.MapMaker;
+
+import lombok.NonNull;
+
+/**
+ * Collects how long threads wait to acquire a pooled connection and how long connections are checked out.
+ * The acquire waits are recorded by {@link org.compiere.db.DB_PostgreSQL}, the checkout durations by {@link DB_PostgreSQL_ConnectionCustomizer}.
+ * The result is part of the data source's status, see {@link org.compiere.db.DB_PostgreSQL#getStatus()}.
+ */
+public final class ConnectionPoolStatistics
+{
+	public static final ConnectionPoolStatistics instance = new ConnectionPoolStatistics();
+
+	private final Histogram acquireWaits = new Histogram();
+	private final Histogram checkoutDurations = new Histogram();
+
+	/** physical connection to checkout time (nanos). Weak keys, so we don't keep connections which are closed without being checked in. */
+	private final ConcurrentMap<Connection, Long> checkoutTimes = new MapMaker().weakKeys().makeMap();
+
+	private ConnectionPoolStatistics()
+	{
+	}
+
+	public void recordAcquireWait(final long waitNanos)
+	{
+		acquireWaits.record(waitNanos);
+	}
+
+	void onCheckOut(@NonNull final Connection connection)
+	{
+		checkoutTimes.put(connection, System.nanoTime());
+	}
+
+	void onCheckIn(@NonNull final Connection connection)
+	{
+		final Long checkoutTime = checkoutTimes.remove(connection);
+		if (checkoutTime != null)
+		{
+			checkoutDurations.record(System.nanoTime() - checkoutTime);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Acquire waits: " + acquireWaits
+				+ "\n Checkout durations: " + checkoutDurations;
+	}
+
+	private static final class Histogram
+	{
+		private static final long[] BUCKET_UPPER_BOUNDS_MILLIS = { 1, 10, 100, 1000, 10000 };
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		/** the last bucket counts the values greater than the last upper bound */
+		private final LongAdder[] buckets = new LongAdder[BUCKET_UPPER_BOUNDS_MILLIS.length + 1];
+
+		private Histogram()
+		{
+			for (int i = 0; i < buckets.length; i++)
+			{
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		public void record(final long nanos)
+		{
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+
+			final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+			int bucketIndex = 0;
+			while (bucketIndex < BUCKET_UPPER_BOUNDS_MILLIS.length && millis >= BUCKET_UPPER_BOUNDS_MILLIS[bucketIndex])
+			{
+				bucketIndex++;
+			}
+			buckets[bucketIndex].increment();
+		}
+
+		@Override
+		public String toString()
+		{
+			final long count = this.count.sum();
+			final StringBuilder sb = new StringBuilder();
+			sb.append("count=").append(count);
+			if (count > 0)
+			{
+				sb.append(", avg=").append(TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / count)).append("ms");
+				sb.append(", max=").append(TimeUnit.NANOSECONDS.toMillis(maxNanos.get())).append("ms");
+			}
+			for (int i = 0; i < buckets.length; i++)
+			{
+				final String bucketName = i < BUCKET_UPPER_BOUNDS_MILLIS.length
+						? "<" + BUCKET_UPPER_BOUNDS_MILLIS[i] + "ms"
+						: ">=" + BUCKET_UPPER_BOUNDS_MILLIS[BUCKET_UPPER_BOUNDS_MILLIS.length - 1] + "ms";
+				sb.append(", ").append(bucketName).append(": ").append(buckets[i].sum());
+			}
+			return sb.toString();
+		}
+	}
+}
@@ -67,6 +67,11 @@ public class DB_PostgreSQL_ConnectionCustomizer extends AbstractConnectionCustom
 	{
 		// NOTE: it's much more efficient to reset the ApplicationName here because this method is called in another thread
 		c.setClientInfo(CLIENTINFO_ApplicationName, "metasfresh/returned-to-pool"); // task 08353
+
+		if (isCollectStatistics())
+		{
+			ConnectionPoolStatistics.instance.onCheckIn(c);
+		}
 	}
 
 	@Override
@@ -74,9 +79,21 @@ public class DB_PostgreSQL_ConnectionCustomizer extends AbstractConnectionCustom
 	{
 		// NOTE: it's much more efficient to reset the ApplicationName here because this method is called in another thread
 		c.setClientInfo(CLIENTINFO_ApplicationName, "metasfresh/checked-out-from-pool"); // task 08353
+		if (isCollectStatistics())
+		{
+			ConnectionPoolStatistics.instance.onCheckOut(c);
+		}
 
 		final IConnectionCustomizerService connectionCustomizerService = Services.get(IConnectionCustomizerService.class);
 		connectionCustomizerService.fireRegisteredCustomizers(c);
 	}
 
+	/**
+	 * @return {@code true} if check-ins and check-outs shall be recorded in {@link ConnectionPoolStatistics}, which are the statistics of the primary connection pool
+	 */
+	protected boolean isCollectStatistics()
+	{
+		return true;
+	}
+
 }
@@ -0,0 +1,335 @@
+package de.metas.connection.impl;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import org.compiere.db.AdempiereDatabase;
+import org.compiere.db.CConnection;
+import org.compiere.util.DB;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import de.metas.util.SystemUtils;
+import lombok.NonNull;
+
+/**
+ * Connection pool for a PostgreSQL read replica (hot standby).
+ * <p>
+ * The replica is configured via system properties: {@value #SYSCONFIG_Host} is required; port, database, user and password are those of the primary database, unless {@value #SYSCONFIG_Port} is set.
+ * If the replica lags more than {@value #SYSCONFIG_MaxStalenessMillis} behind the primary or a connection can't be acquired, {@link #getConnectionOrNull(boolean, int)} returns {@code null} and the caller shall fall back to the primary database.
+ * <p>
+ * Queries are routed to the replica if they set {@link org.compiere.model.IQuery#OPTION_ReadFromReplica} and run out of transaction.
+ * <p>
+ * Manual test:
+ * <ol>
+ * <li>set up a streaming replica of the metasfresh database (any PostgreSQL instance with a copy of the database also works, it's then considered up to date)</li>
+ * <li>start the application server with {@code -D}{@value #SYSCONFIG_Host}{@code =<replica host>} (and {@code -D}{@value #SYSCONFIG_Port} if needed)</li>
+ * <li>call a REST endpoint which uses the replica, e.g. the sales invoice payment status</li>
+ * <li>check the counters in the data source's status (see {@link org.compiere.db.DB_PostgreSQL#getStatus()}), which is logged e.g. when the connection pool is exhausted</li>
+ * <li>stop the replication on the replica ({@code SELECT pg_wal_replay_pause()} resp. {@code pg_xlog_replay_pause()} on PostgreSQL 9.x), do a write on the primary
+ * and verify that after {@value #SYSCONFIG_MaxStalenessMillis} the queries are done on the primary again</li>
+ * </ol>
+ *
+ * @see de.metas.connection.ReadReplicaRouting
+ */
+public final class ReadReplicaDataSource
+{
+	private static final Logger logger = LogManager.getLogger(ReadReplicaDataSource.class);
+
+	private static final String SYSCONFIG_Host = "db.postgresql.readReplica.host";
+	private static final String SYSCONFIG_Port = "db.postgresql.readReplica.port";
+	private static final String SYSCONFIG_MaxStalenessMillis = "db.postgresql.readReplica.maxStalenessMillis";
+	private static final int DEFAULT_MaxStalenessMillis = 30 * 1000;
+	private static final String SYSCONFIG_CheckoutTimeoutMillis = "db.postgresql.readReplica.checkoutTimeoutMillis";
+	private static final int DEFAULT_CheckoutTimeoutMillis = 5 * 1000;
+
+	private static final long LAG_CHECK_INTERVAL_MILLIS = 5 * 1000;
+	/** the lag check runs on a request thread, so it shall not wait for a connection or a query for long */
+	private static final int LAG_CHECK_TIMEOUT_MILLIS = 1000;
+	private static final int LAG_CHECK_TIMEOUT_SECONDS = 1;
+
+	/** PostgreSQL 10 renamed the "xlog" functions to "wal" functions */
+	private static final int FIRST_VERSION_WITH_WAL_FUNCTIONS = 10;
+
+	@Nullable
+	public static ReadReplicaDataSource createOrNull(
+			@NonNull final AdempiereDatabase database,
+			@NonNull final CConnection primaryConnection,
+			@NonNull final String driverClass)
+	{
+		final String host = System.getProperty(SYSCONFIG_Host);
+		if (Check.isEmpty(host, true))
+		{
+			return null;
+		}
+
+		final int port = SystemUtils.getSystemProperty(SYSCONFIG_Port, primaryConnection.getDbPort());
+		final String jdbcUrl = database.getConnectionURL(host.trim(), port, primaryConnection.getDbName(), primaryConnection.getDbUid());
+		final String primaryJdbcUrl = database.getConnectionURL(primaryConnection.getDbHost(), primaryConnection.getDbPort(), primaryConnection.getDbName(), primaryConnection.getDbUid());
+		ComboPooledDataSource cpds = null;
+		try
+		{
+			// if the replica is not reachable, we rather fall back to the primary database than to wait
+			cpds = createPool("metasfreshReadReplicaDS", driverClass, jdbcUrl, primaryConnection, SystemUtils.getSystemProperty(SYSCONFIG_CheckoutTimeoutMillis, DEFAULT_CheckoutTimeoutMillis));
+
+			// the primary's WAL position is retrieved with an own single connection, so the lag check neither waits for nor counts in the primary pool
+			final ComboPooledDataSource primaryLagCheckDataSource = createPool("metasfreshReadReplicaLagCheckDS", driverClass, primaryJdbcUrl, primaryConnection, LAG_CHECK_TIMEOUT_MILLIS);
+			primaryLagCheckDataSource.setMinPoolSize(1);
+			primaryLagCheckDataSource.setInitialPoolSize(1);
+			primaryLagCheckDataSource.setMaxPoolSize(1);
+
+			final ReadReplicaDataSource readReplicaDataSource = new ReadReplicaDataSource(cpds, primaryLagCheckDataSource, SystemUtils.getSystemProperty(SYSCONFIG_MaxStalenessMillis, DEFAULT_MaxStalenessMillis));
+			logger.info("Read replica data source: {}", readReplicaDataSource);
+			return readReplicaDataSource;
+		}
+		catch (final Exception ex)
+		{
+			if (cpds != null)
+			{
+				cpds.close();
+			}
+			logger.warn("Failed creating the read replica data source for {}. Using only the primary database.", jdbcUrl, ex);
+			return null;
+		}
+	}
+
+	private static ComboPooledDataSource createPool(
+			final String dataSourceName,
+			final String driverClass,
+			final String jdbcUrl,
+			final CConnection primaryConnection,
+			final int checkoutTimeoutMillis) throws Exception
+	{
+		final ComboPooledDataSource cpds = new ComboPooledDataSource();
+		cpds.setDataSourceName(dataSourceName);
+		cpds.setDriverClass(driverClass);
+		cpds.setJdbcUrl(jdbcUrl);
+		cpds.setUser(primaryConnection.getDbUid());
+		cpds.setPassword(primaryConnection.getDbPwd());
+		cpds.setIdleConnectionTestPeriod(1200);
+		cpds.setAcquireRetryAttempts(2);
+		cpds.setCheckoutTimeout(checkoutTimeoutMillis);
+		cpds.setMaxIdleTimeExcessConnections(1200);
+		cpds.setMaxIdleTime(1200);
+		cpds.setConnectionCustomizerClassName(ReadReplicaConnectionCustomizer.class.getName());
+		return cpds;
+	}
+
+	private final ComboPooledDataSource dataSource;
+	/** small pool to the primary database, only used for the lag check */
+	private final ComboPooledDataSource primaryLagCheckDataSource;
+	private final long maxStalenessMillis;
+
+	private final AtomicLong lastLagCheckMillis = new AtomicLong(0);
+	private volatile long lastLagMillis = 0;
+
+	private final LongAdder countReplica = new LongAdder();
+	private final LongAdder countPrimaryBecauseStale = new LongAdder();
+	private final LongAdder countPrimaryBecauseError = new LongAdder();
+
+	private ReadReplicaDataSource(
+			@NonNull final ComboPooledDataSource dataSource,
+			@NonNull final ComboPooledDataSource primaryLagCheckDataSource,
+			final long maxStalenessMillis)
+	{
+		this.dataSource = dataSource;
+		this.primaryLagCheckDataSource = primaryLagCheckDataSource;
+		this.maxStalenessMillis = maxStalenessMillis;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ReadReplicaDataSource [jdbcUrl=" + dataSource.getJdbcUrl()
+				+ ", maxStalenessMillis=" + maxStalenessMillis
+				+ ", lastLagMillis=" + lastLagMillis
+				+ "]";
+	}
+
+	public String getStatus()
+	{
+		final StringBuilder sb = new StringBuilder();
+		sb.append("Read replica ").append(dataSource.getJdbcUrl());
+		try
+		{
+			sb.append(": # Connections: ").append(dataSource.getNumConnections());
+			sb.append(" , # Busy Connections: ").append(dataSource.getNumBusyConnections());
+			sb.append(" , # Idle Connections: ").append(dataSource.getNumIdleConnections());
+		}
+		catch (final SQLException e)
+		{
+			sb.append(": ").append(e.getLocalizedMessage());
+		}
+		sb.append(" , Last lag: ").append(lastLagMillis).append("ms");
+		sb.append(" , Routed to replica: ").append(countReplica.sum());
+		sb.append(" , Routed to primary (stale replica): ").append(countPrimaryBecauseStale.sum());
+		sb.append(" , Routed to primary (error): ").append(countPrimaryBecauseError.sum());
+		return sb.toString();
+	}
+
+	/**
+	 * @return read-only connection to the replica or {@code null} if the replica is too stale or not available
+	 */
+	@Nullable
+	public Connection getConnectionOrNull(final boolean autoCommit, final int transactionIsolation)
+	{
+		if (isStale())
+		{
+			countPrimaryBecauseStale.increment();
+			return null;
+		}
+
+		Connection conn = null;
+		try
+		{
+			conn = dataSource.getConnection();
+			conn.setAutoCommit(autoCommit);
+			conn.setTransactionIsolation(transactionIsolation);
+			conn.setReadOnly(true);
+
+			countReplica.increment();
+			return conn;
+		}
+		catch (final SQLException ex)
+		{
+			DB.close(conn);
+			countPrimaryBecauseError.increment();
+			logger.warn("Failed acquiring a read replica connection. Falling back to the primary database.", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Checks the replication lag at most every {@link #LAG_CHECK_INTERVAL_MILLIS}. In between, the last known lag is used.
+	 */
+	private boolean isStale()
+	{
+		final long now = System.currentTimeMillis();
+		final long lastCheck = lastLagCheckMillis.get();
+		if (now - lastCheck >= LAG_CHECK_INTERVAL_MILLIS && lastLagCheckMillis.compareAndSet(lastCheck, now))
+		{
+			lastLagMillis = retrieveReplicationLagMillis();
+		}
+		return lastLagMillis > maxStalenessMillis;
+	}
+
+	/**
+	 * The replica is up to date if it replayed at least the primary's current WAL position. We retrieve the primary's position first, so everything committed until now is included.
+	 * <p>
+	 * Just comparing the replica's received and replayed positions is not enough, because a replica whose WAL receiver is disconnected did replay everything it received, but it doesn't receive anything anymore.
+	 * If the replica is behind, the lag is the time since the replica replayed its last transaction. So on a primary with few writes, the replica might be considered stale for a moment after a write.
+	 *
+	 * @return the replication lag or {@link Long#MAX_VALUE} if it can't be determined
+	 */
+	private long retrieveReplicationLagMillis()
+	{
+		try (final Connection primaryConn = primaryLagCheckDataSource.getConnection();
+				final Connection replicaConn = dataSource.getConnection())
+		{
+			final int serverMajorVersion = replicaConn.getMetaData().getDatabaseMajorVersion();
+			final String primaryWalPosition = retrievePrimaryWalPosition(primaryConn, serverMajorVersion);
+			return retrieveReplicationLagMillis(replicaConn, serverMajorVersion, primaryWalPosition);
+		}
+		catch (final SQLException ex)
+		{
+			logger.warn("Failed retrieving the read replica's replication lag. Considering it stale until the next check in {}ms.", LAG_CHECK_INTERVAL_MILLIS, ex);
+			return Long.MAX_VALUE;
+		}
+	}
+
+	private static String retrievePrimaryWalPosition(final Connection primaryConn, final int serverMajorVersion) throws SQLException
+	{
+		try (final Statement stmt = primaryConn.createStatement())
+		{
+			stmt.setQueryTimeout(LAG_CHECK_TIMEOUT_SECONDS);
+			try (final ResultSet rs = stmt.executeQuery(buildSqlSelectPrimaryWalPosition(serverMajorVersion)))
+			{
+				return rs.next() ? rs.getString(1) : null;
+			}
+		}
+	}
+
+	private static long retrieveReplicationLagMillis(final Connection replicaConn, final int serverMajorVersion, @Nullable final String primaryWalPosition) throws SQLException
+	{
+		try (final PreparedStatement pstmt = replicaConn.prepareStatement(buildSqlSelectReplicationLagMillis(serverMajorVersion)))
+		{
+			pstmt.setQueryTimeout(LAG_CHECK_TIMEOUT_SECONDS);
+			pstmt.setString(1, primaryWalPosition);
+			try (final ResultSet rs = pstmt.executeQuery())
+			{
+				if (!rs.next())
+				{
+					return Long.MAX_VALUE;
+				}
+				final long lagMillis = rs.getLong(1);
+				return rs.wasNull() ? Long.MAX_VALUE : lagMillis;
+			}
+		}
+	}
+
+	@VisibleForTesting
+	static String buildSqlSelectPrimaryWalPosition(final int serverMajorVersion)
+	{
+		return serverMajorVersion >= FIRST_VERSION_WITH_WAL_FUNCTIONS
+				? "SELECT pg_current_wal_lsn()::text"
+				: "SELECT pg_current_xlog_location()::text";
+	}
+
+	/**
+	 * The lag is 0 if the replica is not in recovery mode at all (e.g. a local secondary instance used for testing)
+	 * and {@code NULL} if the replica is behind but didn't replay any transaction since it was started.
+	 */
+	@VisibleForTesting
+	static String buildSqlSelectReplicationLagMillis(final int serverMajorVersion)
+	{
+		final String replayPositionFunction = serverMajorVersion >= FIRST_VERSION_WITH_WAL_FUNCTIONS
+				? "pg_last_wal_replay_lsn()"
+				: "pg_last_xlog_replay_location()";
+
+		return "SELECT CASE"
+				+ " WHEN NOT pg_is_in_recovery() THEN 0"
+				+ " WHEN " + replayPositionFunction + " >= CAST(? AS pg_lsn) THEN 0"
+				+ " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000"
+				+ " END";
+	}
+
+	public void close()
+	{
+		dataSource.close();
+		primaryLagCheckDataSource.close();
+	}
+}
@@ -191,5 +191,11 @@ public abstract class AbstractTypedQuery<T> implements IQuery<T>
 		return Boolean.TRUE.equals(getOption(OPTION_ReturnReadOnlyRecords));
 	}
 
+	/** Convenience method that evaluates {@link IQuery#OPTION_ReadFromReplica}. */
+	protected boolean isReadFromReplica()
+	{
+		return Boolean.TRUE.equals(getOption(OPTION_ReadFromReplica));
+	}
+
 	abstract <ToModelType> QueryInsertExecutorResult executeInsert(final QueryInsertExecutor<ToModelType, T> queryInserter);
 }
@@ -6,7 +6,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.adempiere.ad.dao.IQueryStatisticsCollector;
@@ -38,8 +40,15 @@ public class QueryStatisticsLogger implements IQueryStatisticsLogger, IQueryStat
 	private static final TimeUnit TIMEUNIT_Internal = TimeUnit.NANOSECONDS;
 	private static final TimeUnit TIMEUNIT_Display = TimeUnit.MILLISECONDS;
 
+	/**
+	 * Max number of distinct SQLs for which we collect statistics.
+	 * SQLs with inlined values would otherwise make the map grow endlessly.
+	 */
+	private static final int MAX_DISTINCT_SQLS = 5000;
+
 	private boolean enabled = false;
 	private final ConcurrentHashMap<String, QueryStatistics> sql2statistics = new ConcurrentHashMap<>();
+	private final AtomicBoolean maxDistinctSqlsReachedLogged = new AtomicBoolean(false);
 	private Date validFrom = null;
 	private String filterBy = null;
 
@@ -108,7 +117,7 @@ public class QueryStatisticsLogger implements IQueryStatisticsLogger, IQueryStat
 			return;
 		}
 
-		final QueryStatistics queryStatistics = sql2statistics.computeIfAbsent(sql, (sqlKey) -> new QueryStatistics(sqlKey));
+		final QueryStatistics queryStatistics = getOrCreateQueryStatistics(sql);
 		final CountAndDuration duration = queryStatistics.incrementAndGet(durationValue);
 
 		if (traceSqlQueries)
@@ -117,6 +126,26 @@ public class QueryStatisticsLogger implements IQueryStatisticsLogger, IQueryStat
 		}
 	}
 
+	private QueryStatistics getOrCreateQueryStatistics(final String sql)
+	{
+		final QueryStatistics existingQueryStatistics = sql2statistics.get(sql);
+		if (existingQueryStatistics != null)
+		{
+			return existingQueryStatistics;
+		}
+
+		if (sql2statistics.size() >= MAX_DISTINCT_SQLS)
+		{
+			if (maxDistinctSqlsReachedLogged.compareAndSet(false, true))
+			{
+				logger.warn("Collected statistics for {} distinct SQLs. Not collecting statistics for further SQLs until reset.", MAX_DISTINCT_SQLS);
+			}
+			return new QueryStatistics(sql); // not collected, but still needed for tracing
+		}
+
+		return sql2statistics.computeIfAbsent(sql, QueryStatistics::new);
+	}
+
 	@Override
 	@ManagedOperation(description = "Enables statistics collector")
 	public void enable()
@@ -167,6 +196,7 @@ public class QueryStatisticsLogger implements IQueryStatisticsLogger, IQueryStat
 	public void reset()
 	{
 		sql2statistics.clear();
+		maxDistinctSqlsReachedLogged.set(false);
 		validFrom = SystemTime.asDate();
 	}
 
@@ -445,6 +475,7 @@ public class QueryStatisticsLogger implements IQueryStatisticsLogger, IQueryStat
 	{
 		private final String sql;
 		private final AtomicReference<CountAndDuration> countAndDurationRef;
+		private final DurationHistogram durationHistogram = new DurationHistogram();
 
 		public QueryStatistics(final String sql)
 		{
@@ -457,11 +488,13 @@ public class QueryStatisticsLogger implements IQueryStatisticsLogger, IQueryStat
 		public String toString()
 		{
 			return "SQL: " + sql
-					+ "\n-- " + countAndDurationRef.get();
+					+ "\n-- " + countAndDurationRef.get()
+					+ "\n-- " + durationHistogram;
 		}
 
 		public CountAndDuration incrementAndGet(final long duration)
 		{
+			durationHistogram.add(duration);
 			return countAndDurationRef.updateAndGet(countAndDuration -> countAndDuration.newIncrement(duration));
 		}
 
@@ -486,4 +519,61 @@ public class QueryStatisticsLogger implements IQueryStatisticsLogger, IQueryStat
 			return countAndDurationRef.get().getAverageDuration();
 		}
 	}
+
+	/**
+	 * Approximates duration percentiles by counting the durations in buckets whose upper bounds are powers of two (in {@link #TIMEUNIT_Internal}).
+	 */
+	private static final class DurationHistogram
+	{
+		private final AtomicLongArray bucketCounts = new AtomicLongArray(Long.SIZE - 1);
+
+		public void add(final long duration)
+		{
+			bucketCounts.incrementAndGet(getBucketIndex(duration));
+		}
+
+		/**
+		 * @return bucket index, such that {@code duration < 2^index}
+		 */
+		private static int getBucketIndex(final long duration)
+		{
+			return duration <= 0 ? 0 : Math.min(Long.SIZE - Long.numberOfLeadingZeros(duration), Long.SIZE - 2);
+		}
+
+		/**
+		 * @return upper bound of the bucket which contains the given percentile or zero if there were no durations added
+		 */
+		public long getPercentileUpperBound(final double percentile)
+		{
+			long totalCount = 0;
+			for (int i = 0; i < bucketCounts.length(); i++)
+			{
+				totalCount += bucketCounts.get(i);
+			}
+			if (totalCount <= 0)
+			{
+				return 0;
+			}
+
+			final long countThreshold = (long)Math.ceil(totalCount * percentile);
+			long cumulatedCount = 0;
+			for (int i = 0; i < bucketCounts.length(); i++)
+			{
+				cumulatedCount += bucketCounts.get(i);
+				if (cumulatedCount >= countThreshold)
+				{
+					return 1L << i;
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "p50 < " + format(getPercentileUpperBound(0.50), TIMEUNIT_Internal, TIMEUNIT_Display)
+					+ ", p95 < " + format(getPercentileUpperBound(0.95), TIMEUNIT_Internal, TIMEUNIT_Display)
+					+ ", p99 < " + format(getPercentileUpperBound(0.99), TIMEUNIT_Internal, TIMEUNIT_Display);
+		}
+	}
 }
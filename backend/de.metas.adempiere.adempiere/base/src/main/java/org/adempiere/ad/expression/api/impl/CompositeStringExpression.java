@@ -82,6 +82,10 @@ public final class CompositeStringExpression implements IStringExpression
 	}
 
 	private final List<IStringExpression> expressions;
+	/** the values of the {@link ConstantStringExpression}s among {@link #expressions} (same index), {@code null} for the other expressions */
+	private final String[] constantValues;
+	/** the summed up length of {@link #constantValues}; the minimum length of the evaluated string */
+	private final int constantValuesLength;
 
 	private transient String _expressionStr;
 	private transient String _formatedExpressionString;
@@ -93,6 +97,20 @@ public final class CompositeStringExpression implements IStringExpression
 	private CompositeStringExpression(final Collection<IStringExpression> expressions)
 	{
 		this.expressions = ImmutableList.copyOf(expressions);
+
+		this.constantValues = new String[this.expressions.size()];
+		int constantValuesLength = 0;
+		for (int i = 0; i < constantValues.length; i++)
+		{
+			final IStringExpression expression = this.expressions.get(i);
+			if (expression instanceof ConstantStringExpression)
+			{
+				final String constantValue = ((ConstantStringExpression)expression).getConstantValue();
+				constantValues[i] = constantValue;
+				constantValuesLength += constantValue.length();
+			}
+		}
+		this.constantValuesLength = constantValuesLength;
 	}
 
 	@Override
@@ -171,10 +189,18 @@ public final class CompositeStringExpression implements IStringExpression
 	@Override
 	public String evaluate(final Evaluatee ctx, final OnVariableNotFound onVariableNotFound) throws ExpressionEvaluationException
 	{
-		final StringBuilder result = new StringBuilder();
-		for (final IStringExpression expression : expressions)
+		final StringBuilder result = new StringBuilder(constantValuesLength + 16);
+		for (int i = 0; i < constantValues.length; i++)
 		{
-			final String value = expression.evaluate(ctx, onVariableNotFound);
+			// NOTE: constant values were already collected when the expression was built
+			final String constantValue = constantValues[i];
+			if (constantValue != null)
+			{
+				result.append(constantValue);
+				continue;
+			}
+
+			final String value = expressions.get(i).evaluate(ctx, onVariableNotFound);
 			if (value == null || value == EMPTY_RESULT)
 			{
 				if (onVariableNotFound == OnVariableNotFound.ReturnNoResult)
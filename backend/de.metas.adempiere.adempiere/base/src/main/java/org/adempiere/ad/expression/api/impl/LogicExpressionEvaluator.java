@@ -4,6 +4,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableMap;
 import de.metas.logging.LogManager;
+import lombok.NonNull;
 import org.adempiere.ad.expression.api.ConstantLogicExpression;
 import org.adempiere.ad.expression.api.ILogicExpression;
 import org.adempiere.ad.expression.api.ILogicExpressionEvaluator;
@@ -192,7 +193,10 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 		final ExpressionEvaluationContext ctx = new ExpressionEvaluationContext(params, onVariableNotFound);
 		final Boolean value = evaluateOrNull(ctx, expr);
 		final boolean valueFinal = value == null ? false : value;
-		logger.trace("Evaluated {} => {} => {}", expr, value, valueFinal);
+		if (logger.isTraceEnabled())
+		{
+			logger.trace("Evaluated {} => {} => {}", expr, value, valueFinal);
+		}
 
 		return valueFinal;
 	}
@@ -204,7 +208,10 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 		final Boolean value = evaluateOrNull(ctx, expr);
 		final LogicExpressionResult result = LogicExpressionResult.of(value, expr, ctx.getUsedParameters());
 
-		logger.trace("Evaluated {} => {} => {}", expr, value, result);
+		if (logger.isTraceEnabled())
+		{
+			logger.trace("Evaluated {} => {} => {}", expr, value, result);
+		}
 
 		return result;
 	}
@@ -231,14 +238,15 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 			{
 				final LogicTuple tuple = (LogicTuple)expr;
 
-				final String firstEval = ctx.getValue(tuple.getOperand1());
+				// NOTE: constant operands were already normalized when the tuple was compiled
+				final String firstEval = tuple.isParameter1() ? ctx.getValue(tuple.getOperand1()) : tuple.getConstantOperand1();
 				//noinspection StringEquality // we're using string == string instead of string.equals(string)
 				if (firstEval == VALUE_NotFound)
 				{
 					logger.trace("tuple {} => null because first operand could not be evaluated", expr);
 					return null;
 				}
-				final String secondEval = ctx.getValue(tuple.getOperand2());
+				final String secondEval = tuple.isParameter2() ? ctx.getValue(tuple.getOperand2()) : tuple.getConstantOperand2();
 				//noinspection StringEquality // we're using string == string instead of string.equals(string)
 				if (secondEval == VALUE_NotFound)
 				{
@@ -248,7 +256,10 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 
 				final String operator = tuple.getOperator();
 				final boolean result = evaluateLogicTuple(firstEval, operator, secondEval);
-				logger.trace("tuple {} => \"{}\" {} \"{}\" => {}", expr, firstEval, operator, secondEval, result);
+				if (logger.isTraceEnabled())
+				{
+					logger.trace("tuple {} => \"{}\" {} \"{}\" => {}", expr, firstEval, operator, secondEval, result);
+				}
 
 				return result;
 			}
@@ -458,6 +469,19 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 		return s;
 	}
 
+	/**
+	 * @return the value of a constant (i.e. non-{@link CtxName}) tuple operand
+	 */
+	/* package */ static String normalizeConstantOperand(@NonNull final Object operand)
+	{
+		String value = operand.toString();
+		// we can trim whitespaces in this case; if user really wants to have spaces at the beginning/ending of the
+		// string, he/she shall quote it
+		value = value.trim();
+		value = stripQuotes(value);
+		return value;
+	}
+
 	@Override
 	public ILogicExpression evaluatePartial(final Evaluatee params, final ILogicExpression expr)
 	{
@@ -598,12 +622,7 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 			// Case: we deal with a constant value
 			else
 			{
-				String value = operand.toString();
-				// we can trim whitespaces in this case; if user really wants to have spaces at the beginning/ending of the
-				// string, he/she shall quote it
-				value = value.trim();
-				value = stripQuotes(value);
-				return value;
+				return normalizeConstantOperand(operand);
 			}
 		}
 
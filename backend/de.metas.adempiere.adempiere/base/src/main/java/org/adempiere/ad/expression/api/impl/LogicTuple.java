@@ -62,9 +62,13 @@ import javax.annotation.Nullable;
 
 	private final Object operand1;
 	private final boolean isParameter1;
+	/** the normalized value of {@link #operand1}, if it is not a parameter */
+	private final String constantOperand1;
 
 	private final Object operand2;
 	private final boolean isParameter2;
+	/** the normalized value of {@link #operand2}, if it is not a parameter */
+	private final String constantOperand2;
 
 	private final String operator;
 
@@ -88,8 +92,10 @@ import javax.annotation.Nullable;
 		this.operator = operator;
 		this.operand1 = operand1;
 		this.isParameter1 = operand1 instanceof CtxName;
+		this.constantOperand1 = isParameter1 ? null : LogicExpressionEvaluator.normalizeConstantOperand(operand1);
 		this.operand2 = operand2;
 		this.isParameter2 = operand2 instanceof CtxName;
+		this.constantOperand2 = isParameter2 ? null : LogicExpressionEvaluator.normalizeConstantOperand(operand2);
 
 		this.constantValue = constantValue;
 
@@ -105,8 +111,10 @@ import javax.annotation.Nullable;
 		expressionStr = from.expressionStr;
 		operand1 = from.operand1;
 		isParameter1 = from.isParameter1;
+		constantOperand1 = from.constantOperand1;
 		operand2 = from.operand2;
 		isParameter2 = from.isParameter2;
+		constantOperand2 = from.constantOperand2;
 		operator = from.operator;
 
 		this.constantValue = constantValue;
@@ -234,6 +242,22 @@ import javax.annotation.Nullable;
 		return operand2;
 	}
 
+	/**
+	 * @return the trimmed and unquoted value of {@link #getOperand1()}, or {@code null} if it's a parameter
+	 */
+	/* package */ String getConstantOperand1()
+	{
+		return constantOperand1;
+	}
+
+	/**
+	 * @return the trimmed and unquoted value of {@link #getOperand2()}, or {@code null} if it's a parameter
+	 */
+	/* package */ String getConstantOperand2()
+	{
+		return constantOperand2;
+	}
+
 	/**
 	 * @return operator; never returns null
 	 */
@@ -27,7 +27,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.reflections.ReflectionUtils;
 
@@ -43,8 +43,8 @@ class ModelClassInfo implements IModelClassInfo
 	private final Class<?> modelClass;
 	private final String tableName;
 
-	private Map<Method, IModelMethodInfo> _modelMethodInfos;
-	private final ReentrantLock modelMethodInfosLock = new ReentrantLock();
+	/** Method infos; note that this map is read on each getter/setter invocation of every model proxy of {@link #modelClass}, so reads shall not lock. */
+	private volatile Map<Method, IModelMethodInfo> _modelMethodInfos;
 
 	private Set<String> _definedColumnNames = null;
 
@@ -86,48 +86,52 @@ class ModelClassInfo implements IModelClassInfo
 	@Override
 	public final IModelMethodInfo getMethodInfo(final Method method)
 	{
-		modelMethodInfosLock.lock();
-		try
-		{
-			final Map<Method, IModelMethodInfo> methodInfos = getMethodInfos0();
-
-			IModelMethodInfo methodInfo = methodInfos.get(method);
-
-			//
-			// If methodInfo was not found, try to create it now
-			if (methodInfo == null)
-			{
-				methodInfo = introspector.createModelMethodInfo(method);
-				if (methodInfo == null)
-				{
-					throw new IllegalStateException("No method info was found for " + method + " in " + this);
-				}
-
-				methodInfos.put(method, methodInfo);
-			}
+		final Map<Method, IModelMethodInfo> methodInfos = getMethodInfos0();
 
+		final IModelMethodInfo methodInfo = methodInfos.get(method);
+		if (methodInfo != null)
+		{
 			return methodInfo;
 		}
-		finally
+
+		//
+		// If methodInfo was not found, try to create it now
+		final IModelMethodInfo methodInfoCreated = methodInfos.computeIfAbsent(method, introspector::createModelMethodInfo);
+		if (methodInfoCreated == null)
 		{
-			modelMethodInfosLock.unlock();
+			throw new IllegalStateException("No method info was found for " + method + " in " + this);
 		}
+		return methodInfoCreated;
 	}
 
 	/**
 	 * Gets the inner map of {@link Method} to {@link IModelMethodInfo}.
 	 * 
-	 * NOTE: this method is not thread safe
-	 * 
-	 * @return
+	 * @return a thread safe map
 	 */
 	private final Map<Method, IModelMethodInfo> getMethodInfos0()
 	{
-		if (_modelMethodInfos == null)
+		Map<Method, IModelMethodInfo> modelMethodInfos = _modelMethodInfos;
+		if (modelMethodInfos == null)
 		{
-			_modelMethodInfos = introspector.createModelMethodInfos(getModelClass());
+			synchronized (this)
+			{
+				modelMethodInfos = _modelMethodInfos;
+				if (modelMethodInfos == null)
+				{
+					modelMethodInfos = new ConcurrentHashMap<>();
+					for (final Map.Entry<Method, IModelMethodInfo> entry : introspector.createModelMethodInfos(getModelClass()).entrySet())
+					{
+						if (entry.getValue() != null)
+						{
+							modelMethodInfos.put(entry.getKey(), entry.getValue());
+						}
+					}
+					_modelMethodInfos = modelMethodInfos;
+				}
+			}
 		}
-		return _modelMethodInfos;
+		return modelMethodInfos;
 	}
 
 	@Override
@@ -74,7 +74,17 @@ public interface ITrxItemExecutorBuilder<IT, RT>
 		 *
 		 * @task https://github.com/metasfresh/metasfresh/issues/302
 		 */
-		ContinueChunkAndCommit;
+		ContinueChunkAndCommit,
+
+		/**
+		 * Roll back the failed chunk and process its items again in two halves, each half as a chunk of its own.
+		 * A failing half is split again, until the failing items are isolated and reported one by one to {@link ITrxItemExceptionHandler#onItemError(Throwable, Object)}.
+		 * So, unlike {@link #CancelChunkAndRollBack}, only the failing items are lost, and unlike per-item savepoints, a chunk without errors costs just one transaction (or savepoint).
+		 * <p>
+		 * Use this only if the processor's chunks are mere batches (e.g. see {@link ITrxItemExecutorBuilder#setItemsPerBatch(int)}), because the items of one failed chunk can end up in different chunks.
+		 * If the executor runs within an external transaction, {@link ITrxItemExecutorBuilder#setUseTrxSavepoints(boolean)} is required.
+		 */
+		RetryChunkByBisection;
 
 		public boolean isCancel()
 		{
@@ -22,7 +22,9 @@ package org.adempiere.ad.trx.processor.api.impl;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.ad.trx.api.ITrxManager;
@@ -32,6 +34,7 @@ import org.adempiere.ad.trx.processor.api.ITrxItemExceptionHandler;
 import org.adempiere.ad.trx.processor.api.ITrxItemExecutorBuilder.OnItemErrorPolicy;
 import org.adempiere.ad.trx.processor.api.ITrxItemProcessorContext;
 import org.adempiere.ad.trx.processor.api.ITrxItemProcessorExecutor;
+import org.adempiere.ad.trx.processor.api.TrxItemProcessorConfigException;
 import org.adempiere.ad.trx.processor.spi.ITrxItemChunkProcessor;
 import org.adempiere.ad.trx.processor.spi.ITrxItemProcessor;
 import org.adempiere.exceptions.AdempiereException;
@@ -41,6 +44,8 @@ import org.adempiere.util.trxConstraints.api.ITrxConstraints;
 import org.adempiere.util.trxConstraints.api.ITrxConstraintsBL;
 import org.slf4j.Logger;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.logging.LogManager;
 import de.metas.util.Check;
 import de.metas.util.Services;
@@ -93,6 +98,15 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 	private ITrxSavepoint chunkTrxSavepoint;
 	private ITrxItemProcessorContext chunkCtx;
 
+	/** items of the current chunk; only collected if {@link OnItemErrorPolicy#RetryChunkByBisection} */
+	private final List<IT> chunkItems = new ArrayList<>();
+
+	// Bisection statistics
+	private int bisectionRetriedChunks = 0;
+	private int bisectionAttempts = 0;
+	private int bisectionMaxDepth = 0;
+	private int bisectionFailedItems = 0;
+
 	TrxItemChunkProcessorExecutor(
 			@NonNull final ITrxItemProcessorContext processorCtx,
 			@NonNull final ITrxItemChunkProcessor<IT, RT> processor,
@@ -129,6 +143,38 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 		return processor;
 	}
 
+	/**
+	 * @return how many failed chunks were retried by bisection (see {@link OnItemErrorPolicy#RetryChunkByBisection})
+	 */
+	public int getBisectionRetriedChunks()
+	{
+		return bisectionRetriedChunks;
+	}
+
+	/**
+	 * @return how many sub-chunks were processed while bisecting failed chunks
+	 */
+	public int getBisectionAttempts()
+	{
+		return bisectionAttempts;
+	}
+
+	/**
+	 * @return the deepest bisection level that was reached; {@code 0} if no chunk was bisected
+	 */
+	public int getBisectionMaxDepth()
+	{
+		return bisectionMaxDepth;
+	}
+
+	/**
+	 * @return how many items were isolated and reported as failed by bisection
+	 */
+	public int getBisectionFailedItems()
+	{
+		return bisectionFailedItems;
+	}
+
 	@Override
 	public RT execute(@NonNull final Iterator<? extends IT> items)
 	{
@@ -138,6 +184,11 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 		final String threadTrxName = trxManager.getThreadInheritedTrxName();
 		try
 		{
+			if (isRetryChunkByBisection() && !requiresNewTrxs && !useTrxSavepoints)
+			{
+				throw new TrxItemProcessorConfigException(OnItemErrorPolicy.RetryChunkByBisection + " requires either no external transaction or trx savepoints, because failed chunks need to be rolled back");
+			}
+
 			// If this executor will create new transactions, make sure transaction constraints are allowing them
 			if (requiresNewTrxs)
 			{
@@ -167,6 +218,12 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 				}
 			}
 
+			if (bisectionRetriedChunks > 0)
+			{
+				logger.info("Retried {} failed chunks by bisection: {} attempts, max bisection depth {}, {} failed items; processor={}",
+						bisectionRetriedChunks, bisectionAttempts, bisectionMaxDepth, bisectionFailedItems, processor);
+			}
+
 			return processor.getResult();
 		}
 		// NOTE: don't catch exceptions here, there are handled in called methods
@@ -247,20 +304,43 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 		// note: it's not illegal to process items that are not handled by InterfaceWrapperHelper, so we tell InterfaceWrapperHelper not to make a fuzz.
 		final boolean ignoreIfNotHandled = true;
 		final String trxNameBkp = InterfaceWrapperHelper.getTrxName(item, ignoreIfNotHandled);
+		Throwable itemErrorToRetry = null;
 		try
 		{
+			if (isRetryChunkByBisection())
+			{
+				chunkItems.add(item);
+			}
+
 			InterfaceWrapperHelper.setTrxName(item, chunkCtx.getTrxName(), ignoreIfNotHandled);
 			processor.process(item);
 		}
 		catch (final Throwable e)
 		{
-			chunkHasErrors = true;
-			exceptionHandler.onItemError(e, item);
+			if (isRetryChunkByBisection())
+			{
+				itemErrorToRetry = e;
+			}
+			else
+			{
+				chunkHasErrors = true;
+				exceptionHandler.onItemError(e, item);
+			}
 		}
 		finally
 		{
 			InterfaceWrapperHelper.setTrxName(item, trxNameBkp, ignoreIfNotHandled);
 		}
+
+		if (itemErrorToRetry != null)
+		{
+			retryChunkByBisection(itemErrorToRetry);
+		}
+	}
+
+	private boolean isRetryChunkByBisection()
+	{
+		return onItemErrorPolicy == OnItemErrorPolicy.RetryChunkByBisection;
 	}
 
 	private final void newChunk(final IT item)
@@ -283,6 +363,7 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 			processor.newChunk(item);
 			chunkOpen = true;
 			chunkHasErrors = false;
+			chunkItems.clear();
 		}
 		catch (final Throwable e)
 		{
@@ -306,7 +387,10 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 		catch (final Throwable ex)
 		{
 			completeError = ex;
-			exceptionHandler.onCompleteChunkError(ex);
+			if (!isRetryChunkByBisection())
+			{
+				exceptionHandler.onCompleteChunkError(ex);
+			}
 		}
 		finally
 		{
@@ -314,9 +398,15 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 			chunkHasErrors = false;
 		}
 
+		//
+		// Completing chunk failed => retry its items by bisection
+		if (completeError != null && isRetryChunkByBisection())
+		{
+			retryChunkByBisection(completeError);
+		}
 		//
 		// Completing chunk failed
-		if (completeError != null)
+		else if (completeError != null)
 		{
 			logger.debug("Processor failed to complete current chunk -> cancel chunk");
 
@@ -409,6 +499,111 @@ class TrxItemChunkProcessorExecutor<IT, RT> implements ITrxItemProcessorExecutor
 		}
 	}
 
+	/**
+	 * Cancels the current (failed) chunk and processes its items again, in halves, until the failing items are isolated.
+	 *
+	 * @param chunkError the error which made the current chunk fail
+	 */
+	private void retryChunkByBisection(@NonNull final Throwable chunkError)
+	{
+		final List<IT> items = ImmutableList.copyOf(chunkItems);
+		chunkItems.clear();
+
+		final boolean processItemFailed = false; // just roll back
+		cancelChunk(processItemFailed);
+
+		bisectionRetriedChunks++;
+		bisect(items, chunkError, 1);
+	}
+
+	private void bisect(@NonNull final List<IT> failedItems, @NonNull final Throwable error, final int depth)
+	{
+		if (failedItems.size() <= 1)
+		{
+			bisectionFailedItems += failedItems.size();
+			failedItems.forEach(item -> exceptionHandler.onItemError(error, item));
+			return;
+		}
+
+		bisectionMaxDepth = Math.max(bisectionMaxDepth, depth);
+
+		final int middle = failedItems.size() / 2;
+		for (final List<IT> half : ImmutableList.of(failedItems.subList(0, middle), failedItems.subList(middle, failedItems.size())))
+		{
+			final Throwable halfError = processAsOneChunk(half);
+			if (halfError != null)
+			{
+				bisect(half, halfError, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * Processes the given items in one chunk and commits it.
+	 *
+	 * @return {@code null} if the chunk was committed; otherwise the error which made it fail, in which case the chunk was canceled and rolled back
+	 */
+	private Throwable processAsOneChunk(@NonNull final List<IT> items)
+	{
+		bisectionAttempts++;
+
+		startChunkTrx();
+
+		final ITrxItemProcessorContext attemptCtx = processorCtx.copy();
+		attemptCtx.setTrx(chunkTrx);
+		processor.setTrxItemProcessorCtx(attemptCtx);
+
+		boolean chunkStarted = false;
+		boolean chunkCompleted = false;
+		try
+		{
+			processor.newChunk(items.get(0));
+			chunkStarted = true;
+
+			final boolean ignoreIfNotHandled = true;
+			for (final IT item : items)
+			{
+				final String trxNameBkp = InterfaceWrapperHelper.getTrxName(item, ignoreIfNotHandled);
+				try
+				{
+					InterfaceWrapperHelper.setTrxName(item, attemptCtx.getTrxName(), ignoreIfNotHandled);
+					processor.process(item);
+				}
+				finally
+				{
+					InterfaceWrapperHelper.setTrxName(item, trxNameBkp, ignoreIfNotHandled);
+				}
+			}
+
+			processor.completeChunk();
+			chunkCompleted = true;
+
+			commitChunkTrx();
+			return null;
+		}
+		catch (final Throwable e)
+		{
+			if (chunkStarted && !chunkCompleted)
+			{
+				try
+				{
+					processor.cancelChunk();
+				}
+				catch (final Throwable cancelEx)
+				{
+					exceptionHandler.onCancelChunkError(cancelEx);
+					rollbackChunkTrx();
+					throw new AdempiereException("Failed canceling current chunk", cancelEx);
+				}
+			}
+			if (chunkTrx != null)
+			{
+				rollbackChunkTrx();
+			}
+			return e;
+		}
+	}
+
 	/**
 	 * Start a new transaction for the the new chunk that will come.
 	 *
@@ -0,0 +1,109 @@
+package org.adempiere.archive.process;
+
+import java.util.Iterator;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.archive.api.IArchiveBL;
+import org.adempiere.archive.api.IArchiveStorageFactory;
+import org.adempiere.archive.spi.IArchiveStorage;
+import org.adempiere.archive.spi.impl.FilesystemArchiveStorage;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.compiere.model.IQuery;
+import org.compiere.model.I_AD_Archive;
+
+import de.metas.process.JavaProcess;
+import de.metas.process.Param;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Moves the current client's {@code AD_Archive} data (from the database or from the "classic" file system layout) into the content-addressed file system storage.
+ * Requires {@link FilesystemArchiveStorage#SYSCONFIG_ContentAddressed} to be enabled for the client.
+ * <p>
+ * Note that the old files of archives that were already stored on the file system are not deleted.
+ */
+public class AD_Archive_MoveToContentAddressedStorage extends JavaProcess
+{
+	private final IQueryBL queryBL = Services.get(IQueryBL.class);
+	private final IArchiveBL archiveBL = Services.get(IArchiveBL.class);
+	private final IArchiveStorageFactory archiveStorageFactory = Services.get(IArchiveStorageFactory.class);
+
+	/** Max number of archives to move in one run; not positive means all. */
+	@Param(parameterName = "Limit")
+	private int p_Limit = -1;
+
+	@Override
+	protected String doIt() throws Exception
+	{
+		final FilesystemArchiveStorage storage = getContentAddressedStorage();
+
+		final Iterator<I_AD_Archive> archives = queryBL.createQueryBuilder(I_AD_Archive.class)
+				.addOnlyContextClient()
+				.orderBy(I_AD_Archive.COLUMNNAME_AD_Archive_ID)
+				.create()
+				.setOption(IQuery.OPTION_GuaranteedIteratorRequired, true)
+				.setOption(IQuery.OPTION_IteratorBufferSize, 100)
+				.iterate(I_AD_Archive.class);
+
+		int countMoved = 0;
+		int countSkipped = 0;
+		while (archives.hasNext() && (p_Limit <= 0 || countMoved < p_Limit))
+		{
+			final I_AD_Archive archive = archives.next();
+			if (storage.isContentAddressed(archive))
+			{
+				countSkipped++;
+				continue;
+			}
+
+			final byte[] data = archiveBL.getBinaryData(archive);
+			if (data == null || data.length == 0)
+			{
+				countSkipped++;
+				continue;
+			}
+
+			storage.setBinaryData(archive, data);
+			InterfaceWrapperHelper.save(archive);
+			countMoved++;
+		}
+
+		addLog("Moved {} AD_Archive records to {}; skipped {} records", countMoved, storage, countSkipped);
+		return MSG_OK;
+	}
+
+	private FilesystemArchiveStorage getContentAddressedStorage()
+	{
+		final IArchiveStorage storage = archiveStorageFactory.getArchiveStorage(getCtx(), IArchiveStorageFactory.STORAGETYPE_Filesystem);
+		if (!(storage instanceof FilesystemArchiveStorage) || !((FilesystemArchiveStorage)storage).isContentAddressed())
+		{
+			throw new AdempiereException("The file system archive storage is not content-addressed")
+					.appendParametersToMessage()
+					.setParameter("storage", storage)
+					.setParameter("sysConfig", FilesystemArchiveStorage.SYSCONFIG_ContentAddressed);
+		}
+		return (FilesystemArchiveStorage)storage;
+	}
+}
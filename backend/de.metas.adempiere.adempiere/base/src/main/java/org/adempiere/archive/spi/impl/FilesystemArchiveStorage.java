@@ -27,8 +27,14 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Properties;
 import org.slf4j.Logger;
+
+import com.google.common.hash.Hashing;
+
 import de.metas.logging.LogManager;
 import de.metas.util.Check;
 import de.metas.util.Services;
@@ -38,11 +44,11 @@ import org.adempiere.archive.api.IArchiveBL;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.IClientDAO;
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.model.I_AD_Archive;
 import org.compiere.model.I_AD_Client;
 import org.compiere.util.Ini;
 import org.compiere.util.MimeType;
-import org.compiere.util.Util;
 
 /**
  * File system archive storage
@@ -62,8 +68,20 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 	 */
 	private static final String ARCHIVE_FOLDER_PLACEHOLDER = "%ARCHIVE_FOLDER%";
 
+	/**
+	 * If set to {@code Y} for a client, then new archive data is stored content-addressed, see {@link #setBinaryDataContentAddressed(I_AD_Archive, byte[])}.
+	 */
+	public static final String SYSCONFIG_ContentAddressed = "org.adempiere.archive.spi.impl.FilesystemArchiveStorage.ContentAddressed";
+
+	/**
+	 * Subfolder of the archive root which contains the content-addressed files.
+	 */
+	private static final String CONTENT_ADDRESSED_FOLDER = "cas";
+
 	private String archivePathRoot;
 
+	private boolean contentAddressed;
+
 	public FilesystemArchiveStorage()
 	{
 		super();
@@ -74,7 +92,8 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 	{
 		final I_AD_Client client = Services.get(IClientDAO.class).retriveClient(ctx, adClientId);
 		this.archivePathRoot = getArchivePath(client);
-		logger.info("Archive Path: {}, Config={}", new Object[] { archivePathRoot, client });
+		this.contentAddressed = Services.get(ISysConfigBL.class).getBooleanValue(SYSCONFIG_ContentAddressed, false, adClientId);
+		logger.info("Archive Path: {}, ContentAddressed: {}, Config={}", new Object[] { archivePathRoot, contentAddressed, client });
 	}
 	
 	private final void checkContext()
@@ -138,12 +157,51 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 	 */
 	@Override
 	public byte[] getBinaryData(final I_AD_Archive archive)
+	{
+		final File file = getFileOrNull(archive);
+		if (file == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return Files.readAllBytes(file.toPath());
+		}
+		catch (IOException ioe)
+		{
+			// I/O error
+			throw new AdempiereException(ioe.getLocalizedMessage(), ioe);
+		}
+	}
+
+	/**
+	 * @return a stream that reads directly from the archive's file, so the data doesn't need to be loaded into memory as a whole
+	 */
+	@Override
+	public InputStream getBinaryDataAsStream(final I_AD_Archive archive)
+	{
+		final File file = getFileOrNull(archive);
+		if (file == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return Files.newInputStream(file.toPath());
+		}
+		catch (IOException ioe)
+		{
+			throw new AdempiereException(ioe.getLocalizedMessage(), ioe);
+		}
+	}
+
+	private File getFileOrNull(final I_AD_Archive archive)
 	{
 		checkContext();
-		
+
 		byte[] data = archive.getBinaryData();
-		// m_deflated = null;
-		// m_inflated = null;
 		if (data == null)
 		{
 			return null;
@@ -174,9 +232,7 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 			{
 				throw new AdempiereException("File not found: " + file.getAbsolutePath());
 			}
-
-			final byte[] dataEntry = Util.readBytes(file);
-			return dataEntry;
+			return file;
 		}
 		catch (IOException ioe)
 		{
@@ -184,7 +240,6 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 			// logger.error(ioe.getLocalizedMessage(), ioe);
 			throw new AdempiereException(ioe.getLocalizedMessage(), ioe);
 		}
-		// return null;
 	}
 
 	/**
@@ -202,6 +257,12 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 			throw new IllegalArgumentException("InflatedData is NULL");
 		}
 
+		if (contentAddressed)
+		{
+			setBinaryDataContentAddressed(archive, inflatedData);
+			return;
+		}
+
 		if (archive.getAD_Archive_ID() <= 0)
 		{
 			// set binary data otherwise save will fail
@@ -260,6 +321,105 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 
 	}
 
+	/**
+	 * Stores the given data in a file that is named after the data's SHA-256 hash, in a directory tree that is sharded by the hash's first two bytes.
+	 * <p>
+	 * Archives with identical data (e.g. re-prints or copies) therefore share one file, and the file is written only once.
+	 * The {@code AD_Archive} records that point to a file are its references. Note that such files are never deleted by this class.
+	 */
+	private void setBinaryDataContentAddressed(final I_AD_Archive archive, final byte[] inflatedData)
+	{
+		final String hash = Hashing.sha256().hashBytes(inflatedData).toString();
+		final String mimeType = Services.get(IArchiveBL.class).getContentType(archive);
+		final String fileExtension = MimeType.getExtensionByType(mimeType);
+
+		final String pathSnippet = CONTENT_ADDRESSED_FOLDER + File.separator
+				+ hash.substring(0, 2) + File.separator
+				+ hash.substring(2, 4) + File.separator;
+		final String filenamePart = hash + fileExtension;
+
+		try
+		{
+			final File destFolder = new File(archivePathRoot + pathSnippet);
+			final File destFile = new File(destFolder, filenamePart);
+			if (isExistingFileWithContent(destFile, inflatedData.length, hash))
+			{
+				logger.debug("Content-addressed file {} already exists; not writing it again", destFile);
+			}
+			else
+			{
+				if (destFile.exists())
+				{
+					logger.warn("Content-addressed file {} exists, but its content does not match its name; overwriting it", destFile);
+				}
+
+				Files.createDirectories(destFolder.toPath());
+
+				// write to a temp file first and then move it, so that a concurrent reader never sees an incomplete file.
+				// if another thread is writing the same file concurrently, the last move wins; that's fine, because the content is identical.
+				final File tempFile = File.createTempFile(hash, ".tmp", destFolder);
+				try
+				{
+					Files.write(tempFile.toPath(), inflatedData);
+					Files.move(tempFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				finally
+				{
+					Files.deleteIfExists(tempFile.toPath());
+				}
+			}
+
+			final String archiveInfo = ARCHIVE_FOLDER_PLACEHOLDER + pathSnippet + filenamePart;
+			archive.setBinaryData(archiveInfo.getBytes(UTF_8));
+			archive.setIsFileSystem(true);
+		}
+		catch (Exception e)
+		{
+			archive.setBinaryData(null);
+			throw new AdempiereException("Error saving data to filesystem (archive=" + archive + ")", e);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the given file exists and has the given size and SHA-256 hash, i.e. it was completely written with the expected data.
+	 */
+	private static boolean isExistingFileWithContent(final File file, final long expectedSize, final String expectedHash) throws IOException
+	{
+		if (!file.isFile() || file.length() != expectedSize)
+		{
+			return false;
+		}
+		return expectedHash.equals(com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()).toString());
+	}
+
+	/**
+	 * @return {@code true} if the given archive's data is stored in a content-addressed file.
+	 */
+	public boolean isContentAddressed(final I_AD_Archive archive)
+	{
+		final byte[] data = archive.getBinaryData();
+		if (!archive.isFileSystem() || data == null)
+		{
+			return false;
+		}
+
+		try
+		{
+			final String filePath = new String(data, UTF_8);
+			return filePath.startsWith(ARCHIVE_FOLDER_PLACEHOLDER + CONTENT_ADDRESSED_FOLDER + "/")
+					|| filePath.startsWith(ARCHIVE_FOLDER_PLACEHOLDER + CONTENT_ADDRESSED_FOLDER + "\\");
+		}
+		catch (IOException e)
+		{
+			throw new AdempiereException(e.getLocalizedMessage(), e);
+		}
+	}
+
+	public boolean isContentAddressed()
+	{
+		return contentAddressed;
+	}
+
 	/**
 	 * Returns the archive path (snippet), containing client, org and archive id. The process, table and record id are only included when they are not null.
 	 * 
@@ -295,6 +455,6 @@ public class FilesystemArchiveStorage extends AbstractArchiveStorage
 	@Override
 	public String toString()
 	{
-		return "FilesystemArchiveStorage [RootPath=" + archivePathRoot + "]";
+		return "FilesystemArchiveStorage [RootPath=" + archivePathRoot + ", ContentAddressed=" + contentAddressed + "]";
 	}
 }
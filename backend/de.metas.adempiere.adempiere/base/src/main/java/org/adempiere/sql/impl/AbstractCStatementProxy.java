@@ -41,6 +41,7 @@ import org.compiere.util.CStatementVO;
 import org.compiere.util.DB;
 import org.compiere.util.Trx;
 
+import de.metas.connection.ReadReplicaRouting;
 import de.metas.util.Check;
 import de.metas.util.Services;
 
@@ -76,6 +77,10 @@ import de.metas.util.Services;
 				{
 					m_conn = DB.getConnectionRW();
 				}
+				else if (ReadReplicaRouting.isRouteToReadReplica())
+				{
+					m_conn = DB.getConnectionReadReplicaOrRO();
+				}
 				else
 				{
 					m_conn = DB.getConnectionRO();
@@ -83,6 +83,14 @@ public interface IQuery<T>
 	 */
 	String OPTION_ReturnReadOnlyRecords = "ReturnReadOnlyRecords";
 
+	/**
+	 * If set to {@code true} and the query is not running in a transaction, then it's executed on the read replica database, if there is one.
+	 * Use it only for queries which can live with slightly stale data, e.g. reports and exports.
+	 *
+	 * @see de.metas.connection.ReadReplicaRouting
+	 */
+	String OPTION_ReadFromReplica = "ReadFromReplica";
+
 	/**
 	 * Default value for {@link #OPTION_GuaranteedIteratorRequired}.
 	 * <p>
@@ -12,6 +12,8 @@ import org.adempiere.exceptions.AdempiereException;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -68,6 +70,14 @@ public class CtxNames
 
 	private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z0-9_\\-\\.#$|]+");
 
+	/**
+	 * "context without markers" to {@link CtxName} cache.
+	 * {@link CtxName}s are immutable and {@link Env#getContext(java.util.Properties, String)} & co. parse the given context name on each call, so we don't want to split and regex-match the same few names over and over again.
+	 */
+	private static final Cache<String, CtxName> parsedNamesCache = CacheBuilder.newBuilder()
+			.maximumSize(10000)
+			.build();
+
 	/**
 	 * Returns an immutable set of {@link CtxName}s that contains the results of {@link CtxNames#parse(String)}, applied to the strings of the given {@code stringsWithoutMarkers}.
 	 *
@@ -115,6 +125,19 @@ public class CtxNames
 			return null;
 		}
 
+		final CtxName cachedName = parsedNamesCache.getIfPresent(contextWithoutMarkers);
+		if (cachedName != null)
+		{
+			return cachedName;
+		}
+
+		final CtxName name = parse0(contextWithoutMarkers);
+		parsedNamesCache.put(contextWithoutMarkers, name);
+		return name;
+	}
+
+	private static CtxName parse0(@NonNull final String contextWithoutMarkers)
+	{
 		final List<String> modifiers = new ArrayList<>();
 		final String name = extractNameAndModifiers(contextWithoutMarkers, modifiers);
 
@@ -0,0 +1,74 @@
+package de.metas.connection.impl;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Verifies that the lag check uses the function names of the respective PostgreSQL version. See {@link ReadReplicaDataSource}'s javadoc for how to test the routing manually.
+ */
+public class ReadReplicaDataSourceTest
+{
+	@Test
+	public void buildSqlSelectPrimaryWalPosition_PG95()
+	{
+		assertThat(ReadReplicaDataSource.buildSqlSelectPrimaryWalPosition(9), is("SELECT pg_current_xlog_location()::text"));
+	}
+
+	@Test
+	public void buildSqlSelectPrimaryWalPosition_PG10()
+	{
+		assertThat(ReadReplicaDataSource.buildSqlSelectPrimaryWalPosition(10), is("SELECT pg_current_wal_lsn()::text"));
+	}
+
+	@Test
+	public void buildSqlSelectReplicationLagMillis_PG95()
+	{
+		final String sql = ReadReplicaDataSource.buildSqlSelectReplicationLagMillis(9);
+		assertThat(sql, containsString("pg_last_xlog_replay_location() >= CAST(? AS pg_lsn)"));
+		assertThat(sql, not(containsString("_wal_")));
+	}
+
+	@Test
+	public void buildSqlSelectReplicationLagMillis_PG12()
+	{
+		final String sql = ReadReplicaDataSource.buildSqlSelectReplicationLagMillis(12);
+		assertThat(sql, containsString("pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn)"));
+		assertThat(sql, not(containsString("_xlog_")));
+	}
+
+	/**
+	 * A replica whose WAL receiver is disconnected replayed everything it received. It must not be considered up to date just because of that.
+	 */
+	@Test
+	public void buildSqlSelectReplicationLagMillis_doesNotCompareReceivedWithReplayed()
+	{
+		assertThat(ReadReplicaDataSource.buildSqlSelectReplicationLagMillis(9), not(containsString("receive")));
+		assertThat(ReadReplicaDataSource.buildSqlSelectReplicationLagMillis(10), not(containsString("receive")));
+	}
+}
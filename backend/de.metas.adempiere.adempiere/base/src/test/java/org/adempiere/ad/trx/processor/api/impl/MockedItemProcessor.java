@@ -55,6 +55,7 @@ public class MockedItemProcessor implements ITrxItemChunkProcessor<Item, ItemPro
 	private final List<Item> errorItems = new ArrayList<Item>();
 	private final List<String> errorOnNewChunkGroupKeys = new ArrayList<String>();
 	private final List<String> errorOnChunkCompleteGroupKeys = new ArrayList<String>();
+	private final List<Item> errorOnChunkCompleteItems = new ArrayList<Item>();
 	private final List<String> errorOnChunkCancelGroupKeys = new ArrayList<String>();
 	private Boolean expectTrxSavepoints = null;
 
@@ -150,6 +151,13 @@ public class MockedItemProcessor implements ITrxItemChunkProcessor<Item, ItemPro
 		{
 			throw new RuntimeException("Test exception on completeChunk for group: " + groupKey);
 		}
+		for (final Item item : currentAggregatedItem.getItems())
+		{
+			if (errorOnChunkCompleteItems.contains(item))
+			{
+				throw new RuntimeException("Test exception on completeChunk for item: " + item);
+			}
+		}
 
 		result.addAggregatedItem(currentAggregatedItem);
 		currentAggregatedItem = null;
@@ -187,6 +195,15 @@ public class MockedItemProcessor implements ITrxItemChunkProcessor<Item, ItemPro
 		errorOnChunkCompleteGroupKeys.add(groupKey);
 	}
 
+	/**
+	 * Makes {@link #completeChunk()} fail for every chunk which contains the given item.
+	 */
+	public void setThrowExceptionOnCompleteChunkIfItem(final Item item)
+	{
+		Check.assumeNotNull(item, "item not null");
+		errorOnChunkCompleteItems.add(item);
+	}
+
 	public void setThrowExceptionOnCancelChunk(final String groupKey)
 	{
 		Check.assumeNotEmpty(groupKey, "groupKey not null");
@@ -64,6 +64,8 @@ class TrxItemProcessorExecutorRunExpectations<IT, RT>
 	private RT expectedResult;
 	private Class<?> expectedExceptionClass;
 	private OnItemErrorPolicy onItemErrorPolicy;
+	//
+	private TrxItemChunkProcessorExecutor<IT, RT> executor;
 
 	/**
 	 * The exception handler that is used when we test the executor. Extend as needed.
@@ -120,7 +122,7 @@ class TrxItemProcessorExecutorRunExpectations<IT, RT>
 
 				//
 				// Create the executor
-				final TrxItemChunkProcessorExecutor<IT, RT> executor = new TrxItemChunkProcessorExecutor<>(
+				executor = new TrxItemChunkProcessorExecutor<>(
 						processorCtx,    // processing context
 						processor,    // processor
 						exceptionHandler,
@@ -216,6 +218,14 @@ class TrxItemProcessorExecutorRunExpectations<IT, RT>
 		}
 	}
 
+	/**
+	 * @return the executor of the last {@link #assertExpected()} run
+	 */
+	public TrxItemChunkProcessorExecutor<IT, RT> getExecutor()
+	{
+		return executor;
+	}
+
 	public TrxItemProcessorExecutorRunExpectations<IT, RT> setProcessor(final ITrxItemChunkProcessor<IT, RT> processor)
 	{
 		this._processor = processor;
@@ -38,6 +38,7 @@ import org.adempiere.ad.trx.api.impl.MockedTrxManager;
 import org.adempiere.ad.trx.api.impl.PredictableTrxNameGenerator;
 import org.adempiere.ad.trx.processor.api.ITrxItemExecutorBuilder;
 import org.adempiere.ad.trx.processor.api.ITrxItemExecutorBuilder.OnItemErrorPolicy;
+import org.adempiere.ad.trx.processor.api.TrxItemProcessorConfigException;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.test.AdempiereTestHelper;
 import org.junit.Before;
@@ -104,8 +105,9 @@ public class TrxItemProcessorExecutorTest
 	 * @param onItemErrorPolicy
 	 * @param resultExpected
 	 * @param expectedExceptionClass
+	 * @return the executor which was run, e.g. to check its statistics
 	 */
-	private void assertProcessorResult(
+	private TrxItemChunkProcessorExecutor<Item, ItemProcessorResult> assertProcessorResult(
 			final List<Item> items,
 			final ITrxItemExecutorBuilder.OnItemErrorPolicy onItemErrorPolicy,
 			final ItemProcessorResult resultExpected,
@@ -124,6 +126,7 @@ public class TrxItemProcessorExecutorTest
 		expectations
 				.setRunInTrx(false)
 				.assertExpected();
+		return expectations.getExecutor();
 	}
 
 	private void assertProcessorResult_CancelChunkAndRollBack(
@@ -419,6 +422,180 @@ public class TrxItemProcessorExecutorTest
 		assertTrx("trx3", 1, 0);
 	}
 
+	@Test
+	public void test_execute_FailingItem_RetryChunkByBisection()
+	{
+		final Item errorItem = findItem(items, "1", "2");
+		processor.setThrowExceptionIfItem(errorItem);
+
+		final ItemProcessorResult resultExpected = new ItemProcessorResult(
+				// trx1: 1-1 and 1-2 fail together; trx2: first half (1-1); trx3: second half (1-2) fails again
+				new AggregatedItem("1", "trx2",
+						new Item("1", "1")),
+				// after the failed chunk was retried, 1-3 starts a new chunk
+				new AggregatedItem("1", "trx4",
+						new Item("1", "3")),
+				new AggregatedItem("2", "trx5",
+						new Item("2", "1")),
+				new AggregatedItem("3", "trx6",
+						new Item("3", "1"),
+						new Item("3", "2"),
+						new Item("3", "3")));
+
+		final TrxItemChunkProcessorExecutor<Item, ItemProcessorResult> executor = assertProcessorResult(items,
+				OnItemErrorPolicy.RetryChunkByBisection,
+				resultExpected,
+				null);
+
+		assertAllItemsNoError(items, errorItem);
+		assertAllItemsProcessed(items);
+		assertBisectionStatistics(executor, 1, 2, 1, 1);
+
+		assertTrx("trx1", 0, 1);
+		assertTrx("trx2", 1, 0);
+		assertTrx("trx3", 0, 1);
+		assertTrx("trx4", 1, 0);
+		assertTrx("trx5", 1, 0);
+		assertTrx("trx6", 1, 0);
+	}
+
+	@Test
+	public void test_execute_Failing_CompleteChunk_RetryChunkByBisection()
+	{
+		processor.setThrowExceptionOnCompleteChunk("2");
+
+		final ItemProcessorResult resultExpected = new ItemProcessorResult(
+				new AggregatedItem("1", "trx1",
+						new Item("1", "1"),
+						new Item("1", "2"),
+						new Item("1", "3")),
+				// chunk "2" has only one item, which fails on its own => there is nothing to bisect
+				new AggregatedItem("3", "trx3",
+						new Item("3", "1"),
+						new Item("3", "2"),
+						new Item("3", "3")));
+
+		final TrxItemChunkProcessorExecutor<Item, ItemProcessorResult> executor = assertProcessorResult(items,
+				OnItemErrorPolicy.RetryChunkByBisection,
+				resultExpected,
+				null);
+
+		assertAllItemsNoError(items, findItem(items, "2", "1"));
+		assertBisectionStatistics(executor, 1, 0, 0, 1);
+
+		assertTrx("trx1", 1, 0);
+		assertTrx("trx2", 0, 1);
+		assertTrx("trx3", 1, 0);
+	}
+
+	@Test
+	public void test_execute_Failing_CompleteChunk_RetryChunkByBisection_MultipleItems()
+	{
+		final Item errorItem = findItem(items, "1", "2");
+		processor.setThrowExceptionOnCompleteChunkIfItem(errorItem);
+
+		final ItemProcessorResult resultExpected = new ItemProcessorResult(
+				// trx1: chunk "1" fails on completion; trx2: first half (1-1); trx3: second half (1-2, 1-3) fails again;
+				// trx4: 1-2 fails on its own; trx5: 1-3
+				new AggregatedItem("1", "trx2",
+						new Item("1", "1")),
+				new AggregatedItem("1", "trx5",
+						new Item("1", "3")),
+				new AggregatedItem("2", "trx6",
+						new Item("2", "1")),
+				new AggregatedItem("3", "trx7",
+						new Item("3", "1"),
+						new Item("3", "2"),
+						new Item("3", "3")));
+
+		final TrxItemChunkProcessorExecutor<Item, ItemProcessorResult> executor = assertProcessorResult(items,
+				OnItemErrorPolicy.RetryChunkByBisection,
+				resultExpected,
+				null);
+
+		assertAllItemsNoError(items, errorItem);
+		assertAllItemsProcessed(items);
+		assertBisectionStatistics(executor, 1, 4, 2, 1);
+
+		assertTrx("trx1", 0, 1);
+		assertTrx("trx2", 1, 0);
+		assertTrx("trx3", 0, 1);
+		assertTrx("trx4", 0, 1);
+		assertTrx("trx5", 1, 0);
+		assertTrx("trx6", 1, 0);
+		assertTrx("trx7", 1, 0);
+	}
+
+	/**
+	 * Same as {@link #test_execute_Failing_CompleteChunk_RetryChunkByBisection_MultipleItems()}, but within an external transaction.
+	 * The failed chunks and sub-chunks shall be rolled back to their savepoints.
+	 */
+	@Test
+	public void test_execute_Failing_CompleteChunk_RetryChunkByBisection_UseTrxSavepoints()
+	{
+		final Item errorItem = findItem(items, "1", "2");
+		processor.setThrowExceptionOnCompleteChunkIfItem(errorItem);
+		processor.setExpectTrxSavepoints(true);
+
+		final ItemProcessorResult resultExpected = new ItemProcessorResult(
+				new AggregatedItem("1", "trx1",
+						new Item("1", "1")),
+				new AggregatedItem("1", "trx1",
+						new Item("1", "3")),
+				new AggregatedItem("2", "trx1",
+						new Item("2", "1")),
+				new AggregatedItem("3", "trx1",
+						new Item("3", "1"),
+						new Item("3", "2"),
+						new Item("3", "3")));
+
+		final TrxItemProcessorExecutorRunExpectations<Item, ItemProcessorResult> expectations = new TrxItemProcessorExecutorRunExpectations<Item, ItemProcessorResult>()
+				.setProcessor(processor)
+				.setItems(items)
+				.setExpectedResult(resultExpected)
+				.setRunInTrx(true)
+				.setUseTrxSavepoints(true)
+				.setOnItemErrorPolicy(OnItemErrorPolicy.RetryChunkByBisection);
+		expectations.assertExpected();
+
+		assertAllItemsNoError(items, errorItem);
+		assertAllItemsProcessed(items);
+		assertBisectionStatistics(expectations.getExecutor(), 1, 4, 2, 1);
+	}
+
+	/**
+	 * Without trx savepoints, failed chunks could not be rolled back within an external transaction.
+	 */
+	@Test
+	public void test_execute_RetryChunkByBisection_ExternalTrxWithoutSavepoints()
+	{
+		new TrxItemProcessorExecutorRunExpectations<Item, ItemProcessorResult>()
+				.setProcessor(processor)
+				.setItems(items)
+				.setExpectedResult(new ItemProcessorResult())
+				.setExpectedExceptionClass(TrxItemProcessorConfigException.class)
+				.setRunInTrx(true)
+				.setUseTrxSavepoints(false)
+				.setOnItemErrorPolicy(OnItemErrorPolicy.RetryChunkByBisection)
+				.assertExpected();
+
+		assertAllItemsNoError(items);
+		assertFalse("no item shall be processed", items.stream().anyMatch(Item::isProcessed));
+	}
+
+	private static void assertBisectionStatistics(
+			final TrxItemChunkProcessorExecutor<Item, ItemProcessorResult> executor,
+			final int retriedChunks,
+			final int attempts,
+			final int maxDepth,
+			final int failedItems)
+	{
+		assertThat("bisectionRetriedChunks", executor.getBisectionRetriedChunks(), is(retriedChunks));
+		assertThat("bisectionAttempts", executor.getBisectionAttempts(), is(attempts));
+		assertThat("bisectionMaxDepth", executor.getBisectionMaxDepth(), is(maxDepth));
+		assertThat("bisectionFailedItems", executor.getBisectionFailedItems(), is(failedItems));
+	}
+
 	@Test
 	public void test_execute_Success()
 	{
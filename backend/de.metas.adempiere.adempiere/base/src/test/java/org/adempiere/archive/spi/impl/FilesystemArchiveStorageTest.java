@@ -23,11 +23,20 @@ package org.adempiere.archive.spi.impl;
  */
 
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ClientId;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.test.AdempiereTestHelper;
 import org.compiere.model.I_AD_Archive;
 import org.compiere.model.I_AD_Client;
@@ -40,6 +49,9 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import de.metas.organization.OrgId;
+import de.metas.util.Services;
+
 public class FilesystemArchiveStorageTest
 {
 	@BeforeClass
@@ -90,6 +102,77 @@ public class FilesystemArchiveStorageTest
 		Assert.assertArrayEquals("Invalid data", data, dataActual);
 	}
 
+	@Test
+	public void test_set_getBinaryData_contentAddressed()
+	{
+		Ini.setClient(false);
+
+		final Properties ctx = Env.getCtx();
+		final int adClientId = Env.getAD_Client_ID(ctx);
+		Services.get(ISysConfigBL.class).setValue(FilesystemArchiveStorage.SYSCONFIG_ContentAddressed, true, ClientId.ofRepoId(adClientId), OrgId.ANY);
+		storage = new FilesystemArchiveStorage();
+		storage.init(ctx, adClientId);
+
+		final byte[] data = createTestDataBytes();
+
+		final I_AD_Archive archive1 = InterfaceWrapperHelper.create(ctx, I_AD_Archive.class, ITrx.TRXNAME_None);
+		storage.setBinaryData(archive1, data);
+		InterfaceWrapperHelper.save(archive1);
+
+		final I_AD_Archive archive2 = InterfaceWrapperHelper.create(ctx, I_AD_Archive.class, ITrx.TRXNAME_None);
+		storage.setBinaryData(archive2, data);
+		InterfaceWrapperHelper.save(archive2);
+
+		Assert.assertEquals("Invalid IsFileSystem flag", true, archive1.isFileSystem());
+		Assert.assertTrue("archive1 shall be content-addressed", storage.isContentAddressed(archive1));
+		Assert.assertArrayEquals("Identical data shall be stored in the same file", archive1.getBinaryData(), archive2.getBinaryData());
+
+		Assert.assertArrayEquals("Invalid data", data, storage.getBinaryData(archive1));
+		Assert.assertArrayEquals("Invalid data", data, storage.getBinaryData(archive2));
+	}
+
+	/**
+	 * Verifies that an existing content-addressed file whose content does not match its hash (e.g. because it was written incompletely) is overwritten.
+	 */
+	@Test
+	public void test_setBinaryData_contentAddressed_existingFileCorrupt() throws IOException
+	{
+		Ini.setClient(false);
+
+		final Properties ctx = Env.getCtx();
+		final int adClientId = Env.getAD_Client_ID(ctx);
+		Services.get(ISysConfigBL.class).setValue(FilesystemArchiveStorage.SYSCONFIG_ContentAddressed, true, ClientId.ofRepoId(adClientId), OrgId.ANY);
+		storage = new FilesystemArchiveStorage();
+		storage.init(ctx, adClientId);
+
+		final byte[] data = createTestDataBytes();
+
+		final I_AD_Archive archive1 = InterfaceWrapperHelper.create(ctx, I_AD_Archive.class, ITrx.TRXNAME_None);
+		storage.setBinaryData(archive1, data);
+		InterfaceWrapperHelper.save(archive1);
+
+		final Path file = retrieveSingleStoredFile();
+		Files.write(file, Arrays.copyOf(data, data.length / 2));
+
+		final I_AD_Archive archive2 = InterfaceWrapperHelper.create(ctx, I_AD_Archive.class, ITrx.TRXNAME_None);
+		storage.setBinaryData(archive2, data);
+		InterfaceWrapperHelper.save(archive2);
+
+		Assert.assertEquals("The corrupt file shall be replaced and no other file created", file, retrieveSingleStoredFile());
+		Assert.assertArrayEquals("Invalid data", data, storage.getBinaryData(archive1));
+		Assert.assertArrayEquals("Invalid data", data, storage.getBinaryData(archive2));
+	}
+
+	private Path retrieveSingleStoredFile() throws IOException
+	{
+		try (final Stream<Path> files = Files.walk(storageFolder.getRoot().toPath()))
+		{
+			final List<Path> regularFiles = files.filter(Files::isRegularFile).collect(Collectors.toList());
+			Assert.assertEquals("Stored files: " + regularFiles, 1, regularFiles.size());
+			return regularFiles.get(0);
+		}
+	}
+
 	private final Random random = new Random();
 
 	private byte[] createTestDataBytes()
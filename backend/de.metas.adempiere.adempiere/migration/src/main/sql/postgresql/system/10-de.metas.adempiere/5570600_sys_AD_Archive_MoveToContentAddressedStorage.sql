@@ -0,0 +1,29 @@
+-- 2020-10-19T09:12:31.482Z
+-- URL zum Konzept
+INSERT INTO AD_Process (AccessLevel,AD_Client_ID,AD_Org_ID,AD_Process_ID,AllowProcessReRun,Classname,CopyFromProcess,Created,CreatedBy,Description,EntityType,IsActive,IsApplySecuritySettings,IsBetaFunctionality,IsDirectPrint,IsNotifyUserAfterExecution,IsOneInstanceOnly,IsReport,IsServerProcess,IsTranslateExcelHeaders,IsUseBPartnerLanguage,LockWaitTimeout,Name,RefreshAllAfterExecution,ShowHelp,Type,Updated,UpdatedBy,Value) VALUES ('6',0,0,584752,'Y','org.adempiere.archive.process.AD_Archive_MoveToContentAddressedStorage','N',TO_TIMESTAMP('2020-10-19 11:12:31','YYYY-MM-DD HH24:MI:SS'),100,'Moves the client''s archive data into the content-addressed file system storage. Requires the SysConfig org.adempiere.archive.spi.impl.FilesystemArchiveStorage.ContentAddressed=Y.','D','Y','N','N','N','N','Y','N','N','Y','Y',0,'Archive in inhaltsadressierten Speicher verschieben','N','N','Java',TO_TIMESTAMP('2020-10-19 11:12:31','YYYY-MM-DD HH24:MI:SS'),100,'AD_Archive_MoveToContentAddressedStorage')
+;
+
+-- 2020-10-19T09:12:31.560Z
+-- URL zum Konzept
+INSERT INTO AD_Process_Trl (AD_Language,AD_Process_ID, Description,Help,Name, IsTranslated,AD_Client_ID,AD_Org_ID,Created,Createdby,Updated,UpdatedBy) SELECT l.AD_Language, t.AD_Process_ID, t.Description,t.Help,t.Name, 'N',t.AD_Client_ID,t.AD_Org_ID,t.Created,t.Createdby,t.Updated,t.UpdatedBy FROM AD_Language l, AD_Process t WHERE l.IsActive='Y'AND (l.IsSystemLanguage='Y') AND t.AD_Process_ID=584752 AND NOT EXISTS (SELECT 1 FROM AD_Process_Trl tt WHERE tt.AD_Language=l.AD_Language AND tt.AD_Process_ID=t.AD_Process_ID)
+;
+
+-- 2020-10-19T09:13:02.117Z
+-- URL zum Konzept
+UPDATE AD_Process_Trl SET IsTranslated='Y', Name='Move archives to content-addressed storage',Updated=TO_TIMESTAMP('2020-10-19 11:13:02','YYYY-MM-DD HH24:MI:SS'),UpdatedBy=100 WHERE AD_Language='en_US' AND AD_Process_ID=584752
+;
+
+-- 2020-10-19T09:13:40.904Z
+-- URL zum Konzept
+INSERT INTO AD_Process_Para (AD_Client_ID,AD_Element_ID,AD_Org_ID,AD_Process_ID,AD_Process_Para_ID,AD_Reference_ID,ColumnName,Created,CreatedBy,Description,EntityType,FieldLength,IsActive,IsAutocomplete,IsCentrallyMaintained,IsEncrypted,IsMandatory,IsRange,Name,SeqNo,Updated,UpdatedBy) VALUES (0,543188,0,584752,541869,11,'Limit',TO_TIMESTAMP('2020-10-19 11:13:40','YYYY-MM-DD HH24:MI:SS'),100,'Max number of archives to move in one run; empty means all','D',0,'Y','N','N','N','N','N','Limit',10,TO_TIMESTAMP('2020-10-19 11:13:40','YYYY-MM-DD HH24:MI:SS'),100)
+;
+
+-- 2020-10-19T09:13:40.982Z
+-- URL zum Konzept
+INSERT INTO AD_Process_Para_Trl (AD_Language,AD_Process_Para_ID, Description,Help,Name, IsTranslated,AD_Client_ID,AD_Org_ID,Created,Createdby,Updated,UpdatedBy) SELECT l.AD_Language, t.AD_Process_Para_ID, t.Description,t.Help,t.Name, 'N',t.AD_Client_ID,t.AD_Org_ID,t.Created,t.Createdby,t.Updated,t.UpdatedBy FROM AD_Language l, AD_Process_Para t WHERE l.IsActive='Y'AND (l.IsSystemLanguage='Y') AND t.AD_Process_Para_ID=541869 AND NOT EXISTS (SELECT 1 FROM AD_Process_Para_Trl tt WHERE tt.AD_Language=l.AD_Language AND tt.AD_Process_Para_ID=t.AD_Process_Para_ID)
+;
+
+-- 2020-10-19T09:14:25.331Z
+-- URL zum Konzept
+INSERT INTO AD_Table_Process (AD_Client_ID,AD_Org_ID,AD_Process_ID,AD_Table_ID,AD_Table_Process_ID,Created,CreatedBy,EntityType,IsActive,Updated,UpdatedBy,WEBUI_DocumentAction,WEBUI_IncludedTabTopAction,WEBUI_ViewAction,WEBUI_ViewQuickAction,WEBUI_ViewQuickAction_Default) VALUES (0,0,584752,754,540857,TO_TIMESTAMP('2020-10-19 11:14:25','YYYY-MM-DD HH24:MI:SS'),100,'D','Y',TO_TIMESTAMP('2020-10-19 11:14:25','YYYY-MM-DD HH24:MI:SS'),100,'N','N','Y','N','N')
+;
@@ -6,11 +6,14 @@ import static de.metas.rest_api.bpartner.SwaggerDocConstants.LOCATION_IDENTIFIER
 import static de.metas.rest_api.bpartner.SwaggerDocConstants.NEXT_DOC;
 import static de.metas.rest_api.bpartner.SwaggerDocConstants.SINCE_DOC;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
 import org.compiere.util.Env;
+import org.slf4j.Logger;
 import org.slf4j.MDC;
 import org.slf4j.MDC.MDCCloseable;
 import org.springframework.context.annotation.Profile;
@@ -24,7 +27,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+
 import de.metas.Profiles;
+import de.metas.logging.LogManager;
 import de.metas.rest_api.bpartner.BPartnerRestEndpoint;
 import de.metas.rest_api.bpartner.impl.bpartnercomposite.JsonServiceFactory;
 import de.metas.rest_api.bpartner.impl.bpartnercomposite.jsonpersister.JsonPersisterService;
@@ -83,6 +90,11 @@ public class BpartnerRestController implements BPartnerRestEndpoint
 {
 	public static final String ENDPOINT = MetasfreshRestAPIConstants.ENDPOINT_API + "/bpartner";
 
+	private static final Logger logger = LogManager.getLogger(BpartnerRestController.class);
+
+	/** Number of request items whose existing bpartners are loaded together; see {@link JsonPersisterService#warmUpCache(java.util.Collection)}. */
+	private static final int WARMUP_CHUNK_SIZE = 50;
+
 	private final BPartnerEndpointService bpartnerEndpointService;
 	private final JsonServiceFactory jsonServiceFactory;
 
@@ -217,18 +229,32 @@ public class BpartnerRestController implements BPartnerRestEndpoint
 
 		final JsonResponseBPartnerCompositeUpsertBuilder response = JsonResponseBPartnerCompositeUpsert.builder();
 
-		for (final JsonRequestBPartnerUpsertItem requestItem : bpartnerUpsertRequest.getRequestItems())
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		final List<JsonRequestBPartnerUpsertItem> requestItems = bpartnerUpsertRequest.getRequestItems();
+
+		// load the existing bpartners chunk-wise with a few set-based queries, rather than one by one
+		for (final List<JsonRequestBPartnerUpsertItem> requestItemsChunk : Lists.partition(requestItems, WARMUP_CHUNK_SIZE))
 		{
-			try (final MDCCloseable ignored = MDC.putCloseable("bpartnerIdentifier", requestItem.getBpartnerIdentifier()))
-			{
-				jsonRequestConsolidateService.consolidateWithIdentifier(requestItem);
+			persister.warmUpCache(requestItemsChunk);
 
-				final JsonResponseBPartnerCompositeUpsertItem persist = persister.persist(
-						requestItem,
-						defaultSyncAdvise);
-				response.responseItem(persist);
+			for (final JsonRequestBPartnerUpsertItem requestItem : requestItemsChunk)
+			{
+				try (final MDCCloseable ignored = MDC.putCloseable("bpartnerIdentifier", requestItem.getBpartnerIdentifier()))
+				{
+					jsonRequestConsolidateService.consolidateWithIdentifier(requestItem);
+
+					final JsonResponseBPartnerCompositeUpsertItem persist = persister.persist(
+							requestItem,
+							defaultSyncAdvise);
+					response.responseItem(persist);
+				}
 			}
 		}
+
+		final long elapsedMillis = stopwatch.stop().elapsed(TimeUnit.MILLISECONDS);
+		logger.info("Upserted {} bpartner composites in {}ms ({} items/sec)",
+				requestItems.size(), elapsedMillis, elapsedMillis > 0 ? requestItems.size() * 1000L / elapsedMillis : requestItems.size());
+
 		return new ResponseEntity<>(response.build(), HttpStatus.CREATED);
 	}
 
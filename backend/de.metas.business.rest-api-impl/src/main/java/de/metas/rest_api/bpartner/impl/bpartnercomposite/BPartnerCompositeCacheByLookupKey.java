@@ -57,7 +57,7 @@ final class BPartnerCompositeCacheByLookupKey
 				.additionalTableNameToResetFor(I_C_BPartner.Table_Name)
 				.additionalTableNameToResetFor(I_C_BPartner_Location.Table_Name)
 				.cacheMapType(CacheMapType.LRU)
-				.initialCapacity(100)
+				.initialCapacity(500) // note that with LRU, this is the max size; leave room for JsonRetrieverService.warmUpCache()
 				.invalidationKeysMapper(cacheIndex::computeCachingKeys)
 				.removalListener(cacheIndex::remove)
 				.additionListener(cacheIndex::add)
@@ -71,6 +71,11 @@ final class BPartnerCompositeCacheByLookupKey
 		return cache.getAllOrLoad(keys, valuesLoader);
 	}
 
+	public void putAll(@NonNull final Map<BPartnerCompositeLookupKey, BPartnerComposite> entries)
+	{
+		cache.putAll(entries);
+	}
+
 	/** Get all the records, assuming that there is a cache entry for each single record. If not, throw an exception. */
 	@VisibleForTesting
 	public Collection<BPartnerComposite> getAssertAllCached(
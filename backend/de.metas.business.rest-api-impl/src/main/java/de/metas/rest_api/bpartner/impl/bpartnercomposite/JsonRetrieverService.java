@@ -3,12 +3,17 @@ package de.metas.rest_api.bpartner.impl.bpartnercomposite;
 import static de.metas.util.Check.isEmpty;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.table.RecordChangeLog;
 import org.adempiere.ad.table.RecordChangeLogEntry;
 import org.adempiere.exceptions.AdempiereException;
@@ -17,12 +22,17 @@ import org.slf4j.MDC.MDCCloseable;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 
 import de.metas.bpartner.BPGroup;
 import de.metas.bpartner.BPGroupId;
 import de.metas.bpartner.BPGroupRepository;
 import de.metas.bpartner.BPartnerContactId;
+import de.metas.bpartner.BPartnerId;
 import de.metas.bpartner.BPartnerLocationId;
 import de.metas.bpartner.GLN;
 import de.metas.bpartner.composite.BPartner;
@@ -55,6 +65,7 @@ import de.metas.rest_api.changelog.JsonChangeInfo;
 import de.metas.rest_api.changelog.JsonChangeInfo.JsonChangeInfoBuilder;
 import de.metas.rest_api.changelog.JsonChangeLogItem;
 import de.metas.rest_api.changelog.JsonChangeLogItem.JsonChangeLogItemBuilder;
+import de.metas.rest_api.common.JsonExternalId;
 import de.metas.rest_api.common.MetasfreshId;
 import de.metas.rest_api.exception.InvalidEntityException;
 import de.metas.rest_api.utils.BPartnerCompositeLookupKey;
@@ -62,6 +73,7 @@ import de.metas.rest_api.utils.BPartnerQueryService;
 import de.metas.rest_api.utils.IdentifierString;
 import de.metas.rest_api.utils.JsonConverters;
 import de.metas.user.UserId;
+import de.metas.util.Services;
 import de.metas.util.collections.CollectionUtils;
 import de.metas.util.lang.ExternalId;
 import lombok.Getter;
@@ -182,6 +194,8 @@ public class JsonRetrieverService
 	@Getter
 	private final String identifier;
 
+	private static final int WARMUP_QUERY_CHUNK_SIZE = 1000;
+
 	public JsonRetrieverService(
 			@NonNull final BPartnerQueryService bPartnerQueryService,
 			@NonNull final BPartnerCompositeRepository bpartnerCompositeRepository,
@@ -433,6 +447,104 @@ public class JsonRetrieverService
 		return extractResult(bpartnerComposites);
 	}
 
+	/**
+	 * Resolves the given bpartner identifiers with a few set-based queries and loads the respective composites in bulk,
+	 * so that subsequent {@link #getBPartnerComposite(IdentifierString)} invocations for those identifiers are served from the cache.
+	 * <p>
+	 * Note: GLN identifiers and identifiers that match more than one bpartner are not prefetched; they are still resolved one by one.
+	 */
+	public void warmUpCache(@NonNull final Collection<IdentifierString> bpartnerIdentifiers)
+	{
+		final ImmutableSet<BPartnerCompositeLookupKey> lookupKeys = bpartnerIdentifiers
+				.stream()
+				.map(BPartnerCompositeLookupKey::ofIdentifierString)
+				.filter(lookupKey -> lookupKey.getGln() == null)
+				.collect(ImmutableSet.toImmutableSet());
+		if (lookupKeys.isEmpty())
+		{
+			return;
+		}
+
+		final ImmutableListMultimap<BPartnerCompositeLookupKey, BPartnerId> lookupKey2BPartnerIds = retrieveBPartnerIdsByLookupKeys(lookupKeys);
+
+		final ImmutableMap<BPartnerCompositeLookupKey, BPartnerId> lookupKey2BPartnerId = lookupKey2BPartnerIds.asMap()
+				.entrySet()
+				.stream()
+				.filter(entry -> entry.getValue().size() == 1)
+				.collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, entry -> entry.getValue().iterator().next()));
+		if (lookupKey2BPartnerId.isEmpty())
+		{
+			return;
+		}
+
+		final ImmutableMap<BPartnerId, BPartnerComposite> bpartnerId2Composite = Maps.uniqueIndex(
+				bpartnerCompositeRepository.getByIds(ImmutableSet.copyOf(lookupKey2BPartnerId.values())),
+				composite -> composite.getBpartner().getId());
+
+		final HashMap<BPartnerCompositeLookupKey, BPartnerComposite> cacheEntries = new HashMap<>();
+		for (final BPartnerComposite bpartnerComposite : bpartnerId2Composite.values())
+		{
+			for (final BPartnerCompositeLookupKey lookupKey : extractBPartnerLookupKeys(bpartnerComposite))
+			{
+				cacheEntries.put(lookupKey, bpartnerComposite);
+			}
+		}
+		lookupKey2BPartnerId.forEach((lookupKey, bpartnerId) -> cacheEntries.put(lookupKey, bpartnerId2Composite.get(bpartnerId)));
+
+		cache.putAll(cacheEntries);
+	}
+
+	/** Mirrors the matching done by {@link de.metas.bpartner.service.IBPartnerDAO#retrieveBPartnerIdsBy(BPartnerQuery)}, but with one query per identifier type. */
+	private static ImmutableListMultimap<BPartnerCompositeLookupKey, BPartnerId> retrieveBPartnerIdsByLookupKeys(@NonNull final Collection<BPartnerCompositeLookupKey> lookupKeys)
+	{
+		final Set<Integer> bpartnerRepoIds = new HashSet<>();
+		final Set<String> externalIds = new HashSet<>();
+		final Set<String> codes = new HashSet<>();
+		for (final BPartnerCompositeLookupKey lookupKey : lookupKeys)
+		{
+			if (lookupKey.getMetasfreshId() != null)
+			{
+				bpartnerRepoIds.add(lookupKey.getMetasfreshId().getValue());
+			}
+			else if (lookupKey.getJsonExternalId() != null)
+			{
+				externalIds.add(lookupKey.getJsonExternalId().getValue());
+			}
+			else if (!isEmpty(lookupKey.getCode(), true))
+			{
+				codes.add(lookupKey.getCode());
+			}
+		}
+
+		final ImmutableListMultimap.Builder<BPartnerCompositeLookupKey, BPartnerId> result = ImmutableListMultimap.builder();
+		for (final List<Integer> chunk : Iterables.partition(bpartnerRepoIds, WARMUP_QUERY_CHUNK_SIZE))
+		{
+			retrieveBPartnerRecords(I_C_BPartner.COLUMNNAME_C_BPartner_ID, chunk)
+					.forEach(record -> result.put(BPartnerCompositeLookupKey.ofMetasfreshId(MetasfreshId.of(record.getC_BPartner_ID())), BPartnerId.ofRepoId(record.getC_BPartner_ID())));
+		}
+		for (final List<String> chunk : Iterables.partition(externalIds, WARMUP_QUERY_CHUNK_SIZE))
+		{
+			retrieveBPartnerRecords(I_C_BPartner.COLUMNNAME_ExternalId, chunk)
+					.forEach(record -> result.put(BPartnerCompositeLookupKey.ofJsonExternalId(JsonExternalId.of(record.getExternalId())), BPartnerId.ofRepoId(record.getC_BPartner_ID())));
+		}
+		for (final List<String> chunk : Iterables.partition(codes, WARMUP_QUERY_CHUNK_SIZE))
+		{
+			retrieveBPartnerRecords(I_C_BPartner.COLUMNNAME_Value, chunk)
+					.forEach(record -> result.put(BPartnerCompositeLookupKey.ofCode(record.getValue()), BPartnerId.ofRepoId(record.getC_BPartner_ID())));
+		}
+		return result.build();
+	}
+
+	private static List<I_C_BPartner> retrieveBPartnerRecords(@NonNull final String columnName, @NonNull final Collection<?> values)
+	{
+		// note: like in BPartnerDAO, we also load inactive records
+		return Services.get(IQueryBL.class)
+				.createQueryBuilder(I_C_BPartner.class)
+				.addInArrayFilter(columnName, values)
+				.create()
+				.list(I_C_BPartner.class);
+	}
+
 	/** Visible to verify that caching actually works the way we expect it to (=> performance) */
 	@VisibleForTesting
 	Optional<BPartnerComposite> getBPartnerCompositeAssertCacheHit(@NonNull final ImmutableList<BPartnerCompositeLookupKey> bpartnerLookupKeys)
@@ -5,6 +5,7 @@ import static de.metas.util.Check.assumeNotEmpty;
 import static de.metas.util.Check.isBlank;
 import static de.metas.util.Check.isEmpty;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -140,6 +141,20 @@ public class JsonPersisterService
 		this.identifier = assumeNotEmpty(identifier, "Param Identifier may not be empty");
 	}
 
+	/**
+	 * Loads the already existing bpartner composites of the given request items in bulk, so that the subsequent {@link #persist(JsonRequestBPartnerUpsertItem, SyncAdvise)} invocations don't need to look them up one by one.
+	 */
+	public void warmUpCache(@NonNull final Collection<JsonRequestBPartnerUpsertItem> requestItems)
+	{
+		final ImmutableList<IdentifierString> bpartnerIdentifiers = requestItems
+				.stream()
+				.map(JsonRequestBPartnerUpsertItem::getBpartnerIdentifier)
+				.map(IdentifierString::of)
+				.collect(ImmutableList.toImmutableList());
+
+		jsonRetrieverService.warmUpCache(bpartnerIdentifiers);
+	}
+
 	public JsonResponseBPartnerCompositeUpsertItem persist(
 			@NonNull final JsonRequestBPartnerUpsertItem requestItem,
 			@NonNull final SyncAdvise parentSyncAdvise)
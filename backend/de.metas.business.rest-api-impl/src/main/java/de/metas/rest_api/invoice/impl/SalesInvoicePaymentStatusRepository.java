@@ -203,7 +203,9 @@ public class SalesInvoicePaymentStatusRepository
 				.addEqualsFilter(I_C_Invoice.COLUMN_DocStatus, IDocument.STATUS_Completed)
 				.orderBy(I_C_Invoice.COLUMN_DateInvoiced)
 				.orderBy(I_C_Invoice.COLUMN_C_Invoice_ID)
-				.setOption(IQuery.OPTION_ReturnReadOnlyRecords, true);
+				.setOption(IQuery.OPTION_ReturnReadOnlyRecords, true)
+				// reporting query; slightly stale data from the read replica is fine here
+				.setOption(IQuery.OPTION_ReadFromReplica, true);
 	}
 
 	@Value
@@ -35,6 +35,7 @@ import de.metas.rest_api.bpartner.impl.JsonRequestConsolidateService;
 import de.metas.rest_api.common.JsonExternalId;
 import de.metas.rest_api.utils.BPartnerCompositeLookupKey;
 import de.metas.rest_api.utils.BPartnerQueryService;
+import de.metas.rest_api.utils.IdentifierString;
 
 /*
  * #%L
@@ -130,4 +131,18 @@ class JsonRetrieverServiceTest
 		assertThat(result2).isEqualTo(result);
 	}
 
+	/** verifies that after a warm-up, the bpartner is served from cache for both the requested identifier and its other lookup properties */
+	@Test
+	void warmUpCache()
+	{
+		jsonRetrieverService.warmUpCache(ImmutableList.of(IdentifierString.of("ext-" + C_BPARTNER_EXTERNAL_ID)));
+
+		final Optional<BPartnerComposite> result = jsonRetrieverService.getBPartnerCompositeAssertCacheHit(
+				ImmutableList.of(BPartnerCompositeLookupKey.ofJsonExternalId(JsonExternalId.of(C_BPARTNER_EXTERNAL_ID))));
+		assertThat(result).isNotEmpty();
+
+		final Optional<BPartnerComposite> result2 = jsonRetrieverService.getBPartnerCompositeAssertCacheHit(
+				ImmutableList.of(BPartnerCompositeLookupKey.ofCode(C_BPARTNER_VALUE)));
+		assertThat(result2).isEqualTo(result);
+	}
 }
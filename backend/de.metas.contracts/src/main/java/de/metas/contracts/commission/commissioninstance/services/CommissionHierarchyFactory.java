@@ -1,13 +1,13 @@
 package de.metas.contracts.commission.commissioninstance.services;
 
-import static org.adempiere.model.InterfaceWrapperHelper.loadOutOfTrx;
-
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
-import org.compiere.model.I_C_BPartner;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 import de.metas.bpartner.BPartnerId;
 import de.metas.contracts.commission.Beneficiary;
@@ -38,45 +38,62 @@ import lombok.NonNull;
  * #L%
  */
 
-/** Crates a hierarchy of BPartners by recursively following {@code C_BPartner.C_BPartner_SalesRep_ID} references. */
+/**
+ * Crates a hierarchy of BPartners by following {@code C_BPartner.C_BPartner_SalesRep_ID} references.
+ * The references are looked up in an in-memory {@link SalesRepHierarchyIndex}, so there is no DB access per hierarchy level.
+ */
 @Service
 public class CommissionHierarchyFactory
 {
-	// very crude but simple implementation; expand and make more efficient as needed
-	public Hierarchy createFor(@NonNull final BPartnerId bPartnerId)
+	private final SalesRepHierarchyIndex salesRepHierarchyIndex;
+
+	public CommissionHierarchyFactory(@NonNull final SalesRepHierarchyIndex salesRepHierarchyIndex)
 	{
-		return createFor(
-				bPartnerId/* starting point */,
-				Hierarchy.builder() /* result builder */,
-				new HashSet<BPartnerId>() /* helper to make sure we don't enter a cycle */
-		);
+		this.salesRepHierarchyIndex = salesRepHierarchyIndex;
 	}
 
-	private Hierarchy createFor(
-			@NonNull final BPartnerId bPartnerId,
-			@NonNull final HierarchyBuilder hierarchyBuilder,
-			@NonNull final HashSet<BPartnerId> seenBPartnerIds)
+	public Hierarchy createFor(@NonNull final BPartnerId bPartnerId)
 	{
-		if (!seenBPartnerIds.add(bPartnerId))
-		{
-			return hierarchyBuilder.build(); // there is a loop in our supposed tree; stoppping now, because we saw it all
-		}
+		return createFor(bPartnerId, salesRepHierarchyIndex.getParentIdsByBPartnerId());
+	}
 
-		final I_C_BPartner bPartnerRecord = loadOutOfTrx(bPartnerId, I_C_BPartner.class);
-		final BPartnerId parentBPartnerId = BPartnerId.ofRepoIdOrNull(bPartnerRecord.getC_BPartner_SalesRep_ID());
+	/**
+	 * Same as {@link #createFor(BPartnerId)}, but all hierarchies are created from the same snapshot of the sales-rep references.
+	 */
+	public ImmutableMap<BPartnerId, Hierarchy> createFor(@NonNull final Set<BPartnerId> bPartnerIds)
+	{
+		final Map<BPartnerId, BPartnerId> parentIdsByBPartnerId = salesRepHierarchyIndex.getParentIdsByBPartnerId();
 
-		if (parentBPartnerId == null || seenBPartnerIds.contains(parentBPartnerId))
+		final ImmutableMap.Builder<BPartnerId, Hierarchy> result = ImmutableMap.builder();
+		for (final BPartnerId bPartnerId : bPartnerIds)
 		{
-			hierarchyBuilder.addChildren(node(bPartnerId), ImmutableList.of());
-			return hierarchyBuilder.build();
+			result.put(bPartnerId, createFor(bPartnerId, parentIdsByBPartnerId));
 		}
+		return result.build();
+	}
 
-		hierarchyBuilder.addChildren(node(parentBPartnerId), ImmutableList.of(node(bPartnerId)));
+	private Hierarchy createFor(
+			@NonNull final BPartnerId bPartnerId,
+			@NonNull final Map<BPartnerId, BPartnerId> parentIdsByBPartnerId)
+	{
+		final HierarchyBuilder hierarchyBuilder = Hierarchy.builder();
+		final HashSet<BPartnerId> seenBPartnerIds = new HashSet<>(); // helper to make sure we don't enter a cycle
 
-		// recurse
-		createFor(parentBPartnerId, hierarchyBuilder, seenBPartnerIds);
+		BPartnerId currentBPartnerId = bPartnerId;
+		seenBPartnerIds.add(currentBPartnerId);
+		while (true)
+		{
+			final BPartnerId parentBPartnerId = parentIdsByBPartnerId.get(currentBPartnerId);
+			if (parentBPartnerId == null || !seenBPartnerIds.add(parentBPartnerId))
+			{
+				// we reached the top, or there is a loop in our supposed tree; stoppping now, because we saw it all
+				hierarchyBuilder.addChildren(node(currentBPartnerId), ImmutableList.of());
+				return hierarchyBuilder.build();
+			}
 
-		return hierarchyBuilder.build();
+			hierarchyBuilder.addChildren(node(parentBPartnerId), ImmutableList.of(node(currentBPartnerId)));
+			currentBPartnerId = parentBPartnerId;
+		}
 	}
 
 	private HierarchyNode node(@NonNull final BPartnerId bPartnerId)
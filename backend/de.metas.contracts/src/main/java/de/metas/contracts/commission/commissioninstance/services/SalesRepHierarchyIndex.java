@@ -0,0 +1,180 @@
+package de.metas.contracts.commission.commissioninstance.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.dao.IQueryBuilder;
+import org.adempiere.ad.dao.impl.CompareQueryFilter.Operator;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.compiere.model.I_C_BPartner;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.cache.CacheMgt;
+import de.metas.cache.ICacheResetListener;
+import de.metas.cache.model.CacheInvalidateMultiRequest;
+import de.metas.cache.model.CacheInvalidateRequest;
+import de.metas.util.NumberUtils;
+import de.metas.util.Services;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.contracts
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory index of all {@code C_BPartner.C_BPartner_SalesRep_ID} references, i.e. each bpartner's parent within the sales-rep hierarchy.
+ * <p>
+ * The index is loaded with one query on first access. Afterwards, {@code C_BPartner} cache invalidations only mark the respective bpartners as stale;
+ * they are reloaded with one query on the next access.
+ * <p>
+ * Cache invalidations are fired before the bpartner's transaction is committed, but the index is loaded out of transaction.
+ * Therefore the bpartners are marked as stale only after the commit; otherwise we might reload and keep the old values.
+ */
+@Component
+public class SalesRepHierarchyIndex
+{
+	private final IQueryBL queryBL = Services.get(IQueryBL.class);
+	private final ITrxManager trxManager = Services.get(ITrxManager.class);
+
+	/** {@code null} means "not loaded" */
+	private volatile ImmutableMap<BPartnerId, BPartnerId> parentIdsByBPartnerId = null;
+	private final Set<BPartnerId> staleBPartnerIds = ConcurrentHashMap.newKeySet();
+
+	private final ICacheResetListener cacheResetListener = this::onCacheReset;
+
+	@PostConstruct
+	public void registerCacheResetListener()
+	{
+		CacheMgt.get().addCacheResetListener(I_C_BPartner.Table_Name, cacheResetListener);
+	}
+
+	@PreDestroy
+	public void unregisterCacheResetListener()
+	{
+		CacheMgt.get().removeCacheResetListener(I_C_BPartner.Table_Name, cacheResetListener);
+	}
+
+	/**
+	 * @return a consistent snapshot of the index; to be used for (multiple) ancestor lookups.
+	 */
+	public ImmutableMap<BPartnerId, BPartnerId> getParentIdsByBPartnerId()
+	{
+		final ImmutableMap<BPartnerId, BPartnerId> parentIds = this.parentIdsByBPartnerId;
+		if (parentIds != null && staleBPartnerIds.isEmpty())
+		{
+			return parentIds;
+		}
+		return loadOrRefresh();
+	}
+
+	private synchronized ImmutableMap<BPartnerId, BPartnerId> loadOrRefresh()
+	{
+		if (parentIdsByBPartnerId == null)
+		{
+			staleBPartnerIds.clear();
+			parentIdsByBPartnerId = retrieveParentIds(ImmutableSet.of());
+		}
+		else if (!staleBPartnerIds.isEmpty())
+		{
+			final ImmutableSet<BPartnerId> bpartnerIdsToRefresh = ImmutableSet.copyOf(staleBPartnerIds);
+			staleBPartnerIds.removeAll(bpartnerIdsToRefresh);
+
+			final Map<BPartnerId, BPartnerId> parentIds = new HashMap<>(parentIdsByBPartnerId);
+			parentIds.keySet().removeAll(bpartnerIdsToRefresh);
+			parentIds.putAll(retrieveParentIds(bpartnerIdsToRefresh));
+			parentIdsByBPartnerId = ImmutableMap.copyOf(parentIds);
+		}
+		return parentIdsByBPartnerId;
+	}
+
+	/**
+	 * @param onlyBPartnerIds if empty, then the parents of all bpartners are retrieved
+	 */
+	private ImmutableMap<BPartnerId, BPartnerId> retrieveParentIds(@NonNull final Set<BPartnerId> onlyBPartnerIds)
+	{
+		final IQueryBuilder<I_C_BPartner> queryBuilder = queryBL.createQueryBuilderOutOfTrx(I_C_BPartner.class)
+				.addCompareFilter(I_C_BPartner.COLUMNNAME_C_BPartner_SalesRep_ID, Operator.GREATER, 0);
+		if (!onlyBPartnerIds.isEmpty())
+		{
+			queryBuilder.addInArrayFilter(I_C_BPartner.COLUMNNAME_C_BPartner_ID, onlyBPartnerIds);
+		}
+
+		final List<Map<String, Object>> rows = queryBuilder
+				.create()
+				.listColumns(I_C_BPartner.COLUMNNAME_C_BPartner_ID, I_C_BPartner.COLUMNNAME_C_BPartner_SalesRep_ID);
+
+		final ImmutableMap.Builder<BPartnerId, BPartnerId> result = ImmutableMap.builder();
+		for (final Map<String, Object> row : rows)
+		{
+			final BPartnerId bpartnerId = toBPartnerIdOrNull(row.get(I_C_BPartner.COLUMNNAME_C_BPartner_ID));
+			final BPartnerId parentBPartnerId = toBPartnerIdOrNull(row.get(I_C_BPartner.COLUMNNAME_C_BPartner_SalesRep_ID));
+			if (bpartnerId != null && parentBPartnerId != null)
+			{
+				result.put(bpartnerId, parentBPartnerId);
+			}
+		}
+		return result.build();
+	}
+
+	private static BPartnerId toBPartnerIdOrNull(@Nullable final Object value)
+	{
+		return BPartnerId.ofRepoIdOrNull(NumberUtils.asInt(value, -1));
+	}
+
+	private long onCacheReset(@NonNull final CacheInvalidateMultiRequest multiRequest)
+	{
+		final boolean resetAll = multiRequest.isResetAll()
+				|| multiRequest.getRequests().stream().anyMatch(this::isResetAllBPartners);
+		if (resetAll)
+		{
+			trxManager.runAfterCommit(() -> parentIdsByBPartnerId = null);
+			return 1;
+		}
+
+		final ImmutableSet<BPartnerId> bpartnerIds = multiRequest.getRecordsEffective()
+				.streamIds(I_C_BPartner.Table_Name, BPartnerId::ofRepoIdOrNull)
+				.filter(bpartnerId -> bpartnerId != null)
+				.collect(ImmutableSet.toImmutableSet());
+		if (!bpartnerIds.isEmpty())
+		{
+			trxManager.runAfterCommit(() -> staleBPartnerIds.addAll(bpartnerIds));
+		}
+		return bpartnerIds.size();
+	}
+
+	private boolean isResetAllBPartners(@NonNull final CacheInvalidateRequest request)
+	{
+		return request.isAllRecords()
+				&& I_C_BPartner.Table_Name.equals(request.getTableNameEffective());
+	}
+}
@@ -26,6 +26,7 @@ import java.util.Arrays;
  */
 
 import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
@@ -36,6 +37,8 @@ import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.model.IQuery;
 
+import com.google.common.base.Stopwatch;
+
 import de.metas.contracts.IFlatrateBL;
 import de.metas.contracts.IFlatrateBL.ContractExtendingRequest;
 import de.metas.contracts.model.I_C_Flatrate_Term;
@@ -114,17 +117,31 @@ public class C_Flatrate_Term_Extend_And_Notify_User
 					.addEqualsFilter(I_C_Flatrate_Term.COLUMN_DocStatus, IDocument.STATUS_Completed)
 					.addCompareFilter(I_C_Flatrate_Term.COLUMN_NoticeDate, Operator.LESS, SystemTime.asTimestamp())
 				.filter(notQuitOrVoidedFilter)
-					.orderBy().addColumn(I_C_Flatrate_Term.COLUMN_C_Flatrate_Term_ID).endOrderBy()
+					.orderBy() // group the terms by their conditions, so that consecutive terms share the (cached) conditions and transition
+					.addColumn(I_C_Flatrate_Term.COLUMN_C_Flatrate_Conditions_ID)
+					.addColumn(I_C_Flatrate_Term.COLUMN_C_Flatrate_Term_ID)
+					.endOrderBy()
 					.create()
 					.setClient_ID()
 					.setOption(IQuery.OPTION_GuaranteedIteratorRequired, true) // guaranteed = true, because the term extension changes AD_PInstance_EndOfTerm_ID
 					.iterate(I_C_Flatrate_Term.class);
 
+		final Stopwatch stopwatch = Stopwatch.createStarted();
 		int extendedCounter = 0;
 		int errorCounter = 0;
+		int currentConditionsId = -1;
+		int currentConditionsCounter = 0;
 			while (termsToExtend.hasNext())
 			{
 				final I_C_Flatrate_Term contractToExtend = termsToExtend.next();
+				if (contractToExtend.getC_Flatrate_Conditions_ID() != currentConditionsId)
+				{
+					logConditionsGroupProcessed(currentConditionsId, currentConditionsCounter, extendedCounter + errorCounter, stopwatch);
+					currentConditionsId = contractToExtend.getC_Flatrate_Conditions_ID();
+					currentConditionsCounter = 0;
+				}
+				currentConditionsCounter++;
+
 				final ContractExtendingRequest context = ContractExtendingRequest.builder()
 						.AD_PInstance_ID(getPinstanceId())
 						.contract(contractToExtend)
@@ -141,6 +158,7 @@ public class C_Flatrate_Term_Extend_And_Notify_User
 				errorCounter++;
 			}
 		}
+		logConditionsGroupProcessed(currentConditionsId, currentConditionsCounter, extendedCounter + errorCounter, stopwatch);
 		addLog("Processed {} terms; Processing failed for {} terms, see the log for AD_PInstance_ID={} for details", extendedCounter, errorCounter, getPinstanceId());
 
 		if (errorCounter > 0)
@@ -149,6 +167,17 @@ public class C_Flatrate_Term_Extend_And_Notify_User
 		}
 	}
 
+	private void logConditionsGroupProcessed(final int conditionsId, final int conditionsCounter, final int totalCounter, @NonNull final Stopwatch stopwatch)
+	{
+		if (conditionsCounter <= 0)
+		{
+			return;
+		}
+		final long elapsedMillis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1);
+		addLog("Processed {} terms with C_Flatrate_Conditions_ID={}; {} terms processed so far in {} ({} terms/s)",
+				conditionsCounter, conditionsId, totalCounter, stopwatch, totalCounter * 1000L / elapsedMillis);
+	}
+
 	private boolean tryExtendTerm(@NonNull final ContractExtendingRequest context)
 	{
 		try
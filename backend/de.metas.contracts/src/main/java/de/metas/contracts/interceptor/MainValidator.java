@@ -35,12 +35,18 @@ import org.compiere.model.I_M_InOutLine;
 import org.compiere.util.Env;
 import org.compiere.util.Ini;
 
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.cache.CacheMgt;
+import de.metas.cache.model.IModelCacheService;
+import de.metas.cache.model.ITableCacheConfig.TrxLevel;
 import de.metas.contracts.Contracts_Constants;
 import de.metas.contracts.flatrate.impexp.FlatrateTermImportProcess;
 import de.metas.contracts.flatrate.inout.spi.impl.FlatrateMaterialBalanceConfigMatcher;
 import de.metas.contracts.inoutcandidate.ShipmentScheduleFromSubscriptionOrderLineVetoer;
 import de.metas.contracts.inoutcandidate.ShipmentScheduleSubscriptionProcessor;
 import de.metas.contracts.inoutcandidate.SubscriptionShipmentScheduleHandler;
+import de.metas.contracts.model.I_C_Flatrate_Conditions;
+import de.metas.contracts.model.I_C_Flatrate_Transition;
 import de.metas.contracts.model.I_I_Flatrate_Term;
 import de.metas.contracts.order.ContractOrderService;
 import de.metas.contracts.spi.impl.FlatrateTermInvoiceCandidateListener;
@@ -158,6 +164,35 @@ public class MainValidator extends AbstractModuleInterceptor
 		inoutLinesWithMissingInvoiceCandidateRepo.addAdditionalFilter(filter);
 	}
 
+	/**
+	 * Cache the flatrate conditions and transitions, because when extending many terms (e.g. the year-end auto-extension),
+	 * {@link de.metas.contracts.impl.FlatrateBL} loads them again and again for each term, while there are only few different ones.
+	 */
+	@Override
+	protected void setupCaching(final IModelCacheService cachingService)
+	{
+		cachingService.createTableCacheConfigBuilder(I_C_Flatrate_Conditions.class)
+				.setEnabled(true)
+				.setInitialCapacity(100)
+				.setMaxCapacity(1000)
+				.setExpireMinutes(120)
+				.setCacheMapType(CacheMapType.LRU)
+				.setTrxLevel(TrxLevel.All)
+				.register();
+		cachingService.createTableCacheConfigBuilder(I_C_Flatrate_Transition.class)
+				.setEnabled(true)
+				.setInitialCapacity(100)
+				.setMaxCapacity(1000)
+				.setExpireMinutes(120)
+				.setCacheMapType(CacheMapType.LRU)
+				.setTrxLevel(TrxLevel.All)
+				.register();
+
+		final CacheMgt cacheMgt = CacheMgt.get();
+		cacheMgt.enableRemoteCacheInvalidationForTableName(I_C_Flatrate_Conditions.Table_Name);
+		cacheMgt.enableRemoteCacheInvalidationForTableName(I_C_Flatrate_Transition.Table_Name);
+	}
+
 	@Override
 	protected void registerInterceptors(final IModelValidationEngine engine)
 	{
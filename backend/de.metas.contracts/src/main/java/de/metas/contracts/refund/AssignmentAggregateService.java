@@ -7,7 +7,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
 import org.compiere.Adempiere;
 import org.springframework.stereotype.Service;
 
@@ -44,11 +49,16 @@ import lombok.NonNull;
 /**
  * Provides access to {@link I_C_Invoice_Candidate_Assignment_Aggregate_V}.
  * Note that that view is there for performance and plays not really any role in the domain model.
- *
+ * <p>
+ * Within a transaction, the aggregated numbers of each refund candidate are retrieved only once and then kept as {@link RefundCandidateAssignmentTotals}.
+ * {@link AssignmentToRefundCandidateRepository} applies the delta of each assignment it saves or deletes to those totals,
+ * so the cost of assigning one more invoice candidate doesn't depend on how many candidates were already assigned to the refund candidate.
  */
 @Service
 public class AssignmentAggregateService
 {
+	private static final String TRX_PROPERTY_RefundCandidateTotals = AssignmentAggregateService.class.getName() + ".RefundCandidateTotals";
+
 	private final RefundConfigRepository refundConfigRepository;
 
 	public AssignmentAggregateService(@NonNull final RefundConfigRepository refundConfigRepository)
@@ -58,76 +68,163 @@ public class AssignmentAggregateService
 
 	public BigDecimal retrieveMoneyAmount(@NonNull final InvoiceCandidateId refundCandidateId)
 	{
-		if (Adempiere.isUnitTestMode())
+		return getTotals(refundCandidateId).getAssignedMoneyAmount();
+	}
+
+	public Map<RefundConfig, BigDecimal> retrieveAssignedQuantities(
+			@NonNull final InvoiceCandidateId invoiceCandidateId)
+	{
+		final Map<RefundConfigId, BigDecimal> assignedQuantities = getTotals(invoiceCandidateId).getAssignedQuantities();
+
+		final ImmutableMap.Builder<RefundConfig, BigDecimal> result = ImmutableMap.builder();
+		for (final Map.Entry<RefundConfigId, BigDecimal> entry : assignedQuantities.entrySet())
 		{
-			return retrieveMoneyAmountUnitTestMode(refundCandidateId);
+			final RefundConfig refundConfig = refundConfigRepository.getById(entry.getKey());
+			result.put(refundConfig, entry.getValue());
 		}
-		final IQueryBL queryBL = Services.get(IQueryBL.class);
-		final List<I_C_Invoice_Candidate_Assignment_Aggregate_V> aggregates = queryBL
-				.createQueryBuilder(I_C_Invoice_Candidate_Assignment_Aggregate_V.class)
-				.addEqualsFilter(I_C_Invoice_Candidate_Assignment_Aggregate_V.COLUMN_C_Invoice_Candidate_Term_ID, refundCandidateId)
-				.create() // note: the view has no IsActive column, but its whereclause filters by isactive
-				.list(I_C_Invoice_Candidate_Assignment_Aggregate_V.class);
+		return result.build();
+	}
 
-		final BigDecimal newMoneyAmount = aggregates
-				.stream()
-				.map(I_C_Invoice_Candidate_Assignment_Aggregate_V::getAssignedMoneyAmount)
-				.reduce(ZERO, BigDecimal::add);
-		return newMoneyAmount;
+	/**
+	 * Applies the given new assignment to the current transaction's totals of its refund candidate, if they were already retrieved.
+	 */
+	void onAssignmentSaved(@NonNull final AssignmentToRefundCandidate assignment)
+	{
+		final Map<InvoiceCandidateId, RefundCandidateAssignmentTotals> trxTotals = getTrxTotalsOrNull();
+		if (trxTotals == null)
+		{
+			return;
+		}
+		final RefundCandidateAssignmentTotals totals = trxTotals.get(assignment.getRefundInvoiceCandidate().getId());
+		if (totals == null)
+		{
+			return; // not yet retrieved within this trx; will be retrieved including the new assignment
+		}
+
+		final BigDecimal assignedQuantityIncludedInSum = assignment.isUseAssignedQtyInSum()
+				? assignment.getQuantityAssigendToRefundCandidate().toBigDecimal()
+				: ZERO;
+		totals.add(
+				assignment.getRefundConfigId(),
+				assignedQuantityIncludedInSum,
+				assignment.getMoneyAssignedToRefundCandidate().toBigDecimal());
 	}
 
-	private BigDecimal retrieveMoneyAmountUnitTestMode(@NonNull final InvoiceCandidateId invoiceCandidateId)
+	/**
+	 * Subtracts the given assignment record (which is about to be deleted) from the current transaction's totals of its refund candidate, if they were already retrieved.
+	 */
+	void onAssignmentRecordDeleted(@NonNull final I_C_Invoice_Candidate_Assignment assignmentRecord)
 	{
-		final IQueryBL queryBL = Services.get(IQueryBL.class);
+		final Map<InvoiceCandidateId, RefundCandidateAssignmentTotals> trxTotals = getTrxTotalsOrNull();
+		if (trxTotals == null || !assignmentRecord.isActive())
+		{
+			return;
+		}
+		final InvoiceCandidateId refundCandidateId = InvoiceCandidateId.ofRepoId(assignmentRecord.getC_Invoice_Candidate_Term_ID());
+		final RefundCandidateAssignmentTotals totals = trxTotals.get(refundCandidateId);
+		if (totals == null)
+		{
+			return;
+		}
 
-		final List<I_C_Invoice_Candidate_Assignment> assignmentRecords = queryBL
-				.createQueryBuilder(I_C_Invoice_Candidate_Assignment.class)
-				.addOnlyActiveRecordsFilter()
-				.addEqualsFilter(I_C_Invoice_Candidate_Assignment.COLUMN_C_Invoice_Candidate_Term_ID, invoiceCandidateId)
-				.create()
-				.list();
+		final BigDecimal assignedQuantityIncludedInSum = assignmentRecord.isAssignedQuantityIncludedInSum()
+				? assignmentRecord.getAssignedQuantity()
+				: ZERO;
+		final boolean totalsStillValid = totals.subtract(
+				RefundConfigId.ofRepoId(assignmentRecord.getC_Flatrate_RefundConfig_ID()),
+				assignedQuantityIncludedInSum,
+				assignmentRecord.getAssignedMoneyAmount());
+		if (!totalsStillValid)
+		{
+			trxTotals.remove(refundCandidateId); // retrieve them again when needed
+		}
+	}
 
-		BigDecimal result = ZERO;
-		for (final I_C_Invoice_Candidate_Assignment assignmentRecord : assignmentRecords)
+	/**
+	 * Updates the current transaction's totals of the given refund candidate after all its assignments with the given configs (or all its assignments, if the given list is empty) were deleted.
+	 */
+	void onAssignmentsDeleted(
+			@NonNull final InvoiceCandidateId refundCandidateId,
+			@NonNull final List<RefundConfigId> refundConfigIds)
+	{
+		final Map<InvoiceCandidateId, RefundCandidateAssignmentTotals> trxTotals = getTrxTotalsOrNull();
+		if (trxTotals == null)
+		{
+			return;
+		}
+		final RefundCandidateAssignmentTotals totals = trxTotals.get(refundCandidateId);
+		if (totals == null)
+		{
+			return;
+		}
+
+		if (refundConfigIds.isEmpty())
+		{
+			totals.clear();
+		}
+		else
 		{
-			result = result.add(assignmentRecord.getAssignedMoneyAmount());
+			totals.removeAll(refundConfigIds);
 		}
+	}
 
-		return result;
+	boolean isTrackingTotals()
+	{
+		return getTrxTotalsOrNull() != null;
 	}
 
-	public Map<RefundConfig, BigDecimal> retrieveAssignedQuantities(
-			@NonNull final InvoiceCandidateId invoiceCandidateId)
+	private RefundCandidateAssignmentTotals getTotals(@NonNull final InvoiceCandidateId refundCandidateId)
+	{
+		final Map<InvoiceCandidateId, RefundCandidateAssignmentTotals> trxTotals = getTrxTotalsOrNull();
+		if (trxTotals == null)
+		{
+			return retrieveTotals(refundCandidateId);
+		}
+		return trxTotals.computeIfAbsent(refundCandidateId, this::retrieveTotals);
+	}
+
+	/**
+	 * @return the totals of the current thread-inherited transaction, or {@code null} if we run out of transaction.
+	 *         Out of transaction we can't be sure that we are notified about every change, so we always retrieve the totals from the DB.
+	 */
+	@Nullable
+	private Map<InvoiceCandidateId, RefundCandidateAssignmentTotals> getTrxTotalsOrNull()
+	{
+		final ITrxManager trxManager = Services.get(ITrxManager.class);
+		final ITrx trx = trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone);
+		if (trxManager.isNull(trx))
+		{
+			return null;
+		}
+		return trx.getProperty(TRX_PROPERTY_RefundCandidateTotals, () -> new HashMap<>());
+	}
+
+	private RefundCandidateAssignmentTotals retrieveTotals(@NonNull final InvoiceCandidateId refundCandidateId)
 	{
 		if (Adempiere.isUnitTestMode())
 		{
-			return retrieveAssignedQuantityUnitTestMode(invoiceCandidateId);
+			return retrieveTotalsUnitTestMode(refundCandidateId);
 		}
 
 		final IQueryBL queryBL = Services.get(IQueryBL.class);
-
 		final List<I_C_Invoice_Candidate_Assignment_Aggregate_V> aggregates = queryBL
 				.createQueryBuilder(I_C_Invoice_Candidate_Assignment_Aggregate_V.class)
-				.addEqualsFilter(I_C_Invoice_Candidate_Assignment_Aggregate_V.COLUMN_C_Invoice_Candidate_Term_ID, invoiceCandidateId)
+				.addEqualsFilter(I_C_Invoice_Candidate_Assignment_Aggregate_V.COLUMN_C_Invoice_Candidate_Term_ID, refundCandidateId)
 				.create() // note: the view has no IsActive column, but its whereclause filters by isactive
 				.list(I_C_Invoice_Candidate_Assignment_Aggregate_V.class);
 
-		final ImmutableMap.Builder<RefundConfig, BigDecimal> result = ImmutableMap.builder();
+		final RefundCandidateAssignmentTotals totals = new RefundCandidateAssignmentTotals();
 		for (final I_C_Invoice_Candidate_Assignment_Aggregate_V aggregate : aggregates)
 		{
-			final RefundConfigId refundConfigId = RefundConfigId.ofRepoId(aggregate.getC_Flatrate_RefundConfig_ID());
-			final RefundConfig refundConfig = refundConfigRepository.getById(refundConfigId);
-
-			result.put(
-					refundConfig,
-					aggregate.getAssignedQuantity());
+			totals.add(
+					RefundConfigId.ofRepoId(aggregate.getC_Flatrate_RefundConfig_ID()),
+					aggregate.getAssignedQuantity(),
+					aggregate.getAssignedMoneyAmount());
 		}
-
-		return result.build();
+		return totals;
 	}
 
-	private Map<RefundConfig, BigDecimal> retrieveAssignedQuantityUnitTestMode(
-			@NonNull final InvoiceCandidateId invoiceCandidateId)
+	private RefundCandidateAssignmentTotals retrieveTotalsUnitTestMode(@NonNull final InvoiceCandidateId invoiceCandidateId)
 	{
 		final IQueryBL queryBL = Services.get(IQueryBL.class);
 
@@ -138,18 +235,17 @@ public class AssignmentAggregateService
 				.create()
 				.list();
 
-		final Map<RefundConfig, BigDecimal> result = new HashMap<>();
+		final RefundCandidateAssignmentTotals totals = new RefundCandidateAssignmentTotals();
 		for (final I_C_Invoice_Candidate_Assignment assignmentRecord : assignmentRecords)
 		{
-			final RefundConfigId refundConfigId = RefundConfigId.ofRepoId(assignmentRecord.getC_Flatrate_RefundConfig_ID());
-			final RefundConfig refundConfig = refundConfigRepository.getById(refundConfigId);
-
 			final BigDecimal assignedQuantity = assignmentRecord.isAssignedQuantityIncludedInSum()
 					? assignmentRecord.getAssignedQuantity()
 					: ZERO;
-			result.merge(refundConfig, assignedQuantity, (oldVal, newVal) -> oldVal.add(newVal));
+			totals.add(
+					RefundConfigId.ofRepoId(assignmentRecord.getC_Flatrate_RefundConfig_ID()),
+					assignedQuantity,
+					assignmentRecord.getAssignedMoneyAmount());
 		}
-
-		return result;
+		return totals;
 	}
 }
@@ -62,10 +62,13 @@ public class AssignmentToRefundCandidateRepository
 	@Getter
 	private final RefundInvoiceCandidateRepository refundInvoiceCandidateRepository;
 
+	private final AssignmentAggregateService assignmentAggregateService;
+
 	public AssignmentToRefundCandidateRepository(
 			@NonNull final RefundInvoiceCandidateRepository refundInvoiceCandidateRepository)
 	{
 		this.refundInvoiceCandidateRepository = refundInvoiceCandidateRepository;
+		this.assignmentAggregateService = refundInvoiceCandidateRepository.getRefundInvoiceCandidateFactory().getAssignmentAggregateService();
 	}
 
 	public List<AssignmentToRefundCandidate> getAssignmentsByAssignableCandidateId(@NonNull final InvoiceCandidateId assignableCandidateId)
@@ -148,6 +151,7 @@ public class AssignmentToRefundCandidateRepository
 		assignmentRecord.setIsAssignedQuantityIncludedInSum(assignmentToRefundCandidate.isUseAssignedQtyInSum());
 
 		saveRecord(assignmentRecord);
+		assignmentAggregateService.onAssignmentSaved(assignmentToRefundCandidate);
 
 		return assignmentToRefundCandidate;
 	}
@@ -188,10 +192,26 @@ public class AssignmentToRefundCandidateRepository
 			queryBuilder.addInArrayFilter(I_C_Invoice_Candidate_Assignment.COLUMN_C_Flatrate_RefundConfig_ID, request.getRefundConfigIds());
 		}
 
+		if (removeForAssignedCandidateId != null && assignmentAggregateService.isTrackingTotals())
+		{
+			// these are just the few records of one assignable candidate; subtract them from their refund candidates' totals
+			queryBuilder
+					.copy()
+					.addEqualsFilter(I_C_Invoice_Candidate_Assignment.COLUMN_C_Invoice_Candidate_Assigned_ID, removeForAssignedCandidateId.getRepoId())
+					.create()
+					.list(I_C_Invoice_Candidate_Assignment.class)
+					.forEach(assignmentAggregateService::onAssignmentRecordDeleted);
+		}
+
 		queryBuilder
 				.filter(invoiceCandidateIDsOrFilter)
 				.create()
 				.delete();
+
+		if (removeForRefundCandidateId != null)
+		{
+			assignmentAggregateService.onAssignmentsDeleted(removeForRefundCandidateId, request.getRefundConfigIds());
+		}
 	}
 
 	/**
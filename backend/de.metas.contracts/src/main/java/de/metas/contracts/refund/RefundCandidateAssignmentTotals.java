@@ -0,0 +1,102 @@
+package de.metas.contracts.refund;
+
+import static java.math.BigDecimal.ZERO;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+import lombok.ToString;
+
+/*
+ * #%L
+ * de.metas.contracts
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Running totals of the active {@link de.metas.contracts.model.I_C_Invoice_Candidate_Assignment}s of one refund invoice candidate, per refund config.
+ * Contains the same numbers as {@link de.metas.contracts.model.I_C_Invoice_Candidate_Assignment_Aggregate_V}, but can be updated with the delta of each added or removed assignment.
+ */
+@ToString
+final class RefundCandidateAssignmentTotals
+{
+	private final Map<RefundConfigId, BigDecimal> assignedQuantities = new LinkedHashMap<>();
+	private final Map<RefundConfigId, BigDecimal> assignedMoneyAmounts = new LinkedHashMap<>();
+
+	public void add(
+			@NonNull final RefundConfigId refundConfigId,
+			@NonNull final BigDecimal assignedQuantityIncludedInSum,
+			@NonNull final BigDecimal assignedMoneyAmount)
+	{
+		assignedQuantities.merge(refundConfigId, assignedQuantityIncludedInSum, BigDecimal::add);
+		assignedMoneyAmounts.merge(refundConfigId, assignedMoneyAmount, BigDecimal::add);
+	}
+
+	/**
+	 * @return {@code false} if the totals can't tell anymore if there are still assignments with the given config, i.e. if they need to be reloaded.
+	 */
+	public boolean subtract(
+			@NonNull final RefundConfigId refundConfigId,
+			@NonNull final BigDecimal assignedQuantityIncludedInSum,
+			@NonNull final BigDecimal assignedMoneyAmount)
+	{
+		if (!assignedQuantities.containsKey(refundConfigId))
+		{
+			return false;
+		}
+
+		final BigDecimal newQuantity = assignedQuantities.get(refundConfigId).subtract(assignedQuantityIncludedInSum);
+		final BigDecimal newMoneyAmount = assignedMoneyAmounts.get(refundConfigId).subtract(assignedMoneyAmount);
+		assignedQuantities.put(refundConfigId, newQuantity);
+		assignedMoneyAmounts.put(refundConfigId, newMoneyAmount);
+
+		// if nothing is left, the config's last assignment might have been removed; we don't count the assignments, so we don't know
+		return newQuantity.signum() != 0 || newMoneyAmount.signum() != 0;
+	}
+
+	/**
+	 * Removes the given configs, i.e. assumes that all assignments with those configs were removed.
+	 */
+	public void removeAll(@NonNull final Collection<RefundConfigId> refundConfigIds)
+	{
+		assignedQuantities.keySet().removeAll(refundConfigIds);
+		assignedMoneyAmounts.keySet().removeAll(refundConfigIds);
+	}
+
+	public void clear()
+	{
+		assignedQuantities.clear();
+		assignedMoneyAmounts.clear();
+	}
+
+	public ImmutableMap<RefundConfigId, BigDecimal> getAssignedQuantities()
+	{
+		return ImmutableMap.copyOf(assignedQuantities);
+	}
+
+	public BigDecimal getAssignedMoneyAmount()
+	{
+		return assignedMoneyAmounts.values().stream().reduce(ZERO, BigDecimal::add);
+	}
+}
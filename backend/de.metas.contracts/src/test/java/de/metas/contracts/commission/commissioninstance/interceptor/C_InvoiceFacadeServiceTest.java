@@ -41,6 +41,7 @@ import de.metas.contracts.commission.commissioninstance.services.CommissionInsta
 import de.metas.contracts.commission.commissioninstance.services.CommissionInstanceService;
 import de.metas.contracts.commission.commissioninstance.services.CommissionProductService;
 import de.metas.contracts.commission.commissioninstance.services.CommissionTriggerFactory;
+import de.metas.contracts.commission.commissioninstance.services.SalesRepHierarchyIndex;
 import de.metas.contracts.commission.commissioninstance.services.repos.CommissionInstanceRepository;
 import de.metas.contracts.commission.commissioninstance.services.repos.CommissionRecordStagingService;
 import de.metas.contracts.commission.commissioninstance.testhelpers.TestCommissionConfig;
@@ -108,7 +109,7 @@ class C_InvoiceFacadeServiceTest
 		final CommissionConfigFactory commissionConfigFactory = new CommissionConfigFactory(commissionConfigStagingDataService);
 		final CommissionRecordStagingService commissionInstanceRecordStagingService = new CommissionRecordStagingService();
 		final CommissionInstanceRepository commissionInstanceRepository = new CommissionInstanceRepository(commissionConfigFactory, commissionInstanceRecordStagingService);
-		final CommissionHierarchyFactory commissionHierarchyFactory = new CommissionHierarchyFactory();
+		final CommissionHierarchyFactory commissionHierarchyFactory = new CommissionHierarchyFactory(new SalesRepHierarchyIndex());
 		final CommissionTriggerFactory commissionTriggerFactory = new CommissionTriggerFactory();
 		final CommissionInstanceRequestFactory commissionInstanceRequestFactory = new CommissionInstanceRequestFactory(commissionConfigFactory, commissionHierarchyFactory, commissionTriggerFactory);
 		final CommissionAlgorithmInvoker commissionAlgorithmInvoker = new CommissionAlgorithmInvoker();
@@ -91,7 +91,7 @@ class CommissionConfigFactoryTest
 		saveRecord(commissionProduct2Record);
 		commissionProduct2Id = ProductId.ofRepoId(commissionProduct2Record.getM_Product_ID());
 
-		commissionHierarchyFactory = new CommissionHierarchyFactory();
+		commissionHierarchyFactory = new CommissionHierarchyFactory(new SalesRepHierarchyIndex());
 		final CommissionConfigStagingDataService commissionConfigStagingDataService = new CommissionConfigStagingDataService();
 		commissionConfigFactory = new CommissionConfigFactory(commissionConfigStagingDataService);
 
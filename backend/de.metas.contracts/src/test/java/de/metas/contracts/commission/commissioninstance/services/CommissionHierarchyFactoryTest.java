@@ -4,11 +4,16 @@ import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
 import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.Map;
+
 import org.adempiere.test.AdempiereTestHelper;
 import org.compiere.model.I_C_BPartner;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.bpartner.BPartnerId;
 import de.metas.contracts.commission.Beneficiary;
 import de.metas.contracts.commission.commissioninstance.businesslogic.hierarchy.Hierarchy;
@@ -39,10 +44,23 @@ import de.metas.contracts.commission.commissioninstance.services.CommissionHiera
 
 class CommissionHierarchyFactoryTest
 {
+	private SalesRepHierarchyIndex salesRepHierarchyIndex;
+	private CommissionHierarchyFactory commissionHierarchyFactory;
+
 	@BeforeEach
 	void beforeAll()
 	{
 		AdempiereTestHelper.get().init();
+
+		salesRepHierarchyIndex = new SalesRepHierarchyIndex();
+		salesRepHierarchyIndex.registerCacheResetListener();
+		commissionHierarchyFactory = new CommissionHierarchyFactory(salesRepHierarchyIndex);
+	}
+
+	@AfterEach
+	void afterEach()
+	{
+		salesRepHierarchyIndex.unregisterCacheResetListener();
 	}
 
 	@Test
@@ -69,7 +87,7 @@ class CommissionHierarchyFactoryTest
 		saveRecord(headOfSalesRecord);
 
 		// invoke the method under test
-		final Hierarchy result = new CommissionHierarchyFactory().createFor(BPartnerId.ofRepoId(salesRep1.getC_BPartner_ID()));
+		final Hierarchy result = commissionHierarchyFactory.createFor(BPartnerId.ofRepoId(salesRep1.getC_BPartner_ID()));
 
 		assertThat(result.getParent(node(salesRep2.getC_BPartner_ID()))).isNotPresent();
 		assertThat(result.getParent(node(salesRep1.getC_BPartner_ID()))).contains(node(salesSuperVisor.getC_BPartner_ID()));
@@ -77,6 +95,51 @@ class CommissionHierarchyFactoryTest
 		assertThat(result.getParent(node(headOfSalesRecord.getC_BPartner_ID()))).isNotPresent();
 	}
 
+	@Test
+	void createFor_multipleBPartnerIds()
+	{
+		final I_C_BPartner headOfSalesRecord = newInstance(I_C_BPartner.class);
+		saveRecord(headOfSalesRecord);
+
+		final I_C_BPartner salesRep1 = newInstance(I_C_BPartner.class);
+		salesRep1.setC_BPartner_SalesRep_ID(headOfSalesRecord.getC_BPartner_ID());
+		saveRecord(salesRep1);
+
+		final I_C_BPartner salesRep2 = newInstance(I_C_BPartner.class);
+		saveRecord(salesRep2);
+
+		final BPartnerId salesRep1Id = BPartnerId.ofRepoId(salesRep1.getC_BPartner_ID());
+		final BPartnerId salesRep2Id = BPartnerId.ofRepoId(salesRep2.getC_BPartner_ID());
+
+		// invoke the method under test
+		final Map<BPartnerId, Hierarchy> result = commissionHierarchyFactory.createFor(ImmutableSet.of(salesRep1Id, salesRep2Id));
+
+		assertThat(result).containsOnlyKeys(salesRep1Id, salesRep2Id);
+		assertThat(result.get(salesRep1Id).getParent(node(salesRep1.getC_BPartner_ID()))).contains(node(headOfSalesRecord.getC_BPartner_ID()));
+		assertThat(result.get(salesRep2Id).getParent(node(salesRep2.getC_BPartner_ID()))).isNotPresent();
+	}
+
+	@Test
+	void createFor_afterSalesRepChanged()
+	{
+		final I_C_BPartner headOfSalesRecord = newInstance(I_C_BPartner.class);
+		saveRecord(headOfSalesRecord);
+
+		final I_C_BPartner salesRep1 = newInstance(I_C_BPartner.class);
+		saveRecord(salesRep1);
+
+		final BPartnerId salesRep1Id = BPartnerId.ofRepoId(salesRep1.getC_BPartner_ID());
+		assertThat(commissionHierarchyFactory.createFor(salesRep1Id).getParent(node(salesRep1.getC_BPartner_ID()))).isNotPresent();
+
+		salesRep1.setC_BPartner_SalesRep_ID(headOfSalesRecord.getC_BPartner_ID());
+		saveRecord(salesRep1);
+
+		// invoke the method under test
+		final Hierarchy result = commissionHierarchyFactory.createFor(salesRep1Id);
+
+		assertThat(result.getParent(node(salesRep1.getC_BPartner_ID()))).contains(node(headOfSalesRecord.getC_BPartner_ID()));
+	}
+
 	private HierarchyNode node(final int id)
 	{
 		return HierarchyNode.of(Beneficiary.of(BPartnerId.ofRepoId(id)));
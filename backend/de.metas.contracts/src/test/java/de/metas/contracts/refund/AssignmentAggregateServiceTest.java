@@ -0,0 +1,115 @@
+package de.metas.contracts.refund;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.contracts.model.I_C_Invoice_Candidate_Assignment;
+import de.metas.invoice.service.InvoiceScheduleRepository;
+import de.metas.invoicecandidate.InvoiceCandidateId;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.contracts
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class AssignmentAggregateServiceTest
+{
+	private static final InvoiceCandidateId REFUND_CANDIDATE_ID = InvoiceCandidateId.ofRepoId(10);
+	private static final RefundConfigId REFUND_CONFIG_ID = RefundConfigId.ofRepoId(20);
+
+	private AssignmentAggregateService assignmentAggregateService;
+
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		assignmentAggregateService = new AssignmentAggregateService(new RefundConfigRepository(new InvoiceScheduleRepository()));
+	}
+
+	@Test
+	public void retrieveMoneyAmount_outOfTrx_alwaysRetrieved()
+	{
+		createAssignmentRecord(1, "10");
+		assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("10");
+
+		createAssignmentRecord(2, "5");
+		assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("15");
+	}
+
+	@Test
+	public void retrieveMoneyAmount_inTrx_retrievedOnceAndUpdatedWithDeltas()
+	{
+		createAssignmentRecord(1, "10");
+
+		Services.get(ITrxManager.class).runInNewTrx(() -> {
+			assertThat(assignmentAggregateService.isTrackingTotals()).isTrue();
+			assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("10");
+
+			// a record that is not saved via AssignmentToRefundCandidateRepository is not seen, because the totals are not retrieved again
+			final I_C_Invoice_Candidate_Assignment assignmentRecord = createAssignmentRecord(2, "5");
+			assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("10");
+
+			assignmentAggregateService.onAssignmentRecordDeleted(assignmentRecord);
+			assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("5");
+
+			assignmentAggregateService.onAssignmentsDeleted(REFUND_CANDIDATE_ID, ImmutableList.of(REFUND_CONFIG_ID));
+			assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("0");
+		});
+	}
+
+	@Test
+	public void onAssignmentRecordDeleted_nothingLeft_retrievedAgain()
+	{
+		final I_C_Invoice_Candidate_Assignment assignmentRecord = createAssignmentRecord(1, "10");
+
+		Services.get(ITrxManager.class).runInNewTrx(() -> {
+			assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("10");
+
+			// we can't tell if there are further assignments with the same config, so the totals are retrieved again
+			assignmentAggregateService.onAssignmentRecordDeleted(assignmentRecord);
+			assertThat(assignmentAggregateService.retrieveMoneyAmount(REFUND_CANDIDATE_ID)).isEqualByComparingTo("10");
+		});
+	}
+
+	private I_C_Invoice_Candidate_Assignment createAssignmentRecord(final int assignedCandidateRepoId, final String assignedMoneyAmount)
+	{
+		final I_C_Invoice_Candidate_Assignment assignmentRecord = newInstance(I_C_Invoice_Candidate_Assignment.class);
+		assignmentRecord.setC_Invoice_Candidate_Assigned_ID(assignedCandidateRepoId);
+		assignmentRecord.setC_Invoice_Candidate_Term_ID(REFUND_CANDIDATE_ID.getRepoId());
+		assignmentRecord.setC_Flatrate_RefundConfig_ID(REFUND_CONFIG_ID.getRepoId());
+		assignmentRecord.setAssignedMoneyAmount(new BigDecimal(assignedMoneyAmount));
+		assignmentRecord.setAssignedQuantity(BigDecimal.ONE);
+		assignmentRecord.setIsAssignedQuantityIncludedInSum(true);
+		saveRecord(assignmentRecord);
+		return assignmentRecord;
+	}
+}
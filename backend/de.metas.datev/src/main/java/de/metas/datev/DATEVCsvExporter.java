@@ -8,10 +8,13 @@ import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.function.UnaryOperator;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.compiere.util.TimeUtil;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.data.export.api.IExportDataDestination;
 import de.metas.data.export.api.IExportDataSource;
 import de.metas.data.export.api.impl.AbstractExporter;
@@ -46,12 +49,23 @@ public class DATEVCsvExporter extends AbstractExporter
 {
 	private final DATEVExportFormat exportFormat;
 
+	/** One formatter per column, resolved once from the export format instead of for each cell */
+	private final ImmutableList<UnaryOperator<Object>> columnFormatters;
+
+	/** Reused for each row; {@link CSVWriter#appendLine(List)} does not keep a reference to it */
+	private final ArrayList<Object> rowFormatted;
+
 	@Builder
 	private DATEVCsvExporter(
 			@NonNull final DATEVExportFormat exportFormat,
 			@NonNull final IExportDataSource dataSource)
 	{
 		this.exportFormat = exportFormat;
+		this.columnFormatters = exportFormat.getColumns()
+				.stream()
+				.map(DATEVCsvExporter::createColumnFormatter)
+				.collect(ImmutableList.toImmutableList());
+		this.rowFormatted = new ArrayList<>(columnFormatters.size());
 		setDataSource(dataSource);
 	}
 
@@ -72,45 +86,38 @@ public class DATEVCsvExporter extends AbstractExporter
 	protected void appendRow(final IExportDataDestination dataDestination, final List<Object> row) throws IOException
 	{
 		final CSVWriter csvWriter = CSVWriter.cast(dataDestination);
-		final List<Object> rowFormatted = formatRow(row);
-		csvWriter.appendLine(rowFormatted);
+		csvWriter.appendLine(formatRow(row));
 	}
 
 	private List<Object> formatRow(final List<Object> row)
 	{
-		final List<DATEVExportFormatColumn> formatColumns = exportFormat.getColumns();
+		rowFormatted.clear();
+
 		final int rowSize = row.size();
-		final List<Object> rowFormatted = new ArrayList<>(rowSize);
 		for (int i = 0; i < rowSize; i++)
 		{
 			final Object cell = row.get(i);
-			final DATEVExportFormatColumn columnFormat = formatColumns.get(i);
-			final Object cellFormated = formatCell(cell, columnFormat);
-			rowFormatted.add(cellFormated);
+			rowFormatted.add(cell != null ? columnFormatters.get(i).apply(cell) : null);
 		}
 
 		return rowFormatted;
 	}
 
-	private Object formatCell(final Object value, final DATEVExportFormatColumn columnFormat)
+	private static UnaryOperator<Object> createColumnFormatter(final DATEVExportFormatColumn columnFormat)
 	{
-		if (value == null)
+		final DateTimeFormatter dateFormatter = columnFormat.getDateFormatter();
+		if (dateFormatter != null)
 		{
-			return null;
+			return value -> formatDateCell(value, dateFormatter);
 		}
 
-		if (columnFormat.getDateFormatter() != null)
+		final ThreadLocalDecimalFormatter numberFormatter = columnFormat.getNumberFormatter();
+		if (numberFormatter != null)
 		{
-			return formatDateCell(value, columnFormat.getDateFormatter());
-		}
-		else if (columnFormat.getNumberFormatter() != null)
-		{
-			return formatNumberCell(value, columnFormat.getNumberFormatter());
-		}
-		else
-		{
-			return value;
+			return value -> formatNumberCell(value, numberFormatter);
 		}
+
+		return UnaryOperator.identity();
 	}
 
 	private static String formatDateCell(final Object value, final DateTimeFormatter dateFormatter)
@@ -1,16 +1,23 @@
 package de.metas.datev.process;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
+import org.adempiere.service.ISysConfigBL;
 import org.compiere.SpringContextHolder;
 import org.compiere.util.TimeUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Stopwatch;
 
 import de.metas.data.export.api.IExportDataSource;
+import de.metas.data.export.api.impl.AbstractExporter;
 import de.metas.data.export.api.impl.JdbcExporterBuilder;
 import de.metas.datev.DATEVCsvExporter;
 import de.metas.datev.DATEVExportFormat;
@@ -24,6 +31,7 @@ import de.metas.process.JavaProcess;
 import de.metas.process.Param;
 import de.metas.process.ProcessPreconditionsResolution;
 import de.metas.util.Check;
+import de.metas.util.Services;
 import lombok.NonNull;
 
 /*
@@ -53,6 +61,13 @@ public class DATEV_ExportFile extends JavaProcess implements IProcessPreconditio
 	@Autowired
 	private DATEVExportFormatRepository exportFormatRepo;
 
+	private static final String SYSCONFIG_CompressExportFile = "de.metas.datev.ExportFile.Compress";
+	/** If greater than zero, the export lines are read in a separate thread and passed to the writing thread through a buffer of this size. */
+	private static final String SYSCONFIG_PipelineBufferSize = "de.metas.datev.ExportFile.PipelineBufferSize";
+	/** Number of export lines to fetch from database per round trip. If not positive, the JDBC export default is used. */
+	private static final String SYSCONFIG_FetchSize = "de.metas.datev.ExportFile.FetchSize";
+	private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
 	@Param(parameterName = I_DATEV_ExportFormat.COLUMNNAME_DATEV_ExportFormat_ID, mandatory = true)
 	private int datevExportFormatId;
 
@@ -81,31 +96,48 @@ public class DATEV_ExportFile extends JavaProcess implements IProcessPreconditio
 	{
 		final DATEVExportFormat exportFormat = exportFormatRepo.getById(datevExportFormatId);
 		final I_DATEV_Export datevExport = getRecord(I_DATEV_Export.class);
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		final boolean compress = sysConfigBL.getBooleanValue(SYSCONFIG_CompressExportFile, false);
+		final int fetchSize = sysConfigBL.getIntValue(SYSCONFIG_FetchSize, -1);
 
-		final IExportDataSource dataSource = createDataSource(exportFormat, datevExport.getDATEV_Export_ID());
-
-		final ByteArrayOutputStream out = new ByteArrayOutputStream();
-		DATEVCsvExporter.builder()
+		final IExportDataSource dataSource = createDataSource(exportFormat, datevExport.getDATEV_Export_ID(), fetchSize);
+		final DATEVCsvExporter exporter = DATEVCsvExporter.builder()
 				.exportFormat(exportFormat)
 				.dataSource(dataSource)
-				.build()
-				.export(out);
+				.build();
+
+		final Properties exporterConfig = new Properties();
+		exporterConfig.setProperty(AbstractExporter.CONFIG_PipelineBufferSize, String.valueOf(sysConfigBL.getIntValue(SYSCONFIG_PipelineBufferSize, 0)));
+		exporter.setConfig(exporterConfig);
+
+		// the process result holds the report data as a byte array anyway, so we export right into memory
+		final ByteArrayOutputStream data = new ByteArrayOutputStream(OUTPUT_BUFFER_SIZE);
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		try (final OutputStream out = compress ? new GZIPOutputStream(data, OUTPUT_BUFFER_SIZE) : data)
+		{
+			exporter.export(out);
+		}
+		stopwatch.stop();
+
+		final int rowsCount = exporter.getExportedRowCount();
+		addLog("Exported {} rows in {} ({} rows/s)", rowsCount, stopwatch, rowsCount * 1000L / Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS)));
 
 		getResult().setReportData(
-				out.toByteArray(), // data
-				buildFilename(datevExport), // filename
-				"text/csv"); // content type
+				data.toByteArray(), // data
+				buildFilename(datevExport) + (compress ? ".gz" : ""), // filename
+				compress ? "application/gzip" : "text/csv"); // content type
 
 		return MSG_OK;
 	}
 
-	private IExportDataSource createDataSource(@NonNull final DATEVExportFormat exportFormat, final int datevExportId)
+	private IExportDataSource createDataSource(@NonNull final DATEVExportFormat exportFormat, final int datevExportId, final int fetchSize)
 	{
 		Check.assume(datevExportId > 0, "datevExportId > 0");
 
 		final JdbcExporterBuilder builder = new JdbcExporterBuilder(I_DATEV_ExportLine.Table_Name)
 				.addEqualsWhereClause(I_DATEV_ExportLine.COLUMNNAME_DATEV_Export_ID, datevExportId)
-				.addOrderBy(I_DATEV_ExportLine.COLUMNNAME_DATEV_ExportLine_ID);
+				.addOrderBy(I_DATEV_ExportLine.COLUMNNAME_DATEV_ExportLine_ID)
+				.setFetchSize(fetchSize);
 
 		exportFormat
 				.getColumns()
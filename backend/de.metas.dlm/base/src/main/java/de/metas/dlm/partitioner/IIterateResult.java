@@ -103,6 +103,14 @@ public interface IIterateResult
 	 */
 	ITableRecordReference nextFromQueue();
 
+	/**
+	 * Puts the given records back to the head of the queue, in the given order.
+	 * The crawler calls this for records it got from {@link #nextFromQueue()} but did not process, e.g. because it was signaled to stop.
+	 *
+	 * @param records records that were previously returned by {@link #nextFromQueue()}
+	 */
+	void requeue(List<ITableRecordReference> records);
+
 	/**
 	 * Register a handler.
 	 * <p>
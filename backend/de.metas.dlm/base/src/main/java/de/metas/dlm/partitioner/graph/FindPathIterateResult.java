@@ -148,6 +148,15 @@ public class FindPathIterateResult implements IIterateResult
 		return queueItemsToProcess.removeFirst();
 	}
 
+	@Override
+	public void requeue(final List<ITableRecordReference> records)
+	{
+		for (int i = records.size() - 1; i >= 0; i--)
+		{
+			queueItemsToProcess.addFirst(records.get(i));
+		}
+	}
+
 	@Override
 	public void registerHandler(IIterateResultHandler handler)
 	{
@@ -224,6 +224,32 @@ public class CreatePartitionIterateResult implements IStorableIterateResult
 		return queueItemsToProcess.removeFirst();
 	}
 
+	/**
+	 * If a given record came from an already persisted {@code DLM_Partition_Workqueue} record, then that work queue record is not deleted anymore,
+	 * but kept in our queue with its {@code DLM_Partition_Workqueue_ID}.
+	 */
+	@Override
+	public void requeue(final List<ITableRecordReference> records)
+	{
+		final Set<ITableRecordReference> recordsSet = new HashSet<>(records);
+		final Map<ITableRecordReference, WorkQueue> record2QueueItemNotToDelete = new HashMap<>();
+		queueItemsToDelete.removeIf(queueItem -> {
+			if (!recordsSet.contains(queueItem.getTableRecordReference()))
+			{
+				return false;
+			}
+			record2QueueItemNotToDelete.put(queueItem.getTableRecordReference(), queueItem);
+			return true;
+		});
+
+		for (int i = records.size() - 1; i >= 0; i--)
+		{
+			final ITableRecordReference record = records.get(i);
+			final WorkQueue queueItem = record2QueueItemNotToDelete.get(record);
+			queueItemsToProcess.addFirst(queueItem != null ? queueItem : WorkQueue.of(record));
+		}
+	}
+
 	@Override
 	public List<WorkQueue> getQueueRecordsToStore()
 	{
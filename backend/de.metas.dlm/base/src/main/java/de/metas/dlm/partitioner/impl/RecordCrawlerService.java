@@ -24,9 +24,17 @@ package de.metas.dlm.partitioner.impl;
 
 import ch.qos.logback.classic.Level;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import de.metas.adempiere.service.IColumnBL;
 import de.metas.dlm.IDLMService;
 import de.metas.dlm.Partition;
+import de.metas.dlm.Partition.WorkQueue;
 import de.metas.dlm.migrator.IMigratorService;
 import de.metas.dlm.model.IDLMAware;
 import de.metas.dlm.model.I_DLM_Partition;
@@ -45,70 +53,92 @@ import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.DBException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.PlainContextAware;
 import org.adempiere.util.lang.IContextAware;
 import org.adempiere.util.lang.ITableRecordReference;
-import org.adempiere.util.lang.Mutable;
 import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.Adempiere;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
 import org.compiere.util.TrxRunnable;
 import org.slf4j.Logger;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
 
 public class RecordCrawlerService implements IRecordCrawlerService
 {
 	private final transient Logger logger = LogManager.getLogger(getClass());
 
+	/**
+	 * The maximum number of queued records that we process at once, i.e. for which we load the forward and backward references with one query per table and config-reference.
+	 */
+	private static final int CRAWL_BATCH_SIZE = 1000;
+
+	/**
+	 * The maximum number of IDs per {@code IN (...)} query. The postgresql jdbc driver only supports about 2^15 parameters per statement.
+	 */
+	private static final int MAX_IN_ARRAY_SIZE = 32700;
+
+	private static final int WORKQUEUE_INSERT_BATCH_SIZE = 1000;
+
 	@Override
 	public IIterateResult crawl(
 			final PartitionConfig config,
 			final IContextAware ctxAware,
 			final IIterateResult result)
 	{
-
-		final IColumnBL columnBL = Services.get(IColumnBL.class);
-		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
-
 		// store what we are setting out to do here. E.g. if we are called from a DLMException, we want the situation such as
 		// "partition is not complete because testMigrate failed, and there are e.g. 20 orderlines to backtrack from" to be stored here.
 		// otherwise, the partiton we are in truth working on just now would be flagged as "completed" in the DB until further notice
 		storeIterateResult(config, result, ctxAware);
 
+		// the records we dequeued but did not yet completely process; if the crawler is signaled to stop, we put them back into the queue
+		final Set<ITableRecordReference> unprocessedRecords = new LinkedHashSet<>();
+
 		mainLoop:
 		while (!result.isQueueEmpty())
 		{
-			final ITableRecordReference currentReference = result.nextFromQueue();
-			final IDLMAware currentRecord = currentReference.getModel(ctxAware, IDLMAware.class);
-			if (currentRecord == null)
-			{
-				continue;
-			}
-
+			// store before we dequeue the next batch, so that we don't delete the work queue records of a batch that we did not yet process
 			if (shallStoreResult(result))
 			{
 				storeIterateResult(config, result, ctxAware);
 			}
 
-			final String currentTableName = currentReference.getTableName();
-			final int currentRecordId = InterfaceWrapperHelper.getId(currentRecord);
-
-			// there might or migth not be a line for the current reference's table name. That would mean that we can only search "backward"
-			final Optional<PartitionerConfigLine> currentLineOrNull = config.getLine(currentTableName);
+			// dequeue a batch of records and group them by table, so that we can load the records and their forward and backward references with one query per table and reference
+			final Map<String, List<ITableRecordReference>> tableName2Batch = nextBatchFromQueue(result);
+			tableName2Batch.values().forEach(unprocessedRecords::addAll);
 
-			if (currentLineOrNull.isPresent())
+			for (final Entry<String, List<ITableRecordReference>> tableNameAndBatch : tableName2Batch.entrySet())
 			{
-				final List<PartitionerConfigReference> forwardRefs = currentLineOrNull.get().getReferences();
+				final String currentTableName = tableNameAndBatch.getKey();
+				final Map<Integer, IDLMAware> currentRecords = retrieveRecordsById(ctxAware, currentTableName, extractRecordIds(tableNameAndBatch.getValue()));
+				if (currentRecords.isEmpty())
+				{
+					unprocessedRecords.removeAll(tableNameAndBatch.getValue());
+					continue;
+				}
 
-				// look FORWARD
-				//
-				// look at all the records that are referenced by 'currentRecord' and add them to 'hull',
-				// but only add them if they were not yet identified as parts of this partition (i.e. not yet added to 'records').
+				// there might or migth not be a line for the current reference's table name. That would mean that we can only search "backward"
+				final Optional<PartitionerConfigLine> currentLineOrNull = config.getLine(currentTableName);
+				final List<PartitionerConfigReference> forwardRefs = currentLineOrNull.isPresent() ? currentLineOrNull.get().getReferences() : ImmutableList.of();
+
+				// look FORWARD: for each config-reference, load all the records that are referenced by our current batch with one query
+				final Map<PartitionerConfigReference, Map<Integer, IDLMAware>> forwardRef2Records = new LinkedHashMap<>();
 				for (final PartitionerConfigReference forwardRef : forwardRefs)
 				{
 					if (forwardRef.isPartitionBoundary())
@@ -116,53 +146,61 @@ public class RecordCrawlerService implements IRecordCrawlerService
 						continue; // don't follow it
 					}
 
-					// the table name for the foreign record which has 'foreignKey' as its ID
-					final String forwardTableName = forwardRef.getReferencedTableName();
-					final String forwardColumnName = forwardRef.getReferencingColumnName();
-
-					// first check if this is all about a Record_ID/AD_Table_ID reference.
-					// if that is the case, then we need to verify that the AD_Table_ID of 'record' actually points to the table named 'forwardTableName'
-					if (columnBL.isRecordIdColumnName(forwardColumnName))
+					final Set<Integer> forwardKeys = new HashSet<>();
+					for (final IDLMAware currentRecord : currentRecords.values())
 					{
-						final String tableColumnName = columnBL.getTableIdColumnName(currentTableName, forwardColumnName)
-								.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", currentTableName, forwardColumnName));
-
-						final Integer tableId = InterfaceWrapperHelper.getValueOrNull(currentRecord, tableColumnName);
-						if (tableId == null || tableId <= 0)
+						final Integer forwardKey = getForwardKeyOrNull(currentTableName, currentRecord, forwardRef);
+						if (forwardKey != null && !result.contains(TableRecordReference.of(forwardRef.getReferencedTableName(), forwardKey)))
 						{
-							logger.trace("{}[{}] forward: the column={} does not reference any table; skipping", currentTableName, currentRecordId, forwardColumnName, forwardTableName, tableColumnName);
-							continue;
-						}
-
-						final String tableName = adTableDAO.retrieveTableName(tableId);
-						if (!tableName.equals(forwardTableName))
-						{
-							logger.trace("{}[{}] forward: the column={} does not reference a {}-record, but a {}-record; skipping", currentTableName, currentRecordId, forwardColumnName, forwardTableName, tableName);
-							continue;
+							forwardKeys.add(forwardKey); // avoid circles and also avoid loading the whole PO again
 						}
 					}
+					forwardRef2Records.put(forwardRef, retrieveRecordsById(ctxAware, forwardRef.getReferencedTableName(), forwardKeys));
+				}
 
-					// get the foreign key ID of
-					// table DLM_PartitionLine_Config.AD_Table_ID,
-					// column DLM_PartitionReference_Config.DLM_Referencing_Column_ID
-					final Integer forwardKey = InterfaceWrapperHelper.getValueOrNull(currentRecord, forwardColumnName);
-					if (forwardKey == null || forwardKey <= 0)
+				// Look BACKWARD, i.e. get all config-references that point to 'currentTableName'.
+				// Then, for each of them, load the records that reference any of our current batch's records via the respective config-reference, again with one query.
+				final List<PartitionerConfigReference> backwardRefs = config.getReferences(currentTableName);
+				final Map<PartitionerConfigReference, ListMultimap<Integer, IDLMAware>> backwardRef2Records = new LinkedHashMap<>();
+				for (final PartitionerConfigReference backwardRef : backwardRefs)
+				{
+					if (backwardRef.isPartitionBoundary())
 					{
-						logger.trace("{}[{}] forward: the column={} does not reference anything; skipping", currentTableName, currentRecordId, forwardColumnName);
 						continue;
 					}
+					backwardRef2Records.put(backwardRef, retrieveReferencingRecords(ctxAware, currentTableName, currentRecords.keySet(), backwardRef));
+				}
 
-					final TableRecordReference forwardReference = TableRecordReference.of(forwardTableName, forwardKey);
+				// now add what we found to the result, record by record, so the order within the result stays the same as if we had loaded everything one record at a time
+				for (final Entry<Integer, IDLMAware> currentIdAndRecord : currentRecords.entrySet())
+				{
+					final int currentRecordId = currentIdAndRecord.getKey();
+					final IDLMAware currentRecord = currentIdAndRecord.getValue();
+					final ITableRecordReference currentReference = TableRecordReference.of(currentTableName, currentRecordId);
 
-					final boolean recordWasAlreadyAddedBefore = result.contains(forwardReference);
-					if (recordWasAlreadyAddedBefore)
-					{
-						logger.trace("{}[{}] forward: ITableRecordReference={} was already added in a previous iteration. Returning", currentTableName, currentRecordId, forwardReference); // avoid circles and also avoid loading the whole PO again
-					}
-					else
+					for (final Entry<PartitionerConfigReference, Map<Integer, IDLMAware>> forwardRefAndRecords : forwardRef2Records.entrySet())
 					{
-						// the foreign record was not yet added before. Load it now.
-						final IDLMAware forwardRecord = forwardReference.getModel(ctxAware, IDLMAware.class);
+						final PartitionerConfigReference forwardRef = forwardRefAndRecords.getKey();
+
+						// the table name for the foreign record which has 'foreignKey' as its ID
+						final String forwardTableName = forwardRef.getReferencedTableName();
+						final String forwardColumnName = forwardRef.getReferencingColumnName();
+
+						final Integer forwardKey = getForwardKeyOrNull(currentTableName, currentRecord, forwardRef);
+						if (forwardKey == null)
+						{
+							continue;
+						}
+
+						final TableRecordReference forwardReference = TableRecordReference.of(forwardTableName, forwardKey);
+						final boolean recordWasAlreadyAddedBefore = result.contains(forwardReference);
+						if (recordWasAlreadyAddedBefore)
+						{
+							logger.trace("{}[{}] forward: ITableRecordReference={} was already added in a previous iteration. Returning", currentTableName, currentRecordId, forwardReference); // avoid circles and also avoid loading the whole PO again
+							continue;
+						}
+
+						final IDLMAware forwardRecord = forwardRefAndRecords.getValue().get(forwardKey);
 						if (forwardRecord == null)
 						{
 							// this happens with our "minidump" where we left out the HUs
@@ -189,106 +227,223 @@ public class RecordCrawlerService implements IRecordCrawlerService
 							break mainLoop;
 						}
 					}
+
+					for (final Entry<PartitionerConfigReference, ListMultimap<Integer, IDLMAware>> backwardRefAndRecords : backwardRef2Records.entrySet())
+					{
+						final PartitionerConfigReference backwardRef = backwardRefAndRecords.getKey();
+						final String backwardTableName = backwardRef.getParent().getTableName();
+						final String backwardColumnName = backwardRef.getReferencingColumnName();
+
+						for (final IDLMAware backwardRecord : backwardRefAndRecords.getValue().get(currentRecordId))
+						{
+							InterfaceWrapperHelper.setTrxName(backwardRecord, ctxAware.getTrxName()); // we need this for MPinstance, because it explicitly ignores the trx it is loaded with in its constructor.
+
+							final ITableRecordReference backwardTableRecordReference = TableRecordReference.ofOrNull(backwardRecord);
+
+							final AddResult addRecordResult = result.addReferencingRecord(backwardTableRecordReference, currentReference, backwardRecord.getDLM_Partition_ID());
+							switch (addRecordResult)
+							{
+								case ADDED_CONTINUE:
+									// log that the foreign record was not yet added before. We added it now
+									logger.debug("{}[{}] backward: loaded from table={} via {}.{}={}: referencing IDLMAware={}",
+											currentTableName, currentRecordId, backwardTableName, backwardTableName, backwardColumnName, currentRecordId, backwardRecord);
+
+									if (backwardRecord.getDLM_Partition_ID() > 0)
+									{
+										// log why we did not search further using the new found foreign record
+										logger.debug("{}[{}] backward: referenced IDLMAware={} already has DLM_Partition_ID={}",
+												currentTableName, currentRecordId, backwardRecord, backwardRecord.getDLM_Partition_ID());
+									}
+									break;
+								case NOT_ADDED_CONTINUE:
+									logger.trace("{}[{}] backward: ReferencingRecord={} was already added in a previous iteration. Returning", currentTableName, currentRecordId, backwardTableRecordReference);
+									break;
+								case STOP:
+									Loggables.addLog("The crawler was signaled to stop when it added ReferencingRecord={} the result. Stopping now", backwardTableRecordReference);
+									break mainLoop;
+								default:
+									Check.errorIf(true, "Unexpected result={}", addRecordResult);
+									break;
+							}
+						}
+					}
+					unprocessedRecords.remove(currentReference);
 				}
+
+				// also covers the records that could not be loaded
+				unprocessedRecords.removeAll(tableNameAndBatch.getValue());
 			}
+		}
 
-			// Look BACKWARD, i.e. get all config-references that point to 'currentTableName'.
-			// Then, for each of them, load the records that reference 'currentRecord' via the respective config-reference.
-			//
-			final List<PartitionerConfigReference> backwardRefs = config.getReferences(currentTableName);
-			for (final PartitionerConfigReference backwardRef : backwardRefs)
-			{
-				if (backwardRef.isPartitionBoundary())
-				{
-					continue;
-				}
+		if (!unprocessedRecords.isEmpty())
+		{
+			logger.info("Putting {} unprocessed records back into the queue", unprocessedRecords.size());
+			result.requeue(ImmutableList.copyOf(unprocessedRecords));
+		}
 
-				final PartitionerConfigLine backwardLine = backwardRef.getParent();
-				final String backwardTableName = backwardLine.getTableName();
-				final String backwardColumnName = backwardRef.getReferencingColumnName();
+		logger.info("Found {} records via config.name={}", result.size(), config.getName());
+		storeIterateResult(config, result, ctxAware);
+		return result;
+	}
 
-				// load all records which reference foreignRecord
-				// don't excluded records with DLM_Partition_ID>0 becase we might need to merge them into the partition we are currently building
-				final IQueryBuilder<IDLMAware> queryBuilder = Services.get(IQueryBL.class)
-						.createQueryBuilder(IDLMAware.class, backwardTableName, ctxAware)
-						.addEqualsFilter(backwardRef.getReferencingColumnName(), currentRecordId);
+	/**
+	 * Takes up to {@link #CRAWL_BATCH_SIZE} records from the given {@code result}'s queue.
+	 *
+	 * @return the dequeued records, grouped by table name, in the order in which they were dequeued.
+	 */
+	private Map<String, List<ITableRecordReference>> nextBatchFromQueue(final IIterateResult result)
+	{
+		final Map<String, List<ITableRecordReference>> tableName2Batch = new LinkedHashMap<>();
 
-				// if we have a case of AD_Table_ID/Record_ID,
-				// then we need to make sure to only load records whose AD_Table_ID references currentRecord
-				if (columnBL.isRecordIdColumnName(backwardColumnName))
-				{
-					// note that referencedTableColumnName = AD_Table_ID, in most cases
-					final String referencedTableColumnName = columnBL.getTableIdColumnName(backwardTableName, backwardRef.getReferencingColumnName())
-							.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", backwardTableName, backwardColumnName));
+		int count = 0;
+		while (count < CRAWL_BATCH_SIZE && !result.isQueueEmpty())
+		{
+			final ITableRecordReference reference = result.nextFromQueue();
+			tableName2Batch
+					.computeIfAbsent(reference.getTableName(), k -> new ArrayList<>())
+					.add(reference);
+			count++;
+		}
+		return tableName2Batch;
+	}
 
-					final int referencedTableID = adTableDAO.retrieveTableId(currentTableName);
+	private static Set<Integer> extractRecordIds(final Collection<ITableRecordReference> references)
+	{
+		return references.stream()
+				.map(ITableRecordReference::getRecord_ID)
+				.collect(ImmutableSet.toImmutableSet());
+	}
 
-					queryBuilder.addEqualsFilter(referencedTableColumnName, referencedTableID);
-				}
+	/**
+	 * @return the key the given {@code currentRecord} references via the given {@code forwardRef} or {@code null} if the record does not reference any record of {@code forwardRef}'s referenced table.
+	 */
+	private Integer getForwardKeyOrNull(
+			final String currentTableName,
+			final IDLMAware currentRecord,
+			final PartitionerConfigReference forwardRef)
+	{
+		final IColumnBL columnBL = Services.get(IColumnBL.class);
 
-				// avoid loading the records we already added before.
-				// This doesn't work well. NOT IN is probably not very performant, see
-				// http://stackoverflow.com/questions/7125291/postgresql-not-in-versus-except-performance-difference-edited-2
-				// maybe it would become better when we do something along the lines of
-				// https://www.datadoghq.com/blog/100x-faster-postgres-performance-by-changing-1-line/
-				// at any rate it looks the postgresql jdbc driver "only" supports prepared statements with 65536 parameters,
-				// Solutions:
-				// 1. don't try to exclude anything and live with records beeing returned that we already saw earlier
-				// 2. store the partition more regularly and add some sort of negative left-join to the query
-				// {
-				// final String columnName = columnBL.getSingleKeyColumn(backwardTableName);
-				// final Collection<Integer> alreadyAddedBackwardIds = result.getIds(backwardTableName);
-				//
-				// queryBuilder.addNotInArrayFilter(columnName, alreadyAddedBackwardIds);
-				// }
-
-				// de.metas.dlm.partitioner.PartitionerTools.dumpHistogram(result)
-				final List<IDLMAware> backwardRecords = queryBuilder
-						.create()
-						.list();
+		final String forwardTableName = forwardRef.getReferencedTableName();
+		final String forwardColumnName = forwardRef.getReferencingColumnName();
 
-				for (final IDLMAware backwardRecord : backwardRecords)
-				{
-					InterfaceWrapperHelper.setTrxName(backwardRecord, ctxAware.getTrxName()); // we need this for MPinstance, because it explicitly ignores the trx it is loaded with in its constructor.
+		// first check if this is all about a Record_ID/AD_Table_ID reference.
+		// if that is the case, then we need to verify that the AD_Table_ID of 'record' actually points to the table named 'forwardTableName'
+		if (columnBL.isRecordIdColumnName(forwardColumnName))
+		{
+			final String tableColumnName = columnBL.getTableIdColumnName(currentTableName, forwardColumnName)
+					.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", currentTableName, forwardColumnName));
 
-					final ITableRecordReference backwardTableRecordReference = TableRecordReference.ofOrNull(backwardRecord);
+			final Integer tableId = InterfaceWrapperHelper.getValueOrNull(currentRecord, tableColumnName);
+			if (tableId == null || tableId <= 0)
+			{
+				logger.trace("{} forward: the column={} does not reference any table; skipping", currentRecord, forwardColumnName);
+				return null;
+			}
 
-					final AddResult addRecordResult = result.addReferencingRecord(backwardTableRecordReference, currentReference, backwardRecord.getDLM_Partition_ID());
+			final String tableName = Services.get(IADTableDAO.class).retrieveTableName(tableId);
+			if (!tableName.equals(forwardTableName))
+			{
+				logger.trace("{} forward: the column={} does not reference a {}-record, but a {}-record; skipping", currentRecord, forwardColumnName, forwardTableName, tableName);
+				return null;
+			}
+		}
 
-					// should not happen because we excluded alreadyAddedBackwardIds from the loading query
-					// Check.errorUnless(recordWasNotYetAddedBefore, "{}[{}] backward: WAS ALREADY ADDED! - loaded referencing IDLMAware={} from table={} via {}.{}={}",
-					// currentTableName, currentRecordId, backwardRecord, backwardTableName, backwardTableName, backwardColumnName, currentRecordId);
+		// get the foreign key ID of
+		// table DLM_PartitionLine_Config.AD_Table_ID,
+		// column DLM_PartitionReference_Config.DLM_Referencing_Column_ID
+		final Integer forwardKey = InterfaceWrapperHelper.getValueOrNull(currentRecord, forwardColumnName);
+		if (forwardKey == null || forwardKey <= 0)
+		{
+			logger.trace("{} forward: the column={} does not reference anything; skipping", currentRecord, forwardColumnName);
+			return null;
+		}
+		return forwardKey;
+	}
 
-					switch (addRecordResult)
-					{
-						case ADDED_CONTINUE:
-							// log that the foreign record was not yet added before. We added it now
-							logger.debug("{}[{}] backward: loaded from table={} via {}.{}={}: referencing IDLMAware={}",
-									currentTableName, currentRecordId, backwardTableName, backwardTableName, backwardColumnName, currentRecordId, backwardRecord);
+	/**
+	 * Loads the records with the given IDs from the given table, using one query per {@link #MAX_IN_ARRAY_SIZE} IDs.
+	 *
+	 * @return the loaded records by their IDs; IDs that could not be loaded are missing from the result.
+	 */
+	private Map<Integer, IDLMAware> retrieveRecordsById(
+			final IContextAware ctxAware,
+			final String tableName,
+			final Collection<Integer> recordIds)
+	{
+		if (recordIds.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
 
-							if (backwardRecord.getDLM_Partition_ID() > 0)
-							{
-								// log why we did not search further using the new found foreign record
-								logger.debug("{}[{}] backward: referenced IDLMAware={} already has DLM_Partition_ID={}",
-										currentTableName, currentRecordId, backwardRecord, backwardRecord.getDLM_Partition_ID());
-							}
-							break;
-						case NOT_ADDED_CONTINUE:
-							logger.trace("{}[{}] backward: ReferencingRecord={} was already added in a previous iteration. Returning", currentTableName, currentRecordId, backwardTableRecordReference);
-							break;
-						case STOP:
-							Loggables.addLog("The crawler was signaled to stop when it added ReferencingRecord={} the result. Stopping now", backwardTableRecordReference);
-							break mainLoop;
-						default:
-							Check.errorIf(true, "Unexpected result={}", addRecordResult);
-							break;
-					}
-				}
-			}
+		final String keyColumnName = Services.get(IColumnBL.class).getSingleKeyColumn(tableName);
+
+		final Map<Integer, IDLMAware> result = new LinkedHashMap<>();
+		for (final List<Integer> recordIdsChunk : Iterables.partition(recordIds, MAX_IN_ARRAY_SIZE))
+		{
+			Services.get(IQueryBL.class)
+					.createQueryBuilder(IDLMAware.class, tableName, ctxAware)
+					.addInArrayFilter(keyColumnName, recordIdsChunk)
+					.orderBy().addColumn(keyColumnName).endOrderBy()
+					.create()
+					.list()
+					.forEach(record -> result.put(InterfaceWrapperHelper.getId(record), record));
 		}
+		return result;
+	}
 
-		logger.info("Found {} records via config.name={}", result.size(), config.getName());
-		storeIterateResult(config, result, ctxAware);
+	/**
+	 * Loads the records which reference any of the given {@code currentRecordIds} via the given {@code backwardRef}.
+	 *
+	 * @return the loaded records, indexed by the ID of the {@code currentTableName}-record they reference.
+	 */
+	private ListMultimap<Integer, IDLMAware> retrieveReferencingRecords(
+			final IContextAware ctxAware,
+			final String currentTableName,
+			final Collection<Integer> currentRecordIds,
+			final PartitionerConfigReference backwardRef)
+	{
+		final IColumnBL columnBL = Services.get(IColumnBL.class);
+
+		final String backwardTableName = backwardRef.getParent().getTableName();
+		final String backwardColumnName = backwardRef.getReferencingColumnName();
+
+		final ListMultimap<Integer, IDLMAware> result = ArrayListMultimap.create();
+		for (final List<Integer> currentRecordIdsChunk : Iterables.partition(currentRecordIds, MAX_IN_ARRAY_SIZE))
+		{
+			// load all records which reference foreignRecord
+			// don't excluded records with DLM_Partition_ID>0 becase we might need to merge them into the partition we are currently building
+			final IQueryBuilder<IDLMAware> queryBuilder = Services.get(IQueryBL.class)
+					.createQueryBuilder(IDLMAware.class, backwardTableName, ctxAware)
+					.addInArrayFilter(backwardColumnName, currentRecordIdsChunk);
+
+			// if we have a case of AD_Table_ID/Record_ID,
+			// then we need to make sure to only load records whose AD_Table_ID references currentRecord
+			if (columnBL.isRecordIdColumnName(backwardColumnName))
+			{
+				// note that referencedTableColumnName = AD_Table_ID, in most cases
+				final String referencedTableColumnName = columnBL.getTableIdColumnName(backwardTableName, backwardColumnName)
+						.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", backwardTableName, backwardColumnName));
+
+				final int referencedTableID = Services.get(IADTableDAO.class).retrieveTableId(currentTableName);
+
+				queryBuilder.addEqualsFilter(referencedTableColumnName, referencedTableID);
+			}
+
+			// note that we don't try to exclude the records we already added before.
+			// NOT IN is probably not very performant, see
+			// http://stackoverflow.com/questions/7125291/postgresql-not-in-versus-except-performance-difference-edited-2
+			// so we live with records beeing returned that we already saw earlier; the result will tell us that they were not added again.
+			final String keyColumnName = columnBL.getSingleKeyColumn(backwardTableName);
+			queryBuilder
+					.orderBy().addColumn(keyColumnName).endOrderBy()
+					.create()
+					.list()
+					.forEach(backwardRecord -> {
+						final Integer referencedId = InterfaceWrapperHelper.getValueOrNull(backwardRecord, backwardColumnName);
+						result.put(referencedId, backwardRecord);
+					});
+		}
 		return result;
 	}
 
@@ -429,42 +584,163 @@ public class RecordCrawlerService implements IRecordCrawlerService
 		// store and delete DLM_Partition_Workqueue records according to the records we processed and the records we newly added since the last time this method was called.
 		{
 			// delete DLM_Partition_Workqueue records we already processed
-			final Mutable<Integer> deletedSum = new Mutable<>(0);
-			result.getQueueRecordsToDelete()
-					.forEach(r -> {
-
-						// It's not a must to delete them 1-by-1, but we can't just create one chuck with unknow size!
-						// If we want to delete more than one at a time, we need to create chuncks of a fixed size that is less than 2^32.
-						final int delete = queryBL.createQueryBuilder(I_DLM_Partition_Workqueue.class, ctxAware)
-								.addEqualsFilter(I_DLM_Partition_Workqueue.COLUMN_DLM_Partition_Workqueue_ID, r.getDLM_Partition_Workqueue_ID())
-								.create()
-								.deleteDirectly();
-						deletedSum.setValue(deletedSum.getValue() + delete);
-					});
-			logger.debug("storeIterateResult: Deleted {} DLM_Partition_Workqueue records", deletedSum.getValue());
+			// we can't just create one chunk with unknown size, so we delete them in chunks of a fixed size
+			int deletedSum = 0;
+			final List<Integer> queueRecordIdsToDelete = result.getQueueRecordsToDelete()
+					.stream()
+					.map(WorkQueue::getDLM_Partition_Workqueue_ID)
+					.collect(ImmutableList.toImmutableList());
+			for (final List<Integer> queueRecordIdsChunk : Lists.partition(queueRecordIdsToDelete, MAX_IN_ARRAY_SIZE))
+			{
+				deletedSum += queryBL.createQueryBuilder(I_DLM_Partition_Workqueue.class, ctxAware)
+						.addInArrayFilter(I_DLM_Partition_Workqueue.COLUMN_DLM_Partition_Workqueue_ID, queueRecordIdsChunk)
+						.create()
+						.deleteDirectly();
+			}
+			logger.debug("storeIterateResult: Deleted {} DLM_Partition_Workqueue records", deletedSum);
 
 			// persist DLM_Partition_Workqueue record we still need to process.
-			final Mutable<Integer> storedSum = new Mutable<>(0);
-			result.getQueueRecordsToStore()
-					.forEach(queueRecordsToStore -> {
+			// skip the ones that were already persisted the last time this method was called
+			final List<WorkQueue> queueRecordsToStore = result.getQueueRecordsToStore()
+					.stream()
+					.filter(queueRecord -> queueRecord.getDLM_Partition_Workqueue_ID() <= 0)
+					.collect(ImmutableList.toImmutableList());
+			storeWorkQueueRecords(storedPartition, queueRecordsToStore, ctxAware);
+			logger.debug("storeIterateResult: Stored {} DLM_Partition_Workqueue records", queueRecordsToStore.size());
+		}
 
-						final ITableRecordReference tableRecordReference = queueRecordsToStore.getTableRecordReference();
+		result.clearAfterPartitionStored(storedPartition);
+	}
 
-						final I_DLM_Partition_Workqueue newQueueRecord = InterfaceWrapperHelper.newInstance(I_DLM_Partition_Workqueue.class);
-						newQueueRecord.setDLM_Partition_ID(storedPartition.getDLM_Partition_ID());
-						newQueueRecord.setAD_Table_ID(tableRecordReference.getAD_Table_ID());
-						newQueueRecord.setRecord_ID(tableRecordReference.getRecord_ID());
+	/**
+	 * Stores the given {@code queueRecords} as {@link I_DLM_Partition_Workqueue}s and sets their {@code DLM_Partition_Workqueue_ID}s.
+	 * <p>
+	 * The records are inserted with JDBC batches of {@value #WORKQUEUE_INSERT_BATCH_SIZE} rows, within the crawler's transaction.
+	 * Their IDs are fetched from the table sequence with one query per batch.
+	 */
+	private void storeWorkQueueRecords(
+			final Partition storedPartition,
+			final List<WorkQueue> queueRecords,
+			final IContextAware ctxAware)
+	{
+		if (queueRecords.isEmpty())
+		{
+			return;
+		}
 
-						InterfaceWrapperHelper.save(newQueueRecord);
+		if (Adempiere.isUnitTestMode())
+		{
+			// in unit test mode we don't have a database to send our batches to
+			for (final WorkQueue queueRecord : queueRecords)
+			{
+				final ITableRecordReference tableRecordReference = queueRecord.getTableRecordReference();
 
-						queueRecordsToStore.setDLM_Partition_Workqueue_ID(newQueueRecord.getDLM_Partition_Workqueue_ID());
+				final I_DLM_Partition_Workqueue newQueueRecord = InterfaceWrapperHelper.newInstance(I_DLM_Partition_Workqueue.class, ctxAware);
+				newQueueRecord.setDLM_Partition_ID(storedPartition.getDLM_Partition_ID());
+				newQueueRecord.setAD_Table_ID(tableRecordReference.getAD_Table_ID());
+				newQueueRecord.setRecord_ID(tableRecordReference.getRecord_ID());
+				InterfaceWrapperHelper.save(newQueueRecord);
 
-						storedSum.setValue(storedSum.getValue() + 1);
-					});
-			logger.debug("storeIterateResult: Stored {} DLM_Partition_Workqueue records", storedSum.getValue());
+				queueRecord.setDLM_Partition_Workqueue_ID(newQueueRecord.getDLM_Partition_Workqueue_ID());
+			}
+			return;
 		}
 
-		result.clearAfterPartitionStored(storedPartition);
+		final Properties ctx = ctxAware.getCtx();
+		final int adClientId = Env.getAD_Client_ID(ctx);
+		final int adOrgId = Env.getAD_Org_ID(ctx);
+		final int adUserId = Env.getAD_User_ID(ctx);
+
+		for (final List<WorkQueue> queueRecordsChunk : Lists.partition(queueRecords, WORKQUEUE_INSERT_BATCH_SIZE))
+		{
+			final List<Integer> queueRecordIds = retrieveNextWorkQueueIds(queueRecordsChunk.size());
+			final List<Object[]> paramsList = createWorkQueueInsertParams(
+					storedPartition.getDLM_Partition_ID(),
+					queueRecordsChunk,
+					queueRecordIds,
+					adClientId,
+					adOrgId,
+					adUserId);
+
+			PreparedStatement pstmt = null;
+			try
+			{
+				pstmt = DB.prepareStatement(SQL_InsertWorkQueue, ctxAware.getTrxName());
+				for (final Object[] params : paramsList)
+				{
+					DB.setParameters(pstmt, params);
+					pstmt.addBatch();
+				}
+				pstmt.executeBatch();
+			}
+			catch (final SQLException ex)
+			{
+				throw new DBException(ex, SQL_InsertWorkQueue);
+			}
+			finally
+			{
+				DB.close(pstmt);
+			}
+
+			// only now that the batch was successfully sent, we can tell our queue records about their IDs
+			for (int i = 0; i < queueRecordsChunk.size(); i++)
+			{
+				queueRecordsChunk.get(i).setDLM_Partition_Workqueue_ID(queueRecordIds.get(i));
+			}
+		}
+	}
+
+	private static final String SQL_InsertWorkQueue = "INSERT INTO " + I_DLM_Partition_Workqueue.Table_Name + " ("
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_AD_Client_ID + "," // 1
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_AD_Org_ID + "," // 2
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_DLM_Partition_Workqueue_ID + "," // 3
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_DLM_Partition_ID + "," // 4
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_AD_Table_ID + "," // 5
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_Record_ID + "," // 6
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_Created + "," // 7
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_CreatedBy + "," // 8
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_Updated + "," // 9
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_UpdatedBy + "," // 10
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_IsActive // 11
+			+ ")"
+			+ " VALUES (?,?,?,?,?,?,now(),?,now(),?,'Y')";
+
+	/**
+	 * @return one parameter array per queue record, matching {@link #SQL_InsertWorkQueue}
+	 */
+	@VisibleForTesting
+	static List<Object[]> createWorkQueueInsertParams(
+			final int dlmPartitionId,
+			final List<WorkQueue> queueRecords,
+			final List<Integer> queueRecordIds,
+			final int adClientId,
+			final int adOrgId,
+			final int adUserId)
+	{
+		Check.assume(queueRecords.size() == queueRecordIds.size(), "We have one ID per queue record; queueRecords={}, queueRecordIds={}", queueRecords, queueRecordIds);
+
+		final List<Object[]> paramsList = new ArrayList<>(queueRecords.size());
+		for (int i = 0; i < queueRecords.size(); i++)
+		{
+			final ITableRecordReference tableRecordReference = queueRecords.get(i).getTableRecordReference();
+			paramsList.add(new Object[] {
+					adClientId, // 1 - AD_Client_ID
+					adOrgId, // 2 - AD_Org_ID
+					queueRecordIds.get(i), // 3 - DLM_Partition_Workqueue_ID
+					dlmPartitionId, // 4 - DLM_Partition_ID
+					tableRecordReference.getAD_Table_ID(), // 5 - AD_Table_ID
+					tableRecordReference.getRecord_ID(), // 6 - Record_ID
+					adUserId, // 8 - CreatedBy
+					adUserId // 10 - UpdatedBy
+			});
+		}
+		return paramsList;
+	}
+
+	private List<Integer> retrieveNextWorkQueueIds(final int count)
+	{
+		final String sql = "SELECT " + DB.TO_TABLESEQUENCE_NEXTVAL(I_DLM_Partition_Workqueue.Table_Name) + " FROM generate_series(1, ?)";
+		return DB.retrieveRowsOutOfTrx(sql, ImmutableList.of(count), rs -> rs.getInt(1));
 	}
 
 	private int getPartitionSize(final IContextAware ctxAware, Integer dlmPartitionId)
@@ -0,0 +1,171 @@
+package de.metas.dlm.partitioner.impl;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.adempiere.ad.dao.IQueryBL;
+import org.adempiere.ad.table.api.IADTableDAO;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.model.PlainContextAware;
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.util.lang.ITableRecordReference;
+import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.model.I_AD_Element;
+import org.compiere.model.I_C_Invoice;
+import org.compiere.model.I_C_Order;
+import org.compiere.util.Env;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.dlm.Partition.WorkQueue;
+import de.metas.dlm.model.IDLMAware;
+import de.metas.dlm.model.I_DLM_Partition_Workqueue;
+import de.metas.dlm.partitioner.IIterateResultHandler.AddResult;
+import de.metas.dlm.partitioner.config.PartitionConfig;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * metasfresh-dlm
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class RecordCrawlerServiceTests
+{
+	private final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
+
+	private final RecordCrawlerService recordCrawlerService = new RecordCrawlerService(); // this is the class under test
+	private final PlainContextAware ctxAware = PlainContextAware.newOutOfTrx(Env.getCtx());
+
+	@Before
+	public void before()
+	{
+		AdempiereTestHelper.get().init();
+
+		// create two AD_Elements required by the IDLMService implementation
+		{
+			final I_AD_Element elementDLMLevel = InterfaceWrapperHelper.newInstance(I_AD_Element.class);
+			elementDLMLevel.setColumnName(IDLMAware.COLUMNNAME_DLM_Level);
+			InterfaceWrapperHelper.save(elementDLMLevel);
+
+			final I_AD_Element elementPartitionId = InterfaceWrapperHelper.newInstance(I_AD_Element.class);
+			elementPartitionId.setColumnName(IDLMAware.COLUMNNAME_DLM_Partition_ID);
+			InterfaceWrapperHelper.save(elementPartitionId);
+		}
+	}
+
+	/**
+	 * Scenario: the initial queue has three invoices which are dequeued as one batch. When the crawler adds the second invoice's order, it is signaled to stop.
+	 * <p>
+	 * The work queue records of the invoices which were not completely processed shall not be deleted, so that a later run can continue with them.
+	 */
+	@Test
+	public void testCrawlStoppedMidBatch()
+	{
+		final PartitionConfig config = PartitionConfig.builder()
+				.line(I_C_Invoice.Table_Name)
+				.ref().setReferencedTableName(I_C_Order.Table_Name).setReferencingColumnName(I_C_Invoice.COLUMNNAME_C_Order_ID).endRef()
+				.endLine()
+				.build();
+
+		final I_C_Invoice invoice1 = createInvoiceWithOrder();
+		final I_C_Invoice invoice2 = createInvoiceWithOrder();
+		final I_C_Invoice invoice3 = createInvoiceWithOrder();
+
+		final Iterator<WorkQueue> initialQueue = ImmutableList.of(
+				createWorkQueue(invoice1),
+				createWorkQueue(invoice2),
+				createWorkQueue(invoice3)).iterator();
+
+		final CreatePartitionIterateResult result = new CreatePartitionIterateResult(initialQueue, ctxAware);
+
+		final ITableRecordReference order2Reference = TableRecordReference.of(I_C_Order.Table_Name, invoice2.getC_Order_ID());
+		result.registerHandler((tableRecordReference, preliminaryResult) -> order2Reference.equals(tableRecordReference) ? AddResult.STOP : preliminaryResult);
+
+		// invoke the method under test
+		recordCrawlerService.crawl(config, ctxAware, result);
+
+		assertThat(result.isHandlerSignaledToStop(), is(true));
+		assertThat(result.isQueueEmpty(), is(false));
+
+		// invoice1 was processed, so its work queue record is gone. invoice2 and invoice3 are still to do, and so are the two orders that were added
+		assertThat(retrieveQueuedRecordIds(I_C_Invoice.Table_Name), containsInAnyOrder(invoice2.getC_Invoice_ID(), invoice3.getC_Invoice_ID()));
+		assertThat(retrieveQueuedRecordIds(I_C_Order.Table_Name), containsInAnyOrder(invoice1.getC_Order_ID(), invoice2.getC_Order_ID()));
+	}
+
+	/**
+	 * Verifies the parameters of the JDBC batch that inserts the work queue records in production.
+	 */
+	@Test
+	public void testCreateWorkQueueInsertParams()
+	{
+		final ITableRecordReference orderReference = TableRecordReference.of(I_C_Order.Table_Name, 10);
+		final ITableRecordReference invoiceReference = TableRecordReference.of(I_C_Invoice.Table_Name, 20);
+
+		final List<Object[]> paramsList = RecordCrawlerService.createWorkQueueInsertParams(
+				5, // dlmPartitionId
+				ImmutableList.of(WorkQueue.of(orderReference), WorkQueue.of(invoiceReference)),
+				ImmutableList.of(101, 102), // queueRecordIds
+				1, // adClientId
+				2, // adOrgId
+				100); // adUserId
+
+		assertThat(paramsList.size(), is(2));
+		assertThat(Arrays.asList(paramsList.get(0)), contains(1, 2, 101, 5, orderReference.getAD_Table_ID(), 10, 100, 100));
+		assertThat(Arrays.asList(paramsList.get(1)), contains(1, 2, 102, 5, invoiceReference.getAD_Table_ID(), 20, 100, 100));
+	}
+
+	private I_C_Invoice createInvoiceWithOrder()
+	{
+		final I_C_Order order = InterfaceWrapperHelper.newInstance(I_C_Order.class);
+		InterfaceWrapperHelper.save(order);
+
+		final I_C_Invoice invoice = InterfaceWrapperHelper.newInstance(I_C_Invoice.class);
+		invoice.setC_Order_ID(order.getC_Order_ID());
+		InterfaceWrapperHelper.save(invoice);
+
+		return invoice;
+	}
+
+	private WorkQueue createWorkQueue(final I_C_Invoice invoice)
+	{
+		final I_DLM_Partition_Workqueue workQueueDB = InterfaceWrapperHelper.newInstance(I_DLM_Partition_Workqueue.class);
+		workQueueDB.setAD_Table_ID(adTableDAO.retrieveTableId(I_C_Invoice.Table_Name));
+		workQueueDB.setRecord_ID(invoice.getC_Invoice_ID());
+		InterfaceWrapperHelper.save(workQueueDB);
+
+		return WorkQueue.of(workQueueDB);
+	}
+
+	private List<Integer> retrieveQueuedRecordIds(final String tableName)
+	{
+		return Services.get(IQueryBL.class).createQueryBuilder(I_DLM_Partition_Workqueue.class, ctxAware)
+				.addEqualsFilter(I_DLM_Partition_Workqueue.COLUMNNAME_AD_Table_ID, adTableDAO.retrieveTableId(tableName))
+				.create()
+				.listDistinct(I_DLM_Partition_Workqueue.COLUMNNAME_Record_ID, Integer.class);
+	}
+}
@@ -23,6 +23,7 @@ package de.metas.dunning.api;
  */
 
 
+import java.util.Collection;
 import java.util.List;
 
 import de.metas.dunning.interfaces.I_C_DunningLevel;
@@ -33,6 +34,11 @@ public interface IDunningCandidateQuery
 
 	int getRecord_ID();
 
+	/**
+	 * @return if not empty, the query matches the candidates of all these records (of {@link #getAD_Table_ID()}); {@link #getRecord_ID()} is ignored in that case
+	 */
+	Collection<Integer> getRecord_IDs();
+
 	List<I_C_DunningLevel> getC_DunningLevels();
 
 	boolean isActive();
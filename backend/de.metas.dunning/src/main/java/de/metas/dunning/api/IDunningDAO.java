@@ -22,6 +22,7 @@ package de.metas.dunning.api;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
@@ -112,6 +113,22 @@ public interface IDunningDAO extends ISingletonService
 	 */
 	List<I_C_Dunning_Candidate> retrieveDunningCandidates(IDunningContext context, int tableId, int recordId, List<I_C_DunningLevel> dunningLevels);
 
+	/**
+	 * Same as {@link #retrieveDunningCandidates(IDunningContext, int, int, List)}, but retrieves the candidates of many records with one query.
+	 *
+	 * @param recordIds shall not be empty
+	 * @return matched {@link I_C_Dunning_Candidate}s, ordered by their ID
+	 */
+	List<I_C_Dunning_Candidate> retrieveDunningCandidates(IDunningContext context, int tableId, Collection<Integer> recordIds, List<I_C_DunningLevel> dunningLevels);
+
+	/**
+	 * Same as {@link #retrieveDunningCandidate(IDunningContext, int, int, I_C_DunningLevel)}, but retrieves the candidates of many records with one query.
+	 *
+	 * @param recordIds shall not be empty
+	 * @return matched {@link I_C_Dunning_Candidate}s, ordered by their ID
+	 */
+	List<I_C_Dunning_Candidate> retrieveDunningCandidatesForLevel(IDunningContext context, int tableId, Collection<Integer> recordIds, I_C_DunningLevel dunningLevel);
+
 	/**
 	 * Retrieved those dunning candidates to which the given user/role has read access and that have
 	 * <ul>
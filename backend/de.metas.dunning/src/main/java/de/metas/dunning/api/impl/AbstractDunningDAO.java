@@ -22,6 +22,7 @@ package de.metas.dunning.api.impl;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -134,6 +135,37 @@ public abstract class AbstractDunningDAO implements IDunningDAO
 		return retrieveDunningCandidates(context, query);
 	}
 
+	@Override
+	public final List<I_C_Dunning_Candidate> retrieveDunningCandidates(IDunningContext context, int tableId, Collection<Integer> recordIds, List<I_C_DunningLevel> dunningLevels)
+	{
+		Check.assumeNotEmpty(recordIds, "recordIds not empty");
+
+		final DunningCandidateQuery query = new DunningCandidateQuery();
+		query.setAD_Table_ID(tableId);
+		query.setRecord_IDs(recordIds);
+		query.setC_DunningLevels(dunningLevels);
+		query.setApplyClientSecurity(false); // we need to return all candidates for given table/records
+
+		return retrieveDunningCandidates(context, query);
+	}
+
+	@Override
+	public final List<I_C_Dunning_Candidate> retrieveDunningCandidatesForLevel(IDunningContext context, int tableId, Collection<Integer> recordIds, I_C_DunningLevel dunningLevel)
+	{
+		Check.assumeNotEmpty(recordIds, "recordIds not empty");
+
+		final DunningCandidateQuery query = new DunningCandidateQuery();
+		query.setAD_Table_ID(tableId);
+		query.setRecord_IDs(recordIds);
+		query.setC_DunningLevels(Collections.singletonList(dunningLevel));
+
+		// same filtering as in retrieveDunningCandidate(IDunningContext, int, int, I_C_DunningLevel)
+		query.setApplyClientSecurity(true);
+		query.setApplyAccessFilter(ApplyAccessFilter.ACCESS_FILTER_NONE);
+
+		return retrieveDunningCandidates(context, query);
+	}
+
 	@Override
 	public final Iterator<I_C_Dunning_Candidate> retrieveNotProcessedCandidatesIterator(final IDunningContext dunningContext)
 	{
@@ -97,11 +97,16 @@ public class DefaultDunningCandidateProducer implements IDunningCandidateProduce
 
 		final int tableId = sourceDoc.getTableId();
 
-		I_C_Dunning_Candidate candidate = dunningDAO.retrieveDunningCandidate(
-				context,
-				tableId,
-				sourceDoc.getRecordId(),
-				dunningLevel);
+		final PrefetchedDunningCandidates prefetchedCandidates = getPrefetchedCandidates(context, sourceDoc);
+		final boolean candidateMightExist = prefetchedCandidates == null || prefetchedCandidates.hasCurrentLevelCandidate(sourceDoc);
+
+		I_C_Dunning_Candidate candidate = !candidateMightExist
+				? null
+				: dunningDAO.retrieveDunningCandidate(
+						context,
+						tableId,
+						sourceDoc.getRecordId(),
+						dunningLevel);
 		if (candidate == null)
 		{
 			// Create a new one
@@ -235,7 +240,10 @@ public class DefaultDunningCandidateProducer implements IDunningCandidateProduce
 				return true;
 			}
 
-			previousCandidates = dunningDAO.retrieveDunningCandidates(context, tableId, recordId, previousLevels);
+			final PrefetchedDunningCandidates prefetchedCandidates = getPrefetchedCandidates(context, sourceDoc);
+			previousCandidates = prefetchedCandidates != null
+					? prefetchedCandidates.getCandidates(sourceDoc, previousLevels)
+					: dunningDAO.retrieveDunningCandidates(context, tableId, recordId, previousLevels);
 			for (final I_C_DunningLevel previousLevel : previousLevels)
 			{
 				// Search if we already have a candidate for previousLevel
@@ -286,6 +294,19 @@ public class DefaultDunningCandidateProducer implements IDunningCandidateProduce
 		return true;
 	}
 
+	/**
+	 * @return the candidates which were loaded in bulk by {@link DunningBL#createDunningCandidates(IDunningContext)}, or {@code null} if they were not prefetched for the given document
+	 */
+	private static PrefetchedDunningCandidates getPrefetchedCandidates(final IDunningContext context, final IDunnableDoc sourceDoc)
+	{
+		final PrefetchedDunningCandidates prefetchedCandidates = context.getProperty(PrefetchedDunningCandidates.CONTEXT_PrefetchedCandidates);
+		if (prefetchedCandidates == null || !prefetchedCandidates.isPrefetched(sourceDoc))
+		{
+			return null;
+		}
+		return prefetchedCandidates;
+	}
+
 	/**
 	 * Gets required days between dunnings
 	 *
@@ -30,6 +30,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.adempiere.ad.trx.api.ITrxManager;
@@ -38,9 +39,14 @@ import org.adempiere.ad.trx.api.ITrxRunConfig.OnRunnableFail;
 import org.adempiere.ad.trx.api.ITrxRunConfig.OnRunnableSuccess;
 import org.adempiere.ad.trx.api.ITrxRunConfig.TrxPropagation;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Iterators;
+
+import ch.qos.logback.classic.Level;
 import de.metas.dunning.api.IDunnableDoc;
 import de.metas.dunning.api.IDunnableSourceFactory;
 import de.metas.dunning.api.IDunningBL;
@@ -63,6 +69,7 @@ import de.metas.inoutcandidate.api.IShipmentConstraintsBL;
 import de.metas.inoutcandidate.api.ShipmentConstraintCreateRequest;
 import de.metas.logging.LogManager;
 import de.metas.util.Check;
+import de.metas.util.Loggables;
 import de.metas.util.Services;
 import de.metas.util.collections.IteratorUtils;
 import lombok.NonNull;
@@ -71,6 +78,9 @@ public class DunningBL implements IDunningBL
 {
 	private final Logger logger = LogManager.getLogger(getClass());
 
+	private static final String SYSCONFIG_CreateCandidatesChunkSize = "de.metas.dunning.CreateCandidatesChunkSize";
+	private static final int DEFAULT_CreateCandidatesChunkSize = 500;
+
 	private ReentrantLock configLock = new ReentrantLock();
 
 	/**
@@ -175,10 +185,6 @@ public class DunningBL implements IDunningBL
 	{
 		final IDunningConfig config = context.getDunningConfig();
 		final IDunnableSourceFactory sourceFactory = config.getDunnableSourceFactory();
-		final IDunningCandidateProducerFactory candidateProducerFactory = config.getDunningCandidateProducerFactory();
-
-		int countAll = 0;
-		int countCreated = 0;
 
 		final List<IDunnableSource> sources = sourceFactory.getSources(context);
 		if (sources.isEmpty())
@@ -186,22 +192,26 @@ public class DunningBL implements IDunningBL
 			throw new DunningException("No " + IDunnableSource.class + "s were configured in " + config);
 		}
 
+		final int chunkSize = Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_CreateCandidatesChunkSize, DEFAULT_CreateCandidatesChunkSize);
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		int countAll = 0;
+		int countCreated = 0;
+
 		for (final IDunnableSource source : sources)
 		{
 			final Iterator<IDunnableDoc> dunnableDocs = source.iterator(context);
 			try
 			{
-				while (dunnableDocs.hasNext())
+				// Process the documents chunk-wise, so that the existing candidates of a whole chunk can be loaded with one query
+				final Iterator<List<IDunnableDoc>> chunks = Iterators.partition(dunnableDocs, chunkSize);
+				while (chunks.hasNext())
 				{
-					countAll++;
-
-					final IDunnableDoc sourceDoc = dunnableDocs.next();
-					final IDunningCandidateProducer candidateProducer = candidateProducerFactory.getDunningCandidateProducer(sourceDoc);
-					final I_C_Dunning_Candidate candidate = candidateProducer.createDunningCandidate(context, sourceDoc);
-					if (candidate != null)
-					{
-						countCreated++;
-					}
+					final List<IDunnableDoc> chunk = chunks.next();
+					countAll += chunk.size();
+					countCreated += createDunningCandidates(context, chunk);
+
+					Loggables.withLogger(logger, Level.INFO).addLog("{}: evaluated {} records so far and created {} candidates ({} records/s)",
+							context.getC_DunningLevel().getName(), countAll, countCreated, getRecordsPerSecond(countAll, stopwatch));
 				}
 			}
 			finally
@@ -210,11 +220,42 @@ public class DunningBL implements IDunningBL
 			}
 		}
 
-		logger.info("Created {} from {} records evaluated", new Object[] { countCreated, countAll });
+		logger.info("Created {} from {} records evaluated in {}", countCreated, countAll, stopwatch.stop());
 
 		return countCreated;
 	}
 
+	private int createDunningCandidates(final IDunningContext context, final List<IDunnableDoc> sourceDocs)
+	{
+		final IDunningCandidateProducerFactory candidateProducerFactory = context.getDunningConfig().getDunningCandidateProducerFactory();
+
+		context.setProperty(PrefetchedDunningCandidates.CONTEXT_PrefetchedCandidates, PrefetchedDunningCandidates.prefetch(context, sourceDocs));
+		try
+		{
+			int countCreated = 0;
+			for (final IDunnableDoc sourceDoc : sourceDocs)
+			{
+				final IDunningCandidateProducer candidateProducer = candidateProducerFactory.getDunningCandidateProducer(sourceDoc);
+				final I_C_Dunning_Candidate candidate = candidateProducer.createDunningCandidate(context, sourceDoc);
+				if (candidate != null)
+				{
+					countCreated++;
+				}
+			}
+			return countCreated;
+		}
+		finally
+		{
+			context.setProperty(PrefetchedDunningCandidates.CONTEXT_PrefetchedCandidates, null);
+		}
+	}
+
+	private static long getRecordsPerSecond(final int count, final Stopwatch stopwatch)
+	{
+		final long millis = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+		return count * 1000L / millis;
+	}
+
 	@Override
 	public void processCandidates(final IDunningContext context)
 	{
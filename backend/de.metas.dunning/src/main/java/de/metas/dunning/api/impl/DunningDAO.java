@@ -23,6 +23,7 @@ package de.metas.dunning.api.impl;
  */
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
@@ -104,7 +105,20 @@ public class DunningDAO extends AbstractDunningDAO
 		final StringBuilder wc = new StringBuilder();
 		final List<Object> params = new ArrayList<>();
 
-		if (query.getAD_Table_ID() > 0 && query.getRecord_ID() >= 0)
+		final Collection<Integer> recordIds = query.getRecord_IDs();
+		if (query.getAD_Table_ID() > 0 && recordIds != null && !recordIds.isEmpty())
+		{
+			wc.append(I_C_Dunning_Candidate.COLUMNNAME_AD_Table_ID).append("=?")
+					.append(" AND ").append(I_C_Dunning_Candidate.COLUMNNAME_Record_ID).append(" IN (-1");
+			params.add(query.getAD_Table_ID());
+			for (final Integer recordId : recordIds)
+			{
+				wc.append(",?");
+				params.add(recordId);
+			}
+			wc.append(")");
+		}
+		else if (query.getAD_Table_ID() > 0 && query.getRecord_ID() >= 0)
 		{
 			if (wc.length() > 0)
 			{
@@ -0,0 +1,146 @@
+package de.metas.dunning.api.impl;
+
+/*
+ * #%L
+ * de.metas.dunning
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.dunning.api.IDunnableDoc;
+import de.metas.dunning.api.IDunningContext;
+import de.metas.dunning.api.IDunningDAO;
+import de.metas.dunning.interfaces.I_C_DunningLevel;
+import de.metas.dunning.model.I_C_Dunning_Candidate;
+import de.metas.util.Services;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * The existing {@link I_C_Dunning_Candidate}s of a chunk of {@link IDunnableDoc}s, loaded with two queries per table instead of two queries per document.
+ * <p>
+ * {@link DunningBL#createDunningCandidates(IDunningContext)} puts an instance into the dunning context (see {@link #CONTEXT_PrefetchedCandidates}),
+ * so that {@link DefaultDunningCandidateProducer} can use it instead of querying each document's candidates.
+ */
+public final class PrefetchedDunningCandidates
+{
+	public static final String CONTEXT_PrefetchedCandidates = PrefetchedDunningCandidates.class.getName();
+
+	public static PrefetchedDunningCandidates prefetch(
+			@NonNull final IDunningContext context,
+			@NonNull final Collection<IDunnableDoc> docs)
+	{
+		final IDunningDAO dunningDAO = Services.get(IDunningDAO.class);
+
+		final ImmutableListMultimap<Integer, Integer> tableId2recordIds = docs.stream()
+				.filter(doc -> doc.getTableId() > 0) // without a table, the queries would match all candidates
+				.collect(ImmutableListMultimap.toImmutableListMultimap(IDunnableDoc::getTableId, IDunnableDoc::getRecordId));
+
+		final ImmutableListMultimap.Builder<RecordKey, I_C_Dunning_Candidate> candidates = ImmutableListMultimap.builder();
+		final ImmutableSet.Builder<RecordKey> recordsWithCurrentLevelCandidate = ImmutableSet.builder();
+		for (final int tableId : tableId2recordIds.keySet())
+		{
+			final List<Integer> recordIds = tableId2recordIds.get(tableId);
+
+			final List<I_C_DunningLevel> allLevels = ImmutableList.of();
+			for (final I_C_Dunning_Candidate candidate : dunningDAO.retrieveDunningCandidates(context, tableId, recordIds, allLevels))
+			{
+				candidates.put(RecordKey.of(tableId, candidate.getRecord_ID()), candidate);
+			}
+
+			for (final I_C_Dunning_Candidate candidate : dunningDAO.retrieveDunningCandidatesForLevel(context, tableId, recordIds, context.getC_DunningLevel()))
+			{
+				recordsWithCurrentLevelCandidate.add(RecordKey.of(tableId, candidate.getRecord_ID()));
+			}
+		}
+
+		final ImmutableSet<RecordKey> prefetchedRecords = tableId2recordIds.entries().stream()
+				.map(entry -> RecordKey.of(entry.getKey(), entry.getValue()))
+				.collect(ImmutableSet.toImmutableSet());
+
+		return new PrefetchedDunningCandidates(prefetchedRecords, candidates.build(), recordsWithCurrentLevelCandidate.build());
+	}
+
+	private final ImmutableSet<RecordKey> prefetchedRecords;
+	private final ImmutableListMultimap<RecordKey, I_C_Dunning_Candidate> candidates;
+	private final ImmutableSet<RecordKey> recordsWithCurrentLevelCandidate;
+
+	private PrefetchedDunningCandidates(
+			@NonNull final ImmutableSet<RecordKey> prefetchedRecords,
+			@NonNull final ImmutableListMultimap<RecordKey, I_C_Dunning_Candidate> candidates,
+			@NonNull final ImmutableSet<RecordKey> recordsWithCurrentLevelCandidate)
+	{
+		this.prefetchedRecords = prefetchedRecords;
+		this.candidates = candidates;
+		this.recordsWithCurrentLevelCandidate = recordsWithCurrentLevelCandidate;
+	}
+
+	public boolean isPrefetched(@NonNull final IDunnableDoc doc)
+	{
+		return prefetchedRecords.contains(toRecordKey(doc));
+	}
+
+	/**
+	 * Same as {@link IDunningDAO#retrieveDunningCandidates(IDunningContext, int, int, List)}, but without querying the database.
+	 *
+	 * @param dunningLevels if empty, the candidates of all levels are returned
+	 */
+	public List<I_C_Dunning_Candidate> getCandidates(@NonNull final IDunnableDoc doc, final List<I_C_DunningLevel> dunningLevels)
+	{
+		final List<I_C_Dunning_Candidate> docCandidates = candidates.get(toRecordKey(doc));
+		if (dunningLevels == null || dunningLevels.isEmpty())
+		{
+			return docCandidates;
+		}
+
+		final Set<Integer> dunningLevelIds = dunningLevels.stream()
+				.map(I_C_DunningLevel::getC_DunningLevel_ID)
+				.collect(ImmutableSet.toImmutableSet());
+		return docCandidates.stream()
+				.filter(candidate -> dunningLevelIds.contains(candidate.getC_DunningLevel_ID()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	/**
+	 * @return {@code true} if {@link IDunningDAO#retrieveDunningCandidate(IDunningContext, int, int, I_C_DunningLevel)} would find a candidate of the context's dunning level for the given document.
+	 */
+	public boolean hasCurrentLevelCandidate(@NonNull final IDunnableDoc doc)
+	{
+		return recordsWithCurrentLevelCandidate.contains(toRecordKey(doc));
+	}
+
+	private static RecordKey toRecordKey(final IDunnableDoc doc)
+	{
+		return RecordKey.of(doc.getTableId(), doc.getRecordId());
+	}
+
+	@Value(staticConstructor = "of")
+	private static class RecordKey
+	{
+		int tableId;
+		int recordId;
+	}
+}
@@ -310,6 +310,46 @@ public class DefaultDunningCandidateProducerTest extends DunningTestBase
 		InterfaceWrapperHelper.save(candidate3);
 	}
 
+	/**
+	 * Same as {@link #test_isEligible_PreviousLevel_DunningDocProcessed()}, but with the candidates being prefetched like {@link DunningBL#createDunningCandidates(IDunningContext)} does.
+	 */
+	@Test
+	public void test_isEligible_PreviousLevel_DunningDocProcessed_Prefetched()
+	{
+		final IDunnableDoc sourceDoc = mkDunnableDocBuilder()
+				.setDaysDue(35) // daysDue, suitable for level 3
+				.setC_Currency_ID(currencyEUR.getRepoId())
+				.setTotalAmt(new BigDecimal("100"))
+				.setOpenAmt(new BigDecimal("100"))
+				.create();
+
+		final PlainDunningContext context1 = createPlainDunningContext("2012-02-01", dunningLevel1_10);
+		final I_C_Dunning_Candidate candidate1 = producer.createDunningCandidate(withPrefetchedCandidates(context1, sourceDoc), sourceDoc);
+		Assert.assertNotNull("Candidate for level 1 shall be generated", candidate1);
+
+		candidate1.setProcessed(true);
+		InterfaceWrapperHelper.save(candidate1);
+		Assert.assertNull("No candidate shall be generated because we already have a processed one: " + candidate1,
+				producer.createDunningCandidate(withPrefetchedCandidates(context1, sourceDoc), sourceDoc));
+
+		final PlainDunningContext context2 = createPlainDunningContext("2012-02-20", dunningLevel2_20);
+		Assert.assertNull("Candidate for level 2 shall not be generated",
+				producer.createDunningCandidate(withPrefetchedCandidates(context2, sourceDoc), sourceDoc));
+
+		candidate1.setIsDunningDocProcessed(true);
+		InterfaceWrapperHelper.save(candidate1);
+
+		final I_C_Dunning_Candidate candidate2 = producer.createDunningCandidate(withPrefetchedCandidates(context2, sourceDoc), sourceDoc);
+		Assert.assertNotNull("Candidate for level 2 shall be generated", candidate2);
+		assertDunningCandidateValid(candidate2, context2, sourceDoc);
+	}
+
+	private static IDunningContext withPrefetchedCandidates(final IDunningContext context, final IDunnableDoc sourceDoc)
+	{
+		context.setProperty(PrefetchedDunningCandidates.CONTEXT_PrefetchedCandidates, PrefetchedDunningCandidates.prefetch(context, Collections.singletonList(sourceDoc)));
+		return context;
+	}
+
 	@Test
 	public void test_isEligible_DaysBetweenDunnings()
 	{
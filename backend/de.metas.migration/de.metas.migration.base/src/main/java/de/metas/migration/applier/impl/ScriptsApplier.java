@@ -23,13 +23,19 @@ package de.metas.migration.applier.impl;
  */
 
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Stopwatch;
+
 import de.metas.migration.IDatabase;
 import de.metas.migration.IScript;
 import de.metas.migration.IScriptsRegistry;
+import de.metas.migration.ScriptType;
 import de.metas.migration.applier.IScriptsApplier;
 import de.metas.migration.applier.IScriptsApplierListener;
 import de.metas.migration.applier.IScriptsApplierListener.ScriptFailedResolution;
@@ -56,6 +62,9 @@ public class ScriptsApplier implements IScriptsApplier
 	private int countApplied = 0;
 	private int countIgnored = 0;
 
+	/** Number of applied or ignored scripts and the time it took to execute and register them, per script type */
+	private final Map<ScriptType, ScriptTypeStats> statsByScriptType = new LinkedHashMap<>();
+
 	private static enum ScriptApplyResult
 	{
 		Applied, Ignored,
@@ -129,7 +138,8 @@ public class ScriptsApplier implements IScriptsApplier
 				logger.info("Skipped {} scripts that were already applied", countSkippedFromLastAction);
 			}
 			countSkippedFromLastAction = 0;
-			
+
+			final Stopwatch stopwatch = Stopwatch.createStarted();
 			final ScriptApplyResult result = apply(script);
 			if (result == ScriptApplyResult.Applied)
 			{
@@ -145,8 +155,13 @@ public class ScriptsApplier implements IScriptsApplier
 			{
 				throw new ScriptExecutionException("Invalid ScriptApplyResult: " + result);
 			}
+
+			statsByScriptType.computeIfAbsent(script.getType(), k -> new ScriptTypeStats())
+					.add(stopwatch.elapsed(TimeUnit.MILLISECONDS));
 		}
 
+		statsByScriptType.forEach((scriptType, stats) -> logger.info("Applied {} scripts of type '{}' in {}ms", stats.count, scriptType.getFileExtension(), stats.durationMillis));
+
 		//
 		if(countSkippedFromLastAction > 0)
 		{
@@ -254,6 +269,18 @@ public class ScriptsApplier implements IScriptsApplier
 		return scriptExecutorFactory.createScriptExecutor(targetDatabase);
 	}
 
+	private static final class ScriptTypeStats
+	{
+		private int count = 0;
+		private long durationMillis = 0;
+
+		public void add(final long durationMillis)
+		{
+			this.count++;
+			this.durationMillis += durationMillis;
+		}
+	}
+
 	@Override
 	public int getCountAll()
 	{
@@ -46,6 +46,9 @@ public class DefaultScriptExecutorFactory implements IScriptExecutorFactory
 {
 	private static final transient Logger logger = LoggerFactory.getLogger(DefaultScriptExecutorFactory.class.getName());
 
+	/** If set to {@code true}, SQL scripts are executed via JDBC ({@link PostgresqlJdbcExecutor}) instead of one {@code psql} process per script ({@link PostgresqlNativeExecutor}) */
+	private static final String ENV_UseJdbcScriptExecutor = "UseJdbcScriptExecutor";
+
 	private final Map<ScriptExecutorKey, Class<? extends IScriptExecutor>> scriptExecutorClasses = new HashMap<>();
 	private final Set<ScriptType> supportedScriptTypes = new HashSet<>();
 
@@ -58,7 +61,16 @@ public class DefaultScriptExecutorFactory implements IScriptExecutorFactory
 
 	protected void initDefaults()
 	{
-		registerScriptExecutorClass("postgresql", ScriptType.SQL, PostgresqlNativeExecutor.class);
+		final boolean useJdbcScriptExecutor = Boolean.parseBoolean(System.getProperty(ENV_UseJdbcScriptExecutor, "false"));
+		if (useJdbcScriptExecutor)
+		{
+			registerScriptExecutorClass("postgresql", ScriptType.SQL, PostgresqlJdbcExecutor.class);
+		}
+		else
+		{
+			registerScriptExecutorClass("postgresql", ScriptType.SQL, PostgresqlNativeExecutor.class);
+			logger.info("Executing SQL scripts using psql. To execute them via JDBC set '-D{}=true'", ENV_UseJdbcScriptExecutor);
+		}
 	}
 
 	@Override
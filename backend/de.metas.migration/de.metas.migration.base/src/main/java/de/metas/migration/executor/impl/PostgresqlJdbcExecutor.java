@@ -0,0 +1,271 @@
+package de.metas.migration.executor.impl;
+
+/*
+ * #%L
+ * de.metas.migration.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.migration.IDatabase;
+import de.metas.migration.IScript;
+import de.metas.migration.exception.ScriptExecutionException;
+import de.metas.migration.executor.IScriptExecutor;
+import de.metas.migration.impl.SQLDatabase;
+import de.metas.migration.impl.SQLHelper;
+import lombok.NonNull;
+
+/**
+ * Executes SQL scripts via the database's JDBC connection, instead of starting one {@code psql} process per script like {@link PostgresqlNativeExecutor} does.
+ * <p>
+ * Like {@code psql --single-transaction --set ON_ERROR_STOP=1}, each script runs in one transaction which is rolled back on the first error.
+ * {@code BEGIN}/{@code COMMIT}/{@code ROLLBACK} statements within a script are applied to the JDBC connection.
+ * Of the psql meta commands, only {@code \set ON_ERROR_STOP} and {@code \echo} are supported. Scripts with other meta commands fail and need to be applied with {@link PostgresqlNativeExecutor}.
+ */
+public class PostgresqlJdbcExecutor implements IScriptExecutor
+{
+	private static final transient Logger logger = LoggerFactory.getLogger(PostgresqlJdbcExecutor.class);
+
+	private static final String AFTER_MIGRATION_FUNC_PATTERN = "after_migration%";
+
+	private static final ImmutableSet<String> STATEMENTS_BeginTrx = ImmutableSet.of("BEGIN", "BEGIN TRANSACTION", "BEGIN WORK", "START TRANSACTION");
+	private static final ImmutableSet<String> STATEMENTS_CommitTrx = ImmutableSet.of("COMMIT", "COMMIT TRANSACTION", "COMMIT WORK", "END", "END TRANSACTION");
+	private static final ImmutableSet<String> STATEMENTS_RollbackTrx = ImmutableSet.of("ROLLBACK", "ROLLBACK TRANSACTION", "ROLLBACK WORK", "ABORT");
+
+	private final IDatabase database;
+	private final SQLHelper sqlHelper;
+
+	public PostgresqlJdbcExecutor(@NonNull final IDatabase database)
+	{
+		this.database = database;
+		this.sqlHelper = new SQLHelper(SQLDatabase.cast(database));
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [database=" + database + "]";
+	}
+
+	@Override
+	public void execute(@NonNull final IScript script)
+	{
+		final List<String> statements = PostgresqlScriptParser.splitStatements(readScript(script));
+		executeStatements(script, statements);
+	}
+
+	private String readScript(final IScript script)
+	{
+		try
+		{
+			return new String(Files.readAllBytes(script.getLocalFile().toPath()), StandardCharsets.UTF_8);
+		}
+		catch (final IOException e)
+		{
+			throw new ScriptExecutionException("Error reading script file", e)
+					.setDatabase(database)
+					.setScript(script)
+					.setExecutor(this);
+		}
+	}
+
+	private void executeStatements(final IScript script, final List<String> statements)
+	{
+		final Connection conn = database.getConnection();
+		final List<String> log = new ArrayList<>();
+		String currentStatement = null;
+		boolean autoCommitOld = true;
+		try
+		{
+			autoCommitOld = conn.getAutoCommit();
+			conn.setAutoCommit(false);
+
+			for (final String statement : statements)
+			{
+				currentStatement = statement;
+				executeStatement(conn, statement, log);
+			}
+			currentStatement = null;
+
+			conn.commit();
+		}
+		catch (final SQLException | RuntimeException e)
+		{
+			rollback(conn);
+			throw new ScriptExecutionException("Script execution failed", e)
+					.setDatabase(database)
+					.setScript(script)
+					.setExecutor(this)
+					.addParameter("Statement", currentStatement)
+					.setLog(log);
+		}
+		finally
+		{
+			restoreAutoCommit(conn, autoCommitOld);
+		}
+	}
+
+	private void executeStatement(final Connection conn, final String statement, final List<String> log) throws SQLException
+	{
+		if (statement.startsWith(PostgresqlScriptParser.META_COMMAND_PREFIX))
+		{
+			executeMetaCommand(statement, log);
+			return;
+		}
+
+		final String statementNorm = normalizeTrxStatement(statement);
+		if (STATEMENTS_BeginTrx.contains(statementNorm))
+		{
+			return; // we are already running in a transaction
+		}
+		else if (STATEMENTS_CommitTrx.contains(statementNorm))
+		{
+			conn.commit();
+			return;
+		}
+		else if (STATEMENTS_RollbackTrx.contains(statementNorm))
+		{
+			conn.rollback();
+			return;
+		}
+
+		try (final Statement stmt = conn.createStatement())
+		{
+			stmt.execute(statement);
+			collectWarnings(stmt.getWarnings(), log);
+		}
+	}
+
+	private static String normalizeTrxStatement(final String statement)
+	{
+		String statementNorm = statement.trim();
+		if (statementNorm.endsWith(";"))
+		{
+			statementNorm = statementNorm.substring(0, statementNorm.length() - 1).trim();
+		}
+		return statementNorm.length() > 20 ? "" : statementNorm.toUpperCase().replaceAll("\\s+", " ");
+	}
+
+	private void executeMetaCommand(final String metaCommand, final List<String> log)
+	{
+		final String metaCommandNorm = metaCommand.replaceAll("\\s+", " ");
+		if (metaCommandNorm.startsWith("\\set ON_ERROR_STOP"))
+		{
+			// nothing to do; we always stop on the first error
+		}
+		else if (metaCommandNorm.startsWith("\\echo"))
+		{
+			log.add(metaCommand.substring("\\echo".length()).trim());
+		}
+		else
+		{
+			throw new ScriptExecutionException("psql meta command is not supported by " + getClass().getSimpleName() + "; please use " + PostgresqlNativeExecutor.class.getSimpleName())
+					.addParameter("MetaCommand", metaCommand);
+		}
+	}
+
+	private static void collectWarnings(final SQLWarning firstWarning, final List<String> log)
+	{
+		for (SQLWarning warning = firstWarning; warning != null; warning = warning.getNextWarning())
+		{
+			log.add(warning.getMessage());
+		}
+	}
+
+	private static void rollback(final Connection conn)
+	{
+		try
+		{
+			conn.rollback();
+		}
+		catch (final SQLException e)
+		{
+			logger.warn("Failed rolling back {}", conn, e);
+		}
+	}
+
+	private static void restoreAutoCommit(final Connection conn, final boolean autoCommit)
+	{
+		try
+		{
+			conn.setAutoCommit(autoCommit);
+		}
+		catch (final SQLException e)
+		{
+			logger.warn("Failed restoring autoCommit={} on {}", autoCommit, conn, e);
+		}
+	}
+
+	@Override
+	public void executeAfterScripts()
+	{
+		final Set<String> functionNames = sqlHelper.getDBFunctionsMatchingPattern(AFTER_MIGRATION_FUNC_PATTERN)
+				.stream()
+				.sorted()
+				.collect(ImmutableSet.toImmutableSet());
+
+		if (functionNames.isEmpty())
+		{
+			logger.warn("Skip executing after migration scripts because no function matching pattern '{}' was found in {}", AFTER_MIGRATION_FUNC_PATTERN, database);
+			return;
+		}
+
+		final ImmutableList<String> statements = functionNames.stream()
+				.map(functionName -> "select " + functionName + "()")
+				.collect(ImmutableList.toImmutableList());
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		final Connection conn = database.getConnection();
+		final List<String> log = new ArrayList<>();
+		try
+		{
+			for (final String statement : statements)
+			{
+				executeStatement(conn, statement, log);
+			}
+		}
+		catch (final SQLException e)
+		{
+			throw new ScriptExecutionException("Failed executing after migration scripts", e)
+					.setDatabase(database)
+					.setExecutor(this)
+					.setLog(log);
+		}
+		stopwatch.stop();
+
+		logger.info("Executed {} in {} and got following result:\n{}", functionNames, stopwatch, String.join("\n", log));
+	}
+}
@@ -0,0 +1,294 @@
+package de.metas.migration.executor.impl;
+
+/*
+ * #%L
+ * de.metas.migration.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.NonNull;
+
+/**
+ * Splits a psql-style SQL script into the single statements that can be sent via JDBC.
+ * <p>
+ * Semicolons within string literals (including {@code E'..'} strings), quoted identifiers, comments and dollar-quoted bodies (e.g. {@code $BODY$ .. $BODY$}) don't end a statement.
+ * Lines that start with a backslash (psql meta commands like {@code \set}) are returned as they are, each one as its own statement.
+ */
+final class PostgresqlScriptParser
+{
+	public static final String META_COMMAND_PREFIX = "\\";
+
+	public static ImmutableList<String> splitStatements(@NonNull final String script)
+	{
+		return new PostgresqlScriptParser(script).parse();
+	}
+
+	private final String script;
+	private final int length;
+
+	private final List<String> statements = new ArrayList<>();
+	private final StringBuilder currentStatement = new StringBuilder();
+	/** true if {@link #currentStatement} contains something else than whitespace and comments */
+	private boolean currentStatementHasContent = false;
+
+	private PostgresqlScriptParser(@NonNull final String script)
+	{
+		this.script = script;
+		this.length = script.length();
+	}
+
+	private ImmutableList<String> parse()
+	{
+		int pos = 0;
+		while (pos < length)
+		{
+			final char ch = script.charAt(pos);
+			if (ch == '\'')
+			{
+				final boolean backslashEscapes = isEscapeStringPrefix(pos);
+				pos = appendQuoted(pos, '\'', backslashEscapes);
+			}
+			else if (ch == '"')
+			{
+				pos = appendQuoted(pos, '"', false);
+			}
+			else if (ch == '-' && peek(pos + 1) == '-')
+			{
+				pos = appendLineComment(pos);
+			}
+			else if (ch == '/' && peek(pos + 1) == '*')
+			{
+				pos = appendBlockComment(pos);
+			}
+			else if (ch == '$' && getDollarQuoteTag(pos) != null)
+			{
+				pos = appendDollarQuoted(pos, getDollarQuoteTag(pos));
+			}
+			else if (ch == '\\' && !currentStatementHasContent && isAtLineStart(pos))
+			{
+				pos = addMetaCommand(pos);
+			}
+			else if (ch == ';')
+			{
+				currentStatement.append(ch);
+				flushStatement();
+				pos++;
+			}
+			else
+			{
+				currentStatement.append(ch);
+				if (!Character.isWhitespace(ch))
+				{
+					currentStatementHasContent = true;
+				}
+				pos++;
+			}
+		}
+
+		flushStatement();
+		return ImmutableList.copyOf(statements);
+	}
+
+	private char peek(final int pos)
+	{
+		return pos < length ? script.charAt(pos) : 0;
+	}
+
+	private void flushStatement()
+	{
+		if (currentStatementHasContent)
+		{
+			statements.add(currentStatement.toString().trim());
+		}
+		currentStatement.setLength(0);
+		currentStatementHasContent = false;
+	}
+
+	/**
+	 * @return true if the quote at the given position starts an {@code E'..'} string, i.e. a string where backslash escapes the next character
+	 */
+	private boolean isEscapeStringPrefix(final int quotePos)
+	{
+		if (quotePos < 1)
+		{
+			return false;
+		}
+		final char prefix = script.charAt(quotePos - 1);
+		if (prefix != 'E' && prefix != 'e')
+		{
+			return false;
+		}
+		return quotePos < 2 || !isIdentifierChar(script.charAt(quotePos - 2));
+	}
+
+	private static boolean isIdentifierChar(final char ch)
+	{
+		return Character.isLetterOrDigit(ch) || ch == '_' || ch == '$';
+	}
+
+	private int appendQuoted(final int startPos, final char quote, final boolean backslashEscapes)
+	{
+		currentStatementHasContent = true;
+
+		int pos = startPos + 1;
+		while (pos < length)
+		{
+			final char ch = script.charAt(pos);
+			if (backslashEscapes && ch == '\\')
+			{
+				pos += 2;
+			}
+			else if (ch == quote)
+			{
+				if (peek(pos + 1) == quote)
+				{
+					pos += 2; // escaped quote
+				}
+				else
+				{
+					pos++;
+					break;
+				}
+			}
+			else
+			{
+				pos++;
+			}
+		}
+
+		return appendUntil(startPos, pos);
+	}
+
+	private int appendLineComment(final int startPos)
+	{
+		final int newLinePos = script.indexOf('\n', startPos);
+		return appendUntil(startPos, newLinePos < 0 ? length : newLinePos);
+	}
+
+	/**
+	 * Note that block comments can be nested in PostgreSQL.
+	 */
+	private int appendBlockComment(final int startPos)
+	{
+		int depth = 0;
+		int pos = startPos;
+		while (pos < length)
+		{
+			if (script.startsWith("/*", pos))
+			{
+				depth++;
+				pos += 2;
+			}
+			else if (script.startsWith("*/", pos))
+			{
+				depth--;
+				pos += 2;
+				if (depth == 0)
+				{
+					break;
+				}
+			}
+			else
+			{
+				pos++;
+			}
+		}
+
+		return appendUntil(startPos, pos);
+	}
+
+	/**
+	 * @return the dollar quote tag (e.g. {@code $BODY$} or {@code $$}) starting at the given position, or {@code null} if there is none (e.g. for a parameter like {@code $1})
+	 */
+	private String getDollarQuoteTag(final int startPos)
+	{
+		if (startPos > 0 && isIdentifierChar(script.charAt(startPos - 1)))
+		{
+			return null;
+		}
+
+		int pos = startPos + 1;
+		while (pos < length)
+		{
+			final char ch = script.charAt(pos);
+			if (ch == '$')
+			{
+				return script.substring(startPos, pos + 1);
+			}
+			final boolean validTagChar = pos == startPos + 1
+					? Character.isLetter(ch) || ch == '_'
+					: Character.isLetterOrDigit(ch) || ch == '_';
+			if (!validTagChar)
+			{
+				return null;
+			}
+			pos++;
+		}
+		return null;
+	}
+
+	private int appendDollarQuoted(final int startPos, @NonNull final String tag)
+	{
+		currentStatementHasContent = true;
+
+		final int endTagPos = script.indexOf(tag, startPos + tag.length());
+		final int endPos = endTagPos < 0 ? length : endTagPos + tag.length();
+		return appendUntil(startPos, endPos);
+	}
+
+	private boolean isAtLineStart(final int pos)
+	{
+		for (int i = pos - 1; i >= 0; i--)
+		{
+			final char ch = script.charAt(i);
+			if (ch == '\n')
+			{
+				return true;
+			}
+			if (!Character.isWhitespace(ch))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int addMetaCommand(final int startPos)
+	{
+		final int newLinePos = script.indexOf('\n', startPos);
+		final int endPos = newLinePos < 0 ? length : newLinePos;
+
+		flushStatement();
+		statements.add(script.substring(startPos, endPos).trim());
+
+		return endPos;
+	}
+
+	private int appendUntil(final int startPos, final int endPos)
+	{
+		final int endPosToUse = Math.min(endPos, length);
+		currentStatement.append(script, startPos, endPosToUse);
+		return endPosToUse;
+	}
+}
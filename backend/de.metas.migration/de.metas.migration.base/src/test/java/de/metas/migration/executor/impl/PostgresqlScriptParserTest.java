@@ -0,0 +1,82 @@
+package de.metas.migration.executor.impl;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/*
+ * #%L
+ * de.metas.migration.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class PostgresqlScriptParserTest
+{
+	@Test
+	public void splitStatements_simple()
+	{
+		assertThat(PostgresqlScriptParser.splitStatements("select 1;\n\nselect 2;\nselect 3"),
+				contains("select 1;", "select 2;", "select 3"));
+	}
+
+	@Test
+	public void splitStatements_onlyCommentsAndWhitespace()
+	{
+		assertThat(PostgresqlScriptParser.splitStatements("-- 2020-01-01T10:00:00.000Z\n/* nothing ; to do */\n\n"), empty());
+	}
+
+	@Test
+	public void splitStatements_semicolonInStringsAndComments()
+	{
+		assertThat(PostgresqlScriptParser.splitStatements(""
+				+ "-- some comment; with a semicolon\n"
+				+ "UPDATE AD_Column SET Description='a;b', Help='it''s; fine' WHERE AD_Column_ID=1;\n"
+				+ "/* block /* nested; */ comment; */ SELECT \"some;column\" FROM t;\n"
+				+ "SELECT E'escaped \\' quote; still string';"),
+				contains(
+						"-- some comment; with a semicolon\nUPDATE AD_Column SET Description='a;b', Help='it''s; fine' WHERE AD_Column_ID=1;",
+						"/* block /* nested; */ comment; */ SELECT \"some;column\" FROM t;",
+						"SELECT E'escaped \\' quote; still string';"));
+	}
+
+	@Test
+	public void splitStatements_dollarQuotedFunction()
+	{
+		final String function = "CREATE OR REPLACE FUNCTION f(p numeric) RETURNS numeric AS\n"
+				+ "$BODY$\n"
+				+ "BEGIN\n"
+				+ "  RAISE NOTICE 'x;y'; -- $$ is not the end tag here\n"
+				+ "  RETURN $1 + 1;\n"
+				+ "END;\n"
+				+ "$BODY$\n"
+				+ "LANGUAGE plpgsql;";
+
+		assertThat(PostgresqlScriptParser.splitStatements(function + "\nSELECT $$a;b$$;\nCOMMIT;"),
+				contains(function, "SELECT $$a;b$$;", "COMMIT;"));
+	}
+
+	@Test
+	public void splitStatements_metaCommands()
+	{
+		assertThat(PostgresqlScriptParser.splitStatements("\\set ON_ERROR_STOP 1\nselect 1;\n  \\echo done\n"),
+				contains("\\set ON_ERROR_STOP 1", "select 1;", "\\echo done"));
+	}
+}
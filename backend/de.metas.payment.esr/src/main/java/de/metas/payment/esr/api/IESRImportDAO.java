@@ -34,6 +34,7 @@ import javax.annotation.Nullable;
 import org.compiere.model.I_C_Invoice;
 import org.compiere.model.I_C_Payment;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.banking.BankStatementAndLineAndRefId;
@@ -80,6 +81,13 @@ public interface IESRImportDAO extends ISingletonService
 	 */
 	I_C_ReferenceNo_Doc retrieveESRInvoiceReferenceNumberDocument(OrgId orgId, String esrReferenceNumber);
 
+	/**
+	 * Bulk version of {@link #retrieveESRInvoiceReferenceNumberDocument(OrgId, String)}, which needs one query for all the given reference numbers.
+	 *
+	 * @return the documents by the given reference numbers; reference numbers without an invoice document are not contained.
+	 */
+	ImmutableMap<String, I_C_ReferenceNo_Doc> retrieveESRInvoiceReferenceNumberDocuments(OrgId orgId, Set<String> esrReferenceNumbers);
+
 	/**
 	 * Retrieve the existing esr imports of the organization given as parameter (through ID)
 	 */
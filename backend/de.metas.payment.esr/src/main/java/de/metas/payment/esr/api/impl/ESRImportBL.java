@@ -16,11 +16,13 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
@@ -46,6 +48,7 @@ import org.springframework.stereotype.Service;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import de.metas.allocation.api.IAllocationBL;
@@ -63,6 +66,7 @@ import de.metas.bpartner.service.IBPartnerDAO;
 import de.metas.calendar.IPeriodBL;
 import de.metas.document.engine.IDocument;
 import de.metas.document.engine.IDocumentBL;
+import de.metas.document.refid.model.I_C_ReferenceNo_Doc;
 import de.metas.i18n.IMsgBL;
 import de.metas.invoice.service.IInvoiceBL;
 import de.metas.invoice.service.IInvoiceDAO;
@@ -117,6 +121,9 @@ public class ESRImportBL implements IESRImportBL
 
 	private static final String ESR_NO_HAS_WRONG_ORG_2P = "de.metas.payment.esr.EsrNoHasWrongOrg";
 
+	/** How many lines are evaluated with one query for their ESR reference numbers */
+	private static final int EVALUATE_CHUNK_SIZE = 500;
+
 	/**
 	 * Filled by {@link #registerActionHandler(String, IESRActionHandler)}.
 	 */
@@ -214,6 +221,9 @@ public class ESRImportBL implements IESRImportBL
 		// TODO verify that the bankaccounts match!
 		esrImportDAO.save(esrImport);
 
+		// if there are already lines before starting reading the file, means that we already tried to import once
+		final Set<String> existingLineTexts = countLines > 0 ? retrieveNormalizedLineTexts(esrImport) : ImmutableSet.of();
+
 		final List<ESRTransaction> transactions = esrStatement.getTransactions();
 		int lineNo = 0;
 		for (final ESRTransaction esrTransaction : transactions)
@@ -222,15 +232,9 @@ public class ESRImportBL implements IESRImportBL
 
 			//
 			// create line only if does not exist
-			I_ESR_ImportLine existentLine = null;
-			// if there are already lines before starting reading the file, means that we already tried to import once
-			if (countLines > 0)
+			if (existsLineForESRLineText(existingLineTexts, esrTransaction.getTransactionKey()))
 			{
-				existentLine = esrImportDAO.fetchLineForESRLineText(esrImport, esrTransaction.getTransactionKey());
-				if (existentLine != null)
-				{
-					continue;
-				}
+				continue;
 			}
 
 			createEsrImportLine(esrImport, lineNo, esrTransaction);
@@ -239,6 +243,37 @@ public class ESRImportBL implements IESRImportBL
 		evaluate(esrImport);
 	}
 
+	/**
+	 * Loads the texts of the given import's lines all at once, rather than looking up each line with {@link IESRImportDAO#fetchLineForESRLineText(I_ESR_Import, String)}.
+	 */
+	private Set<String> retrieveNormalizedLineTexts(@NonNull final I_ESR_Import esrImport)
+	{
+		return esrImportDAO.retrieveLines(esrImport)
+				.stream()
+				.map(I_ESR_ImportLine::getESRLineText)
+				.filter(Objects::nonNull)
+				.map(ESRImportBL::normalizeLineText)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+
+	/**
+	 * Same matching as {@link IESRImportDAO#fetchLineForESRLineText(I_ESR_Import, String)}: a line exists if its text contains the given text, ignoring case.
+	 *
+	 * @param normalizedLineTexts the texts of the existing lines, see {@link #retrieveNormalizedLineTexts(I_ESR_Import)}
+	 */
+	@VisibleForTesting
+	static boolean existsLineForESRLineText(@NonNull final Set<String> normalizedLineTexts, @NonNull final String esrLineText)
+	{
+		final String normalizedLineText = normalizeLineText(esrLineText);
+		return normalizedLineTexts.contains(normalizedLineText) // usually the texts are equal, so avoid the scan
+				|| normalizedLineTexts.stream().anyMatch(lineText -> lineText.contains(normalizedLineText));
+	}
+
+	private static String normalizeLineText(@NonNull final String esrLineText)
+	{
+		return esrLineText.trim().toLowerCase(Locale.ROOT);
+	}
+
 	private I_ESR_ImportLine createEsrImportLine(final I_ESR_Import esrImport, final int lineNo, final ESRTransaction esrTransaction)
 	{
 		final I_ESR_ImportLine importLine = ESRDataLoaderUtil.newLine(esrImport);
@@ -269,14 +304,21 @@ public class ESRImportBL implements IESRImportBL
 
 		final List<I_ESR_ImportLine> esrImportLines = esrImportDAO.retrieveLines(esrImport);
 
-		for (final I_ESR_ImportLine importLine : esrImportLines)
+		for (final List<I_ESR_ImportLine> esrImportLinesChunk : Lists.partition(esrImportLines, EVALUATE_CHUNK_SIZE))
 		{
-			//
-			// now do different validations with the values loaded from the input file
-			evaluateLine(esrImport, importLine);
+			final Map<OrgId, ImmutableMap<String, I_C_ReferenceNo_Doc>> esrReferenceNumberDocuments = retrieveESRReferenceNumberDocuments(esrImportLinesChunk);
+
+			for (final I_ESR_ImportLine importLine : esrImportLinesChunk)
+			{
+				final ImmutableMap<String, I_C_ReferenceNo_Doc> esrReferenceNumberDocumentsOfOrg = esrReferenceNumberDocuments.getOrDefault(OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID()), ImmutableMap.of());
+
+				//
+				// now do different validations with the values loaded from the input file
+				evaluateLine(esrImport, importLine, esrReferenceNumberDocumentsOfOrg::get);
 
-			importAmt = importAmt.add(importLine.getAmount());
-			trxQty++;
+				importAmt = importAmt.add(importLine.getAmount());
+				trxQty++;
+			}
 		}
 
 		final boolean hasLines = esrImportLines.size() > 0;
@@ -324,8 +366,44 @@ public class ESRImportBL implements IESRImportBL
 		return fitTrxQtys;
 	}
 
+	/**
+	 * Retrieves the reference number documents of the given lines with one query per org, instead of one query per line.
+	 */
+	private Map<OrgId, ImmutableMap<String, I_C_ReferenceNo_Doc>> retrieveESRReferenceNumberDocuments(@NonNull final List<I_ESR_ImportLine> importLines)
+	{
+		final Map<OrgId, Set<String>> esrReferenceNumbersByOrgId = new HashMap<>();
+		for (final I_ESR_ImportLine importLine : importLines)
+		{
+			final String completeEsrReferenceNumberStr = importLine.getESRFullReferenceNumber();
+			if (completeEsrReferenceNumberStr == null || completeEsrReferenceNumberStr.length() < 26)
+			{
+				continue; // evaluateLine will deal with it
+			}
+
+			esrReferenceNumbersByOrgId
+					.computeIfAbsent(OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID()), orgId -> new HashSet<>())
+					.add(ESRDataLoaderUtil.extractEsrReferenceNumberToMatch(completeEsrReferenceNumberStr));
+		}
+
+		final Map<OrgId, ImmutableMap<String, I_C_ReferenceNo_Doc>> result = new HashMap<>();
+		esrReferenceNumbersByOrgId.forEach((orgId, esrReferenceNumbers) -> result.put(orgId, esrImportDAO.retrieveESRInvoiceReferenceNumberDocuments(orgId, esrReferenceNumbers)));
+		return result;
+	}
+
 	@VisibleForTesting
 	public void evaluateLine(@NonNull final I_ESR_Import esrImport, @NonNull final I_ESR_ImportLine importLine)
+	{
+		final OrgId orgId = OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID());
+		evaluateLine(
+				esrImport,
+				importLine,
+				esrReferenceNumberToMatch -> esrImportDAO.retrieveESRInvoiceReferenceNumberDocument(orgId, esrReferenceNumberToMatch));
+	}
+
+	private void evaluateLine(
+			@NonNull final I_ESR_Import esrImport,
+			@NonNull final I_ESR_ImportLine importLine,
+			@NonNull final Function<String, I_C_ReferenceNo_Doc> esrReferenceNumberDocuments)
 	{
 		if (isReverseBookingLine(importLine))
 		{
@@ -343,7 +421,7 @@ public class ESRImportBL implements IESRImportBL
 		}
 
 		// The reference number of the ESR Import line
-		ESRDataLoaderUtil.evaluateEsrReferenceNumber(importLine);
+		ESRDataLoaderUtil.evaluateEsrReferenceNumber(importLine, esrReferenceNumberDocuments);
 
 		// task 05917: check if the the payment date from the ESR file is OK for us
 		try
@@ -28,13 +28,16 @@ import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.ad.dao.ICompositeQueryFilter;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.impl.CompareQueryFilter.Operator;
@@ -49,6 +52,8 @@ import org.compiere.model.I_C_Payment;
 import org.compiere.util.Env;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.banking.BankStatementAndLineAndRefId;
@@ -248,6 +253,109 @@ public class ESRImportDAO implements IESRImportDAO
 		return invoiceDocs.get(0);
 	}
 
+	@Override
+	public ImmutableMap<String, I_C_ReferenceNo_Doc> retrieveESRInvoiceReferenceNumberDocuments(
+			@NonNull final OrgId orgId,
+			@NonNull final Set<String> esrReferenceNumbers)
+	{
+		if (esrReferenceNumbers.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final Map<String, I_C_ReferenceNo> referenceNos = fetchESRInvoiceReferenceNumbers(esrReferenceNumbers, orgId);
+		for (final String esrReferenceNumber : esrReferenceNumbers)
+		{
+			if (!referenceNos.containsKey(esrReferenceNumber))
+			{
+				Loggables.addLog("Found no C_ReferenceNo record for esrReferenceNumber={}", esrReferenceNumber);
+			}
+		}
+		if (referenceNos.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final Set<Integer> referenceNoIds = referenceNos.values().stream()
+				.map(I_C_ReferenceNo::getC_ReferenceNo_ID)
+				.collect(ImmutableSet.toImmutableSet());
+
+		final ImmutableListMultimap<Integer, I_C_ReferenceNo_Doc> invoiceDocsByReferenceNoId = queryBL.createQueryBuilder(I_C_ReferenceNo_Doc.class)
+				.addOnlyActiveRecordsFilter()
+				.addInArrayFilter(I_C_ReferenceNo_Doc.COLUMNNAME_C_ReferenceNo_ID, referenceNoIds)
+				.addEqualsFilter(I_C_ReferenceNo_Doc.COLUMNNAME_AD_Table_ID, getTableId(I_C_Invoice.class))
+				.orderBy(I_C_ReferenceNo_Doc.COLUMNNAME_C_ReferenceNo_Doc_ID)
+				.create()
+				.setRequiredAccess(Access.READ)
+				.stream()
+				.collect(ImmutableListMultimap.toImmutableListMultimap(I_C_ReferenceNo_Doc::getC_ReferenceNo_ID, doc -> doc));
+
+		final ImmutableMap.Builder<String, I_C_ReferenceNo_Doc> result = ImmutableMap.builder();
+		referenceNos.forEach((esrReferenceNumber, referenceNo) -> {
+			final List<I_C_ReferenceNo_Doc> invoiceDocs = invoiceDocsByReferenceNoId.get(referenceNo.getC_ReferenceNo_ID());
+			if (invoiceDocs.size() > 1)
+			{
+				throw new AdempiereException("More then one assigned invoice found for " + esrReferenceNumber + " (" + referenceNo + ")");
+			}
+			else if (invoiceDocs.size() == 1)
+			{
+				result.put(esrReferenceNumber, invoiceDocs.get(0));
+			}
+		});
+		return result.build();
+	}
+
+	/**
+	 * @return the reference numbers by the given {@code esrReferenceNumbers}. Org-specific reference numbers are preferred over those with {@code AD_Org_ID=0}.
+	 */
+	private Map<String, I_C_ReferenceNo> fetchESRInvoiceReferenceNumbers(@NonNull final Set<String> esrReferenceNumbers, @NonNull final OrgId orgId)
+	{
+		final IReferenceNoDAO refNoDAO = Services.get(IReferenceNoDAO.class);
+		final I_C_ReferenceNo_Type refNoType = refNoDAO.retrieveRefNoTypeByName(ESRConstants.DOCUMENT_REFID_ReferenceNo_Type_InvoiceReferenceNumber);
+
+		// Same wild cards as in fetchESRInvoiceReferenceNumber, but all reference numbers are matched with one query
+		final ICompositeQueryFilter<I_C_ReferenceNo> referenceNoFilter = queryBL.createCompositeQueryFilter(I_C_ReferenceNo.class)
+				.setJoinOr();
+		for (final String esrReferenceNumber : esrReferenceNumbers)
+		{
+			referenceNoFilter.addCompareFilter(I_C_ReferenceNo.COLUMNNAME_ReferenceNo, Operator.STRING_LIKE, "%" + esrReferenceNumber + "_");
+		}
+
+		final List<I_C_ReferenceNo> referenceNoRecords = queryBL.createQueryBuilder(I_C_ReferenceNo.class)
+				.addOnlyActiveRecordsFilter()
+				.filter(referenceNoFilter)
+				.addEqualsFilter(I_C_ReferenceNo.COLUMNNAME_C_ReferenceNo_Type_ID, refNoType.getC_ReferenceNo_Type_ID())
+				.addInArrayFilter(I_C_ReferenceNo_Type.COLUMNNAME_AD_Org_ID, orgId, OrgId.ANY)
+				.orderByDescending(I_C_ReferenceNo.COLUMNNAME_AD_Org_ID)
+				.create()
+				.setRequiredAccess(Access.READ)
+				.list(I_C_ReferenceNo.class);
+
+		final ImmutableSet<Integer> esrReferenceNumberLengths = esrReferenceNumbers.stream()
+				.map(String::length)
+				.collect(ImmutableSet.toImmutableSet());
+
+		final Map<String, I_C_ReferenceNo> result = new HashMap<>();
+		for (final I_C_ReferenceNo referenceNoRecord : referenceNoRecords)
+		{
+			// map the record back to the reference number which it matched, i.e. ignore its last digit (the check digit)
+			final String referenceNo = referenceNoRecord.getReferenceNo();
+			for (final int length : esrReferenceNumberLengths)
+			{
+				if (referenceNo.length() <= length)
+				{
+					continue;
+				}
+				final String esrReferenceNumber = referenceNo.substring(referenceNo.length() - 1 - length, referenceNo.length() - 1);
+				if (esrReferenceNumbers.contains(esrReferenceNumber))
+				{
+					result.putIfAbsent(esrReferenceNumber, referenceNoRecord);
+				}
+			}
+		}
+		return result;
+	}
+
 	private I_C_ReferenceNo fetchESRInvoiceReferenceNumber(@NonNull final String esrReferenceNumber, @NonNull final OrgId orgId)
 	{
 		final IReferenceNoDAO refNoDAO = Services.get(IReferenceNoDAO.class);
@@ -1,6 +1,7 @@
 package de.metas.payment.esr.dataimporter;
 
 import java.util.List;
+import java.util.function.Function;
 
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrx;
@@ -113,6 +114,21 @@ public class ESRDataLoaderUtil
 	 * @param completeEsrReferenceNumberStr
 	 */
 	public void evaluateEsrReferenceNumber(@NonNull final I_ESR_ImportLine importLine)
+	{
+		evaluateEsrReferenceNumber(
+				importLine,
+				esrReferenceNumberToMatch -> esrImportDAO.retrieveESRInvoiceReferenceNumberDocument(OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID()), esrReferenceNumberToMatch));
+	}
+
+	/**
+	 * Same as {@link #evaluateEsrReferenceNumber(I_ESR_ImportLine)}, but the reference number document is taken from the given {@code esrReferenceNumberDocuments},
+	 * which can e.g. be backed by {@link IESRImportDAO#retrieveESRInvoiceReferenceNumberDocuments(OrgId, java.util.Set)}.
+	 *
+	 * @param esrReferenceNumberDocuments returns the document for a given {@link #extractEsrReferenceNumberToMatch(String) reference number to match}, or {@code null}
+	 */
+	public void evaluateEsrReferenceNumber(
+			@NonNull final I_ESR_ImportLine importLine,
+			@NonNull final Function<String, I_C_ReferenceNo_Doc> esrReferenceNumberDocuments)
 	{
 		final String completeEsrReferenceNumberStr = importLine.getESRFullReferenceNumber();
 		if (Check.isEmpty(completeEsrReferenceNumberStr, true))
@@ -120,13 +136,11 @@ public class ESRDataLoaderUtil
 			return; // there is nothing to do. Note that we don't log an error because if this string is empty, something already failed and was logged before.
 		}
 
-		// When matching, we will ignore the first 7 digits (the bank account no), and the last digit (check digit)
-		final String esrReferenceNumberToMatch = completeEsrReferenceNumberStr.substring(7, 26);
+		final String esrReferenceNumberToMatch = extractEsrReferenceNumberToMatch(completeEsrReferenceNumberStr);
 
 		importLine.setESRReferenceNumber(esrReferenceNumberToMatch);
 
-		final I_C_ReferenceNo_Doc esrReferenceNumberDocument = esrImportDAO
-				.retrieveESRInvoiceReferenceNumberDocument(OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID()), esrReferenceNumberToMatch);
+		final I_C_ReferenceNo_Doc esrReferenceNumberDocument = esrReferenceNumberDocuments.apply(esrReferenceNumberToMatch);
 
 		if (esrReferenceNumberDocument == null)
 		{
@@ -183,6 +197,14 @@ public class ESRDataLoaderUtil
 		}
 	}
 
+	/**
+	 * When matching, we ignore the first 7 digits (the bank account no), and the last digit (check digit)
+	 */
+	public String extractEsrReferenceNumberToMatch(@NonNull final String completeEsrReferenceNumberStr)
+	{
+		return completeEsrReferenceNumberStr.substring(7, 26);
+	}
+
 	private void setValuesFromInvoice(final I_ESR_ImportLine importLine, final I_C_Invoice invoice)
 	{
 		importLine.setC_BPartner_ID(invoice.getC_BPartner_ID()); // 04582: no need to load the whole bpartner when we just need the ID
@@ -0,0 +1,87 @@
+package de.metas.payment.esr.dataimporter.impl.camt54;
+
+import java.util.function.Consumer;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.adempiere.exceptions.AdempiereException;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+/**
+ * Reads a camt.054 document with StAX and unmarshals only its {@code GrpHdr} and {@code Ntry} elements, one at a time.
+ * Unlike unmarshalling the whole {@code Document}, only one entry needs to be in memory at a time.
+ *
+ * @param <H> the JAXB type of the {@code GrpHdr} element of the respective camt.054 version
+ * @param <E> the JAXB type of the {@code Ntry} elements of the respective camt.054 version
+ */
+final class Camt54StreamingReader<H, E>
+{
+	private static final String ELEMENT_GrpHdr = "GrpHdr";
+	private static final String ELEMENT_Ntry = "Ntry";
+
+	private final XMLStreamReader xsr;
+	private final Unmarshaller unmarshaller;
+
+	private final Class<H> groupHeaderType;
+	private final Consumer<H> groupHeaderConsumer;
+	private final Class<E> entryType;
+	private final Consumer<E> entryConsumer;
+
+	@Builder
+	private Camt54StreamingReader(
+			@NonNull final XMLStreamReader xsr,
+			@NonNull final Class<?> documentType,
+			@NonNull final Class<H> groupHeaderType,
+			@NonNull final Consumer<H> groupHeaderConsumer,
+			@NonNull final Class<E> entryType,
+			@NonNull final Consumer<E> entryConsumer)
+	{
+		this.xsr = xsr;
+		this.groupHeaderType = groupHeaderType;
+		this.groupHeaderConsumer = groupHeaderConsumer;
+		this.entryType = entryType;
+		this.entryConsumer = entryConsumer;
+
+		try
+		{
+			this.unmarshaller = JAXBContext.newInstance(documentType).createUnmarshaller();
+		}
+		catch (final JAXBException e)
+		{
+			throw AdempiereException.wrapIfNeeded(e);
+		}
+	}
+
+	public void read()
+	{
+		try
+		{
+			while (xsr.hasNext())
+			{
+				if (xsr.isStartElement() && ELEMENT_GrpHdr.equals(xsr.getLocalName()))
+				{
+					// note: after unmarshalling, the reader is already positioned at the next event
+					groupHeaderConsumer.accept(unmarshaller.unmarshal(xsr, groupHeaderType).getValue());
+				}
+				else if (xsr.isStartElement() && ELEMENT_Ntry.equals(xsr.getLocalName()))
+				{
+					entryConsumer.accept(unmarshaller.unmarshal(xsr, entryType).getValue());
+				}
+				else
+				{
+					xsr.next();
+				}
+			}
+		}
+		catch (final XMLStreamException | JAXBException e)
+		{
+			throw AdempiereException.wrapIfNeeded(e);
+		}
+	}
+}
@@ -14,19 +14,13 @@ import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.util.Env;
-import org.slf4j.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
 
-import ch.qos.logback.classic.Level;
-import de.metas.logging.LogManager;
-import de.metas.payment.camt054_001_02.BankToCustomerDebitCreditNotificationV02;
-import de.metas.payment.camt054_001_06.BankToCustomerDebitCreditNotificationV06;
 import de.metas.payment.esr.dataimporter.ESRStatement;
 import de.metas.payment.esr.dataimporter.IESRDataImporter;
 import de.metas.payment.esr.model.I_ESR_Import;
-import de.metas.util.Loggables;
 import lombok.NonNull;
 
 /*
@@ -81,8 +75,6 @@ public class ESRDataImporterCamt54 implements IESRDataImporter
 
 	protected static final String MSG_BANK_ACCOUNT_MISMATCH_2P = "ESR_CAMT54_BankAccountMismatch";
 
-	private static final transient Logger logger = LogManager.getLogger(ESRDataImporterCamt54.class);
-
 	private final I_ESR_Import header;
 	private final InputStream input;
 
@@ -170,30 +162,18 @@ public class ESRDataImporterCamt54 implements IESRDataImporter
 	private ESRStatement importCamt54v02(final MultiVersionStreamReaderDelegate mxsr)
 	{
 		final ESRDataImporterCamt54v02 importerV02 = new ESRDataImporterCamt54v02(header, mxsr);
-		final BankToCustomerDebitCreditNotificationV02 bkToCstmrDbtCdtNtfctn = importerV02.loadXML();
-		if (bkToCstmrDbtCdtNtfctn.getGrpHdr() != null && bkToCstmrDbtCdtNtfctn.getGrpHdr().getAddtlInf() != null)
-		{
-			Loggables.withLogger(logger, Level.INFO).addLog("The given input is a test file: bkToCstmrDbtCdtNtfctn/grpHdr/addtlInf={}", bkToCstmrDbtCdtNtfctn.getGrpHdr().getAddtlInf());
-		}
-
 		try (final IAutoCloseable switchContext = Env.switchContext(InterfaceWrapperHelper.getCtx(header, true)))
 		{
-			return importerV02.createESRStatement(bkToCstmrDbtCdtNtfctn);
+			return importerV02.createESRStatementStreaming();
 		}
 	}
 
 	private ESRStatement importCamt54v06(final MultiVersionStreamReaderDelegate mxsr)
 	{
 		final ESRDataImporterCamt54v06 importerV06 = new ESRDataImporterCamt54v06(header, mxsr);
-		final BankToCustomerDebitCreditNotificationV06 bkToCstmrDbtCdtNtfctn = importerV06.loadXML();
-		if (bkToCstmrDbtCdtNtfctn.getGrpHdr() != null && bkToCstmrDbtCdtNtfctn.getGrpHdr().getAddtlInf() != null)
-		{
-			Loggables.withLogger(logger, Level.INFO).addLog("The given input is a test file: bkToCstmrDbtCdtNtfctn/grpHdr/addtlInf={}", bkToCstmrDbtCdtNtfctn.getGrpHdr().getAddtlInf());
-		}
-
 		try (final IAutoCloseable switchContext = Env.switchContext(InterfaceWrapperHelper.getCtx(header, true)))
 		{
-			return importerV06.createESRStatement(bkToCstmrDbtCdtNtfctn);
+			return importerV06.createESRStatementStreaming();
 		}
 	}
 
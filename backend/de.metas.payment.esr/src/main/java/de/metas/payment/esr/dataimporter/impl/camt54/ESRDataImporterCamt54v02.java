@@ -15,15 +15,20 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.lang.Mutable;
 import org.compiere.util.Env;
+import org.slf4j.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import ch.qos.logback.classic.Level;
+
 import de.metas.banking.BankAccount;
 import de.metas.banking.BankAccountId;
 import de.metas.banking.api.IBPBankAccountDAO;
 import de.metas.currency.ICurrencyDAO;
 import de.metas.i18n.IMsgBL;
+import de.metas.logging.LogManager;
 import de.metas.money.CurrencyId;
 import de.metas.payment.camt054_001_02.AccountNotification2;
 import de.metas.payment.camt054_001_02.ActiveOrHistoricCurrencyAndAmount;
@@ -35,6 +40,7 @@ import de.metas.payment.camt054_001_02.DateAndDateTimeChoice;
 import de.metas.payment.camt054_001_02.Document;
 import de.metas.payment.camt054_001_02.EntryDetails1;
 import de.metas.payment.camt054_001_02.EntryTransaction2;
+import de.metas.payment.camt054_001_02.GroupHeader42;
 import de.metas.payment.camt054_001_02.ObjectFactory;
 import de.metas.payment.camt054_001_02.ReportEntry2;
 import de.metas.payment.esr.ESRConstants;
@@ -43,6 +49,7 @@ import de.metas.payment.esr.dataimporter.ESRStatement.ESRStatementBuilder;
 import de.metas.payment.esr.dataimporter.ESRTransaction;
 import de.metas.payment.esr.dataimporter.ESRTransaction.ESRTransactionBuilder;
 import de.metas.payment.esr.model.I_ESR_Import;
+import de.metas.util.Loggables;
 import de.metas.util.Services;
 import lombok.NonNull;
 
@@ -97,6 +104,8 @@ import lombok.NonNull;
  */
 public class ESRDataImporterCamt54v02
 {
+	private static final transient Logger logger = LogManager.getLogger(ESRDataImporterCamt54v02.class);
+
 	private final IBPBankAccountDAO bpBankAccountRepo = Services.get(IBPBankAccountDAO.class);
 
 	private final I_ESR_Import header;
@@ -135,11 +144,7 @@ public class ESRDataImporterCamt54v02
 		{
 			for (final ReportEntry2 ntry : ntfctn.getNtry()) // gh #1947: there can be many ntry records
 			{
-				final BigDecimal ntryAmt = ntry.getAmt().getValue()
-						.multiply(getCrdDbtMultiplier(ntry.getCdtDbtInd()))
-						.multiply(getRvslMultiplier(ntry));
-
-				ctrAmount = ctrAmount.add(ntryAmt);
+				ctrAmount = ctrAmount.add(getEntryAmount(ntry));
 				ctrlQty = iterateEntryDetails(stmtBuilder, ctrlQty, ntry);
 			} // for ntry
 		} // ntfctn
@@ -154,6 +159,51 @@ public class ESRDataImporterCamt54v02
 	}
 	
 	
+	/**
+	 * Same as {@link #loadXML()} and {@link #createESRStatement(BankToCustomerDebitCreditNotificationV02)}, but reads the XML one {@code Ntry} element at a time,
+	 * so the whole document doesn't need to be in memory.
+	 */
+	public ESRStatement createESRStatementStreaming()
+	{
+		final ESRStatementBuilder stmtBuilder = ESRStatement.builder();
+
+		final Mutable<BigDecimal> ctrAmount = new Mutable<>(BigDecimal.ZERO);
+		final Mutable<BigDecimal> ctrlQty = new Mutable<>(ESRDataImporterCamt54.CTRL_QTY_NOT_YET_SET);
+
+		Camt54StreamingReader.<GroupHeader42, ReportEntry2> builder()
+				.xsr(xsr)
+				.documentType(Document.class)
+				.groupHeaderType(GroupHeader42.class)
+				.groupHeaderConsumer(grpHdr -> {
+					if (grpHdr.getAddtlInf() != null)
+					{
+						Loggables.withLogger(logger, Level.INFO).addLog("The given input is a test file: bkToCstmrDbtCdtNtfctn/grpHdr/addtlInf={}", grpHdr.getAddtlInf());
+					}
+				})
+				.entryType(ReportEntry2.class)
+				.entryConsumer(ntry -> {
+					ctrAmount.setValue(ctrAmount.getValue().add(getEntryAmount(ntry)));
+					ctrlQty.setValue(iterateEntryDetails(stmtBuilder, ctrlQty.getValue(), ntry));
+				})
+				.build()
+				.read();
+
+		// only use the control qty if all ntry had one set. If one was null, then forward null
+		final BigDecimal ctrlQtyForStatement = ctrlQty.getValue().compareTo(ESRDataImporterCamt54.CTRL_QTY_AT_LEAST_ONE_NULL) == 0 ? null : ctrlQty.getValue();
+
+		return stmtBuilder
+				.ctrlAmount(ctrAmount.getValue())
+				.ctrlQty(ctrlQtyForStatement)
+				.build();
+	}
+
+	private BigDecimal getEntryAmount(@NonNull final ReportEntry2 ntry)
+	{
+		return ntry.getAmt().getValue()
+				.multiply(getCrdDbtMultiplier(ntry.getCdtDbtInd()))
+				.multiply(getRvslMultiplier(ntry));
+	}
+
 	/**
 	 * iterateEntryDetails for version 2 <code>BankToCustomerDebitCreditNotificationV02</code>
 	 * 
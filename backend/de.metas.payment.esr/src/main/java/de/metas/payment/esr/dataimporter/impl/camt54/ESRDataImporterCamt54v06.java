@@ -15,15 +15,20 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.lang.Mutable;
 import org.compiere.util.Env;
+import org.slf4j.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import ch.qos.logback.classic.Level;
+
 import de.metas.banking.BankAccount;
 import de.metas.banking.BankAccountId;
 import de.metas.banking.api.IBPBankAccountDAO;
 import de.metas.currency.ICurrencyDAO;
 import de.metas.i18n.IMsgBL;
+import de.metas.logging.LogManager;
 import de.metas.money.CurrencyId;
 import de.metas.payment.camt054_001_06.AccountNotification12;
 import de.metas.payment.camt054_001_06.ActiveOrHistoricCurrencyAndAmount;
@@ -33,6 +38,7 @@ import de.metas.payment.camt054_001_06.DateAndDateTimeChoice;
 import de.metas.payment.camt054_001_06.Document;
 import de.metas.payment.camt054_001_06.EntryDetails7;
 import de.metas.payment.camt054_001_06.EntryTransaction8;
+import de.metas.payment.camt054_001_06.GroupHeader58;
 import de.metas.payment.camt054_001_06.ReportEntry8;
 import de.metas.payment.esr.ESRConstants;
 import de.metas.payment.esr.dataimporter.ESRStatement;
@@ -40,6 +46,7 @@ import de.metas.payment.esr.dataimporter.ESRStatement.ESRStatementBuilder;
 import de.metas.payment.esr.dataimporter.ESRTransaction;
 import de.metas.payment.esr.dataimporter.ESRTransaction.ESRTransactionBuilder;
 import de.metas.payment.esr.model.I_ESR_Import;
+import de.metas.util.Loggables;
 import de.metas.util.Services;
 import lombok.NonNull;
 
@@ -95,6 +102,8 @@ import lombok.NonNull;
  */
 public class ESRDataImporterCamt54v06 
 {
+	private static final transient Logger logger = LogManager.getLogger(ESRDataImporterCamt54v06.class);
+
 	private final IBPBankAccountDAO bpBankAccountRepo = Services.get(IBPBankAccountDAO.class);
 
 	private final I_ESR_Import header;
@@ -134,11 +143,7 @@ public class ESRDataImporterCamt54v06
 		{
 			for (final ReportEntry8 ntry : ntfctn.getNtry()) // gh #1947: there can be many ntry records
 			{
-				final BigDecimal ntryAmt = ntry.getAmt().getValue()
-						.multiply(getCrdDbtMultiplier(ntry.getCdtDbtInd()))
-						.multiply(getRvslMultiplier(ntry));
-
-				ctrAmount = ctrAmount.add(ntryAmt);
+				ctrAmount = ctrAmount.add(getEntryAmount(ntry));
 				ctrlQty = iterateEntryDetails(stmtBuilder, ctrlQty, ntry);
 			} // for ntry
 		} // ntfctn
@@ -153,6 +158,51 @@ public class ESRDataImporterCamt54v06
 	}
 	
 	
+	/**
+	 * Same as {@link #loadXML()} and {@link #createESRStatement(BankToCustomerDebitCreditNotificationV06)}, but reads the XML one {@code Ntry} element at a time,
+	 * so the whole document doesn't need to be in memory.
+	 */
+	public ESRStatement createESRStatementStreaming()
+	{
+		final ESRStatementBuilder stmtBuilder = ESRStatement.builder();
+
+		final Mutable<BigDecimal> ctrAmount = new Mutable<>(BigDecimal.ZERO);
+		final Mutable<BigDecimal> ctrlQty = new Mutable<>(ESRDataImporterCamt54.CTRL_QTY_NOT_YET_SET);
+
+		Camt54StreamingReader.<GroupHeader58, ReportEntry8> builder()
+				.xsr(xsr)
+				.documentType(Document.class)
+				.groupHeaderType(GroupHeader58.class)
+				.groupHeaderConsumer(grpHdr -> {
+					if (grpHdr.getAddtlInf() != null)
+					{
+						Loggables.withLogger(logger, Level.INFO).addLog("The given input is a test file: bkToCstmrDbtCdtNtfctn/grpHdr/addtlInf={}", grpHdr.getAddtlInf());
+					}
+				})
+				.entryType(ReportEntry8.class)
+				.entryConsumer(ntry -> {
+					ctrAmount.setValue(ctrAmount.getValue().add(getEntryAmount(ntry)));
+					ctrlQty.setValue(iterateEntryDetails(stmtBuilder, ctrlQty.getValue(), ntry));
+				})
+				.build()
+				.read();
+
+		// only use the control qty if all ntry had one set. If one was null, then forward null
+		final BigDecimal ctrlQtyForStatement = ctrlQty.getValue().compareTo(ESRDataImporterCamt54.CTRL_QTY_AT_LEAST_ONE_NULL) == 0 ? null : ctrlQty.getValue();
+
+		return stmtBuilder
+				.ctrlAmount(ctrAmount.getValue())
+				.ctrlQty(ctrlQtyForStatement)
+				.build();
+	}
+
+	private BigDecimal getEntryAmount(@NonNull final ReportEntry8 ntry)
+	{
+		return ntry.getAmt().getValue()
+				.multiply(getCrdDbtMultiplier(ntry.getCdtDbtInd()))
+				.multiply(getRvslMultiplier(ntry));
+	}
+
 	/**
 	 * iterateEntryDetails for version 6 <code>BankToCustomerDebitCreditNotificationV06</code>
 	 * @param stmtBuilder builder to which the individual {@link ESRTransaction}s are added.
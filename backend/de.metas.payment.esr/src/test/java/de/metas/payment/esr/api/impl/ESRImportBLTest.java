@@ -49,6 +49,8 @@ import org.compiere.model.X_C_DocType;
 import org.compiere.util.Env;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableSet;
+
 import de.metas.adempiere.model.I_C_Invoice;
 import de.metas.allocation.api.IAllocationDAO;
 import de.metas.allocation.api.impl.PlainAllocationDAO;
@@ -119,6 +121,21 @@ public class ESRImportBLTest extends ESRTestBase
 				.isTrue();
 	}
 
+	/**
+	 * Verifies that an existing line is found the same way as with {@link ESRImportDAO#fetchLineForESRLineText(I_ESR_Import, String)}, i.e. case-insensitive and by substring.
+	 */
+	@Test
+	public void existsLineForESRLineText()
+	{
+		final Set<String> normalizedLineTexts = ImmutableSet.of("00201059931000000010501536417000120686900000040000012");
+
+		assertThat(ESRImportBL.existsLineForESRLineText(normalizedLineTexts, " 00201059931000000010501536417000120686900000040000012 ")).isTrue();
+		assertThat(ESRImportBL.existsLineForESRLineText(ImmutableSet.of("ntry-abc"), "NTRY-ABC")).isTrue();
+		assertThat(ESRImportBL.existsLineForESRLineText(normalizedLineTexts, "000120686900000040000012")).as("substring of an existing line").isTrue();
+		assertThat(ESRImportBL.existsLineForESRLineText(normalizedLineTexts, "000120688900000040000012")).isFalse();
+		assertThat(ESRImportBL.existsLineForESRLineText(ImmutableSet.of(), "000120686900000040000012")).isFalse();
+	}
+
 	/**
 	 * <ul>
 	 * <li>ESR line with a pay amount of 40 and invoice docNo 000120686?</li>
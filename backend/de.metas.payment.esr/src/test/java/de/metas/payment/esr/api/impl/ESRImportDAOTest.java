@@ -0,0 +1,164 @@
+package de.metas.payment.esr.api.impl;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.adempiere.ad.table.api.IADTableDAO;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.adempiere.model.I_C_Invoice;
+import de.metas.document.refid.model.I_C_ReferenceNo;
+import de.metas.document.refid.model.I_C_ReferenceNo_Doc;
+import de.metas.document.refid.model.I_C_ReferenceNo_Type;
+import de.metas.organization.OrgId;
+import de.metas.payment.esr.ESRConstants;
+import de.metas.payment.esr.ESRTestBase;
+import de.metas.util.Loggables;
+import de.metas.util.PlainStringLoggable;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.payment.esr
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ESRImportDAOTest extends ESRTestBase
+{
+	private static final String ESR_REFERENCE_NUMBER_1 = "0000000000000000011";
+	private static final String ESR_REFERENCE_NUMBER_2 = "0000000000000000022";
+
+	private I_C_ReferenceNo_Type refNoType;
+	private OrgId orgId;
+
+	@Override
+	public void init()
+	{
+		refNoType = newInstance(I_C_ReferenceNo_Type.class);
+		refNoType.setName(ESRConstants.DOCUMENT_REFID_ReferenceNo_Type_InvoiceReferenceNumber);
+		save(refNoType);
+
+		orgId = OrgId.ofRepoId(getAD_Org().getAD_Org_ID());
+	}
+
+	/**
+	 * @return a reference number which is matched by the given {@code esrReferenceNumber}, i.e. with the bank account no in front and a check digit at the end
+	 */
+	private I_C_ReferenceNo createReferenceNo(final String esrReferenceNumber, final OrgId orgId)
+	{
+		final I_C_ReferenceNo referenceNo = newInstance(I_C_ReferenceNo.class);
+		referenceNo.setAD_Org_ID(orgId.getRepoId());
+		referenceNo.setReferenceNo("0105993" + esrReferenceNumber + "7");
+		referenceNo.setC_ReferenceNo_Type(refNoType);
+		save(referenceNo);
+		return referenceNo;
+	}
+
+	private I_C_ReferenceNo_Doc createInvoiceDoc(final I_C_ReferenceNo referenceNo)
+	{
+		final I_C_Invoice invoice = newInstance(I_C_Invoice.class);
+		save(invoice);
+
+		final I_C_ReferenceNo_Doc referenceNoDoc = newInstance(I_C_ReferenceNo_Doc.class);
+		referenceNoDoc.setAD_Table_ID(Services.get(IADTableDAO.class).retrieveTableId(I_C_Invoice.Table_Name));
+		referenceNoDoc.setRecord_ID(invoice.getC_Invoice_ID());
+		referenceNoDoc.setC_ReferenceNo(referenceNo);
+		save(referenceNoDoc);
+		return referenceNoDoc;
+	}
+
+	@Test
+	public void retrieveESRInvoiceReferenceNumberDocuments()
+	{
+		final I_C_ReferenceNo_Doc referenceNoDoc1 = createInvoiceDoc(createReferenceNo(ESR_REFERENCE_NUMBER_1, orgId));
+		final I_C_ReferenceNo_Doc referenceNoDoc2 = createInvoiceDoc(createReferenceNo(ESR_REFERENCE_NUMBER_2, orgId));
+
+		final ImmutableMap<String, I_C_ReferenceNo_Doc> result = dao.retrieveESRInvoiceReferenceNumberDocuments(orgId, ImmutableSet.of(ESR_REFERENCE_NUMBER_1, ESR_REFERENCE_NUMBER_2));
+
+		assertThat(result).hasSize(2);
+		assertThat(result.get(ESR_REFERENCE_NUMBER_1).getC_ReferenceNo_Doc_ID()).isEqualTo(referenceNoDoc1.getC_ReferenceNo_Doc_ID());
+		assertThat(result.get(ESR_REFERENCE_NUMBER_2).getC_ReferenceNo_Doc_ID()).isEqualTo(referenceNoDoc2.getC_ReferenceNo_Doc_ID());
+	}
+
+	@Test
+	public void retrieveESRInvoiceReferenceNumberDocuments_noReferenceNo()
+	{
+		createInvoiceDoc(createReferenceNo(ESR_REFERENCE_NUMBER_1, orgId));
+
+		final PlainStringLoggable loggable = Loggables.newPlainStringLoggable();
+		final ImmutableMap<String, I_C_ReferenceNo_Doc> result;
+		try (final IAutoCloseable loggableRestorer = Loggables.temporarySetLoggable(loggable))
+		{
+			result = dao.retrieveESRInvoiceReferenceNumberDocuments(orgId, ImmutableSet.of(ESR_REFERENCE_NUMBER_1, ESR_REFERENCE_NUMBER_2));
+		}
+
+		assertThat(result).containsOnlyKeys(ESR_REFERENCE_NUMBER_1);
+		assertThat(loggable.getSingleMessages()).containsExactly("Found no C_ReferenceNo record for esrReferenceNumber=" + ESR_REFERENCE_NUMBER_2);
+	}
+
+	@Test
+	public void retrieveESRInvoiceReferenceNumberDocuments_noInvoiceDoc()
+	{
+		createReferenceNo(ESR_REFERENCE_NUMBER_1, orgId);
+
+		final ImmutableMap<String, I_C_ReferenceNo_Doc> result = dao.retrieveESRInvoiceReferenceNumberDocuments(orgId, ImmutableSet.of(ESR_REFERENCE_NUMBER_1));
+
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	public void retrieveESRInvoiceReferenceNumberDocuments_prefersOrgSpecificReferenceNo()
+	{
+		createInvoiceDoc(createReferenceNo(ESR_REFERENCE_NUMBER_1, OrgId.ANY));
+		final I_C_ReferenceNo_Doc orgReferenceNoDoc = createInvoiceDoc(createReferenceNo(ESR_REFERENCE_NUMBER_1, orgId));
+
+		final ImmutableMap<String, I_C_ReferenceNo_Doc> result = dao.retrieveESRInvoiceReferenceNumberDocuments(orgId, ImmutableSet.of(ESR_REFERENCE_NUMBER_1));
+
+		assertThat(result.get(ESR_REFERENCE_NUMBER_1).getC_ReferenceNo_Doc_ID()).isEqualTo(orgReferenceNoDoc.getC_ReferenceNo_Doc_ID());
+	}
+
+	@Test
+	public void retrieveESRInvoiceReferenceNumberDocuments_otherOrgIsIgnored()
+	{
+		final OrgId otherOrgId = OrgId.ofRepoId(orgId.getRepoId() + 1);
+		createInvoiceDoc(createReferenceNo(ESR_REFERENCE_NUMBER_1, otherOrgId));
+
+		final ImmutableMap<String, I_C_ReferenceNo_Doc> result = dao.retrieveESRInvoiceReferenceNumberDocuments(orgId, ImmutableSet.of(ESR_REFERENCE_NUMBER_1));
+
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	public void retrieveESRInvoiceReferenceNumberDocuments_moreThanOneInvoiceDoc()
+	{
+		final I_C_ReferenceNo referenceNo = createReferenceNo(ESR_REFERENCE_NUMBER_1, orgId);
+		createInvoiceDoc(referenceNo);
+		createInvoiceDoc(referenceNo);
+
+		assertThatThrownBy(() -> dao.retrieveESRInvoiceReferenceNumberDocuments(orgId, ImmutableSet.of(ESR_REFERENCE_NUMBER_1)))
+				.isInstanceOf(AdempiereException.class);
+	}
+}
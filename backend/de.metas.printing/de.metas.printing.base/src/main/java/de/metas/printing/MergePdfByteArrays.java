@@ -1,9 +1,11 @@
 /**
- * 
+ *
  */
 package de.metas.printing;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
 
 import org.adempiere.exceptions.AdempiereException;
 
@@ -13,25 +15,70 @@ import com.lowagie.text.pdf.PdfImportedPage;
 import com.lowagie.text.pdf.PdfName;
 import com.lowagie.text.pdf.PdfReader;
 import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.RandomAccessFileOrArray;
+
+import lombok.NonNull;
 
 /**
+ * Merges PDFs into one PDF.
+ * <p>
+ * By default, the merged PDF is collected in-memory and returned by {@link #getMergedPdfByteArray()}.
+ * Use {@link #MergePdfByteArrays(OutputStream)} and {@link #close()} to write the merged PDF directly to e.g. a file, and {@link #add(File)} to read a PDF without loading it into memory as a whole.
+ *
  * @author cg
  *
  */
 public class MergePdfByteArrays
 {
-	private ByteArrayOutputStream outStream = null;
+	private final OutputStream outStream;
 	private Document document = null;
 	private PdfWriter writer = null;
 	private PdfContentByte cb = null;
 
+	private int pagesCount = 0;
+
+	public MergePdfByteArrays()
+	{
+		this(new ByteArrayOutputStream());
+	}
+
+	/**
+	 * @param outStream the stream to write the merged PDF to. Note that it's not closed by this instance.
+	 */
+	public MergePdfByteArrays(@NonNull final OutputStream outStream)
+	{
+		this.outStream = outStream;
+	}
+
 	public byte[] getMergedPdfByteArray()
 	{
-		if (document == null)
+		if (!close())
 		{
 			return null;
 		}
 
+		if (this.outStream instanceof ByteArrayOutputStream)
+		{
+			return ((ByteArrayOutputStream)this.outStream).toByteArray();
+		}
+		else
+		{
+			throw new AdempiereException("The merged PDF was written to " + outStream + " and is not available as byte array");
+		}
+	}
+
+	/**
+	 * Finishes the merged PDF and flushes it to the underlying output stream.
+	 *
+	 * @return {@code false} if nothing was added, i.e. if there is no merged PDF.
+	 */
+	public boolean close()
+	{
+		if (document == null)
+		{
+			return false;
+		}
+
 		try
 		{
 			this.document.close();
@@ -41,31 +88,56 @@ public class MergePdfByteArrays
 		{
 			throw new AdempiereException(e);
 		}
+		return true;
+	}
 
-		if (this.outStream != null)
+	/**
+	 * @return the number of pages that were added so far.
+	 */
+	public int getPagesCount()
+	{
+		return pagesCount;
+	}
+
+	public MergePdfByteArrays add(final byte[] pdfByteArray)
+	{
+		try
 		{
-			return this.outStream.toByteArray();
+			return add(new PdfReader(pdfByteArray));
 		}
-		else
+		catch (Exception e)
 		{
-			return null;
+			throw new AdempiereException(e);
 		}
+	}
 
+	/**
+	 * Adds the given PDF file's pages. The file is read page by page (partial read) instead of being loaded into memory as a whole.
+	 */
+	public MergePdfByteArrays add(@NonNull final File pdfFile)
+	{
+		try
+		{
+			return add(new PdfReader(new RandomAccessFileOrArray(pdfFile.getAbsolutePath(), false, true), null));
+		}
+		catch (Exception e)
+		{
+			throw new AdempiereException(e);
+		}
 	}
 
-	public MergePdfByteArrays add(final byte[] pdfByteArray)
+	private MergePdfByteArrays add(final PdfReader reader)
 	{
 		try
 		{
-			final PdfReader reader = new PdfReader(pdfByteArray);
 			int numberOfPages = reader.getNumberOfPages();
 
 			if (this.document == null)
 			{
 				this.document = new Document(reader.getPageSizeWithRotation(1));
-				this.outStream = new ByteArrayOutputStream();
 				this.writer = PdfWriter.getInstance(this.document, this.outStream);
-				this.writer.addViewerPreference(PdfName.PRINTSCALING, PdfName.NONE); // needs to be specified explicitly; will not work with PdfWriter.PrintScalingNone 
+				this.writer.setCloseStream(false);
+				this.writer.addViewerPreference(PdfName.PRINTSCALING, PdfName.NONE); // needs to be specified explicitly; will not work with PdfWriter.PrintScalingNone
 				this.document.open();
 				this.cb = this.writer.getDirectContent();
 			}
@@ -89,13 +161,22 @@ public class MergePdfByteArrays
 					{
 						cb.addTemplate(page, 1f, 0, 0, 1f, 0, 0);
 					}
+					pagesCount++;
 				}
 			}
+
+			// write the imported pages' resources now and release the reader;
+			// otherwise the writer keeps all readers (i.e. all source PDFs) in memory until the document is closed
+			writer.freeReader(reader);
 		}
 		catch (Exception e)
 		{
 			throw new AdempiereException(e);
 		}
+		finally
+		{
+			reader.close();
+		}
 
 		return this;
 	}
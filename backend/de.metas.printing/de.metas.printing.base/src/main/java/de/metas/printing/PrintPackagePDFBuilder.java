@@ -5,17 +5,23 @@ package de.metas.printing;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
 
 import lombok.NonNull;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
 import com.lowagie.text.Document;
 import com.lowagie.text.pdf.PdfCopy;
 import com.lowagie.text.pdf.PdfReader;
 
+import de.metas.logging.LogManager;
 import de.metas.printing.api.IPrintingDAO;
 import de.metas.printing.client.engine.PrintablePDF;
 import de.metas.printing.model.I_C_Print_Job_Instructions;
@@ -26,6 +32,8 @@ import de.metas.util.Services;
 
 public class PrintPackagePDFBuilder
 {
+	private static final Logger logger = LogManager.getLogger(PrintPackagePDFBuilder.class);
+
 	private final IPrintingDAO printingDAO = Services.get(IPrintingDAO.class);
 
 	private I_C_Print_Package printPackage;
@@ -55,6 +63,25 @@ public class PrintPackagePDFBuilder
 		return out.toByteArray();
 	}
 
+	/**
+	 * Prints the package to a new temporary file, so that even a big print package does not need to be held in memory.
+	 * It's the caller's responsibility to delete the file when it's not needed anymore.
+	 */
+	public File printToTempFile() throws Exception
+	{
+		final File file = File.createTempFile("printpackage_" + printPackage.getC_Print_Package_ID() + "_", ".pdf");
+		try (final FileOutputStream out = new FileOutputStream(file))
+		{
+			print(out);
+		}
+		catch (final Exception e)
+		{
+			file.delete();
+			throw e;
+		}
+		return file;
+	}
+
 	public void print(@NonNull final OutputStream bos) throws Exception
 	{
 		final I_C_Print_Job_Instructions print_Job_Instructions = printPackage.getC_Print_Job_Instructions();
@@ -69,6 +96,9 @@ public class PrintPackagePDFBuilder
 		{
 			return;
 		}
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		int pagesCount = 0;
+		long peakUsedMemory = getUsedMemory();
 		try
 		{
 			for (final I_C_Print_PackageInfo printPackageInfo : printingDAO.retrievePrintPackageInfos(printPackage))
@@ -80,12 +110,17 @@ public class PrintPackagePDFBuilder
 				for (int page = 0; page < reader.getNumberOfPages(); )
 				{
 					copy.addPage(copy.getImportedPage(reader, ++page));
+					pagesCount++;
 				}
 				copy.freeReader(reader);
 				reader.close();
+
+				peakUsedMemory = Math.max(peakUsedMemory, getUsedMemory());
 			}
 			document.close();
 
+			logStatistics(pagesCount, stopwatch, peakUsedMemory);
+
 			print_Job_Instructions.setErrorMsg(null);
 			print_Job_Instructions.setStatus(X_C_Print_Job_Instructions.STATUS_Done);
 			InterfaceWrapperHelper.save(print_Job_Instructions);
@@ -108,4 +143,21 @@ public class PrintPackagePDFBuilder
 		final PrintablePDF clone = printable;
 		return PdfPrinter.print(printable, clone);
 	}
+
+	private static long getUsedMemory()
+	{
+		final Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private void logStatistics(final int pagesCount, final Stopwatch stopwatch, final long peakUsedMemory)
+	{
+		final long elapsedMillis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1);
+		logger.info("Printed C_Print_Package_ID={}: {} pages in {}ms ({} pages/sec); peak used heap {}MB",
+				printPackage.getC_Print_Package_ID(),
+				pagesCount,
+				elapsedMillis,
+				pagesCount * 1000L / elapsedMillis,
+				peakUsedMemory / (1024 * 1024));
+	}
 }
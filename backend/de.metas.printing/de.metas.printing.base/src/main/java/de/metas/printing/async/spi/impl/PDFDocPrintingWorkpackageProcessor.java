@@ -1,5 +1,10 @@
 package de.metas.printing.async.spi.impl;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -142,35 +147,47 @@ public class PDFDocPrintingWorkpackageProcessor implements IWorkpackageProcessor
 
 		for (final I_C_Print_Package printPackage : printPackages.values())
 		{
-			final byte[] pdfScaled = new PrintPackagePDFBuilder()
+			// print and merge via temporary files, so that big print packages don't need to be held in memory several times
+			final File pdfScaled = new PrintPackagePDFBuilder()
 					.setPrintPackage(printPackage)
-					.printToBytes();
-			if (pdfScaled == null || pdfScaled.length == 0)
-			{
-				throw new AdempiereException("No PDF data printed!"); // TRL
-			}
-			final int currentIndex = workpackage.getBatchEnqueuedCount();
-			final byte[] mergedPDF;
-			if (isCreateSummary)
+					.printToTempFile();
+			File mergedPDF = null;
+			try
 			{
-				final int countExpected = asyncBatch.getCountExpected();
-				final byte[] summary = createSummaryPage(jobInstructions, currentIndex, countExpected, countLines);
-	
-				mergedPDF = new MergePdfByteArrays()
-						.add(summary)
-						.add(pdfScaled)
-						.getMergedPdfByteArray();
+				if (pdfScaled.length() == 0)
+				{
+					throw new AdempiereException("No PDF data printed!"); // TRL
+				}
+				final int currentIndex = workpackage.getBatchEnqueuedCount();
+
+				mergedPDF = File.createTempFile("printpackage_" + printPackage.getC_Print_Package_ID() + "_merged_", ".pdf");
+				try (final OutputStream mergedOut = new BufferedOutputStream(new FileOutputStream(mergedPDF)))
+				{
+					final MergePdfByteArrays merger = new MergePdfByteArrays(mergedOut);
+					if (isCreateSummary)
+					{
+						final int countExpected = asyncBatch.getCountExpected();
+						final byte[] summary = createSummaryPage(jobInstructions, currentIndex, countExpected, countLines);
+						merger.add(summary);
+					}
+					merger.add(pdfScaled)
+							.close();
+				}
+
+				// save in archive.
+				// Note: this is the one place where the merged PDF is held in memory as a whole, because IArchiveBL and the archive storages only accept a byte[].
+				// The same goes for the print package's data, which PrintPackagePDFBuilder gets as byte[] from IPrintingDAO.
+				// So the heap needed per print package is still in the order of its PDF size; only the additional copies of the merge step are avoided.
+				createArchive(printPackage, Files.readAllBytes(mergedPDF.toPath()), asyncBatch, currentIndex, trxName);
 			}
-			else
+			finally
 			{
-				mergedPDF = new MergePdfByteArrays()
-						.add(pdfScaled)
-						.getMergedPdfByteArray();
+				pdfScaled.delete();
+				if (mergedPDF != null)
+				{
+					mergedPDF.delete();
+				}
 			}
-			
-
-			// save in archive
-			createArchive(printPackage, mergedPDF, asyncBatch, currentIndex, trxName);
 		}
 
 	}
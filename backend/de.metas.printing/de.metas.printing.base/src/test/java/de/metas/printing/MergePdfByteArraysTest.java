@@ -0,0 +1,137 @@
+package de.metas.printing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.junit.jupiter.api.Test;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+
+/*
+ * #%L
+ * de.metas.printing.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class MergePdfByteArraysTest
+{
+	private static byte[] createPdf(final int pagesCount) throws Exception
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final Document document = new Document();
+		PdfWriter.getInstance(document, out);
+		document.open();
+		for (int page = 1; page <= pagesCount; page++)
+		{
+			document.newPage();
+			document.add(new Paragraph("Page " + page));
+		}
+		document.close();
+		return out.toByteArray();
+	}
+
+	private static int getPagesCount(final byte[] pdf) throws IOException
+	{
+		final PdfReader reader = new PdfReader(pdf);
+		try
+		{
+			return reader.getNumberOfPages();
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	@Test
+	public void mergeByteArrays() throws Exception
+	{
+		final MergePdfByteArrays merger = new MergePdfByteArrays()
+				.add(createPdf(1))
+				.add(createPdf(2));
+
+		final byte[] mergedPdf = merger.getMergedPdfByteArray();
+
+		assertThat(merger.getPagesCount()).isEqualTo(3);
+		assertThat(getPagesCount(mergedPdf)).isEqualTo(3);
+	}
+
+	@Test
+	public void mergeFileAndByteArray() throws Exception
+	{
+		final File pdfFile = File.createTempFile("MergePdfByteArraysTest_", ".pdf");
+		try
+		{
+			try (final OutputStream out = new FileOutputStream(pdfFile))
+			{
+				out.write(createPdf(2));
+			}
+
+			final MergePdfByteArrays merger = new MergePdfByteArrays()
+					.add(createPdf(1))
+					.add(pdfFile);
+
+			assertThat(getPagesCount(merger.getMergedPdfByteArray())).isEqualTo(3);
+		}
+		finally
+		{
+			pdfFile.delete();
+		}
+	}
+
+	@Test
+	public void mergeToOutputStream() throws Exception
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final MergePdfByteArrays merger = new MergePdfByteArrays(new OutputStream()
+		{
+			@Override
+			public void write(final int b)
+			{
+				out.write(b);
+			}
+		});
+
+		merger.add(createPdf(2));
+
+		assertThatThrownBy(merger::getMergedPdfByteArray)
+				.as("the merged PDF was written to the given stream")
+				.isInstanceOf(AdempiereException.class);
+		assertThat(getPagesCount(out.toByteArray())).isEqualTo(2);
+	}
+
+	@Test
+	public void nothingAdded()
+	{
+		final MergePdfByteArrays merger = new MergePdfByteArrays();
+
+		assertThat(merger.getMergedPdfByteArray()).isNull();
+		assertThat(merger.getPagesCount()).isEqualTo(0);
+	}
+}
@@ -0,0 +1,39 @@
+package de.metas.ordercandidate.api;
+
+import org.adempiere.exceptions.AdempiereException;
+
+/*
+ * #%L
+ * de.metas.salescandidate.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Thrown if order candidates were processed in parallel and some of the orders could not be created.
+ * The other orders were created and committed in their own transactions, so they are <b>not</b> rolled back.
+ */
+public class OLCandsPartiallyProcessedException extends AdempiereException
+{
+	private static final long serialVersionUID = 4409630914731327428L;
+
+	public OLCandsPartiallyProcessedException(final int failedOrdersCount, final int ordersCount, final Throwable firstCause)
+	{
+		super("Failed to create " + failedOrdersCount + " of " + ordersCount + " orders; the other orders were created and committed", firstCause);
+	}
+}
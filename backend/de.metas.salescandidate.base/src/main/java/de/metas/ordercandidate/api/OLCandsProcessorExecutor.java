@@ -2,25 +2,50 @@ package de.metas.ordercandidate.api;
 
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
+import org.adempiere.util.lang.Mutable;
+import org.compiere.Adempiere;
+import org.compiere.model.I_C_BPartner;
+import org.compiere.model.I_C_OrderLine;
+import org.compiere.model.I_M_Product;
 import org.compiere.util.ArrayKeyBuilder;
+import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
 import org.compiere.util.Util;
 import org.compiere.util.Util.ArrayKey;
 import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 
 import ch.qos.logback.classic.Level;
+import de.metas.bpartner.BPartnerId;
+import de.metas.bpartner.service.BPartnerInfo;
 import de.metas.impex.InputDataSourceId;
 import de.metas.impex.api.IInputDataSourceDAO;
 import de.metas.logging.LogManager;
@@ -32,10 +57,14 @@ import de.metas.user.UserId;
 import de.metas.util.Check;
 import de.metas.util.ILoggable;
 import de.metas.util.Loggables;
+import de.metas.util.PlainStringLoggable;
 import de.metas.util.Services;
 import de.metas.util.time.SystemTime;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
+import lombok.experimental.Wither;
 
 /*
  * #%L
@@ -65,6 +94,11 @@ import lombok.NonNull;
 public class OLCandsProcessorExecutor
 {
 	private static final Logger logger = LogManager.getLogger(OLCandsProcessorExecutor.class);
+
+	/** Max number of threads that create the orders, each order in its own transaction. Defaults to 1, which creates all orders in the caller's transaction. */
+	private static final String SYSCONFIG_Parallelism = "de.metas.ordercandidate.api.OLCandsProcessorExecutor.Parallelism";
+	private static final int PREFETCH_CHUNK_SIZE = 1000;
+
 	private final ILoggable loggable;
 
 	private final IOLCandListener olCandListeners;
@@ -103,6 +137,8 @@ public class OLCandsProcessorExecutor
 
 	public void process()
 	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
 		// Note: We could make life easier by constructing a ORDER and GROUP BY SQL statement,
 		// but I'm afraid that grouping by time - granularity is not really portable. Also there might be other
 		// granularity levels, that can't be put into an sql later on.
@@ -116,6 +152,160 @@ public class OLCandsProcessorExecutor
 				.collect(ImmutableList.toImmutableList());
 		loggable.addLog("Processing {} order line candidates", candidates.size());
 
+		prefetchMasterData(candidates);
+
+		//
+		// Decide which candidates go into which order and order line, then create the orders
+		final List<OrderCandidates> orders = groupIntoOrders(candidates);
+		final int parallelism = Math.min(getParallelism(), orders.size());
+
+		final ProcessingStats stats = new ProcessingStats();
+		if (parallelism <= 1)
+		{
+			for (final OrderCandidates order : orders)
+			{
+				stats.add(createOrder(order, loggable, olCandListeners));
+			}
+		}
+		else
+		{
+			createOrdersInParallel(orders, parallelism, stats);
+		}
+
+		final long elapsedMillis = stopwatch.stop().elapsed(TimeUnit.MILLISECONDS);
+		loggable.addLog("Processed {} order line candidates into {} orders in {}ms ({} candidates/sec); parallelism={}, maxOrderLatency={}ms",
+				candidates.size(),
+				stats.getOrdersCount(),
+				elapsedMillis,
+				elapsedMillis > 0 ? candidates.size() * 1000L / elapsedMillis : candidates.size(),
+				Math.max(parallelism, 1),
+				stats.getMaxLatencyMillis());
+	}
+
+	private int getParallelism()
+	{
+		if (Adempiere.isUnitTestMode())
+		{
+			return 1;
+		}
+
+		final int parallelismDefault = 1;
+		return Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_Parallelism, parallelismDefault, Env.getAD_Client_ID());
+	}
+
+	/**
+	 * Creates each of the given orders in its own transaction, using a pool of {@code parallelism} threads.
+	 * The worker threads' log messages are passed to our {@link #loggable} on the calling thread.
+	 *
+	 * @throws OLCandsPartiallyProcessedException if some orders failed; the other orders are committed nevertheless.
+	 */
+	private void createOrdersInParallel(
+			@NonNull final List<OrderCandidates> orders,
+			final int parallelism,
+			@NonNull final ProcessingStats stats)
+	{
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		final IOLCandListener synchronizedOLCandListeners = new SynchronizedOLCandListener(olCandListeners);
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				parallelism,
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix(OLCandsProcessorExecutor.class.getSimpleName() + "-" + olCandProcessorId)
+						.setDaemon(true)
+						.build());
+		try
+		{
+			final List<Future<OrderResult>> futures = new ArrayList<>(orders.size());
+			for (final OrderCandidates order : orders)
+			{
+				futures.add(executor.submit(() -> createOrderInNewTrx(ctx, order, synchronizedOLCandListeners)));
+			}
+
+			int failedOrdersCount = 0;
+			Throwable firstError = null;
+			for (final Future<OrderResult> future : futures)
+			{
+				try
+				{
+					final OrderResult result = future.get();
+					result.getLogMessages().forEach(loggable::addLog);
+					stats.add(result);
+				}
+				catch (final ExecutionException ex)
+				{
+					// the other orders are committed in their own transactions, so we continue and report all failures at the end
+					final Throwable cause = AdempiereException.extractCause(ex);
+					logger.warn("Caught exception while creating an order from order line candidates", cause);
+					loggable.addLog("@Error@: {}", cause.getLocalizedMessage());
+					failedOrdersCount++;
+					if (firstError == null)
+					{
+						firstError = cause;
+					}
+				}
+				catch (final InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+					throw AdempiereException.wrapIfNeeded(ex);
+				}
+			}
+
+			if (firstError != null)
+			{
+				throw new OLCandsPartiallyProcessedException(failedOrdersCount, orders.size(), firstError);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private OrderResult createOrderInNewTrx(
+			@NonNull final Properties ctx,
+			@NonNull final OrderCandidates order,
+			@NonNull final IOLCandListener olCandListeners)
+	{
+		// collect this thread's log messages, so that the calling thread can pass them on
+		final PlainStringLoggable threadLoggable = Loggables.newPlainStringLoggable();
+		try (final IAutoCloseable contextRestorer = Env.switchContext(Env.copyCtx(ctx));
+				final IAutoCloseable loggableRestorer = Loggables.temporarySetLoggable(threadLoggable))
+		{
+			final Mutable<OrderResult> result = new Mutable<>();
+			Services.get(ITrxManager.class).runInNewTrx(() -> {
+
+				// the candidates were loaded in the caller's transaction; save them in this order's transaction
+				order.getCandidates().forEach(candidate -> InterfaceWrapperHelper.setThreadInheritedTrxName(candidate.unbox()));
+				result.setValue(createOrder(order, threadLoggable, olCandListeners));
+			});
+			return result.getValue().withLogMessages(threadLoggable.getSingleMessages());
+		}
+	}
+
+	private OrderResult createOrder(
+			@NonNull final OrderCandidates order,
+			@NonNull final ILoggable loggable,
+			@NonNull final IOLCandListener olCandListeners)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final OLCandOrderFactory orderFactory = newOrderFactory(loggable, olCandListeners);
+		for (final List<OLCand> line : order.getLines())
+		{
+			line.forEach(orderFactory::addOLCand);
+			orderFactory.closeCurrentOrderLine();
+		}
+		orderFactory.completeOrDelete();
+
+		return new OrderResult(stopwatch.stop().elapsed(TimeUnit.MILLISECONDS), ImmutableList.of());
+	}
+
+	/**
+	 * Decides which of the given candidates go into which order and order line. The candidates are expected to be sorted according to {@link OLCandAggregation#getOrderingComparator()}.
+	 * <p>
+	 * Candidates with the same grouping key (see {@link #mkGroupingKey(OLCand)}) go into the same order line, unless {@link #isOrderSplit(OLCand, OLCand)} requires a new order in between.
+	 */
+	private List<OrderCandidates> groupIntoOrders(@NonNull final List<OLCand> candidates)
+	{
 		//
 		// Compute a grouping key for each candidate and group them according to their key
 		final Map<Integer, ArrayKey> toProcess = new HashMap<>();
@@ -135,10 +325,11 @@ public class OLCandsProcessorExecutor
 			grouping.put(groupingKey, candidate);
 		}
 
-		// 'processedIds' contains the candidates that have already been processed
+		// 'processedIds' contains the candidates that have already been assigned to an order
 		final Set<Integer> processedIds = new HashSet<>();
 
-		OLCandOrderFactory currentOrder = null;
+		final List<OrderCandidates> orders = new ArrayList<>();
+		OrderCandidates currentOrder = null;
 
 		// This variable is used to decide if the current candidate differs from the previous one in a way that requires a new order.
 		OLCand previousCandidate = null;
@@ -154,7 +345,7 @@ public class OLCandsProcessorExecutor
 			// Each group shall go to a separate order line
 			if (currentOrder != null)
 			{
-				currentOrder.closeCurrentOrderLine();
+				currentOrder.closeCurrentLine();
 			}
 
 			// get the group of the current unprocessed candidate
@@ -163,28 +354,65 @@ public class OLCandsProcessorExecutor
 			{
 				if (currentOrder != null && isOrderSplit(candOfGroup, previousCandidate))
 				{
-					currentOrder.completeOrDelete();
 					currentOrder = null;
 				}
 				if (currentOrder == null)
 				{
-					currentOrder = newOrderFactory();
+					currentOrder = new OrderCandidates();
+					orders.add(currentOrder);
 				}
 
-				currentOrder.addOLCand(candOfGroup);
+				currentOrder.add(candOfGroup);
 
 				Check.assume(processedIds.add(candOfGroup.getId()), candOfGroup + " of grouping " + grouping + " is not processed twice");
 				previousCandidate = candOfGroup;
 			}
 		}
 
-		if (currentOrder != null)
+		Check.assume(processedIds.size() == candidates.size(), "All candidates have been processed");
+
+		return orders;
+	}
+
+	/**
+	 * Loads the candidates' business partners and products in bulk, so that they are served from the model cache while the orders are created.
+	 */
+	private void prefetchMasterData(@NonNull final List<OLCand> candidates)
+	{
+		final Set<BPartnerId> bpartnerIds = new HashSet<>();
+		final Set<Integer> productIds = new HashSet<>();
+		for (final OLCand candidate : candidates)
 		{
-			currentOrder.completeOrDelete();
-			currentOrder = null;
+			addBPartnerIdIfNotNull(bpartnerIds, candidate.getBPartnerInfo());
+			addBPartnerIdIfNotNull(bpartnerIds, candidate.getBillBPartnerInfo());
+			addBPartnerIdIfNotNull(bpartnerIds, candidate.getDropShipBPartnerInfo().orElse(null));
+			addBPartnerIdIfNotNull(bpartnerIds, candidate.getHandOverBPartnerInfo().orElse(null));
+			if (candidate.getSalesRepId() != null)
+			{
+				bpartnerIds.add(candidate.getSalesRepId());
+			}
+			if (candidate.getM_Product_ID() > 0)
+			{
+				productIds.add(candidate.getM_Product_ID());
+			}
 		}
 
-		Check.assume(processedIds.size() == candidates.size(), "All candidates have been processed");
+		for (final List<BPartnerId> bpartnerIdsChunk : Iterables.partition(bpartnerIds, PREFETCH_CHUNK_SIZE))
+		{
+			InterfaceWrapperHelper.loadByRepoIdAwaresOutOfTrx(bpartnerIdsChunk, I_C_BPartner.class);
+		}
+		for (final List<Integer> productIdsChunk : Iterables.partition(productIds, PREFETCH_CHUNK_SIZE))
+		{
+			InterfaceWrapperHelper.loadByIdsOutOfTrx(ImmutableSet.copyOf(productIdsChunk), I_M_Product.class);
+		}
+	}
+
+	private static void addBPartnerIdIfNotNull(@NonNull final Set<BPartnerId> bpartnerIds, @Nullable final BPartnerInfo bpartnerInfo)
+	{
+		if (bpartnerInfo != null && bpartnerInfo.getBpartnerId() != null)
+		{
+			bpartnerIds.add(bpartnerInfo.getBpartnerId());
+		}
 	}
 
 	private OLCand prepareOLCandBeforeProcessing(final OLCand candidate)
@@ -197,7 +425,9 @@ public class OLCandsProcessorExecutor
 		return candidate;
 	}
 
-	private OLCandOrderFactory newOrderFactory()
+	private OLCandOrderFactory newOrderFactory(
+			@NonNull final ILoggable loggable,
+			@NonNull final IOLCandListener olCandListeners)
 	{
 		return OLCandOrderFactory.builder()
 				.orderDefaults(orderDefaults)
@@ -342,4 +572,86 @@ public class OLCandsProcessorExecutor
 
 		return true;
 	}
+
+	/**
+	 * The candidates that go into one order, grouped by order line.
+	 */
+	private static class OrderCandidates
+	{
+		private final List<List<OLCand>> lines = new ArrayList<>();
+		private List<OLCand> currentLine = null;
+
+		public void add(@NonNull final OLCand candidate)
+		{
+			if (currentLine == null)
+			{
+				currentLine = new ArrayList<>();
+				lines.add(currentLine);
+			}
+			currentLine.add(candidate);
+		}
+
+		public void closeCurrentLine()
+		{
+			currentLine = null;
+		}
+
+		public List<List<OLCand>> getLines()
+		{
+			return lines;
+		}
+
+		public List<OLCand> getCandidates()
+		{
+			return lines.stream()
+					.flatMap(List::stream)
+					.collect(ImmutableList.toImmutableList());
+		}
+	}
+
+	@Value
+	private static class OrderResult
+	{
+		long latencyMillis;
+		@Wither
+		ImmutableList<String> logMessages;
+	}
+
+	/**
+	 * Serializes the invocations from our worker threads, because the listeners are not required to be thread-safe.
+	 */
+	@AllArgsConstructor
+	private static final class SynchronizedOLCandListener implements IOLCandListener
+	{
+		@NonNull
+		private final IOLCandListener delegate;
+
+		@Override
+		public synchronized void onOrderLineCreated(final OLCand olCand, final I_C_OrderLine newOrderLine)
+		{
+			delegate.onOrderLineCreated(olCand, newOrderLine);
+		}
+	}
+
+	private static class ProcessingStats
+	{
+		private int ordersCount = 0;
+		private long maxLatencyMillis = 0;
+
+		public synchronized void add(@NonNull final OrderResult result)
+		{
+			ordersCount++;
+			maxLatencyMillis = Math.max(maxLatencyMillis, result.getLatencyMillis());
+		}
+
+		public synchronized int getOrdersCount()
+		{
+			return ordersCount;
+		}
+
+		public synchronized long getMaxLatencyMillis()
+		{
+			return maxLatencyMillis;
+		}
+	}
 }
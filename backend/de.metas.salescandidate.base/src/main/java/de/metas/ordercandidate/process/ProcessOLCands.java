@@ -7,6 +7,7 @@ import de.metas.adempiere.model.I_C_Order;
 import de.metas.ordercandidate.api.IOLCandBL;
 import de.metas.ordercandidate.api.OLCandProcessorDescriptor;
 import de.metas.ordercandidate.api.OLCandProcessorRepository;
+import de.metas.ordercandidate.api.OLCandsPartiallyProcessedException;
 import de.metas.ordercandidate.model.I_C_OLCand;
 import de.metas.ordercandidate.model.I_C_OLCandProcessor;
 import de.metas.process.JavaProcess;
@@ -56,6 +57,12 @@ public class ProcessOLCands extends JavaProcess
 			olCandBL.process(olCandProcessor);
 			return MSG_OK;
 		}
+		catch (final OLCandsPartiallyProcessedException ex)
+		{
+			// the orders that did not fail were already committed, so there is no rollback to report
+			addLog("@Error@: " + ex.getLocalizedMessage());
+			throw ex;
+		}
 		catch (final Exception ex)
 		{
 			addLog("@Error@: " + ex.getLocalizedMessage());
@@ -0,0 +1,59 @@
+package de.metas.data.export.api;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Throughput and stall times of one stage (e.g. reading from the data source or writing to the destination) of an export.
+ */
+@Value
+@Builder
+public class ExportStageMetrics
+{
+	public static final String STAGE_Read = "read";
+	public static final String STAGE_Write = "write";
+
+	@NonNull
+	String stageName;
+
+	int rowCount;
+
+	/** Total time the stage was running */
+	@NonNull
+	Duration elapsed;
+
+	/** Time the stage was waiting for the other stage, i.e. reader waiting for a free buffer slot or writer waiting for the next row */
+	@NonNull
+	Duration stalled;
+
+	public long getRowsPerSecond()
+	{
+		final long millis = Math.max(1, elapsed.toMillis());
+		return rowCount * 1000L / millis;
+	}
+}
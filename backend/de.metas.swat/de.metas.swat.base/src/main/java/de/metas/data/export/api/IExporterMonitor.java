@@ -34,4 +34,12 @@ public interface IExporterMonitor
 	void exportStarted(IExporter exporter);
 
 	void exportFinished(IExporter exporter);
+
+	/**
+	 * Called when one stage of the export finished, before {@link #exportFinished(IExporter)}.
+	 */
+	default void exportStageFinished(IExporter exporter, ExportStageMetrics metrics)
+	{
+		// nothing by default
+	}
 }
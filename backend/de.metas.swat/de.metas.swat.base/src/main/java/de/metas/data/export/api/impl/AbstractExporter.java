@@ -25,13 +25,28 @@ package de.metas.data.export.api.impl;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.slf4j.Logger;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import de.metas.data.export.api.ExportStageMetrics;
 import de.metas.data.export.api.IExportDataDestination;
 import de.metas.data.export.api.IExportDataSource;
 import de.metas.data.export.api.IExporter;
@@ -51,6 +66,16 @@ public abstract class AbstractExporter implements IExporter
 {
 	private static final Logger logger = LogManager.getLogger(AbstractExporter.class);
 
+	/**
+	 * Config: if greater than zero, the rows are read from the data source in a separate thread and passed to the writing thread through a bounded buffer of this size.
+	 * By default, reading and writing are done alternately in the same thread.
+	 */
+	public static final String CONFIG_PipelineBufferSize = "PipelineBufferSize";
+
+	private static final List<Object> END_OF_DATA = Collections.unmodifiableList(new ArrayList<>());
+	private static final int READER_TERMINATION_TIMEOUT_SECONDS = 10;
+	private static final long BUFFER_OFFER_TIMEOUT_MILLIS = 100;
+
 	private IExportDataSource dataSource;
 	private Properties config = new Properties();
 	private IExporterMonitor monitor = NullExporterMonitor.instance;
@@ -141,14 +166,14 @@ public abstract class AbstractExporter implements IExporter
 
 			monitor.exportStarted(this);
 
-			while (dataSource.hasNext())
+			final int pipelineBufferSize = getPipelineBufferSize();
+			if (pipelineBufferSize > 0)
 			{
-				final List<Object> values = dataSource.next();
-				// for (int i = 1; i <= 3000; i++) // debugging
-				// {
-				appendRow(dataDestination, values);
-				incrementExportedRowCount();
-				// }
+				exportPipelined(dataSource, dataDestination, pipelineBufferSize);
+			}
+			else
+			{
+				exportSequentially(dataSource, dataDestination);
 			}
 		}
 		catch (Exception e)
@@ -179,6 +204,199 @@ public abstract class AbstractExporter implements IExporter
 		logger.info("Exported " + getExportedRowCount() + " rows");
 	}
 
+	private int getPipelineBufferSize()
+	{
+		final String bufferSizeStr = config != null ? config.getProperty(CONFIG_PipelineBufferSize) : null;
+		if (Check.isEmpty(bufferSizeStr, true))
+		{
+			return 0;
+		}
+
+		try
+		{
+			return Integer.parseInt(bufferSizeStr.trim());
+		}
+		catch (final NumberFormatException e)
+		{
+			throw new AdempiereException("Invalid " + CONFIG_PipelineBufferSize + " '" + bufferSizeStr + "'; an integer is expected", e);
+		}
+	}
+
+	private void exportSequentially(final IExportDataSource dataSource, final IExportDataDestination dataDestination) throws IOException
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		long readNanos = 0;
+		long writeNanos = 0;
+		int rowCount = 0;
+
+		while (true)
+		{
+			final long readStart = System.nanoTime();
+			if (!dataSource.hasNext())
+			{
+				readNanos += System.nanoTime() - readStart;
+				break;
+			}
+			final List<Object> values = dataSource.next();
+
+			final long writeStart = System.nanoTime();
+			readNanos += writeStart - readStart;
+
+			appendRow(dataDestination, values);
+			incrementExportedRowCount();
+			rowCount++;
+
+			writeNanos += System.nanoTime() - writeStart;
+		}
+
+		// reading and writing are alternating, so each stage is "stalled" while the other one is working
+		final Duration elapsed = Duration.ofNanos(stopwatch.stop().elapsed(TimeUnit.NANOSECONDS));
+		fireStageFinished(ExportStageMetrics.STAGE_Read, rowCount, elapsed, Duration.ofNanos(writeNanos));
+		fireStageFinished(ExportStageMetrics.STAGE_Write, rowCount, elapsed, Duration.ofNanos(readNanos));
+	}
+
+	/**
+	 * Reads the rows in a separate thread and hands them over to the current (writing) thread through a bounded buffer.
+	 * If the writer is slower, the reader blocks as soon as the buffer is full, so memory usage is bounded by the buffer size.
+	 * If the writer fails, the reader is cancelled and the buffer is cleared, so the reader can't block forever on a full buffer.
+	 */
+	private void exportPipelined(
+			final IExportDataSource dataSource,
+			final IExportDataDestination dataDestination,
+			final int bufferSize) throws Exception
+	{
+		final BlockingQueue<List<Object>> buffer = new ArrayBlockingQueue<>(bufferSize);
+		final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+		final ExecutorService readerExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+				.setNameFormat(getClass().getSimpleName() + "-reader-%d")
+				.setDaemon(true)
+				.build());
+		try
+		{
+			final Future<ExportStageMetrics> readerResult = readerExecutor.submit(() -> readIntoBuffer(dataSource, buffer, cancelled));
+
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+			long stalledNanos = 0;
+			int rowCount = 0;
+			while (true)
+			{
+				final long waitStart = System.nanoTime();
+				final List<Object> values = buffer.take();
+				stalledNanos += System.nanoTime() - waitStart;
+
+				if (values == END_OF_DATA)
+				{
+					break;
+				}
+
+				appendRow(dataDestination, values);
+				incrementExportedRowCount();
+				rowCount++;
+			}
+
+			final ExportStageMetrics readMetrics = getReaderMetrics(readerResult);
+			fireStageFinished(readMetrics);
+			fireStageFinished(ExportStageMetrics.STAGE_Write, rowCount, Duration.ofNanos(stopwatch.stop().elapsed(TimeUnit.NANOSECONDS)), Duration.ofNanos(stalledNanos));
+		}
+		finally
+		{
+			// if the writer failed, make sure the reader stops before the data source gets closed
+			cancelled.set(true);
+			buffer.clear();
+			readerExecutor.shutdownNow();
+			readerExecutor.awaitTermination(READER_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+	}
+
+	private static ExportStageMetrics readIntoBuffer(
+			final IExportDataSource dataSource,
+			final BlockingQueue<List<Object>> buffer,
+			final AtomicBoolean cancelled) throws InterruptedException
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		long stalledNanos = 0;
+		int rowCount = 0;
+		try
+		{
+			while (!cancelled.get() && dataSource.hasNext())
+			{
+				final List<Object> values = dataSource.next();
+
+				final long waitStart = System.nanoTime();
+				final boolean added = offerUnlessCancelled(buffer, values, cancelled);
+				stalledNanos += System.nanoTime() - waitStart;
+				if (!added)
+				{
+					break;
+				}
+
+				rowCount++;
+			}
+		}
+		finally
+		{
+			// also on error, so that the writer does not wait forever
+			offerUnlessCancelled(buffer, END_OF_DATA, cancelled);
+		}
+
+		return ExportStageMetrics.builder()
+				.stageName(ExportStageMetrics.STAGE_Read)
+				.rowCount(rowCount)
+				.elapsed(Duration.ofNanos(stopwatch.stop().elapsed(TimeUnit.NANOSECONDS)))
+				.stalled(Duration.ofNanos(stalledNanos))
+				.build();
+	}
+
+	/**
+	 * Waits until the given {@code values} could be added to the buffer or the writer cancelled the export.
+	 *
+	 * @return {@code false} if the export was cancelled
+	 */
+	private static boolean offerUnlessCancelled(
+			final BlockingQueue<List<Object>> buffer,
+			final List<Object> values,
+			final AtomicBoolean cancelled) throws InterruptedException
+	{
+		while (!cancelled.get())
+		{
+			if (buffer.offer(values, BUFFER_OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ExportStageMetrics getReaderMetrics(final Future<ExportStageMetrics> readerResult) throws Exception
+	{
+		try
+		{
+			return readerResult.get();
+		}
+		catch (final ExecutionException e)
+		{
+			final Throwable cause = e.getCause() != null ? e.getCause() : e;
+			throw cause instanceof Exception ? (Exception)cause : new AdempiereException(cause.getLocalizedMessage(), cause);
+		}
+	}
+
+	private void fireStageFinished(final String stageName, final int rowCount, final Duration elapsed, final Duration stalled)
+	{
+		fireStageFinished(ExportStageMetrics.builder()
+				.stageName(stageName)
+				.rowCount(rowCount)
+				.elapsed(elapsed)
+				.stalled(stalled)
+				.build());
+	}
+
+	private void fireStageFinished(final ExportStageMetrics metrics)
+	{
+		logger.info("Export stage finished: {} ({} rows/s)", metrics, metrics.getRowsPerSecond());
+		monitor.exportStageFinished(this, metrics);
+	}
+
 	protected abstract void appendRow(IExportDataDestination dataDestination, List<Object> values) throws IOException;
 
 	protected abstract IExportDataDestination createDataDestination(OutputStream out) throws IOException;
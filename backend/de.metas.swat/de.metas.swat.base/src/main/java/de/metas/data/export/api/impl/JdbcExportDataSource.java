@@ -61,6 +61,7 @@ public class JdbcExportDataSource implements IExportDataSource
 	 */
 	private final String sqlWhereClause;
 	private final List<Object> sqlParams;
+	private final int fetchSize;
 
 	private Connection conn = null;
 	private PreparedStatement pstmt = null;
@@ -74,6 +75,19 @@ public class JdbcExportDataSource implements IExportDataSource
 			final String sqlCount,
 			final String sqlWhereClause,
 			final List<Object> sqlParams/* not ImmutableList because list elements might be null */)
+	{
+		this(fields, sqlFields, sqlSelect, sqlCount, sqlWhereClause, sqlParams, -1);
+	}
+
+	/**
+	 * @param fetchSize number of rows to fetch per round trip; if not positive, the default of {@link DB#prepareConnectionAndStatementForDataExport(String, List)} is used
+	 */
+	public JdbcExportDataSource(final List<String> fields, final List<String> sqlFields,
+			final String sqlSelect,
+			final String sqlCount,
+			final String sqlWhereClause,
+			final List<Object> sqlParams/* not ImmutableList because list elements might be null */,
+			final int fetchSize)
 	{
 		this.fields = Collections.unmodifiableList(new ArrayList<String>(fields));
 		this.sqlFields = Collections.unmodifiableList(new ArrayList<String>(sqlFields));
@@ -81,6 +95,7 @@ public class JdbcExportDataSource implements IExportDataSource
 		this.sqlCount = sqlCount;
 		this.sqlWhereClause = sqlWhereClause;
 		this.sqlParams = sqlParams == null ? null : Collections.unmodifiableList(new ArrayList<>(sqlParams));
+		this.fetchSize = fetchSize;
 	}
 
 	/**
@@ -103,6 +118,7 @@ public class JdbcExportDataSource implements IExportDataSource
 
 		logger.info("SQL: \r\n" + sqlSelect);
 		logger.info("SQL params: " + sqlParams);
+		logger.info("Fetch size: {}", fetchSize > 0 ? fetchSize : "default");
 
 		DB.saveConstraints();
 
@@ -115,6 +131,10 @@ public class JdbcExportDataSource implements IExportDataSource
 			final ImmutablePair<Connection, PreparedStatement> connAndStmt = DB.prepareConnectionAndStatementForDataExport(sqlSelect, sqlParams);
 			conn = connAndStmt.getLeft();
 			pstmt = connAndStmt.getRight();
+			if (fetchSize > 0)
+			{
+				pstmt.setFetchSize(fetchSize);
+			}
 
 			rs = pstmt.executeQuery();
 			ok = true;
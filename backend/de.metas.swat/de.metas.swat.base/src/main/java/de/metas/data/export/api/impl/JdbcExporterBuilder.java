@@ -65,6 +65,8 @@ public class JdbcExporterBuilder
 
 	private final List<String> sqlOrderBys = new ArrayList<>();
 
+	private int fetchSize = -1;
+
 	public JdbcExporterBuilder(final String tableName)
 	{
 		Check.assumeNotNull(tableName, "tableName not null");
@@ -98,10 +100,19 @@ public class JdbcExporterBuilder
 				+ "\r\n FROM " + tableName
 				+ "\r\n WHERE \r\n" + sqlWhereClause;
 
-		final JdbcExportDataSource dataSource = new JdbcExportDataSource(csvFields, sqlFields, sqlSelect, sqlSelectCount, sqlWhereClause, sqlParams);
+		final JdbcExportDataSource dataSource = new JdbcExportDataSource(csvFields, sqlFields, sqlSelect, sqlSelectCount, sqlWhereClause, sqlParams, fetchSize);
 		return dataSource;
 	}
 
+	/**
+	 * @param fetchSize number of rows to be fetched from database per round trip; if not positive, the JDBC export default is used
+	 */
+	public JdbcExporterBuilder setFetchSize(final int fetchSize)
+	{
+		this.fetchSize = fetchSize;
+		return this;
+	}
+
 	public String getTableName()
 	{
 		return tableName;
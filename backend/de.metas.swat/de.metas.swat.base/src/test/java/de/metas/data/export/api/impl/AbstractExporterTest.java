@@ -0,0 +1,260 @@
+package de.metas.data.export.api.impl;
+
+/*
+ * #%L
+ * de.metas.swat.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.data.export.api.IExportDataDestination;
+import de.metas.data.export.api.IExportDataSource;
+import de.metas.data.export.api.IExporter.ExportStatus;
+
+public class AbstractExporterTest
+{
+	private static final int ROWS_COUNT = 1000;
+
+	@Test
+	public void export_Sequentially()
+	{
+		final TestDataSource dataSource = new TestDataSource(ROWS_COUNT);
+		final TestExporter exporter = new TestExporter(-1);
+		exporter.setDataSource(dataSource);
+
+		exporter.export(new ByteArrayOutputStream());
+
+		assertAllRowsExported(exporter, dataSource);
+	}
+
+	@Test(timeout = 5000)
+	public void export_Pipelined()
+	{
+		final TestDataSource dataSource = new TestDataSource(ROWS_COUNT);
+		final TestExporter exporter = new TestExporter(-1);
+		exporter.setDataSource(dataSource);
+		exporter.setConfig(pipelineConfig("10"));
+
+		exporter.export(new ByteArrayOutputStream());
+
+		assertAllRowsExported(exporter, dataSource);
+	}
+
+	/**
+	 * Verifies that a failing writer does not leave the reader blocked on the full buffer, and that the reader stops before the data source is closed.
+	 */
+	@Test(timeout = 5000)
+	public void export_Pipelined_WriterFails()
+	{
+		final TestDataSource dataSource = new TestDataSource(ROWS_COUNT);
+		final TestExporter exporter = new TestExporter(5);
+		exporter.setDataSource(dataSource);
+		exporter.setConfig(pipelineConfig("2"));
+
+		try
+		{
+			exporter.export(new ByteArrayOutputStream());
+			fail("AdempiereException expected");
+		}
+		catch (final AdempiereException e)
+		{
+			assertThat(e.getCause() instanceof IOException, is(true));
+		}
+
+		assertThat(exporter.getExportStatus(), is(ExportStatus.Finished));
+		assertThat(exporter.getError() != null, is(true));
+		assertThat(dataSource.isClosed(), is(true));
+		assertThat(dataSource.getReadCountAfterClose(), is(0));
+		assertThat(dataSource.getReadCount(), lessThan(ROWS_COUNT));
+	}
+
+	@Test
+	public void export_InvalidPipelineBufferSize()
+	{
+		final TestDataSource dataSource = new TestDataSource(ROWS_COUNT);
+		final TestExporter exporter = new TestExporter(-1);
+		exporter.setDataSource(dataSource);
+		exporter.setConfig(pipelineConfig("ten"));
+
+		try
+		{
+			exporter.export(new ByteArrayOutputStream());
+			fail("AdempiereException expected");
+		}
+		catch (final AdempiereException e)
+		{
+			assertThat(e.getCause() instanceof AdempiereException, is(true));
+		}
+		assertThat(dataSource.isClosed(), is(true));
+	}
+
+	private static Properties pipelineConfig(final String pipelineBufferSize)
+	{
+		final Properties config = new Properties();
+		config.setProperty(AbstractExporter.CONFIG_PipelineBufferSize, pipelineBufferSize);
+		return config;
+	}
+
+	private static void assertAllRowsExported(final TestExporter exporter, final TestDataSource dataSource)
+	{
+		assertThat(exporter.getExportStatus(), is(ExportStatus.Finished));
+		assertThat(exporter.getExportedRowCount(), is(ROWS_COUNT));
+		assertThat(exporter.getWrittenRows().size(), is(ROWS_COUNT));
+		for (int i = 0; i < ROWS_COUNT; i++)
+		{
+			assertThat(exporter.getWrittenRows().get(i), is(ImmutableList.<Object> of(i)));
+		}
+		assertThat(dataSource.isClosed(), is(true));
+	}
+
+	private static class TestExporter extends AbstractExporter
+	{
+		/** if not negative, writing the row with this index fails */
+		private final int failAtRowIndex;
+		private final List<List<Object>> writtenRows = new ArrayList<>();
+
+		private TestExporter(final int failAtRowIndex)
+		{
+			this.failAtRowIndex = failAtRowIndex;
+		}
+
+		@Override
+		protected IExportDataDestination createDataDestination(final OutputStream out)
+		{
+			return new IExportDataDestination()
+			{
+				@Override
+				public void appendLine(final List<Object> values)
+				{
+					writtenRows.add(values);
+				}
+
+				@Override
+				public void close()
+				{
+				}
+			};
+		}
+
+		@Override
+		protected void appendRow(final IExportDataDestination dataDestination, final List<Object> values) throws IOException
+		{
+			if (writtenRows.size() == failAtRowIndex)
+			{
+				throw new IOException("writing row " + failAtRowIndex + " failed");
+			}
+			dataDestination.appendLine(values);
+		}
+
+		public List<List<Object>> getWrittenRows()
+		{
+			return writtenRows;
+		}
+	}
+
+	private static class TestDataSource implements IExportDataSource
+	{
+		private final int rowsCount;
+		private final AtomicInteger readCount = new AtomicInteger(0);
+		private final AtomicInteger readCountAfterClose = new AtomicInteger(0);
+		private volatile boolean closed = false;
+
+		private TestDataSource(final int rowsCount)
+		{
+			this.rowsCount = rowsCount;
+		}
+
+		@Override
+		public List<String> getFieldNames()
+		{
+			return ImmutableList.of("Value");
+		}
+
+		@Override
+		public void prepare()
+		{
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return readCount.get() < rowsCount;
+		}
+
+		@Override
+		public List<Object> next()
+		{
+			if (closed)
+			{
+				readCountAfterClose.incrementAndGet();
+			}
+			return ImmutableList.of(readCount.getAndIncrement());
+		}
+
+		@Override
+		public void remove()
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close()
+		{
+			closed = true;
+		}
+
+		@Override
+		public int size()
+		{
+			return rowsCount;
+		}
+
+		public int getReadCount()
+		{
+			return readCount.get();
+		}
+
+		public int getReadCountAfterClose()
+		{
+			return readCountAfterClose.get();
+		}
+
+		public boolean isClosed()
+		{
+			return closed;
+		}
+	}
+}
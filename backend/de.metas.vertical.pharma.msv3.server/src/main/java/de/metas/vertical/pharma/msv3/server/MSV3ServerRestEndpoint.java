@@ -1,5 +1,7 @@
 package de.metas.vertical.pharma.msv3.server;
 
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +12,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import ch.qos.logback.classic.Level;
+import de.metas.vertical.pharma.msv3.server.order.OrderIntakeLatencies;
 import de.metas.vertical.pharma.msv3.server.peer.service.MSV3ServerPeerService;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.StockAvailabilityWebServiceLatencies;
+import de.metas.vertical.pharma.msv3.server.util.LatencyRecorder.LatencySnapshot;
 
 /*
  * #%L
@@ -42,6 +47,10 @@ public class MSV3ServerRestEndpoint
 
 	@Autowired
 	private MSV3ServerPeerService msv3ServerPeerService;
+	@Autowired
+	private StockAvailabilityWebServiceLatencies stockAvailabilityWebServiceLatencies;
+	@Autowired
+	private OrderIntakeLatencies orderIntakeLatencies;
 
 	@GetMapping("/requestUpdateFromServerPeer")
 	public void requestUpdateFromServerPeer()
@@ -49,6 +58,18 @@ public class MSV3ServerRestEndpoint
 		msv3ServerPeerService.requestAllUpdates();
 	}
 
+	@GetMapping("/stockAvailability/latencies")
+	public Map<String, LatencySnapshot> getStockAvailabilityLatencies()
+	{
+		return stockAvailabilityWebServiceLatencies.getSnapshots();
+	}
+
+	@GetMapping("/order/latencies")
+	public Map<String, LatencySnapshot> getOrderIntakeLatencies()
+	{
+		return orderIntakeLatencies.getSnapshots();
+	}
+
 	@PutMapping("/logLevel")
 	public void setLoggerLevel(@RequestBody final String logLevelStr)
 	{
@@ -2,11 +2,13 @@ package de.metas.vertical.pharma.msv3.server.order;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
@@ -29,12 +31,9 @@ import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrder;
 import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrderPackage;
 import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrderPackageItem;
 import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrderRepository;
-import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncRequest;
-import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncRequestPackage;
-import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncRequestPackageItem;
 import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncResponse;
 import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncResponseItem;
-import de.metas.vertical.pharma.msv3.server.peer.service.MSV3ServerPeerService;
+import de.metas.vertical.pharma.msv3.server.order.sync.OrderSyncRequestPublisher;
 import de.metas.vertical.pharma.msv3.server.stockAvailability.StockAvailabilityService;
 import lombok.NonNull;
 
@@ -67,7 +66,10 @@ public class OrderService
 	private JpaOrderRepository jpaOrdersRepo;
 
 	@Autowired
-	private MSV3ServerPeerService msv3ServerPeerService;
+	private OrderSyncRequestPublisher orderSyncRequestPublisher;
+
+	@Autowired
+	private OrderIntakeLatencies latencies;
 
 	@Autowired
 	private StockAvailabilityService stockAvailabilityService;
@@ -75,27 +77,17 @@ public class OrderService
 	@Transactional
 	public OrderCreateResponse createOrder(final OrderCreateRequest request)
 	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
 		final OrderResponse order = createOrderResponse(request);
+		latencies.getValidate().record(stopwatch.elapsed(TimeUnit.MILLISECONDS));
 
+		stopwatch.reset().start();
 		final JpaOrder jpaOrder = createJpaOrder(order);
-		jpaOrder.markSyncSent();
 		jpaOrdersRepo.save(jpaOrder);
+		latencies.getPersist().record(stopwatch.elapsed(TimeUnit.MILLISECONDS));
 
-		msv3ServerPeerService.publishSyncOrderRequest(MSV3OrderSyncRequest.builder()
-				.orderId(order.getOrderId())
-				.bpartner(order.getBpartnerId())
-				.orderPackages(order.getOrderPackages().stream()
-						.map(orderPackage -> MSV3OrderSyncRequestPackage.builder()
-								.items(orderPackage.getItems().stream()
-										.map(orderPackageItem -> MSV3OrderSyncRequestPackageItem.builder()
-												.id(orderPackageItem.getRequestId())
-												.pzn(orderPackageItem.getPzn())
-												.qty(orderPackageItem.getQty())
-												.build())
-										.collect(ImmutableList.toImmutableList()))
-								.build())
-						.collect(ImmutableList.toImmutableList()))
-				.build());
+		// the order is forwarded to the metasfresh server asynchronously, together with other orders
+		orderSyncRequestPublisher.enqueueAfterCommit(jpaOrder.getId());
 
 		return OrderCreateResponse.ok(order);
 	}
@@ -112,6 +104,11 @@ public class OrderService
 		else
 		{
 			final JpaOrder jpaOrder = getJpaOrder(response.getOrderId(), response.getBpartnerId());
+			if (!jpaOrder.isSyncSent())
+			{
+				// the response might arrive before the publisher flagged the order as sent
+				jpaOrder.markSyncSent();
+			}
 			jpaOrder.markSyncAck();
 
 			final Map<String, Integer> olCandIdsByPackageItemId = response.getItems()
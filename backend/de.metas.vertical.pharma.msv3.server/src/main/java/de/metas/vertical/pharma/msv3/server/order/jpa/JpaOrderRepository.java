@@ -1,7 +1,15 @@
 package de.metas.vertical.pharma.msv3.server.order.jpa;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /*
  * #%L
@@ -31,4 +39,19 @@ public interface JpaOrderRepository extends JpaRepository<JpaOrder, Long>
 	boolean existsByDocumentNoAndMfBpartnerId(final String documentNo, final int bpartnerId);
 
 	JpaOrder findByDocumentNoAndMfBpartnerId(final String documentNo, final int bpartnerId);
+
+	@Query("SELECT o.id FROM JpaOrder o WHERE o.syncSent = false AND o.mfSyncError = false ORDER BY o.id")
+	List<Long> findIdsBySyncSentFalseAndMfSyncErrorFalse();
+
+	/** Note: only updates the sync-sent columns, so it doesn't conflict with a concurrent {@link JpaOrder#markSyncAck()}. */
+	@Modifying
+	@Transactional
+	@Query("UPDATE JpaOrder o SET o.syncSent = true, o.syncSentTS = :syncSentTS WHERE o.id IN :ids AND o.syncSent = false")
+	int markSyncSent(@Param("ids") Collection<Long> ids, @Param("syncSentTS") Instant syncSentTS);
+
+	/** Flags an order which could not be forwarded, so it's not replayed anymore. */
+	@Modifying
+	@Transactional
+	@Query("UPDATE JpaOrder o SET o.mfSyncError = true, o.mfSyncErrorMsg = :errorMsg, o.syncErrorTS = :syncErrorTS WHERE o.id = :id")
+	int markSyncError(@Param("id") Long id, @Param("errorMsg") String errorMsg, @Param("syncErrorTS") Instant syncErrorTS);
 }
@@ -0,0 +1,296 @@
+package de.metas.vertical.pharma.msv3.server.order.sync;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.vertical.pharma.msv3.protocol.order.OrderCreateRequestPackageItemId;
+import de.metas.vertical.pharma.msv3.protocol.types.BPartnerId;
+import de.metas.vertical.pharma.msv3.protocol.types.Id;
+import de.metas.vertical.pharma.msv3.protocol.types.PZN;
+import de.metas.vertical.pharma.msv3.protocol.types.Quantity;
+import de.metas.vertical.pharma.msv3.server.order.OrderIntakeLatencies;
+import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrder;
+import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrderPackage;
+import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrderPackageItem;
+import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrderRepository;
+import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncRequest;
+import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncRequestPackage;
+import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncRequestPackageItem;
+import de.metas.vertical.pharma.msv3.server.peer.service.MSV3ServerPeerService;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Forwards the orders that were stored in our local DB to the metasfresh server, asynchronously and in batches.
+ * <p>
+ * Our {@code msv3_order} table is the journal: an order is enqueued once its transaction was committed,
+ * and it's flagged as {@link JpaOrder#isSyncSent() syncSent} only after it was forwarded.
+ * If forwarding an order fails, only that order is enqueued again, after a backoff which grows with the number of its failed attempts.
+ * After {@value #MAX_ATTEMPTS} failed attempts, the order is flagged as {@link JpaOrder#isMfSyncError() mfSyncError} and no longer retried.
+ * On startup, all orders which were neither forwarded nor flagged as error (e.g. because of a crash) are enqueued again.
+ * Therefore an order is forwarded at least once, unless it failed permanently.
+ */
+@Component
+public class OrderSyncRequestPublisher
+{
+	private static final Logger logger = LoggerFactory.getLogger(OrderSyncRequestPublisher.class);
+
+	private static final int BATCH_SIZE = 100;
+	@VisibleForTesting
+	static final int MAX_ATTEMPTS = 10;
+	@VisibleForTesting
+	static final long RETRY_BACKOFF_INITIAL_MILLIS = 1000;
+	private static final long RETRY_BACKOFF_MAX_MILLIS = 60 * 1000;
+	/** Default length of a JPA string column */
+	private static final int SYNC_ERROR_MSG_MAX_LENGTH = 255;
+
+	private final JpaOrderRepository jpaOrdersRepo;
+	private final MSV3ServerPeerService msv3ServerPeerService;
+	private final OrderIntakeLatencies latencies;
+
+	private final BlockingQueue<Long> jpaOrderIdsToPublish = new LinkedBlockingQueue<>();
+	/** Number of failed attempts, per order which was not yet forwarded. Only accessed by the publishing thread. */
+	private final Map<Long, Integer> failedAttemptsByJpaOrderId = new HashMap<>();
+	private final ExecutorService executor;
+	private final ScheduledExecutorService retryScheduler;
+
+	public OrderSyncRequestPublisher(
+			@NonNull final JpaOrderRepository jpaOrdersRepo,
+			@NonNull final MSV3ServerPeerService msv3ServerPeerService,
+			@NonNull final OrderIntakeLatencies latencies)
+	{
+		this.jpaOrdersRepo = jpaOrdersRepo;
+		this.msv3ServerPeerService = msv3ServerPeerService;
+		this.latencies = latencies;
+
+		final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(OrderSyncRequestPublisher.class.getSimpleName() + "-");
+		threadFactory.setDaemon(true);
+		executor = Executors.newSingleThreadExecutor(threadFactory);
+		retryScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	@PostConstruct
+	public void start()
+	{
+		final List<Long> jpaOrderIdsNotSent = jpaOrdersRepo.findIdsBySyncSentFalseAndMfSyncErrorFalse();
+		if (!jpaOrderIdsNotSent.isEmpty())
+		{
+			logger.info("Replaying {} orders which were not yet forwarded", jpaOrderIdsNotSent.size());
+			jpaOrderIdsToPublish.addAll(jpaOrderIdsNotSent);
+		}
+
+		executor.submit(this::publishLoop);
+	}
+
+	@PreDestroy
+	public void stop()
+	{
+		retryScheduler.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Enqueues the given order to be forwarded, as soon as the current transaction is committed.
+	 */
+	public void enqueueAfterCommit(@NonNull final Long jpaOrderId)
+	{
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCommit()
+				{
+					jpaOrderIdsToPublish.add(jpaOrderId);
+				}
+			});
+		}
+		else
+		{
+			jpaOrderIdsToPublish.add(jpaOrderId);
+		}
+	}
+
+	private void publishLoop()
+	{
+		while (!Thread.currentThread().isInterrupted())
+		{
+			final List<Long> jpaOrderIds = new ArrayList<>(BATCH_SIZE);
+			try
+			{
+				jpaOrderIds.add(jpaOrderIdsToPublish.take());
+			}
+			catch (final InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+			jpaOrderIdsToPublish.drainTo(jpaOrderIds, BATCH_SIZE - 1);
+
+			try
+			{
+				// only the failed orders are retried, each one after its own backoff, so they don't delay the others
+				publish(jpaOrderIds).forEach(this::enqueueAfterBackoff);
+			}
+			catch (final Exception ex)
+			{
+				// e.g. our DB is not reachable; the failed attempts are not counted, since it's not the orders' fault
+				logger.error("Failed forwarding orders with IDs={}; retrying in {}ms", jpaOrderIds, RETRY_BACKOFF_MAX_MILLIS, ex);
+				jpaOrderIds.forEach(jpaOrderId -> enqueueAfterBackoff(jpaOrderId, RETRY_BACKOFF_MAX_MILLIS));
+			}
+		}
+	}
+
+	private void enqueueAfterBackoff(@NonNull final Long jpaOrderId, final long backoffMillis)
+	{
+		retryScheduler.schedule(() -> jpaOrderIdsToPublish.add(jpaOrderId), backoffMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@VisibleForTesting
+	static long computeRetryBackoffMillis(final int failedAttempts)
+	{
+		final int exponent = Math.min(failedAttempts - 1, 16);
+		return Math.min(RETRY_BACKOFF_INITIAL_MILLIS << exponent, RETRY_BACKOFF_MAX_MILLIS);
+	}
+
+	/**
+	 * Forwards the given orders, each one on its own, so that one failing order doesn't prevent the others from being forwarded.
+	 *
+	 * @return the IDs of the orders which failed and shall be retried, together with the backoff (in millis) after which to retry them.
+	 *         Orders which failed {@value #MAX_ATTEMPTS} times are flagged as {@link JpaOrder#isMfSyncError() mfSyncError} and not returned.
+	 */
+	@VisibleForTesting
+	ImmutableMap<Long, Long> publish(@NonNull final Collection<Long> jpaOrderIds)
+	{
+		final List<Long> publishedIds = new ArrayList<>(jpaOrderIds.size());
+		final ImmutableMap.Builder<Long, Long> retryBackoffMillisByJpaOrderId = ImmutableMap.builder();
+		try
+		{
+			for (final JpaOrder jpaOrder : jpaOrdersRepo.findAll(jpaOrderIds))
+			{
+				if (jpaOrder.isSyncSent() || jpaOrder.isMfSyncError())
+				{
+					failedAttemptsByJpaOrderId.remove(jpaOrder.getId());
+					continue;
+				}
+
+				try
+				{
+					msv3ServerPeerService.publishSyncOrderRequest(createSyncOrderRequest(jpaOrder));
+				}
+				catch (final Exception ex)
+				{
+					final int failedAttempts = failedAttemptsByJpaOrderId.merge(jpaOrder.getId(), 1, Integer::sum);
+					if (failedAttempts >= MAX_ATTEMPTS)
+					{
+						logger.error("Failed forwarding order with ID={} for {} times; giving up", jpaOrder.getId(), failedAttempts, ex);
+						failedAttemptsByJpaOrderId.remove(jpaOrder.getId());
+						jpaOrdersRepo.markSyncError(jpaOrder.getId(), createSyncErrorMsg(failedAttempts, ex), Instant.now());
+					}
+					else
+					{
+						final long backoffMillis = computeRetryBackoffMillis(failedAttempts);
+						logger.warn("Failed forwarding order with ID={} (attempt {} of {}); retrying in {}ms", jpaOrder.getId(), failedAttempts, MAX_ATTEMPTS, backoffMillis, ex);
+						retryBackoffMillisByJpaOrderId.put(jpaOrder.getId(), backoffMillis);
+					}
+					continue;
+				}
+
+				failedAttemptsByJpaOrderId.remove(jpaOrder.getId());
+				publishedIds.add(jpaOrder.getId());
+
+				latencies.getForward().record(System.currentTimeMillis() - jpaOrder.getDateCreated().getTime());
+			}
+		}
+		finally
+		{
+			// also if we failed loading the orders, so that the ones which were forwarded are not forwarded again
+			if (!publishedIds.isEmpty())
+			{
+				jpaOrdersRepo.markSyncSent(publishedIds, Instant.now());
+			}
+		}
+		logger.debug("Forwarded {} orders", publishedIds.size());
+		return retryBackoffMillisByJpaOrderId.build();
+	}
+
+	private static String createSyncErrorMsg(final int failedAttempts, @NonNull final Exception ex)
+	{
+		final String errorMsg = "Failed forwarding the order for " + failedAttempts + " times: " + ex;
+		return errorMsg.length() > SYNC_ERROR_MSG_MAX_LENGTH ? errorMsg.substring(0, SYNC_ERROR_MSG_MAX_LENGTH) : errorMsg;
+	}
+
+	private static MSV3OrderSyncRequest createSyncOrderRequest(@NonNull final JpaOrder jpaOrder)
+	{
+		return MSV3OrderSyncRequest.builder()
+				.orderId(Id.of(jpaOrder.getDocumentNo()))
+				.bpartner(BPartnerId.of(jpaOrder.getMfBpartnerId(), jpaOrder.getMfBpartnerLocationId()))
+				.orderPackages(jpaOrder.getOrderPackages().stream()
+						.map(OrderSyncRequestPublisher::createSyncOrderRequestPackage)
+						.collect(ImmutableList.toImmutableList()))
+				.build();
+	}
+
+	private static MSV3OrderSyncRequestPackage createSyncOrderRequestPackage(@NonNull final JpaOrderPackage jpaOrderPackage)
+	{
+		return MSV3OrderSyncRequestPackage.builder()
+				.items(jpaOrderPackage.getItems().stream()
+						.map(OrderSyncRequestPublisher::createSyncOrderRequestPackageItem)
+						.collect(ImmutableList.toImmutableList()))
+				.build();
+	}
+
+	private static MSV3OrderSyncRequestPackageItem createSyncOrderRequestPackageItem(@NonNull final JpaOrderPackageItem jpaOrderPackageItem)
+	{
+		return MSV3OrderSyncRequestPackageItem.builder()
+				.id(OrderCreateRequestPackageItemId.of(jpaOrderPackageItem.getUuid()))
+				.pzn(PZN.of(jpaOrderPackageItem.getPzn()))
+				.qty(Quantity.of(jpaOrderPackageItem.getQty()))
+				.build();
+	}
+}
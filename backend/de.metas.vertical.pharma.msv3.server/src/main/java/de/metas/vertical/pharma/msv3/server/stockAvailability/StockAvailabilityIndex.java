@@ -0,0 +1,186 @@
+package de.metas.vertical.pharma.msv3.server.stockAvailability;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaProductExclude;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaProductExcludeRepository;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailability;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailabilityRepository;
+import lombok.NonNull;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * In-memory index of the stock availabilities and product excludes, so that availability requests can be answered without touching the DB.
+ * <p>
+ * The index is loaded on startup and is kept in sync by {@link StockAvailabilityService} after each committed update,
+ * by re-reading the affected PZNs from DB (or everything, if all other items were deleted).
+ * Readers are never blocked; writers are serialized.
+ */
+@Component
+public class StockAvailabilityIndex
+{
+	private static final Logger logger = LoggerFactory.getLogger(StockAvailabilityIndex.class);
+
+	/** Max number of PZNs per {@code IN} query */
+	private static final int QUERY_CHUNK_SIZE = 1000;
+
+	private final JpaStockAvailabilityRepository stockAvailabilityRepo;
+	private final JpaProductExcludeRepository productExcludeRepo;
+
+	/** PZN to qty */
+	private volatile Map<Long, Integer> qtysByPzn = new ConcurrentHashMap<>();
+	/** PZN to the IDs of the bpartners for which the product is excluded */
+	private volatile Map<Long, Set<Integer>> excludedBPartnerIdsByPzn = new ConcurrentHashMap<>();
+
+	public StockAvailabilityIndex(
+			@NonNull final JpaStockAvailabilityRepository stockAvailabilityRepo,
+			@NonNull final JpaProductExcludeRepository productExcludeRepo)
+	{
+		this.stockAvailabilityRepo = stockAvailabilityRepo;
+		this.productExcludeRepo = productExcludeRepo;
+	}
+
+	@PostConstruct
+	public void loadAll()
+	{
+		reloadStockAvailabilities();
+		reloadProductExcludes();
+	}
+
+	/** @return the available qty or {@code null} if there is no stock availability record for the given PZN */
+	public Integer getQty(final long pzn)
+	{
+		return qtysByPzn.get(pzn);
+	}
+
+	public boolean isExcluded(final long pzn, final int bpartnerId)
+	{
+		final Set<Integer> excludedBPartnerIds = excludedBPartnerIdsByPzn.get(pzn);
+		return excludedBPartnerIds != null && excludedBPartnerIds.contains(bpartnerId);
+	}
+
+	public synchronized void reloadStockAvailabilities()
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final ConcurrentHashMap<Long, Integer> qtysByPzn = new ConcurrentHashMap<>();
+		for (final JpaStockAvailability record : stockAvailabilityRepo.findAll())
+		{
+			qtysByPzn.put(record.getMfPzn(), record.getMfQty());
+		}
+		this.qtysByPzn = qtysByPzn;
+
+		logger.info("Loaded {} stock availabilities in {}", qtysByPzn.size(), stopwatch);
+	}
+
+	public synchronized void reloadProductExcludes()
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final ConcurrentHashMap<Long, Set<Integer>> excludedBPartnerIdsByPzn = new ConcurrentHashMap<>();
+		final List<JpaProductExclude> records = productExcludeRepo.findAll();
+		for (final JpaProductExclude record : records)
+		{
+			excludedBPartnerIdsByPzn.merge(record.getPzn(), ImmutableSet.of(record.getMfBpartnerId()), StockAvailabilityIndex::union);
+		}
+		this.excludedBPartnerIdsByPzn = excludedBPartnerIdsByPzn;
+
+		logger.info("Loaded {} product excludes in {}", records.size(), stopwatch);
+	}
+
+	/** Re-reads the stock availabilities of the given PZNs from DB. */
+	public synchronized void refreshStockAvailabilities(@NonNull final Collection<Long> pzns)
+	{
+		for (final List<Long> pznsChunk : Lists.partition(ImmutableSet.copyOf(pzns).asList(), QUERY_CHUNK_SIZE))
+		{
+			final Map<Long, Integer> qtysLoaded = new HashMap<>();
+			for (final JpaStockAvailability record : stockAvailabilityRepo.findByMfPznIn(pznsChunk))
+			{
+				qtysLoaded.put(record.getMfPzn(), record.getMfQty());
+			}
+
+			// note: not removing first, so that concurrent readers don't see a PZN as missing while it's refreshed
+			final Map<Long, Integer> qtysByPzn = this.qtysByPzn;
+			for (final Long pzn : pznsChunk)
+			{
+				final Integer qty = qtysLoaded.get(pzn);
+				if (qty != null)
+				{
+					qtysByPzn.put(pzn, qty);
+				}
+				else
+				{
+					qtysByPzn.remove(pzn);
+				}
+			}
+		}
+	}
+
+	/** Re-reads the product excludes of the given PZNs from DB. */
+	public synchronized void refreshProductExcludes(@NonNull final Collection<Long> pzns)
+	{
+		for (final List<Long> pznsChunk : Lists.partition(ImmutableSet.copyOf(pzns).asList(), QUERY_CHUNK_SIZE))
+		{
+			final Map<Long, Set<Integer>> excludesLoaded = new HashMap<>();
+			for (final JpaProductExclude record : productExcludeRepo.findByPznIn(pznsChunk))
+			{
+				excludesLoaded.merge(record.getPzn(), ImmutableSet.of(record.getMfBpartnerId()), StockAvailabilityIndex::union);
+			}
+
+			final Map<Long, Set<Integer>> excludedBPartnerIdsByPzn = this.excludedBPartnerIdsByPzn;
+			for (final Long pzn : pznsChunk)
+			{
+				final Set<Integer> excludedBPartnerIds = excludesLoaded.get(pzn);
+				if (excludedBPartnerIds != null)
+				{
+					excludedBPartnerIdsByPzn.put(pzn, excludedBPartnerIds);
+				}
+				else
+				{
+					excludedBPartnerIdsByPzn.remove(pzn);
+				}
+			}
+		}
+	}
+
+	private static Set<Integer> union(final Set<Integer> set1, final Set<Integer> set2)
+	{
+		return ImmutableSet.<Integer> builder().addAll(set1).addAll(set2).build();
+	}
+}
@@ -1,7 +1,12 @@
 package de.metas.vertical.pharma.msv3.server.stockAvailability;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
 
 import javax.transaction.Transactional;
 
@@ -9,6 +14,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Table;
 
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.AvailabilityType;
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.StockAvailabilityQuery;
@@ -64,6 +76,11 @@ public class StockAvailabilityService
 	private JpaStockAvailabilityRepository stockAvailabilityRepo;
 	@Autowired
 	private JpaProductExcludeRepository productExcludeRepo;
+	@Autowired
+	private StockAvailabilityIndex stockAvailabilityIndex;
+
+	/** Max number of PZNs per {@code IN} query */
+	private static final int QUERY_CHUNK_SIZE = 1000;
 
 	public StockAvailabilityResponse checkAvailability(final StockAvailabilityQuery query)
 	{
@@ -121,21 +138,23 @@ public class StockAvailabilityService
 				.build();
 	}
 
+	/**
+	 * Note: this method is served from {@link StockAvailabilityIndex} and does not access the DB.
+	 */
 	public Optional<Quantity> getQtyAvailable(@NonNull final PZN pzn, @NonNull final BPartnerId bpartner)
 	{
-		if (productExcludeRepo.existsByPznAndMfBpartnerId(pzn.getValueAsLong(), bpartner.getBpartnerId()))
+		if (stockAvailabilityIndex.isExcluded(pzn.getValueAsLong(), bpartner.getBpartnerId()))
 		{
 			return Optional.empty();
 		}
 
-		final JpaStockAvailability jpaStockAvailability = stockAvailabilityRepo.findByMfPzn(pzn.getValueAsLong());
-		if (jpaStockAvailability == null)
+		final Integer qty = stockAvailabilityIndex.getQty(pzn.getValueAsLong());
+		if (qty == null)
 		{
 			return Optional.empty();
 		}
 
-		final Quantity qty = Quantity.of(jpaStockAvailability.getMfQty());
-		return Optional.of(qty);
+		return Optional.of(Quantity.of(qty));
 	}
 
 	@Transactional
@@ -147,14 +166,8 @@ public class StockAvailabilityService
 		//
 		// Update
 		{
-			final AtomicInteger countUpdated = new AtomicInteger();
-
-			for (final MSV3StockAvailability eventItem : event.getItems())
-			{
-				updateStockAvailability(eventItem, mfSyncToken, mfEventVersion);
-				countUpdated.incrementAndGet();
-			}
-			logger.debug("Updated {} stock availability records", countUpdated);
+			updateStockAvailabilities(event.getItems(), mfSyncToken, mfEventVersion);
+			logger.debug("Updated {} stock availability records", event.getItems().size());
 		}
 
 		//
@@ -168,40 +181,80 @@ public class StockAvailabilityService
 			logger.debug("Deleted {} stock availability records", countDeleted);
 		}
 
+		//
+		// Sync our in-memory index, once the changes are committed
+		final ImmutableSet<Long> pzns = event.getItems().stream().map(MSV3StockAvailability::getPzn).collect(ImmutableSet.toImmutableSet());
+		final boolean reloadAll = event.isDeleteAllOtherItems();
+		runAfterCommit(() -> {
+			if (reloadAll)
+			{
+				stockAvailabilityIndex.reloadStockAvailabilities();
+			}
+			else
+			{
+				stockAvailabilityIndex.refreshStockAvailabilities(pzns);
+			}
+		});
 	}
 
-	private void updateStockAvailability(
-			@NonNull final MSV3StockAvailability request,
+	private void updateStockAvailabilities(
+			@NonNull final List<MSV3StockAvailability> requests,
 			final String mfSyncToken,
 			@NonNull final MSV3EventVersion mfEventVersion)
 	{
-		if (request.isDelete())
+		//
+		// Load the existing records in bulk
+		final Map<Long, JpaStockAvailability> existingRecordsByPzn = new HashMap<>();
+		final ImmutableSet<Long> pznsToUpdate = requests.stream()
+				.filter(request -> !request.isDelete())
+				.map(MSV3StockAvailability::getPzn)
+				.collect(ImmutableSet.toImmutableSet());
+		for (final List<Long> pznsChunk : Lists.partition(pznsToUpdate.asList(), QUERY_CHUNK_SIZE))
 		{
-			stockAvailabilityRepo
-					.deleteInBatchByMfPznAndMfEventVersionLessThan(
-							request.getPzn(),
-							mfEventVersion.getAsInt());
+			stockAvailabilityRepo.findByMfPznIn(pznsChunk).forEach(record -> existingRecordsByPzn.put(record.getMfPzn(), record));
 		}
-		else
+
+		final Set<Long> deletedPzns = new HashSet<>();
+		final Map<Long, JpaStockAvailability> recordsToSave = new LinkedHashMap<>();
+		for (final MSV3StockAvailability request : requests)
 		{
-			JpaStockAvailability jpaStockAvailability = stockAvailabilityRepo.findByMfPzn(request.getPzn());
+			final long pzn = request.getPzn();
+			if (request.isDelete())
+			{
+				stockAvailabilityRepo.deleteInBatchByMfPznAndMfEventVersionLessThan(pzn, mfEventVersion.getAsInt());
+				existingRecordsByPzn.remove(pzn);
+				recordsToSave.remove(pzn);
+				deletedPzns.add(pzn);
+				continue;
+			}
+
+			JpaStockAvailability jpaStockAvailability = existingRecordsByPzn.get(pzn);
+			if (jpaStockAvailability == null && deletedPzns.contains(pzn))
+			{
+				// the record was (maybe) deleted within this event; fall back to the DB
+				jpaStockAvailability = stockAvailabilityRepo.findByMfPzn(pzn);
+			}
+
 			if (jpaStockAvailability == null)
 			{
 				jpaStockAvailability = new JpaStockAvailability();
-				jpaStockAvailability.setMfPzn(request.getPzn());
+				jpaStockAvailability.setMfPzn(pzn);
+				existingRecordsByPzn.put(pzn, jpaStockAvailability);
 			}
 			else if (jpaStockAvailability.getMfEventVersion() > mfEventVersion.getAsInt())
 			{
 				logger.debug("Discard request with mfEventVersion={} because our local record has mfEventVersion={}; request={}",
 						mfEventVersion, jpaStockAvailability.getMfEventVersion(), request);
-				return;
+				continue;
 			}
 
 			jpaStockAvailability.setMfEventVersion(mfEventVersion.getAsInt());
 			jpaStockAvailability.setMfQty(request.getQty());
 			jpaStockAvailability.setMfSyncToken(mfSyncToken);
-			stockAvailabilityRepo.save(jpaStockAvailability);
+			recordsToSave.put(pzn, jpaStockAvailability);
 		}
+
+		stockAvailabilityRepo.save(recordsToSave.values());
 	}
 
 	@Transactional
@@ -212,12 +265,8 @@ public class StockAvailabilityService
 		//
 		// Update
 		{
-			final AtomicInteger countUpdated = new AtomicInteger();
-			event.getItems().forEach(eventItem -> {
-				updateProductExclude(eventItem, syncToken);
-				countUpdated.incrementAndGet();
-			});
-			logger.debug("Updated {} product exclude records", countUpdated);
+			updateProductExcludes(event.getItems(), syncToken);
+			logger.debug("Updated {} product exclude records", event.getItems().size());
 		}
 
 		//
@@ -227,26 +276,82 @@ public class StockAvailabilityService
 			final long countDeleted = productExcludeRepo.deleteInBatchBySyncTokenNot(syncToken);
 			logger.debug("Deleted {} product exclude records", countDeleted);
 		}
+
+		//
+		// Sync our in-memory index, once the changes are committed
+		final ImmutableSet<Long> pzns = event.getItems().stream().map(item -> item.getPzn().getValueAsLong()).collect(ImmutableSet.toImmutableSet());
+		final boolean reloadAll = event.isDeleteAllOtherItems();
+		runAfterCommit(() -> {
+			if (reloadAll)
+			{
+				stockAvailabilityIndex.reloadProductExcludes();
+			}
+			else
+			{
+				stockAvailabilityIndex.refreshProductExcludes(pzns);
+			}
+		});
 	}
 
-	private void updateProductExclude(@NonNull final MSV3ProductExclude request, final String syncToken)
+	private void updateProductExcludes(@NonNull final List<MSV3ProductExclude> requests, final String syncToken)
 	{
-		if (request.isDelete())
+		//
+		// Load the existing records in bulk
+		final Table<Long, Integer, JpaProductExclude> existingRecords = HashBasedTable.create();
+		final ImmutableSet<Long> pznsToUpdate = requests.stream()
+				.filter(request -> !request.isDelete())
+				.map(request -> request.getPzn().getValueAsLong())
+				.collect(ImmutableSet.toImmutableSet());
+		for (final List<Long> pznsChunk : Lists.partition(pznsToUpdate.asList(), QUERY_CHUNK_SIZE))
 		{
-			productExcludeRepo.deleteInBatchByPznAndMfBpartnerId(request.getPzn().getValueAsLong(), request.getBpartnerId());
+			productExcludeRepo.findByPznIn(pznsChunk).forEach(record -> existingRecords.put(record.getPzn(), record.getMfBpartnerId(), record));
 		}
-		else
+
+		final Table<Long, Integer, JpaProductExclude> recordsToSave = HashBasedTable.create();
+		for (final MSV3ProductExclude request : requests)
 		{
-			JpaProductExclude jpaProductExclude = productExcludeRepo.findByPznAndMfBpartnerId(request.getPzn().getValueAsLong(), request.getBpartnerId());
+			final long pzn = request.getPzn().getValueAsLong();
+			final int bpartnerId = request.getBpartnerId();
+			if (request.isDelete())
+			{
+				productExcludeRepo.deleteInBatchByPznAndMfBpartnerId(pzn, bpartnerId);
+				existingRecords.remove(pzn, bpartnerId);
+				recordsToSave.remove(pzn, bpartnerId);
+				continue;
+			}
+
+			JpaProductExclude jpaProductExclude = existingRecords.get(pzn, bpartnerId);
 			if (jpaProductExclude == null)
 			{
 				jpaProductExclude = new JpaProductExclude();
-				jpaProductExclude.setPzn(request.getPzn().getValueAsLong());
-				jpaProductExclude.setMfBpartnerId(request.getBpartnerId());
+				jpaProductExclude.setPzn(pzn);
+				jpaProductExclude.setMfBpartnerId(bpartnerId);
+				existingRecords.put(pzn, bpartnerId, jpaProductExclude);
 			}
 
 			jpaProductExclude.setSyncToken(syncToken);
-			productExcludeRepo.save(jpaProductExclude);
+			recordsToSave.put(pzn, bpartnerId, jpaProductExclude);
+		}
+
+		productExcludeRepo.save(recordsToSave.values());
+	}
+
+	private static void runAfterCommit(@NonNull final Runnable runnable)
+	{
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCommit()
+				{
+					runnable.run();
+				}
+			});
+		}
+		else
+		{
+			runnable.run();
 		}
 	}
 }
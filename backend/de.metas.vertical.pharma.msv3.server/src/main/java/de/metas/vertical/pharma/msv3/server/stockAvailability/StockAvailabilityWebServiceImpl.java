@@ -1,11 +1,15 @@
 package de.metas.vertical.pharma.msv3.server.stockAvailability;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.xml.bind.JAXBElement;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 
+import com.google.common.base.Stopwatch;
+
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.StockAvailabilityQuery;
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.StockAvailabilityResponse;
 import de.metas.vertical.pharma.msv3.protocol.stockAvailability.StockAvailabilityServerJAXBConverters;
@@ -13,6 +17,7 @@ import de.metas.vertical.pharma.msv3.protocol.types.BPartnerId;
 import de.metas.vertical.pharma.msv3.protocol.types.ClientSoftwareId;
 import de.metas.vertical.pharma.msv3.server.security.MSV3ServerAuthenticationService;
 import de.metas.vertical.pharma.msv3.server.util.JAXBUtils;
+import de.metas.vertical.pharma.msv3.server.util.LatencyRecorder;
 import lombok.Builder;
 import lombok.NonNull;
 
@@ -45,19 +50,35 @@ class StockAvailabilityWebServiceImpl
 	private final MSV3ServerAuthenticationService authService;
 	private final StockAvailabilityService stockAvailabilityService;
 	private final StockAvailabilityServerJAXBConverters jaxbConverters;
+	private final LatencyRecorder latencyRecorder;
 
 	@Builder
 	private StockAvailabilityWebServiceImpl(
 			@NonNull final MSV3ServerAuthenticationService authService,
 			@NonNull final StockAvailabilityService stockAvailabilityService,
-			@NonNull final StockAvailabilityServerJAXBConverters jaxbConverters)
+			@NonNull final StockAvailabilityServerJAXBConverters jaxbConverters,
+			@NonNull final LatencyRecorder latencyRecorder)
 	{
 		this.authService = authService;
 		this.stockAvailabilityService = stockAvailabilityService;
 		this.jaxbConverters = jaxbConverters;
+		this.latencyRecorder = latencyRecorder;
 	}
 
 	public JAXBElement<?> getStockAvailability(@RequestPayload final JAXBElement<?> jaxbRequest)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		try
+		{
+			return getStockAvailability0(jaxbRequest);
+		}
+		finally
+		{
+			latencyRecorder.record(stopwatch.stop().elapsed(TimeUnit.MILLISECONDS));
+		}
+	}
+
+	private JAXBElement<?> getStockAvailability0(final JAXBElement<?> jaxbRequest)
 	{
 		logXML("getStockAvailability - request", jaxbRequest);
 
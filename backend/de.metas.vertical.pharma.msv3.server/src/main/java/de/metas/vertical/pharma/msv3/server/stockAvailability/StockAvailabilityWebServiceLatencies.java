@@ -0,0 +1,52 @@
+package de.metas.vertical.pharma.msv3.server.stockAvailability;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.vertical.pharma.msv3.server.util.LatencyRecorder;
+import de.metas.vertical.pharma.msv3.server.util.LatencyRecorder.LatencySnapshot;
+import lombok.Getter;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Latencies of the stock availability requests, per web service version.
+ */
+@Component
+public class StockAvailabilityWebServiceLatencies
+{
+	@Getter
+	private final LatencyRecorder v1 = new LatencyRecorder();
+	@Getter
+	private final LatencyRecorder v2 = new LatencyRecorder();
+
+	public Map<String, LatencySnapshot> getSnapshots()
+	{
+		return ImmutableMap.of(
+				StockAvailabilityWebServiceV1.class.getSimpleName(), v1.getSnapshot(),
+				StockAvailabilityWebServiceV2.class.getSimpleName(), v2.getSnapshot());
+	}
+}
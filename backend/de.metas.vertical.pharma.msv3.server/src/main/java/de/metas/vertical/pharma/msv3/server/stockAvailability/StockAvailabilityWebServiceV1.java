@@ -45,12 +45,14 @@ public class StockAvailabilityWebServiceV1
 
 	public StockAvailabilityWebServiceV1(
 			@NonNull final MSV3ServerAuthenticationService authService,
-			@NonNull final StockAvailabilityService stockAvailabilityService)
+			@NonNull final StockAvailabilityService stockAvailabilityService,
+			@NonNull final StockAvailabilityWebServiceLatencies latencies)
 	{
 		this.impl = StockAvailabilityWebServiceImpl.builder()
 				.authService(authService)
 				.stockAvailabilityService(stockAvailabilityService)
 				.jaxbConverters(StockAvailabilityJAXBConvertersV1.instance)
+				.latencyRecorder(latencies.getV1())
 				.build();
 	}
 
@@ -45,12 +45,14 @@ public class StockAvailabilityWebServiceV2
 
 	public StockAvailabilityWebServiceV2(
 			@NonNull final MSV3ServerAuthenticationService authService,
-			@NonNull final StockAvailabilityService stockAvailabilityService)
+			@NonNull final StockAvailabilityService stockAvailabilityService,
+			@NonNull final StockAvailabilityWebServiceLatencies latencies)
 	{
 		this.impl = StockAvailabilityWebServiceImpl.builder()
 				.authService(authService)
 				.stockAvailabilityService(stockAvailabilityService)
 				.jaxbConverters(StockAvailabilityJAXBConvertersV2.instance)
+				.latencyRecorder(latencies.getV2())
 				.build();
 	}
 
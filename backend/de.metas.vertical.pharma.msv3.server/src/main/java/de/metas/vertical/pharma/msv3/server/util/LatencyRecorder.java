@@ -0,0 +1,89 @@
+package de.metas.vertical.pharma.msv3.server.util;
+
+import java.util.Arrays;
+
+import lombok.Builder;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Keeps the latencies of the last {@link #WINDOW_SIZE} invocations and computes percentiles from them.
+ */
+public final class LatencyRecorder
+{
+	private static final int WINDOW_SIZE = 4096;
+
+	private final long[] latenciesMillis = new long[WINDOW_SIZE];
+	private int nextIndex = 0;
+	private long count = 0;
+
+	public synchronized void record(final long latencyMillis)
+	{
+		latenciesMillis[nextIndex] = latencyMillis;
+		nextIndex = (nextIndex + 1) % WINDOW_SIZE;
+		count++;
+	}
+
+	public LatencySnapshot getSnapshot()
+	{
+		final long[] sorted;
+		final long countTotal;
+		synchronized (this)
+		{
+			countTotal = count;
+			sorted = Arrays.copyOf(latenciesMillis, (int)Math.min(count, WINDOW_SIZE));
+		}
+		Arrays.sort(sorted);
+
+		return LatencySnapshot.builder()
+				.count(countTotal)
+				.p50Millis(percentile(sorted, 50))
+				.p90Millis(percentile(sorted, 90))
+				.p99Millis(percentile(sorted, 99))
+				.maxMillis(sorted.length > 0 ? sorted[sorted.length - 1] : 0)
+				.build();
+	}
+
+	private static long percentile(final long[] sorted, final int percentile)
+	{
+		if (sorted.length == 0)
+		{
+			return 0;
+		}
+		final int index = (int)Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(index, 0)];
+	}
+
+	@Value
+	@Builder
+	public static class LatencySnapshot
+	{
+		/** total number of recorded invocations; the percentiles are computed from the most recent ones only */
+		long count;
+		long p50Millis;
+		long p90Millis;
+		long p99Millis;
+		long maxMillis;
+	}
+}
@@ -0,0 +1,167 @@
+package de.metas.vertical.pharma.msv3.server.order.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Streams;
+
+import de.metas.vertical.pharma.msv3.server.order.OrderIntakeLatencies;
+import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrder;
+import de.metas.vertical.pharma.msv3.server.order.jpa.JpaOrderRepository;
+import de.metas.vertical.pharma.msv3.server.peer.protocol.MSV3OrderSyncRequest;
+import de.metas.vertical.pharma.msv3.server.peer.service.MSV3ServerPeerService;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class OrderSyncRequestPublisherTest
+{
+	private JpaOrderRepository jpaOrdersRepo;
+	private FailingMSV3ServerPeerService msv3ServerPeerService;
+	private OrderSyncRequestPublisher publisher;
+
+	private Map<Long, JpaOrder> jpaOrdersById;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void init()
+	{
+		jpaOrdersById = ImmutableMap.of(
+				1L, createJpaOrder(1L),
+				2L, createJpaOrder(2L),
+				3L, createJpaOrder(3L));
+
+		jpaOrdersRepo = Mockito.mock(JpaOrderRepository.class);
+		Mockito.when(jpaOrdersRepo.findAll(Mockito.<Iterable<Long>> any()))
+				.thenAnswer(invocation -> Streams.stream((Iterable<Long>)invocation.getArguments()[0])
+						.map(jpaOrdersById::get)
+						.collect(ImmutableList.toImmutableList()));
+
+		msv3ServerPeerService = new FailingMSV3ServerPeerService();
+		publisher = new OrderSyncRequestPublisher(jpaOrdersRepo, msv3ServerPeerService, new OrderIntakeLatencies());
+	}
+
+	private static JpaOrder createJpaOrder(final long id)
+	{
+		final JpaOrder jpaOrder = new JpaOrder();
+		jpaOrder.setId(id);
+		jpaOrder.setDocumentNo("order" + id);
+		jpaOrder.setMfBpartnerId(1);
+		jpaOrder.setMfBpartnerLocationId(2);
+		jpaOrder.updateCreatedUpdated();
+		return jpaOrder;
+	}
+
+	private static class FailingMSV3ServerPeerService extends MSV3ServerPeerService
+	{
+		private final Set<String> failingDocumentNos = new HashSet<>();
+
+		public FailingMSV3ServerPeerService()
+		{
+			super(Optional.empty(), Optional.empty());
+		}
+
+		@Override
+		public void publishSyncOrderRequest(final MSV3OrderSyncRequest request)
+		{
+			if (failingDocumentNos.contains(request.getOrderId().getValueAsString()))
+			{
+				throw new IllegalStateException("Failing " + request.getOrderId());
+			}
+		}
+	}
+
+	@Test
+	public void publish_onlyFailedOrderIsRetried()
+	{
+		msv3ServerPeerService.failingDocumentNos.add("order2");
+
+		final ImmutableMap<Long, Long> retryBackoffMillisByJpaOrderId = publisher.publish(ImmutableList.of(1L, 2L, 3L));
+
+		assertThat(retryBackoffMillisByJpaOrderId).containsOnlyKeys(2L);
+		Mockito.verify(jpaOrdersRepo).markSyncSent(Mockito.eq(ImmutableList.of(1L, 3L)), Mockito.any(Instant.class));
+		Mockito.verify(jpaOrdersRepo, Mockito.never()).markSyncError(Mockito.anyLong(), Mockito.anyString(), Mockito.any(Instant.class));
+	}
+
+	@Test
+	public void publish_retryBackoffGrowsAndIsResetAfterSuccess()
+	{
+		msv3ServerPeerService.failingDocumentNos.add("order1");
+		assertThat(publisher.publish(ImmutableList.of(1L))).containsEntry(1L, 1000L);
+		assertThat(publisher.publish(ImmutableList.of(1L))).containsEntry(1L, 2000L);
+		assertThat(publisher.publish(ImmutableList.of(1L))).containsEntry(1L, 4000L);
+
+		msv3ServerPeerService.failingDocumentNos.clear();
+		assertThat(publisher.publish(ImmutableList.of(1L))).isEmpty();
+
+		msv3ServerPeerService.failingDocumentNos.add("order1");
+		assertThat(publisher.publish(ImmutableList.of(1L))).containsEntry(1L, 1000L);
+	}
+
+	@Test
+	public void publish_poisonOrderIsFlaggedAsErrorAfterMaxAttempts()
+	{
+		msv3ServerPeerService.failingDocumentNos.add("order2");
+
+		for (int attempt = 1; attempt < OrderSyncRequestPublisher.MAX_ATTEMPTS; attempt++)
+		{
+			assertThat(publisher.publish(ImmutableList.of(2L, 3L))).containsOnlyKeys(2L);
+		}
+		Mockito.verify(jpaOrdersRepo, Mockito.never()).markSyncError(Mockito.anyLong(), Mockito.anyString(), Mockito.any(Instant.class));
+
+		assertThat(publisher.publish(ImmutableList.of(2L, 3L))).isEmpty();
+		Mockito.verify(jpaOrdersRepo).markSyncError(Mockito.eq(2L), Mockito.anyString(), Mockito.any(Instant.class));
+
+		// the other order of the batch was forwarded each time
+		Mockito.verify(jpaOrdersRepo, Mockito.times(OrderSyncRequestPublisher.MAX_ATTEMPTS)).markSyncSent(Mockito.eq(ImmutableList.of(3L)), Mockito.any(Instant.class));
+	}
+
+	@Test
+	public void publish_skipsOrdersFlaggedAsError()
+	{
+		jpaOrdersById.get(1L).markSyncError("error");
+
+		assertThat(publisher.publish(ImmutableList.of(1L))).isEmpty();
+		Mockito.verify(jpaOrdersRepo, Mockito.never()).markSyncSent(Mockito.<Collection<Long>> any(), Mockito.any(Instant.class));
+	}
+
+	@Test
+	public void computeRetryBackoffMillis()
+	{
+		assertThat(OrderSyncRequestPublisher.computeRetryBackoffMillis(1)).isEqualTo(OrderSyncRequestPublisher.RETRY_BACKOFF_INITIAL_MILLIS);
+		assertThat(OrderSyncRequestPublisher.computeRetryBackoffMillis(2)).isEqualTo(2000);
+		assertThat(OrderSyncRequestPublisher.computeRetryBackoffMillis(7)).isEqualTo(60000);
+		assertThat(OrderSyncRequestPublisher.computeRetryBackoffMillis(100)).isEqualTo(60000);
+	}
+}
@@ -0,0 +1,189 @@
+package de.metas.vertical.pharma.msv3.server.stockAvailability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaProductExclude;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaProductExcludeRepository;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailability;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailabilityRepository;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2018 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class StockAvailabilityIndexTest
+{
+	private static final long PZN_1 = 123456789;
+	private static final long PZN_2 = 223456789;
+	private static final long PZN_3 = 323456789;
+
+	/** Our "DB" */
+	private List<JpaStockAvailability> stockAvailabilityRecords;
+	private List<JpaProductExclude> productExcludeRecords;
+
+	private JpaStockAvailabilityRepository stockAvailabilityRepo;
+	private StockAvailabilityIndex index;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void init()
+	{
+		stockAvailabilityRecords = new ArrayList<>();
+		productExcludeRecords = new ArrayList<>();
+
+		stockAvailabilityRepo = Mockito.mock(JpaStockAvailabilityRepository.class);
+		Mockito.when(stockAvailabilityRepo.findAll()).thenAnswer(invocation -> ImmutableList.copyOf(stockAvailabilityRecords));
+		Mockito.when(stockAvailabilityRepo.findByMfPznIn(Mockito.<Collection<Long>> any()))
+				.thenAnswer(invocation -> {
+					final Collection<Long> pzns = (Collection<Long>)invocation.getArguments()[0];
+					return stockAvailabilityRecords.stream().filter(record -> pzns.contains(record.getMfPzn())).collect(ImmutableList.toImmutableList());
+				});
+
+		final JpaProductExcludeRepository productExcludeRepo = Mockito.mock(JpaProductExcludeRepository.class);
+		Mockito.when(productExcludeRepo.findAll()).thenAnswer(invocation -> ImmutableList.copyOf(productExcludeRecords));
+		Mockito.when(productExcludeRepo.findByPznIn(Mockito.<Collection<Long>> any()))
+				.thenAnswer(invocation -> {
+					final Collection<Long> pzns = (Collection<Long>)invocation.getArguments()[0];
+					return productExcludeRecords.stream().filter(record -> pzns.contains(record.getPzn())).collect(ImmutableList.toImmutableList());
+				});
+
+		index = new StockAvailabilityIndex(stockAvailabilityRepo, productExcludeRepo);
+	}
+
+	private JpaStockAvailability createStockAvailability(final long pzn, final int qty)
+	{
+		final JpaStockAvailability record = new JpaStockAvailability();
+		record.setMfPzn(pzn);
+		record.setMfQty(qty);
+		stockAvailabilityRecords.add(record);
+		return record;
+	}
+
+	private JpaProductExclude createProductExclude(final long pzn, final int bpartnerId)
+	{
+		final JpaProductExclude record = new JpaProductExclude();
+		record.setPzn(pzn);
+		record.setMfBpartnerId(bpartnerId);
+		productExcludeRecords.add(record);
+		return record;
+	}
+
+	@Test
+	public void loadAll()
+	{
+		createStockAvailability(PZN_1, 11);
+		createStockAvailability(PZN_2, 22);
+		createProductExclude(PZN_1, 1000);
+		createProductExclude(PZN_1, 1001);
+
+		index.loadAll();
+
+		assertThat(index.getQty(PZN_1)).isEqualTo(11);
+		assertThat(index.getQty(PZN_2)).isEqualTo(22);
+		assertThat(index.getQty(PZN_3)).isNull();
+
+		assertThat(index.isExcluded(PZN_1, 1000)).isTrue();
+		assertThat(index.isExcluded(PZN_1, 1001)).isTrue();
+		assertThat(index.isExcluded(PZN_1, 1002)).isFalse();
+		assertThat(index.isExcluded(PZN_2, 1000)).isFalse();
+	}
+
+	@Test
+	public void refreshStockAvailabilities_qtyChangedAddedAndRemoved()
+	{
+		final JpaStockAvailability record1 = createStockAvailability(PZN_1, 11);
+		final JpaStockAvailability record2 = createStockAvailability(PZN_2, 22);
+		index.loadAll();
+
+		record1.setMfQty(12);
+		stockAvailabilityRecords.remove(record2);
+		createStockAvailability(PZN_3, 33);
+		index.refreshStockAvailabilities(ImmutableSet.of(PZN_1, PZN_2, PZN_3));
+
+		assertThat(index.getQty(PZN_1)).isEqualTo(12);
+		assertThat(index.getQty(PZN_2)).isNull();
+		assertThat(index.getQty(PZN_3)).isEqualTo(33);
+	}
+
+	@Test
+	public void refreshStockAvailabilities_otherPznsAreNotTouched()
+	{
+		final JpaStockAvailability record1 = createStockAvailability(PZN_1, 11);
+		createStockAvailability(PZN_2, 22);
+		index.loadAll();
+
+		record1.setMfQty(12);
+		stockAvailabilityRecords.clear();
+		stockAvailabilityRecords.add(record1);
+		index.refreshStockAvailabilities(ImmutableSet.of(PZN_1));
+
+		assertThat(index.getQty(PZN_1)).isEqualTo(12);
+		assertThat(index.getQty(PZN_2)).as("PZN_2 was not refreshed, so the index still has it").isEqualTo(22);
+
+		index.reloadStockAvailabilities();
+		assertThat(index.getQty(PZN_2)).isNull();
+	}
+
+	@Test
+	public void refreshStockAvailabilities_inChunks()
+	{
+		final List<Long> pzns = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+		pzns.forEach(pzn -> createStockAvailability(pzn, (int)(pzn % 100)));
+
+		index.refreshStockAvailabilities(pzns);
+
+		Mockito.verify(stockAvailabilityRepo, Mockito.times(3)).findByMfPznIn(Mockito.<Collection<Long>> any());
+		assertThat(index.getQty(1)).isEqualTo(1);
+		assertThat(index.getQty(2500)).isEqualTo(0);
+	}
+
+	@Test
+	public void refreshProductExcludes_addedAndRemoved()
+	{
+		final JpaProductExclude exclude1 = createProductExclude(PZN_1, 1000);
+		createProductExclude(PZN_1, 1001);
+		createProductExclude(PZN_2, 1000);
+		index.loadAll();
+
+		productExcludeRecords.remove(exclude1);
+		productExcludeRecords.removeIf(record -> record.getPzn() == PZN_2);
+		createProductExclude(PZN_3, 1000);
+		index.refreshProductExcludes(ImmutableSet.of(PZN_1, PZN_2, PZN_3));
+
+		assertThat(index.isExcluded(PZN_1, 1000)).isFalse();
+		assertThat(index.isExcluded(PZN_1, 1001)).isTrue();
+		assertThat(index.isExcluded(PZN_2, 1000)).isFalse();
+		assertThat(index.isExcluded(PZN_3, 1000)).isTrue();
+	}
+}
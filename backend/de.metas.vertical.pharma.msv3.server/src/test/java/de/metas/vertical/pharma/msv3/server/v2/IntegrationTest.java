@@ -239,6 +239,66 @@ public class IntegrationTest
 	}
 
 
+	@Test
+	public void testStockAvailability_batch_update_and_delete()
+	{
+		setupDummyCurrentUserForBPartnerId(1234);
+
+		createOrUpdateStockAvailability(PZN_1, 11);
+		createOrUpdateStockAvailability(PZN_2, 22);
+		createOrUpdateStockAvailability(PZN_3, 33);
+
+		final MSV3StockAvailabilityUpdatedEvent event = MSV3StockAvailabilityUpdatedEvent
+				.builder()
+				.eventVersion(MSV3EventVersion.of(++eventVersionCounter))
+				.deleteAllOtherItems(false)
+				.item(MSV3StockAvailability.builder()
+						.pzn(PZN_1.getValueAsLong())
+						.delete(true)
+						.build())
+				.item(MSV3StockAvailability.builder()
+						.pzn(PZN_2.getValueAsLong())
+						.qty(24)
+						.build())
+				.item(MSV3StockAvailability.builder()
+						.pzn(PZN_4.getValueAsLong())
+						.qty(44)
+						.build())
+				.build();
+		stockAvailabilityListener.onStockAvailabilityUpdatedEvent(event);
+
+		testStockAvailability(PZN_1, 11, 0);
+		testStockAvailability(PZN_2, 24, 24);
+		testStockAvailability(PZN_3, 33, 33); // not part of the event
+		testStockAvailability(PZN_4, 44, 44);
+	}
+
+	@Test
+	public void testStockAvailability_delete_and_recreate_within_one_event()
+	{
+		setupDummyCurrentUserForBPartnerId(1234);
+
+		createOrUpdateStockAvailability(PZN_1, 11);
+
+		final MSV3StockAvailabilityUpdatedEvent event = MSV3StockAvailabilityUpdatedEvent
+				.builder()
+				.eventVersion(MSV3EventVersion.of(++eventVersionCounter))
+				.deleteAllOtherItems(false)
+				.item(MSV3StockAvailability.builder()
+						.pzn(PZN_1.getValueAsLong())
+						.delete(true)
+						.build())
+				.item(MSV3StockAvailability.builder()
+						.pzn(PZN_1.getValueAsLong())
+						.qty(5)
+						.build())
+				.build();
+		stockAvailabilityListener.onStockAvailabilityUpdatedEvent(event);
+
+		testStockAvailability(PZN_1, 5, 5);
+		testStockAvailability(PZN_1, 11, 0);
+	}
+
 	@Test
 	public void testStockAvailability_UnknownPZN()
 	{
@@ -261,6 +321,25 @@ public class IntegrationTest
 		testStockAvailability(PZN_1, 150, 0);
 	}
 
+	@Test
+	public void testStockAvailability_ExcludedProduct_removed()
+	{
+		setupDummyCurrentUserForBPartnerId(1234);
+
+		createOrUpdateStockAvailability(PZN_1, 100);
+		excludeProduct(PZN_1, 1234);
+		testStockAvailability(PZN_1, 90, 0);
+
+		stockAvailabilityListener.onProductExcludesUpdateEvent(MSV3ProductExcludesUpdateEvent.builder()
+				.item(MSV3ProductExclude.builder()
+						.pzn(PZN_1)
+						.bpartnerId(1234)
+						.delete(true)
+						.build())
+				.build());
+		testStockAvailability(PZN_1, 90, 90);
+	}
+
 	@Test
 	@Ignore // ATM it's failing on some H2 unique index issue
 	public void testOrder()
@@ -97,6 +97,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @ApiResponses(value = { @ApiResponse(code = 401, message = "Unauthorized") })
 @RestController
@@ -246,6 +247,51 @@ public class DebugRestController
 		}
 	}
 
+	@GetMapping("/sqlQueryStatistics/_enable")
+	public void setSqlQueryStatisticsEnabled(@RequestParam("enabled") final boolean enabled)
+	{
+		userSession.assertLoggedIn();
+
+		if (enabled)
+		{
+			statisticsLogger.enable();
+		}
+		else
+		{
+			statisticsLogger.disable();
+		}
+	}
+
+	@GetMapping("/sqlQueryStatistics")
+	public List<String> getSqlQueryStatistics(
+			@RequestParam(name = "orderBy", required = false, defaultValue = "totalDuration") @ApiParam("One of: totalDuration, count, averageDuration") final String orderBy,
+			@RequestParam(name = "limit", required = false, defaultValue = "100") final int limit)
+	{
+		userSession.assertLoggedIn();
+
+		final String[] queries;
+		if ("totalDuration".equals(orderBy))
+		{
+			queries = statisticsLogger.getTopTotalDurationQueriesAsString();
+		}
+		else if ("count".equals(orderBy))
+		{
+			queries = statisticsLogger.getTopCountQueriesAsString();
+		}
+		else if ("averageDuration".equals(orderBy))
+		{
+			queries = statisticsLogger.getTopAverageDurationQueriesAsString();
+		}
+		else
+		{
+			throw new AdempiereException("Invalid orderBy: `" + orderBy + "`");
+		}
+
+		return Stream.of(queries)
+				.limit(limit > 0 ? limit : Long.MAX_VALUE)
+				.collect(GuavaCollectors.toImmutableList());
+	}
+
 	@RequestMapping(value = "/debugProtocol", method = RequestMethod.GET)
 	public void setDebugProtocol(@RequestParam("enabled") final boolean enabled)
 	{
@@ -2,19 +2,18 @@ package de.metas.ui.web.view;
 
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
 import org.adempiere.exceptions.AdempiereException;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 
 import de.metas.i18n.Language;
 import de.metas.impexp.excel.AbstractExcelExporter;
@@ -23,7 +22,7 @@ import de.metas.impexp.excel.CellValues;
 import de.metas.impexp.excel.ExcelExportConstants;
 import de.metas.impexp.excel.ExcelFormat;
 import de.metas.ui.web.view.descriptor.ViewLayout;
-import de.metas.ui.web.view.util.PageIndex;
+import de.metas.ui.web.window.datatypes.DocumentId;
 import de.metas.ui.web.window.datatypes.DocumentIdsSelection;
 import de.metas.ui.web.window.datatypes.json.DateTimeConverters;
 import de.metas.ui.web.window.datatypes.json.JSONLookupValue;
@@ -32,7 +31,6 @@ import de.metas.ui.web.window.datatypes.json.JSONNullValue;
 import de.metas.ui.web.window.datatypes.json.JSONOptions;
 import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
 import de.metas.ui.web.window.descriptor.DocumentLayoutElementFieldDescriptor;
-import de.metas.util.Check;
 import lombok.Builder;
 import lombok.NonNull;
 
@@ -58,12 +56,20 @@ import lombok.NonNull;
  * #L%
  */
 
+/**
+ * Exports the rows of a view to excel.
+ * <p>
+ * The rows are fetched page by page and, unless disabled via {@code de.metas.excel.UseStreamingWorkbookImplementation}, written to a streaming workbook,
+ * so that neither all rows nor all excel cells need to be in memory at the same time.
+ */
 /* package */ class ViewExcelExporter extends AbstractExcelExporter
 {
 	private final RowsSupplier rows;
-	private final ViewLayout layout;
 	private final JSONOptions jsonOpts;
-	private int rowNumber = 0;
+
+	private final ImmutableList<String> headerNames;
+	private final ImmutableList<String> fieldNames;
+	private final ImmutableList<DocumentFieldWidgetType> widgetTypes;
 
 	@Builder
 	private ViewExcelExporter(
@@ -76,13 +82,28 @@ import lombok.NonNull;
 			@NonNull final ZoneId zoneId)
 	{
 		super(excelFormat, constants);
-		this.layout = layout;
 		setLanguage(language);
 		jsonOpts = JSONOptions.builder()
 				.adLanguage(language.getAD_Language())
 				.zoneId(zoneId)
 				.build();
 
+		this.headerNames = layout.getElements()
+				.stream()
+				.map(element -> element.getCaption(language.getAD_Language()))
+				.collect(ImmutableList.toImmutableList());
+		this.fieldNames = layout.getElements()
+				.stream()
+				.map(element -> {
+					final Set<DocumentLayoutElementFieldDescriptor> fields = element.getFields();
+					return fields.iterator().next().getField();
+				})
+				.collect(ImmutableList.toImmutableList());
+		this.widgetTypes = layout.getElements()
+				.stream()
+				.map(element -> element.getWidgetType())
+				.collect(ImmutableList.toImmutableList());
+
 		if (rowIds.isAll())
 		{
 			this.rows = new AllRowsSupplier(
@@ -96,28 +117,15 @@ import lombok.NonNull;
 		}
 		else
 		{
-			this.rows = new ListRowsSupplier(view, rowIds);
+			this.rows = new ListRowsSupplier(
+					view,
+					rowIds,
+					getConstants().getAllRowsPageSize());
 		}
 
 		setFreezePane(0, 1);
 	}
 
-	private IViewRow getRow(final int rowIndex)
-	{
-		return rows.getRow(rowIndex);
-	}
-
-	private String getFieldName(final int columnIndex)
-	{
-		final Set<DocumentLayoutElementFieldDescriptor> fields = layout.getElements().get(columnIndex).getFields();
-		return fields.iterator().next().getField();
-	}
-
-	private DocumentFieldWidgetType getWidgetType(final int columnIndex)
-	{
-		return layout.getElements().get(columnIndex).getWidgetType();
-	}
-
 	@Override
 	public boolean isFunctionRow(final int row)
 	{
@@ -127,7 +135,7 @@ import lombok.NonNull;
 	@Override
 	public int getColumnCount()
 	{
-		return layout.getElements().size();
+		return fieldNames.size();
 	}
 
 	@Override
@@ -146,41 +154,28 @@ import lombok.NonNull;
 	public List<CellValue> getHeaderNames()
 	{
 		final ArrayList<CellValue> result = new ArrayList<>();
-		for (int i = 0; i < getColumnCount(); i++)
+		for (final String headerName : headerNames)
 		{
-			result.add(CellValues.toCellValue(getHeaderName(i)));
+			result.add(CellValues.toCellValue(headerName));
 		}
 		return result;
 	}
 
-	private String getHeaderName(final int col)
-	{
-		return layout.getElements().get(col).getCaption(getLanguage().getAD_Language());
-	}
-
 	@Override
 	public int getDisplayType(final int rowIndex_NOTUSED, final int columnIndex)
 	{
-		return getWidgetType(columnIndex).getDisplayType();
+		return widgetTypes.get(columnIndex).getDisplayType();
 	}
 
-	private CellValue getValueAt(final int rowIndex, final int columnIndex)
+	private CellValue getValueAt(@NonNull final IViewRow row, final int columnIndex)
 	{
-		final String fieldName = getFieldName(columnIndex);
-
-		final IViewRow row = getRow(rowIndex);
-		if (row == null)
-		{
-			return null;
-		}
-
-		final Object value = row.getFieldValueAsJsonObject(fieldName, jsonOpts);
+		final Object value = row.getFieldValueAsJsonObject(fieldNames.get(columnIndex), jsonOpts);
 		if (JSONNullValue.isNull(value))
 		{
 			return null;
 		}
 
-		final DocumentFieldWidgetType widgetType = getWidgetType(columnIndex);
+		final DocumentFieldWidgetType widgetType = widgetTypes.get(columnIndex);
 		if (widgetType.isDateOrTime())
 		{
 			return CellValue.ofDate(DateTimeConverters.fromObject(value, widgetType));
@@ -212,31 +207,30 @@ import lombok.NonNull;
 		return false;
 	}
 
+	/**
+	 * Supplies the rows in the order in which they are exported.
+	 */
 	private interface RowsSupplier
 	{
-		IViewRow getRow(int rowIndex);
+		boolean hasNextRow();
+
+		IViewRow nextRow();
 
 		int getRowCount();
 	}
 
+	/**
+	 * Fetches one page at a time.
+	 */
 	private static class AllRowsSupplier implements RowsSupplier
 	{
 		private final int pageSize;
 		private final IView view;
-		private final JSONOptions jsonOpts;
-
-		private LoadingCache<PageIndex, ViewResult> cache = CacheBuilder.newBuilder()
-				.maximumSize(2) // cache max 2 pages
-				.build(new CacheLoader<PageIndex, ViewResult>()
-				{
-					@Override
-					public ViewResult load(final PageIndex pageIndex)
-					{
-						final ViewRowsOrderBy orderBys = ViewRowsOrderBy.empty(jsonOpts); // default
-						return view.getPage(pageIndex.getFirstRow(), pageIndex.getPageLength(), orderBys);
-					}
+		private final ViewRowsOrderBy orderBys;
 
-				});
+		private int nextPageFirstRow = 0;
+		private boolean lastPageLoaded = false;
+		private Iterator<IViewRow> currentPage = ImmutableList.<IViewRow> of().iterator();
 
 		private AllRowsSupplier(
 				@NonNull final IView view,
@@ -245,40 +239,30 @@ import lombok.NonNull;
 		{
 			this.view = view;
 			this.pageSize = pageSize;
-			this.jsonOpts = jsonOpts;
+			this.orderBys = ViewRowsOrderBy.empty(jsonOpts); // default
 		}
 
-		private ViewResult getPage(final PageIndex pageIndex)
+		@Override
+		public boolean hasNextRow()
 		{
-			try
-			{
-				return cache.get(pageIndex);
-			}
-			catch (ExecutionException e)
+			if (!currentPage.hasNext() && !lastPageLoaded)
 			{
-				throw AdempiereException.wrapIfNeeded(e);
+				final List<IViewRow> page = view.getPage(nextPageFirstRow, pageSize, orderBys).getPage();
+				nextPageFirstRow += pageSize;
+				lastPageLoaded = page.size() < pageSize;
+				currentPage = page.iterator();
 			}
+			return currentPage.hasNext();
 		}
 
 		@Override
-		public IViewRow getRow(final int rowIndex)
+		public IViewRow nextRow()
 		{
-			final ViewResult page = getPage(PageIndex.getPageContainingRow(rowIndex, pageSize));
-
-			final int rowIndexInPage = rowIndex - page.getFirstRow();
-			if (rowIndexInPage < 0)
-			{
-				// shall not happen
-				return null;
-			}
-
-			final List<IViewRow> rows = page.getPage();
-			if (rowIndexInPage >= rows.size())
+			if (!hasNextRow())
 			{
-				return null;
+				throw new NoSuchElementException();
 			}
-
-			return rows.get(rowIndexInPage);
+			return currentPage.next();
 		}
 
 		@Override
@@ -288,51 +272,76 @@ import lombok.NonNull;
 		}
 	}
 
+	/**
+	 * Fetches the given rows one page at a time. Rows which don't exist (anymore) are skipped.
+	 */
 	private static class ListRowsSupplier implements RowsSupplier
 	{
-		private final ImmutableList<IViewRow> rows;
+		private final IView view;
+		private final Iterator<List<DocumentId>> rowIdPages;
 
-		private ListRowsSupplier(@NonNull final IView view, @NonNull DocumentIdsSelection rowIds)
-		{
-			Check.assume(!rowIds.isAll(), "rowIds is not ALL");
+		private Iterator<? extends IViewRow> currentPage = ImmutableList.<IViewRow> of().iterator();
+		private int rowCount = 0;
 
-			this.rows = view.streamByIds(rowIds).collect(ImmutableList.toImmutableList());
+		private ListRowsSupplier(
+				@NonNull final IView view,
+				@NonNull final DocumentIdsSelection rowIds,
+				final int pageSize)
+		{
+			this.view = view;
+			this.rowIdPages = Iterators.partition(rowIds.stream().iterator(), pageSize);
 		}
 
 		@Override
-		public IViewRow getRow(final int rowIndex)
+		public boolean hasNextRow()
 		{
-			Check.assume(rowIndex >= 0, "rowIndex >= 0");
-
-			final int rowsCount = rows.size();
-			Check.assume(rowIndex < rowsCount, "rowIndex < {}", rowsCount);
+			while (!currentPage.hasNext() && rowIdPages.hasNext())
+			{
+				currentPage = view.streamByIds(DocumentIdsSelection.of(rowIdPages.next()))
+						.collect(ImmutableList.toImmutableList())
+						.iterator();
+			}
+			return currentPage.hasNext();
+		}
 
-			return rows.get(rowIndex);
+		@Override
+		public IViewRow nextRow()
+		{
+			if (!hasNextRow())
+			{
+				throw new NoSuchElementException();
+			}
+			rowCount++;
+			return currentPage.next();
 		}
 
+		/**
+		 * @return the number of rows which were actually returned so far, i.e. without the rows that don't exist (anymore); final once all rows were exported
+		 */
 		@Override
 		public int getRowCount()
 		{
-			return rows.size();
+			return rowCount;
 		}
 	}
 
 	@Override
 	protected List<CellValue> getNextRow()
 	{
-		final ArrayList<CellValue> result = new ArrayList<>();
+		final IViewRow row = rows.nextRow();
+
+		final ArrayList<CellValue> result = new ArrayList<>(getColumnCount());
 		for (int i = 0; i < getColumnCount(); i++)
 		{
-			result.add(getValueAt(rowNumber, i));
+			result.add(getValueAt(row, i));
 		}
 
-		rowNumber++;
 		return result;
 	}
 
 	@Override
 	protected boolean hasNextRow()
 	{
-		return rowNumber < getRowCount();
+		return rows.hasNextRow();
 	}
 }